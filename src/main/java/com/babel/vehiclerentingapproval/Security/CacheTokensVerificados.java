@@ -0,0 +1,150 @@
+package com.babel.vehiclerentingapproval.Security;
+
+import io.jsonwebtoken.Claims;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache de los tokens JWT ya verificados, para no volver a comprobar la firma HMAC ni a parsear los claims de un token
+ * que el mismo cliente envia en cada peticion durante los 30 dias que es valido.
+ * <p>
+ * La clave es el SHA-256 del token, de modo que la cache no guarda los tokens. Cada entrada caduca cuando caduca su
+ * token, y las caducadas se purgan cada seguridad.jwt.cache.purga-ms. Como mucho hay seguridad.jwt.cache.max-entradas
+ * entradas; al superarlas se purgan las caducadas y, si no basta, se descartan otras cualesquiera, que se volveran a
+ * verificar en su siguiente peticion. Los tokens no validos no se guardan. Con max-entradas a 0 la cache no se usa.
+ */
+@Component
+@Log4j2
+public class CacheTokensVerificados {
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    });
+
+    private final int maxEntradas;
+    private final LongSupplier reloj;
+    private final Map<ByteBuffer, TokenVerificado> tokens = new ConcurrentHashMap<>();
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+
+    @Autowired
+    public CacheTokensVerificados(@Value("${seguridad.jwt.cache.max-entradas:10000}") int maxEntradas) {
+        this(maxEntradas, System::currentTimeMillis);
+    }
+
+    CacheTokensVerificados(int maxEntradas, LongSupplier reloj) {
+        this.maxEntradas = Math.max(0, maxEntradas);
+        this.reloj = reloj;
+    }
+
+    /**
+     * Devuelve la autenticacion del token, verificandolo solo si no esta ya en la cache
+     *
+     * @param token token JWS recibido en la cabecera Authorization
+     * @return la autenticacion del usuario del token, o null si el token no es valido o ha caducado
+     */
+    public UsernamePasswordAuthenticationToken getAuthentication(String token) {
+        if (maxEntradas == 0) {
+            return TokenUtils.getAuthentication(token);
+        }
+        ByteBuffer clave = resumen(token);
+        long ahora = reloj.getAsLong();
+        TokenVerificado verificado = tokens.get(clave);
+        if (verificado != null) {
+            if (ahora < verificado.expiracion) {
+                aciertos.increment();
+                return autenticacion(verificado.email);
+            }
+            tokens.remove(clave, verificado);
+        }
+        fallos.increment();
+
+        Claims claims = TokenUtils.getClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        if (claims.getExpiration() != null) {
+            tokens.put(clave, new TokenVerificado(claims.getSubject(), claims.getExpiration().getTime()));
+            if (tokens.size() > maxEntradas) {
+                this.reducir(ahora);
+            }
+        }
+        return autenticacion(claims.getSubject());
+    }
+
+    /**
+     * Descarta las entradas de los tokens ya caducados
+     *
+     * @return el numero de entradas descartadas
+     */
+    @Scheduled(fixedDelayString = "${seguridad.jwt.cache.purga-ms:60000}", initialDelayString = "${seguridad.jwt.cache.purga-ms:60000}")
+    public int purgar() {
+        long ahora = reloj.getAsLong();
+        int antes = tokens.size();
+        tokens.values().removeIf(verificado -> ahora >= verificado.expiracion);
+        int purgadas = Math.max(0, antes - tokens.size());
+        if (purgadas > 0) {
+            log.debug("Purgados {} tokens caducados de la cache, quedan {}", purgadas, tokens.size());
+        }
+        return purgadas;
+    }
+
+    public int getTamanio() {
+        return tokens.size();
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    private void reducir(long ahora) {
+        tokens.values().removeIf(verificado -> ahora >= verificado.expiracion);
+        Iterator<ByteBuffer> claves = tokens.keySet().iterator();
+        while (tokens.size() > maxEntradas && claves.hasNext()) {
+            claves.next();
+            claves.remove();
+        }
+    }
+
+    private static ByteBuffer resumen(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        sha256.reset();
+        return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static UsernamePasswordAuthenticationToken autenticacion(String email) {
+        return new UsernamePasswordAuthenticationToken(email, null, Collections.emptyList());
+    }
+
+    private static final class TokenVerificado {
+        private final String email;
+        private final long expiracion;
+
+        private TokenVerificado(String email, long expiracion) {
+            this.email = email;
+            this.expiracion = expiracion;
+        }
+    }
+}
@@ -6,11 +6,14 @@ import com.babel.vehiclerentingapproval.Security.TokenUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -56,4 +59,23 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
         response.getWriter().flush();
         super.successfulAuthentication(request, response, chain, authResult);
     }
+
+    /**
+     * Si el login se ha rechazado porque el pool de verificacion de contraseñas esta lleno se responde 503 con
+     * Retry-After en vez de 401, para que el cliente reintente en vez de dar las credenciales por incorrectas.
+     *
+     * @see PasswordEncoderAcotado
+     */
+    @Override
+    protected void unsuccessfulAuthentication(HttpServletRequest request,
+                                              HttpServletResponse response,
+                                              AuthenticationException failed) throws IOException, ServletException {
+        if (failed instanceof VerificacionSaturadaException) {
+            SecurityContextHolder.clearContext();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), failed.getMessage());
+            return;
+        }
+        super.unsuccessfulAuthentication(request, response, failed);
+    }
 }
@@ -1,6 +1,5 @@
 package com.babel.vehiclerentingapproval.Security;
 
-import com.babel.vehiclerentingapproval.Security.TokenUtils;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -12,8 +11,18 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
+/**
+ * Filtro que autentica cada peticion con el token JWT de la cabecera Authorization. Los tokens ya verificados se
+ * resuelven desde {@link CacheTokensVerificados} sin volver a comprobar la firma.
+ */
 @Component
 public class JWTAuthorizationFilter extends OncePerRequestFilter {
+    private final CacheTokensVerificados cacheTokensVerificados;
+
+    public JWTAuthorizationFilter(CacheTokensVerificados cacheTokensVerificados) {
+        this.cacheTokensVerificados = cacheTokensVerificados;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -22,7 +31,7 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")){
             String token = bearerToken.replace("Bearer","");
-            UsernamePasswordAuthenticationToken usernamePAT = TokenUtils.getAuthentication(token);
+            UsernamePasswordAuthenticationToken usernamePAT = cacheTokensVerificados.getAuthentication(token);
             SecurityContextHolder.getContext().setAuthentication(usernamePAT);
         }
         filterChain.doFilter(request,response);
@@ -0,0 +1,113 @@
+package com.babel.vehiclerentingapproval.Security;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PasswordEncoder BCrypt que verifica las contraseñas en un pool acotado de hilos propio.
+ * <p>
+ * Cada verificacion BCrypt ocupa una CPU durante decenas de milisegundos, asi que una rafaga de logins en los hilos de
+ * Tomcat los ocupa todos y deja sin servicio al resto de endpoints. Aqui como mucho se verifican {@code hilos}
+ * contraseñas a la vez y esperan {@code capacidadCola} mas; con la cola llena, o si la verificacion no termina en
+ * {@code esperaMs} milisegundos, se lanza {@link VerificacionSaturadaException} y el login responde 503 al momento.
+ * <p>
+ * La codificacion de contraseñas nuevas no pasa por el pool, porque no forma parte del login.
+ */
+@Log4j2
+public class PasswordEncoderAcotado implements PasswordEncoder, AutoCloseable {
+    private final BCryptPasswordEncoder bcrypt;
+    private final ThreadPoolExecutor executor;
+    private final long esperaMs;
+    private final LongAdder rechazadas = new LongAdder();
+
+    /**
+     * @param fuerza        coste de BCrypt (log2 de las rondas), entre 4 y 31
+     * @param hilos         verificaciones simultaneas; 0 o menos usa el numero de procesadores
+     * @param capacidadCola verificaciones que pueden esperar a un hilo libre
+     * @param esperaMs      tiempo maximo que espera el login a que termine la verificacion
+     */
+    public PasswordEncoderAcotado(int fuerza, int hilos, int capacidadCola, long esperaMs) {
+        this.bcrypt = new BCryptPasswordEncoder(fuerza);
+        this.esperaMs = esperaMs;
+        int tamanio = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        var counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(tamanio, tamanio, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, capacidadCola)), runnable -> {
+            var thread = new Thread(runnable, "bcrypt-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return bcrypt.encode(rawPassword);
+    }
+
+    /**
+     * Verifica la contraseña en el pool de BCrypt y espera al resultado
+     *
+     * @throws VerificacionSaturadaException si la cola esta llena o la verificacion no termina a tiempo
+     */
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Future<Boolean> verificacion;
+        try {
+            verificacion = executor.submit(() -> bcrypt.matches(rawPassword, encodedPassword));
+        } catch (RejectedExecutionException e) {
+            rechazadas.increment();
+            log.warn("Cola de verificacion de contraseñas llena, se rechaza el login");
+            throw new VerificacionSaturadaException("Demasiados inicios de sesion simultaneos, intentelo de nuevo en unos segundos");
+        }
+        try {
+            return verificacion.get(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            verificacion.cancel(true);
+            rechazadas.increment();
+            log.warn("La verificacion de la contraseña no ha terminado en {} ms, se rechaza el login", esperaMs);
+            throw new VerificacionSaturadaException("Demasiados inicios de sesion simultaneos, intentelo de nuevo en unos segundos");
+        } catch (InterruptedException e) {
+            verificacion.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new VerificacionSaturadaException("Verificacion de la contraseña interrumpida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return bcrypt.upgradeEncoding(encodedPassword);
+    }
+
+    public int getEnCola() {
+        return executor.getQueue().size();
+    }
+
+    public int getEnCurso() {
+        return executor.getActiveCount();
+    }
+
+    public long getRechazadas() {
+        return rechazadas.sum();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
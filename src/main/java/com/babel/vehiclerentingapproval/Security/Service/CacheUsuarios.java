@@ -0,0 +1,64 @@
+package com.babel.vehiclerentingapproval.Security.Service;
+
+import com.babel.vehiclerentingapproval.Security.usuario.CredencialesUsuario;
+import com.babel.vehiclerentingapproval.models.EstadisticasCache;
+import com.babel.vehiclerentingapproval.services.referencia.impl.CacheAcotada;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+
+/**
+ * Cache de corta duracion de las credenciales de los usuarios del login, para que una rafaga de logins (por ejemplo
+ * tras un despliegue) no consulte PERSONA una vez por cada intento.
+ * <p>
+ * Cada entrada dura seguridad.usuarios.cache.ttl-ms y hay como mucho seguridad.usuarios.cache.max-entradas. Quien
+ * modifica una persona debe invalidar su email con {@link #invalidar(String)}.
+ */
+@Component
+public class CacheUsuarios {
+    private final CacheAcotada<String, CredencialesUsuario> cache;
+
+    public CacheUsuarios(@Value("${seguridad.usuarios.cache.ttl-ms:60000}") long ttlMillis,
+                         @Value("${seguridad.usuarios.cache.max-entradas:10000}") int maxEntradas) {
+        this.cache = new CacheAcotada<>("USUARIOS", ttlMillis, maxEntradas);
+    }
+
+    /**
+     * Devuelve las credenciales del usuario desde la cache o, si no estan o han caducado, las carga
+     *
+     * @param email    email del usuario
+     * @param cargador funcion que carga las credenciales de la base de datos
+     * @return las credenciales, o null si no existe el usuario
+     */
+    public CredencialesUsuario obtener(String email, Function<String, CredencialesUsuario> cargador) {
+        return cache.obtener(email, cargador);
+    }
+
+    /**
+     * Descarta las credenciales del email. Si hay una transaccion en curso se descartan tambien al confirmarla, para
+     * que un login concurrente no deje en la cache los datos anteriores al cambio.
+     *
+     * @param email email del usuario; si es null no se hace nada
+     */
+    public void invalidar(String email) {
+        if (email == null) {
+            return;
+        }
+        cache.invalidar(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidar(email);
+                }
+            });
+        }
+    }
+
+    public EstadisticasCache getEstadisticas() {
+        return cache.estadisticas();
+    }
+}
@@ -1,36 +1,32 @@
 package com.babel.vehiclerentingapproval.Security.Service;
-import com.babel.vehiclerentingapproval.Security.usuario.Usuario;
-import com.babel.vehiclerentingapproval.models.Persona;
+import com.babel.vehiclerentingapproval.Security.usuario.CredencialesUsuario;
 import com.babel.vehiclerentingapproval.persistance.database.mappers.PersonaMapper;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 
+/**
+ * Carga los usuarios del login a partir de las personas. Solo se consultan el email, el nombre y la contraseña, y se
+ * cachean un tiempo corto en {@link CacheUsuarios}.
+ */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
-    @Autowired
-    private PersonaMapper personaMapper;
+    private final PersonaMapper personaMapper;
+    private final CacheUsuarios cacheUsuarios;
 
-    public UserDetailsServiceImpl(PersonaMapper personaMapper) {
+    public UserDetailsServiceImpl(PersonaMapper personaMapper, CacheUsuarios cacheUsuarios) {
         this.personaMapper = personaMapper;
+        this.cacheUsuarios = cacheUsuarios;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Persona persona = personaMapper.findEmailByEmail(username);
-        if (persona != null) {
-            List<GrantedAuthority> roles = Arrays.asList(new SimpleGrantedAuthority("ROLE_USER"));
-            return new UserDetailsImpl(persona.getEmail(), persona.getNombre(), persona.getPassword());
+        CredencialesUsuario credenciales = cacheUsuarios.obtener(username, personaMapper::getCredenciales);
+        if (credenciales != null) {
+            return new UserDetailsImpl(credenciales.getEmail(), credenciales.getNombre(), credenciales.getPassword());
         } else {
             throw new UsernameNotFoundException("User not found");
         }
     }
-}
\ No newline at end of file
+}
@@ -45,19 +45,30 @@ public class TokenUtils {
 
     }
 
-    public static UsernamePasswordAuthenticationToken getAuthentication(String token) {
+    /**
+     * Verifica la firma y la caducidad del token y devuelve sus claims
+     *
+     * @param token token JWS firmado con {@link #createToken(String, String)}
+     * @return los claims del token, o null si el token no es valido o ha caducado
+     */
+    public static Claims getClaims(String token) {
      try{
-         Claims claims = Jwts.parserBuilder()
+         return Jwts.parserBuilder()
                  .setSigningKey(ACCESS_TOKEN_SECRET_KEY)
                  .build()
                  .parseClaimsJws(token)
                  .getBody();
-
-         String email = claims.getSubject();
-         return new UsernamePasswordAuthenticationToken(email,null, Collections.emptyList());
      } catch(JwtException e) {
          return null;
      }
+    }
 
+    public static UsernamePasswordAuthenticationToken getAuthentication(String token) {
+        Claims claims = getClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        String email = claims.getSubject();
+        return new UsernamePasswordAuthenticationToken(email,null, Collections.emptyList());
     }
 }
@@ -0,0 +1,16 @@
+package com.babel.vehiclerentingapproval.Security;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+/**
+ * Se lanza cuando no se puede verificar una contraseña porque el pool de verificacion esta lleno. Extiende
+ * {@link InternalAuthenticationServiceException} para que el AuthenticationManager no lo trate como credenciales
+ * incorrectas ni pruebe con otro proveedor, y el filtro de login responde 503.
+ *
+ * @see PasswordEncoderAcotado
+ */
+public class VerificacionSaturadaException extends InternalAuthenticationServiceException {
+    public VerificacionSaturadaException(String message) {
+        super(message);
+    }
+}
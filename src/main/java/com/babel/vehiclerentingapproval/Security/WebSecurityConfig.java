@@ -3,6 +3,7 @@ package com.babel.vehiclerentingapproval.Security;
 import com.babel.vehiclerentingapproval.Security.Service.UserDetailsServiceImpl;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,7 +11,6 @@ import org.springframework.security.config.annotation.authentication.builders.Au
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -75,14 +75,24 @@ public class WebSecurityConfig{
     AuthenticationManager authManager(HttpSecurity http, PasswordEncoder passwordEncoder) throws Exception {
         return http.getSharedObject(AuthenticationManagerBuilder.class)
                 .userDetailsService(userDetailsService)
-                .passwordEncoder(passwordEncoder())
+                .passwordEncoder(passwordEncoder)
                 .and()
                 .build();
     }
 
+    /**
+     * Encoder BCrypt con el coste seguridad.bcrypt.fuerza que verifica las contraseñas del login en un pool acotado
+     * de seguridad.bcrypt.hilos hilos (0 = uno por procesador), con seguridad.bcrypt.capacidad-cola verificaciones en
+     * espera como mucho.
+     *
+     * @see PasswordEncoderAcotado
+     */
     @Bean
-    PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    PasswordEncoderAcotado passwordEncoder(@Value("${seguridad.bcrypt.fuerza:10}") int fuerza,
+                                           @Value("${seguridad.bcrypt.hilos:0}") int hilos,
+                                           @Value("${seguridad.bcrypt.capacidad-cola:64}") int capacidadCola,
+                                           @Value("${seguridad.bcrypt.espera-ms:5000}") long esperaMs){
+        return new PasswordEncoderAcotado(fuerza, hilos, capacidadCola, esperaMs);
     }
 
 
@@ -0,0 +1,36 @@
+package com.babel.vehiclerentingapproval.Security.usuario;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Clase que modela los datos de una persona que necesita el login: el email, el nombre para el token y el hash de la
+ * contraseña
+ *
+ * @see com.babel.vehiclerentingapproval.persistance.database.mappers.PersonaMapper#getCredenciales(String)
+ */
+public class CredencialesUsuario {
+    /**
+     * Email con el que inicia sesion la persona
+     */
+    @Getter @Setter
+    private String email;
+    /**
+     * Nombre de la persona, que se incluye en el token
+     */
+    @Getter @Setter
+    private String nombre;
+    /**
+     * Hash BCrypt de la contraseña
+     */
+    @Getter @Setter
+    private String password;
+
+    @Override
+    public String toString() {
+        return "CredencialesUsuario{" +
+                "email='" + getEmail() + '\'' +
+                ", nombre='" + getNombre() + '\'' +
+                '}';
+    }
+}
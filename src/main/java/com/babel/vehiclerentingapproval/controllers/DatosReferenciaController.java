@@ -0,0 +1,65 @@
+package com.babel.vehiclerentingapproval.controllers;
+
+import com.babel.vehiclerentingapproval.models.EstadisticasCache;
+import com.babel.vehiclerentingapproval.services.referencia.CatalogoResoluciones;
+import com.babel.vehiclerentingapproval.services.referencia.DatosReferencia;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Esta clase define los endpoints de administracion de la cache de datos de referencia.
+ */
+@Tag(name = "Administracion de datos de referencia", description = "Endpoints que consultan e invalidan la cache de paises, provincias y tipos de via y el catalogo de codigos de resolucion.")
+@RestController
+@RequestMapping("/admin/referencia")
+@Log4j2
+public class DatosReferenciaController {
+    private final DatosReferencia datosReferencia;
+    private final CatalogoResoluciones catalogoResoluciones;
+
+    public DatosReferenciaController(DatosReferencia datosReferencia, CatalogoResoluciones catalogoResoluciones) {
+        this.datosReferencia = datosReferencia;
+        this.catalogoResoluciones = catalogoResoluciones;
+    }
+
+    /**
+     * Devuelve el tamaño y los aciertos y fallos de cada cache de datos de referencia.
+     *
+     * @return un objeto ResponseEntity con las metricas de cada cache
+     * @see EstadisticasCache
+     */
+    @GetMapping("/estadisticas")
+    @Operation(summary = "Metricas de la cache de datos de referencia", description = "Devuelve el tamaño, los aciertos y los fallos de cada cache")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Metricas de las caches.", content = {@Content(mediaType = "application/json")})})
+    public ResponseEntity<List<EstadisticasCache>> getEstadisticas() {
+        log.info("Consultando las metricas de la cache de datos de referencia");
+        return ResponseEntity.ok(this.datosReferencia.getEstadisticas());
+    }
+
+    /**
+     * Vacia la cache de datos de referencia y la vuelve a cargar, junto con el catalogo de codigos de resolucion, para
+     * ver al momento un cambio en las tablas.
+     *
+     * @return un objeto ResponseEntity con las metricas de cada cache tras la recarga
+     */
+    @PostMapping("/invalidar")
+    @Operation(summary = "Invalidar la cache de datos de referencia", description = "Vacia todas las caches de datos de referencia y las vuelve a cargar de la base de datos")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Caches invalidadas y recargadas.", content = {@Content(mediaType = "application/json")})})
+    public ResponseEntity<List<EstadisticasCache>> invalidar() {
+        log.info("Invalidando la cache de datos de referencia");
+        this.datosReferencia.invalidar();
+        this.catalogoResoluciones.recargar();
+        return ResponseEntity.ok(this.datosReferencia.getEstadisticas());
+    }
+}
@@ -0,0 +1,41 @@
+package com.babel.vehiclerentingapproval.controllers;
+
+import com.babel.vehiclerentingapproval.models.JournalStats;
+import com.babel.vehiclerentingapproval.services.journal.SolicitudJournal;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Esta clase define el endpoint de consulta de las metricas del journal de solicitudes.
+ */
+@Tag(name = "Metricas del journal", description = "Endpoint que devuelve la profundidad de la cola y la latencia de volcado del journal de solicitudes.")
+@RestController
+@Log4j2
+public class JournalController {
+    private final SolicitudJournal solicitudJournal;
+
+    public JournalController(SolicitudJournal solicitudJournal) {
+        this.solicitudJournal = solicitudJournal;
+    }
+
+    /**
+     * Devuelve las metricas actuales del escritor del journal de solicitudes.
+     *
+     * @return un objeto ResponseEntity con las metricas del journal
+     * @see JournalStats
+     */
+    @GetMapping("/journal/stats")
+    @Operation(summary = "Metricas del journal de solicitudes", description = "Devuelve la profundidad de la cola, el tamaño del ultimo grupo y la latencia de volcado a disco")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Metricas del journal.", content = {@Content(mediaType = "application/json")})})
+    public ResponseEntity<JournalStats> getStats() {
+        log.info("Consultando metricas del journal de solicitudes");
+        return ResponseEntity.ok(this.solicitudJournal.getStats());
+    }
+}
@@ -0,0 +1,43 @@
+package com.babel.vehiclerentingapproval.controllers;
+
+import com.babel.vehiclerentingapproval.models.EstadisticasEnvioCorreo;
+import com.babel.vehiclerentingapproval.services.EmailService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Esta clase define el endpoint de consulta de las metricas del envio de correos electronicos.
+ */
+@Tag(name = "Metricas del envio de correos", description = "Endpoint que devuelve la profundidad de la cola, los envios en curso y rechazados y las conexiones con el servidor de correo.")
+@RestController
+@RequestMapping("/admin/notificaciones")
+@Log4j2
+public class NotificacionesController {
+    private final EmailService emailService;
+
+    public NotificacionesController(EmailService emailService) {
+        this.emailService = emailService;
+    }
+
+    /**
+     * Devuelve las metricas actuales del envio asincrono de correos.
+     *
+     * @return un objeto ResponseEntity con las metricas del envio de correos
+     * @see EstadisticasEnvioCorreo
+     */
+    @GetMapping("/estadisticas")
+    @Operation(summary = "Metricas del envio de correos", description = "Devuelve la profundidad de la cola, los envios en curso, los rechazados por cola llena y las conexiones SMTP abiertas")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Metricas del envio de correos.", content = {@Content(mediaType = "application/json")})})
+    public ResponseEntity<EstadisticasEnvioCorreo> getEstadisticas() {
+        log.info("Consultando metricas del envio de correos");
+        return ResponseEntity.ok(this.emailService.getEstadisticas());
+    }
+}
@@ -1,8 +1,10 @@
 package com.babel.vehiclerentingapproval.controllers;
 
 import com.babel.vehiclerentingapproval.exceptions.*;
+import com.babel.vehiclerentingapproval.models.FormatoImportacion;
 import com.babel.vehiclerentingapproval.models.Persona;
 import com.babel.vehiclerentingapproval.models.ProductoContratado;
+import com.babel.vehiclerentingapproval.services.ImportacionPersonasService;
 import com.babel.vehiclerentingapproval.services.PersonaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,6 +17,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,9 +35,11 @@ public class PersonaController {
 
 
     PersonaService personaService;
+    ImportacionPersonasService importacionPersonasService;
 
-    public PersonaController(PersonaService personaService) {
+    public PersonaController(PersonaService personaService, ImportacionPersonasService importacionPersonasService) {
         this.personaService = personaService;
+        this.importacionPersonasService = importacionPersonasService;
     }
 
     /**
@@ -64,6 +71,33 @@ public class PersonaController {
         
     }
 
+    /**
+     * Da de alta las personas de un fichero NDJSON o CSV con una persona por linea, leyendolo a medida que llega y
+     * escribiendo en la respuesta el resultado de cada linea a medida que se dan de alta.
+     * <p>
+     * Cada linea de la respuesta es un objeto JSON con el numero de linea y el ID de la persona creada o el motivo por
+     * el que no se ha creado. La ultima linea es el resumen de la importacion.
+     *
+     * @param request  peticion con el fichero en el cuerpo
+     * @param response respuesta donde se escriben los resultados
+     * @throws IOException si falla la lectura del fichero o la escritura de la respuesta
+     * @see ImportacionPersonasService
+     */
+    @PostMapping(value = "/persona/bulk", consumes = {"application/x-ndjson", "text/csv"}, produces = "application/x-ndjson")
+    @Operation(summary = "Alta masiva de personas", description = "Da de alta las personas de un fichero NDJSON o CSV y devuelve el resultado de cada linea y las personas dadas de alta por segundo")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Fichero procesado. Cada linea indica si la persona se ha añadido.", content = {@Content(mediaType = "application/x-ndjson")}),
+            @ApiResponse(responseCode = "415", description = "El fichero no es NDJSON ni CSV.", content = {@Content(mediaType = "application/json")})
+    })
+    public void addPersonas(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("Entrando en addPersonas");
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        var formato = FormatoImportacion.desdeContentType(request.getContentType());
+        this.importacionPersonasService.importar(request.getInputStream(), formato, response.getOutputStream());
+        log.info("Saliendo de addPersonas");
+    }
+
     /**
      * A partir del id de la persona, devuelve un objeto ResponseEntity con la información
      * de los productos contratados de la persona.
@@ -0,0 +1,52 @@
+package com.babel.vehiclerentingapproval.controllers;
+
+import com.babel.vehiclerentingapproval.models.PreAprobacionLote;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.PreAprobacionLoteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Esta clase define el endpoint de preaprobacion automatica por lotes de solicitudes de renting.
+ */
+@Tag(name = "Preaprobacion por lotes", description = "Endpoint que evalua la preaprobacion automatica de un lote de solicitudes de renting.")
+@RestController
+@RequestMapping("/solicitud/preaprobacion")
+@Log4j2
+public class PreAprobacionController {
+    private final PreAprobacionLoteService preAprobacionLoteService;
+
+    public PreAprobacionController(PreAprobacionLoteService preAprobacionLoteService) {
+        this.preAprobacionLoteService = preAprobacionLoteService;
+    }
+
+    /**
+     * Evalua las reglas de preaprobacion y predenegacion de un lote de solicitudes.
+     *
+     * @param solicitudIds lista JSON con los ids de las solicitudes a evaluar
+     * @return un objeto ResponseEntity con el resultado de cada solicitud, las no encontradas y el rendimiento del lote
+     * @see PreAprobacionLote
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Preaprobacion por lotes", description = "Devuelve el resultado automatico (AA, PA o DM) de cada solicitud del lote y las solicitudes evaluadas por segundo")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote evaluado.", content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "400", description = "La lista de solicitudes es nula o esta vacia.", content = {@Content(mediaType = "application/json")})
+    })
+    public ResponseEntity<PreAprobacionLote> evaluarLote(@RequestBody List<Integer> solicitudIds) {
+        log.info("Entrando en evaluarLote en PreAprobacionController");
+        PreAprobacionLote lote = this.preAprobacionLoteService.evaluarLote(solicitudIds);
+        log.info("Saliendo de evaluarLote en PreAprobacionController");
+        return ResponseEntity.ok(lote);
+    }
+}
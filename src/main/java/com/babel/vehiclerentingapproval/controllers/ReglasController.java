@@ -0,0 +1,90 @@
+package com.babel.vehiclerentingapproval.controllers;
+
+import com.babel.vehiclerentingapproval.models.EstadisticasReglas;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.MotorReglas;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Esta clase define los endpoints de administracion de las reglas automaticas de preaprobacion y predenegacion.
+ */
+@Tag(name = "Administracion de reglas", description = "Endpoints que consultan y recargan las reglas automaticas de preaprobacion y predenegacion.")
+@RestController
+@RequestMapping("/admin/reglas")
+@Log4j2
+public class ReglasController {
+    private final MotorReglas motorReglas;
+
+    public ReglasController(MotorReglas motorReglas) {
+        this.motorReglas = motorReglas;
+    }
+
+    /**
+     * Devuelve las reglas en uso en el orden en que se evaluan.
+     *
+     * @return un objeto ResponseEntity con la version de las reglas y su definicion
+     */
+    @GetMapping
+    @Operation(summary = "Reglas automaticas en uso", description = "Devuelve la version de las reglas y cada regla en orden de evaluacion")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Reglas en uso.", content = {@Content(mediaType = "application/json")})})
+    public ResponseEntity<Object> getReglas() {
+        log.info("Consultando las reglas automaticas en uso");
+        return ResponseEntity.ok(Map.of("version", this.motorReglas.getVersion(), "reglas", this.motorReglas.getReglas()));
+    }
+
+    /**
+     * Vuelve a leer y compilar el fichero de reglas sin reiniciar la aplicacion.
+     *
+     * @return un objeto ResponseEntity con la nueva version de las reglas y su definicion
+     */
+    @PostMapping("/recargar")
+    @Operation(summary = "Recargar reglas automaticas", description = "Vuelve a compilar el fichero de reglas; si no es valido se mantienen las reglas anteriores")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reglas recargadas.", content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "500", description = "El fichero de reglas no es valido.", content = {@Content(mediaType = "application/json")})
+    })
+    public ResponseEntity<Object> recargar() {
+        log.info("Recargando las reglas automaticas");
+        long version = this.motorReglas.recargar();
+        return ResponseEntity.ok(Map.of("version", version, "reglas", this.motorReglas.getReglas()));
+    }
+
+    /**
+     * Devuelve el orden actual de cada cadena de reglas con la latencia y la tasa de rechazo observadas de cada regla.
+     *
+     * @return un objeto ResponseEntity con el orden y las estadisticas de las reglas
+     * @see EstadisticasReglas
+     */
+    @GetMapping("/estadisticas")
+    @Operation(summary = "Orden y estadisticas de las reglas", description = "Devuelve cada cadena de reglas en su orden actual con las evaluaciones, la tasa de rechazo y la latencia media de cada regla")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Orden y estadisticas de las reglas.", content = {@Content(mediaType = "application/json")})})
+    public ResponseEntity<EstadisticasReglas> getEstadisticas() {
+        log.info("Consultando las estadisticas de las reglas automaticas");
+        return ResponseEntity.ok(this.motorReglas.getEstadisticas());
+    }
+
+    /**
+     * Reordena las cadenas de reglas con las estadisticas actuales sin esperar a la reordenacion periodica.
+     *
+     * @return un objeto ResponseEntity con el nuevo orden y las estadisticas de las reglas
+     */
+    @PostMapping("/reordenar")
+    @Operation(summary = "Reordenar reglas", description = "Reordena las cadenas de reglas segun la latencia y la tasa de rechazo observadas")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Reglas reordenadas.", content = {@Content(mediaType = "application/json")})})
+    public ResponseEntity<EstadisticasReglas> reordenar() {
+        log.info("Reordenando las reglas automaticas");
+        this.motorReglas.reordenar();
+        return ResponseEntity.ok(this.motorReglas.getEstadisticas());
+    }
+}
@@ -3,7 +3,9 @@ package com.babel.vehiclerentingapproval.controllers;
 import com.babel.vehiclerentingapproval.exceptions.PersonaNotFoundException;
 import com.babel.vehiclerentingapproval.exceptions.ProfesionNotFoundException;
 import com.babel.vehiclerentingapproval.exceptions.RentaFoundException;
+import com.babel.vehiclerentingapproval.models.FormatoImportacion;
 import com.babel.vehiclerentingapproval.models.Renta;
+import com.babel.vehiclerentingapproval.services.ImportacionRentasService;
 import com.babel.vehiclerentingapproval.services.RentaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,6 +20,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -39,8 +44,11 @@ public class RentaController {
     private static final String DESCRIPCION = "Descripcion: ";
     private static final String STATUS = "status: ";
 
-    public RentaController(RentaService rentaService) {
+    ImportacionRentasService importacionRentasService;
+
+    public RentaController(RentaService rentaService, ImportacionRentasService importacionRentasService) {
         this.rentaService = rentaService;
+        this.importacionRentasService = importacionRentasService;
     }
 
     /**
@@ -77,4 +85,31 @@ public class RentaController {
         log.info("Saliendo de addRenta");
         return new ResponseEntity<>(map, HttpStatus.OK);
     }
+
+    /**
+     * Da de alta las rentas anuales de un fichero NDJSON o CSV con una renta por linea, leyendolo a medida que llega y
+     * escribiendo en la respuesta el resultado de cada linea a medida que se dan de alta.
+     * <p>
+     * Cada linea de la respuesta es un objeto JSON con el numero de linea y el ID de la renta creada o el motivo por el
+     * que no se ha creado. La ultima linea es el resumen de la importacion, con las filas procesadas por segundo.
+     *
+     * @param request  peticion con el fichero en el cuerpo
+     * @param response respuesta donde se escriben los resultados
+     * @throws IOException si falla la lectura del fichero o la escritura de la respuesta
+     * @see ImportacionRentasService
+     */
+    @PostMapping(value = "/renta/bulk", consumes = {"application/x-ndjson", "text/csv"}, produces = "application/x-ndjson")
+    @Operation(summary = "Alta masiva de rentas", description = "Da de alta las rentas anuales de un fichero NDJSON o CSV y devuelve el resultado de cada linea y las filas procesadas por segundo")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Fichero procesado. Cada linea indica si la renta se ha añadido.", content = {@Content(mediaType = "application/x-ndjson")}),
+            @ApiResponse(responseCode = "415", description = "El fichero no es NDJSON ni CSV.", content = {@Content(mediaType = "application/json")})
+    })
+    public void addRentas(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("Entrando en addRentas");
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        var formato = FormatoImportacion.desdeContentType(request.getContentType());
+        this.importacionRentasService.importar(request.getInputStream(), formato, response.getOutputStream());
+        log.info("Saliendo de addRentas");
+    }
 }
@@ -2,6 +2,7 @@ package com.babel.vehiclerentingapproval.controllers;
 
 import com.babel.vehiclerentingapproval.exceptions.ResolucionSolicitudesNotFoundException;
 import com.babel.vehiclerentingapproval.services.ResolucionSolicitudesService;
+import com.babel.vehiclerentingapproval.services.referencia.VersionCatalogoResoluciones;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 /**
  * Esta clase define el endpoint de listado de tipos de resoluciones posibles para una solicitud.
  *
@@ -34,22 +36,31 @@ public class ResolucionSolicitudesController {
     /**
      * Devuelve un array de objetos en JSON con los códigos de resolución existentes en la base de datos.
      * <p>
+     * La respuesta lleva el ETag de la version del catalogo. Si el If-None-Match del cliente coincide con ese ETag
+     * (tambien como etiqueta debil, dentro de una lista o con *) se responde 304 sin cuerpo.
+     * <p>
      * El método maneja las siguientes excepciones:
      * - ResolucionSolicitudesNotFoundException si no se encuentra ningun codigo de resolucion de solicitudes.
      * <p>
      * En caso de cualquier otra excepción, se devuelve un error interno del servidor.
      *
+     * @param request la peticion, de la que se toma el If-None-Match
      * @return un objeto ResponseEntity que contiene la información de la solicitud creada, que contiene los codigos de
-     * resolución que existen
+     * resolución que existen, o null si el catalogo no ha cambiado y ya se ha preparado la respuesta 304
      */
     @ExceptionHandler(ResolucionSolicitudesNotFoundException.class)
     @GetMapping("/listarTiposResolucion")
     @Operation(summary = "Listar los tipos de resolucion de solicitudes", description = "Lista los tipos de resolucion de solicitudes existentes en la base de datos")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Existen datos en la base de datos y se devuelven.", content = {@Content(mediaType = "application/json")}),
+            @ApiResponse(responseCode = "304", description = "El catalogo no ha cambiado desde el ETag indicado."),
             @ApiResponse(responseCode = "204", description = "No existen tipos de solicitudes en la base de datos.", content = {@Content(mediaType = "application/json")})
     })
-    public ResponseEntity<Object> listarTiposResolucion() throws ResolucionSolicitudesNotFoundException {
+    public ResponseEntity<Object> listarTiposResolucion(WebRequest request) throws ResolucionSolicitudesNotFoundException {
         log.info("Entrando en listarTiposResolucionController");
-        return ResponseEntity.ok(this.resolucionSolicitudesService.getTipoResolucionesSolicitudes());
+        VersionCatalogoResoluciones catalogo = this.resolucionSolicitudesService.getCatalogoResoluciones();
+        if (request.checkNotModified(catalogo.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(catalogo.getEtag()).body(catalogo.getResoluciones());
     }
 }
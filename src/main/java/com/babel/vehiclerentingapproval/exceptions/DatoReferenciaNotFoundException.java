@@ -0,0 +1,24 @@
+package com.babel.vehiclerentingapproval.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * La clase DatoReferenciaNotFoundException representa una excepción personalizada que se lanza cuando
+ * un código de los datos de referencia (país, provincia o tipo de vía) no existe. A diferencia de
+ * InputIsNullOrIsEmpty, el campo sí viene informado pero con un valor desconocido.
+ */
+public class DatoReferenciaNotFoundException extends ApplicationException {
+
+    private static final String EXTERNAL_MESSAGE = "El valor %s del campo %s no existe en los datos de referencia.";
+
+    /**
+     * Crea una nueva instancia de DatoReferenciaNotFoundException con el campo y el código no encontrado.
+     *
+     * @param campo      nombre del campo con el código desconocido
+     * @param codigo     código que no existe en los datos de referencia
+     * @param statusCode el código de estado HTTP asociado
+     */
+    public DatoReferenciaNotFoundException (String campo, Object codigo, HttpStatus statusCode) {
+        super(EXTERNAL_MESSAGE, statusCode, new String[]{String.valueOf(codigo), campo});
+    }
+}
@@ -0,0 +1,15 @@
+package com.babel.vehiclerentingapproval.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Esta clase excepción se lanza cuando el fichero de reglas automaticas no se puede leer o alguna regla declarada
+ * no es valida. Mientras tanto se siguen usando las reglas cargadas anteriormente.
+ */
+public class ReglaInvalidaException extends ApplicationException {
+    private static final String EXTERNAL_MESSAGE = "La regla %s no es valida: %s";
+
+    public ReglaInvalidaException(String regla, String motivo, HttpStatus statusCode) {
+        super(EXTERNAL_MESSAGE, statusCode, new String[]{regla, motivo});
+    }
+}
@@ -0,0 +1,43 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Clase que modela los datos que necesita un cambio de estado de una solicitud de renting: la solicitud, su estado
+ * actual y el email del titular al que se notifica el cambio. Se carga en una sola consulta.
+ *
+ * @see com.babel.vehiclerentingapproval.persistance.database.mappers.SolicitudRentingMapper#getCambioEstado(int)
+ */
+public class CambioEstadoSolicitud {
+    /**
+     * Identificador de la solicitud de renting
+     */
+    @Getter @Setter
+    private int solicitudId;
+    /**
+     * Identificador de la persona titular de la solicitud
+     */
+    @Getter @Setter
+    private int personaId;
+    /**
+     * Codigo de resolucion que tiene la solicitud antes del cambio, null si no tiene
+     */
+    @Getter @Setter
+    private String codResolucionActual;
+    /**
+     * Email del titular de la solicitud
+     */
+    @Getter @Setter
+    private String email;
+
+    @Override
+    public String toString() {
+        return "CambioEstadoSolicitud{" +
+                "solicitudId=" + getSolicitudId() +
+                ", personaId=" + getPersonaId() +
+                ", codResolucionActual='" + getCodResolucionActual() + '\'' +
+                ", email='" + getEmail() + '\'' +
+                '}';
+    }
+}
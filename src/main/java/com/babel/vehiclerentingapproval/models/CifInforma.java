@@ -0,0 +1,30 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Clase que modela una fila de la tabla INFORMA tal y como la lee el registro de CIF en memoria
+ *
+ * @see com.babel.vehiclerentingapproval.persistance.database.mappers.InformaMapper
+ */
+public class CifInforma {
+    /**
+     * CIF de la empresa
+     */
+    @Getter @Setter
+    private String cif;
+    /**
+     * SCN de Oracle del ultimo cambio del bloque de la fila (ORA_ROWSCN), para las cargas incrementales
+     */
+    @Getter @Setter
+    private long scn;
+
+    @Override
+    public String toString() {
+        return "CifInforma{" +
+                "cif='" + getCif() + '\'' +
+                ", scn=" + getScn() +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * Clase que modela un correo electronico de un envio masivo
+ *
+ * @see com.babel.vehiclerentingapproval.services.EmailService#sendMails(java.util.List)
+ */
+public class CorreoElectronico {
+    /**
+     * Correo electronico del destinatario
+     */
+    @Getter
+    private final String destino;
+    /**
+     * Asunto del correo electronico
+     */
+    @Getter
+    private final String asunto;
+    /**
+     * Texto del correo electronico
+     */
+    @Getter
+    private final String mensaje;
+
+    public CorreoElectronico(String destino, String asunto, String mensaje) {
+        this.destino = destino;
+        this.asunto = asunto;
+        this.mensaje = mensaje;
+    }
+
+    /**
+     * @return el dominio del destinatario en minusculas, o una cadena vacia si el destino no tiene @
+     */
+    public String getDominio() {
+        if (destino == null) {
+            return "";
+        }
+        return destino.substring(destino.lastIndexOf('@') + 1).trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return "CorreoElectronico{" +
+                "destino='" + getDestino() + '\'' +
+                ", asunto='" + getAsunto() + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,48 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Clase que modela las metricas de una de las caches de datos de referencia
+ *
+ * @see com.babel.vehiclerentingapproval.services.referencia.DatosReferencia
+ */
+public class EstadisticasCache {
+    /**
+     * Nombre de la cache, que coincide con la tabla que cachea
+     */
+    @Getter @Setter
+    private String nombre;
+    /**
+     * Numero de entradas en la cache, incluidas las caducadas que aun no se han sustituido
+     */
+    @Getter @Setter
+    private int tamanio;
+    /**
+     * Tamaño maximo de la cache; al superarlo se descarta la entrada usada hace mas tiempo
+     */
+    @Getter @Setter
+    private int tamanioMaximo;
+    /**
+     * Consultas resueltas desde la cache desde el arranque
+     */
+    @Getter @Setter
+    private long aciertos;
+    /**
+     * Consultas que han tenido que ir a la base de datos desde el arranque
+     */
+    @Getter @Setter
+    private long fallos;
+
+    @Override
+    public String toString() {
+        return "EstadisticasCache{" +
+                "nombre='" + getNombre() + '\'' +
+                ", tamanio=" + getTamanio() +
+                ", tamanioMaximo=" + getTamanioMaximo() +
+                ", aciertos=" + getAciertos() +
+                ", fallos=" + getFallos() +
+                '}';
+    }
+}
@@ -0,0 +1,73 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Clase que modela las metricas del envio asincrono de correos electronicos y de las conexiones con el servidor de
+ * correo
+ *
+ * @see com.babel.vehiclerentingapproval.services.EmailService#getEstadisticas()
+ */
+public class EstadisticasEnvioCorreo {
+    /**
+     * Hilos dedicados al envio asincrono de correos
+     */
+    @Getter @Setter
+    private int hilos;
+    /**
+     * Numero maximo de envios que pueden esperar en la cola; al superarlo se rechazan
+     */
+    @Getter @Setter
+    private int capacidadCola;
+    /**
+     * Envios que esperan en la cola a un hilo libre
+     */
+    @Getter @Setter
+    private int enCola;
+    /**
+     * Envios en curso en este momento
+     */
+    @Getter @Setter
+    private int enCurso;
+    /**
+     * Envios asincronos completados con exito desde el arranque
+     */
+    @Getter @Setter
+    private long enviados;
+    /**
+     * Envios asincronos fallidos desde el arranque
+     */
+    @Getter @Setter
+    private long fallidos;
+    /**
+     * Envios rechazados desde el arranque por tener la cola llena
+     */
+    @Getter @Setter
+    private long rechazados;
+    /**
+     * Conexiones abiertas con el servidor de correo, libres o en uso
+     */
+    @Getter @Setter
+    private int conexionesAbiertas;
+    /**
+     * Conexiones abiertas con el servidor de correo que no se estan usando
+     */
+    @Getter @Setter
+    private int conexionesLibres;
+
+    @Override
+    public String toString() {
+        return "EstadisticasEnvioCorreo{" +
+                "hilos=" + getHilos() +
+                ", capacidadCola=" + getCapacidadCola() +
+                ", enCola=" + getEnCola() +
+                ", enCurso=" + getEnCurso() +
+                ", enviados=" + getEnviados() +
+                ", fallidos=" + getFallidos() +
+                ", rechazados=" + getRechazados() +
+                ", conexionesAbiertas=" + getConexionesAbiertas() +
+                ", conexionesLibres=" + getConexionesLibres() +
+                '}';
+    }
+}
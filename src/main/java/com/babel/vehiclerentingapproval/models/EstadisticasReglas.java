@@ -0,0 +1,51 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Clase que modela el orden de evaluacion actual de cada cadena de reglas automaticas junto con las estadisticas
+ * de cada regla
+ *
+ * @see ReglaEstadisticas
+ */
+public class EstadisticasReglas {
+    /**
+     * Version de las reglas en uso
+     */
+    @Getter @Setter
+    private long version;
+    /**
+     * Numero de veces que se ha cambiado el orden de evaluacion desde que se cargaron las reglas
+     */
+    @Getter @Setter
+    private long reordenaciones;
+    /**
+     * Reglas de predenegacion en orden de evaluacion; la cadena se corta en la primera que se cumple
+     */
+    @Getter @Setter
+    private List<ReglaEstadisticas> denegacion;
+    /**
+     * Reglas de preaprobacion en el orden en que se comprueba si se cumplen todas; la cadena se corta en la primera que falla
+     */
+    @Getter @Setter
+    private List<ReglaEstadisticas> aprobacionTodas;
+    /**
+     * Reglas de preaprobacion en el orden en que se comprueba si se cumple alguna; la cadena se corta en la primera que se cumple
+     */
+    @Getter @Setter
+    private List<ReglaEstadisticas> aprobacionAlguna;
+
+    @Override
+    public String toString() {
+        return "EstadisticasReglas{" +
+                "version=" + getVersion() +
+                ", reordenaciones=" + getReordenaciones() +
+                ", denegacion=" + getDenegacion() +
+                ", aprobacionTodas=" + getAprobacionTodas() +
+                ", aprobacionAlguna=" + getAprobacionAlguna() +
+                '}';
+    }
+}
@@ -0,0 +1,89 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Clase que modela el vector de resultados de las reglas automaticas de una solicitud, con un bit por regla.
+ * La posicion de cada regla en el vector es su posicion en el fichero de reglas con el que se evalua.
+ * Cada regla se evalua como mucho una vez por evaluacion; las reglas que no ha hecho falta evaluar quedan sin bit.
+ *
+ * @see ReglaDefinicion
+ */
+public class EvaluacionReglas {
+    /**
+     * Nombres de las reglas por posicion en el vector
+     */
+    private final List<String> nombres;
+    /**
+     * Reglas ya evaluadas
+     */
+    private final BitSet evaluadas;
+    /**
+     * Reglas evaluadas que se cumplen
+     */
+    private final BitSet cumplidas;
+    /**
+     * Version del conjunto de reglas con el que se ha evaluado la solicitud
+     */
+    @Getter
+    private final long versionReglas;
+    /**
+     * Resultado derivado del vector: AA = Aprobada, PA = Pendiente Aprobacion, DM = Predenegacion Automatica
+     */
+    @Getter @Setter
+    private String resultado;
+
+    public EvaluacionReglas(List<String> nombres, long versionReglas) {
+        this.nombres = nombres;
+        this.versionReglas = versionReglas;
+        this.evaluadas = new BitSet(nombres.size());
+        this.cumplidas = new BitSet(nombres.size());
+    }
+
+    public boolean isEvaluada(int regla) {
+        return evaluadas.get(regla);
+    }
+
+    public boolean isCumplida(int regla) {
+        return cumplidas.get(regla);
+    }
+
+    /**
+     * Guarda el resultado de una regla en el vector
+     *
+     * @param regla    posicion de la regla evaluada
+     * @param cumplida true si la regla se cumple
+     */
+    public void registrar(int regla, boolean cumplida) {
+        evaluadas.set(regla);
+        cumplidas.set(regla, cumplida);
+    }
+
+    /**
+     * Devuelve el desglose de las reglas evaluadas para explicar el resultado
+     *
+     * @return mapa con el nombre de cada regla evaluada y si se cumple
+     */
+    public Map<String, Boolean> getReglas() {
+        Map<String, Boolean> reglas = new LinkedHashMap<>();
+        for (int regla = evaluadas.nextSetBit(0); regla >= 0; regla = evaluadas.nextSetBit(regla + 1)) {
+            reglas.put(nombres.get(regla), isCumplida(regla));
+        }
+        return reglas;
+    }
+
+    @Override
+    public String toString() {
+        return "EvaluacionReglas{" +
+                "resultado='" + getResultado() + '\'' +
+                ", versionReglas=" + getVersionReglas() +
+                ", reglas=" + getReglas() +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package com.babel.vehiclerentingapproval.models;
+
+/**
+ * Formatos de fichero aceptados en las importaciones masivas
+ */
+public enum FormatoImportacion {
+    /**
+     * Un objeto JSON por linea (application/x-ndjson)
+     */
+    NDJSON("application/x-ndjson"),
+    /**
+     * Valores separados por comas con una primera linea de cabecera (text/csv)
+     */
+    CSV("text/csv");
+
+    private final String mediaType;
+
+    FormatoImportacion(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @param contentType cabecera Content-Type de la peticion, con o sin parametros
+     * @return el formato correspondiente, o null si no es ninguno de los aceptados
+     */
+    public static FormatoImportacion desdeContentType(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        String tipo = contentType.split(";", 2)[0].trim();
+        for (FormatoImportacion formato : values()) {
+            if (formato.mediaType.equalsIgnoreCase(tipo)) {
+                return formato;
+            }
+        }
+        return null;
+    }
+}
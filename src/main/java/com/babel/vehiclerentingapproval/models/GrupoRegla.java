@@ -0,0 +1,17 @@
+package com.babel.vehiclerentingapproval.models;
+
+/**
+ * Grupo al que pertenece una regla automatica de una solicitud de renting
+ *
+ * @see ReglaDefinicion
+ */
+public enum GrupoRegla {
+    /**
+     * Regla de predenegacion: si se cumple alguna la solicitud queda predenegada (DM)
+     */
+    DENEGACION,
+    /**
+     * Regla de preaprobacion: si se cumplen todas la solicitud queda aprobada (AA) y si se cumple alguna pendiente (PA)
+     */
+    APROBACION
+}
@@ -0,0 +1,37 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Clase que modela una fila de IDs reservados de las secuencias de DIRECCION, PERSONA y TELEFONO_CONTACTO para un
+ * alta de personas en lote
+ *
+ * @see com.babel.vehiclerentingapproval.persistance.database.mappers.AltaPersonaMapper
+ */
+public class IdsAltaPersona {
+    /**
+     * Siguiente valor de DIRECCION_SEQ
+     */
+    @Getter @Setter
+    private int direccionId;
+    /**
+     * Siguiente valor de PERSONA_SEQ
+     */
+    @Getter @Setter
+    private int personaId;
+    /**
+     * Siguiente valor de TELEFONO_CONTACTO_SEQ
+     */
+    @Getter @Setter
+    private int telefonoId;
+
+    public IdsAltaPersona() {
+    }
+
+    public IdsAltaPersona(int direccionId, int personaId, int telefonoId) {
+        this.direccionId = direccionId;
+        this.personaId = personaId;
+        this.telefonoId = telefonoId;
+    }
+}
@@ -0,0 +1,55 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+
+/**
+ * Clase que modela un registro del journal de solicitudes de renting.
+ * Cada registro ocupa un hueco de tamaño fijo en el segmento: secuencia, instante en nanosegundos y id de la solicitud.
+ *
+ * @see com.babel.vehiclerentingapproval.services.journal.SolicitudJournal
+ */
+public class JournalRecord {
+    /**
+     * Id de solicitud de los registros anulados: secuencias reservadas cuyo alta no llego a publicarse porque el journal
+     * no avanzaba. Ocupan su hueco para que el segmento siga siendo contiguo y no se devuelven al reproducir el journal.
+     */
+    public static final int SOLICITUD_ANULADA = -1;
+
+    /**
+     * Numero de secuencia del registro dentro del journal, empezando en 1
+     */
+    @Getter
+    private final long sequence;
+    /**
+     * Instante de registro expresado en nanosegundos desde epoch
+     */
+    @Getter
+    private final long epochNanos;
+    /**
+     * Identificador de la solicitud de renting registrada
+     */
+    @Getter
+    private final int solicitudId;
+
+    /**
+     * Constructor del registro, pasandole como parametros los atributos explicados anteriormente
+     *
+     * @param sequence
+     * @param epochNanos
+     * @param solicitudId
+     */
+    public JournalRecord(long sequence, long epochNanos, int solicitudId) {
+        this.sequence = sequence;
+        this.epochNanos = epochNanos;
+        this.solicitudId = solicitudId;
+    }
+
+    @Override
+    public String toString() {
+        return "JournalRecord{" +
+                "sequence=" + getSequence() +
+                ", epochNanos=" + getEpochNanos() +
+                ", solicitudId=" + getSolicitudId() +
+                '}';
+    }
+}
@@ -0,0 +1,72 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Clase que modela las metricas del escritor del journal de solicitudes
+ *
+ * @see com.babel.vehiclerentingapproval.services.journal.SolicitudJournal
+ */
+public class JournalStats {
+    /**
+     * Politica de volcado a disco configurada
+     */
+    @Getter @Setter
+    private String flushPolicy;
+    /**
+     * Registros reservados que todavia no ha escrito el hilo escritor
+     */
+    @Getter @Setter
+    private long queueDepth;
+    /**
+     * Ultima secuencia reservada por una peticion
+     */
+    @Getter @Setter
+    private long lastSequence;
+    /**
+     * Ultima secuencia volcada a disco
+     */
+    @Getter @Setter
+    private long durableSequence;
+    /**
+     * Numero de volcados a disco realizados desde el arranque
+     */
+    @Getter @Setter
+    private long flushCount;
+    /**
+     * Numero de registros del ultimo grupo volcado
+     */
+    @Getter @Setter
+    private long lastGroupSize;
+    /**
+     * Duracion del ultimo volcado a disco en microsegundos
+     */
+    @Getter @Setter
+    private long lastFlushLatencyMicros;
+    /**
+     * Duracion maxima de un volcado a disco en microsegundos
+     */
+    @Getter @Setter
+    private long maxFlushLatencyMicros;
+    /**
+     * Duracion media de los volcados a disco en microsegundos
+     */
+    @Getter @Setter
+    private long avgFlushLatencyMicros;
+
+    @Override
+    public String toString() {
+        return "JournalStats{" +
+                "flushPolicy='" + getFlushPolicy() + '\'' +
+                ", queueDepth=" + getQueueDepth() +
+                ", lastSequence=" + getLastSequence() +
+                ", durableSequence=" + getDurableSequence() +
+                ", flushCount=" + getFlushCount() +
+                ", lastGroupSize=" + getLastGroupSize() +
+                ", lastFlushLatencyMicros=" + getLastFlushLatencyMicros() +
+                ", maxFlushLatencyMicros=" + getMaxFlushLatencyMicros() +
+                ", avgFlushLatencyMicros=" + getAvgFlushLatencyMicros() +
+                '}';
+    }
+}
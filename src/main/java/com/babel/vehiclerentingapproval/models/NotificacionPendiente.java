@@ -0,0 +1,56 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Clase que modela una notificacion por correo electronico de la tabla NOTIFICACION_OUTBOX pendiente de enviar
+ *
+ * @see com.babel.vehiclerentingapproval.persistance.database.mappers.NotificacionOutboxMapper
+ */
+public class NotificacionPendiente {
+    /**
+     * Identificador de la notificacion
+     */
+    @Getter @Setter
+    private long notificacionId;
+    /**
+     * Correo electronico del destinatario
+     */
+    @Getter @Setter
+    private String destino;
+    /**
+     * Asunto del correo electronico
+     */
+    @Getter @Setter
+    private String asunto;
+    /**
+     * Texto del correo electronico
+     */
+    @Getter @Setter
+    private String mensaje;
+    /**
+     * Numero de intentos de envio fallidos hasta ahora
+     */
+    @Getter @Setter
+    private int intentos;
+
+    public NotificacionPendiente() {
+    }
+
+    public NotificacionPendiente(String destino, String asunto, String mensaje) {
+        this.destino = destino;
+        this.asunto = asunto;
+        this.mensaje = mensaje;
+    }
+
+    @Override
+    public String toString() {
+        return "NotificacionPendiente{" +
+                "notificacionId=" + getNotificacionId() +
+                ", destino='" + getDestino() + '\'' +
+                ", asunto='" + getAsunto() + '\'' +
+                ", intentos=" + getIntentos() +
+                '}';
+    }
+}
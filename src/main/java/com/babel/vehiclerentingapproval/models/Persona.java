@@ -116,6 +116,9 @@ public class Persona {
     @Getter @Setter
     private String password;
 
+    public Persona() {
+    }
+
 public Persona(String email, String nombre, String password){}
 
     @Override
@@ -0,0 +1,78 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Date;
+
+/**
+ * Clase que modela los campos modificables de una persona tal como estan guardados en la tabla PERSONA, para saber que
+ * columnas cambia una modificacion
+ *
+ * @see com.babel.vehiclerentingapproval.persistance.database.mappers.PersonaMapper#getPersonaGuardada(int)
+ */
+public class PersonaGuardada {
+    /**
+     * Identificador de la persona
+     */
+    @Getter @Setter
+    private int personaId;
+    /**
+     * Nombre de la persona
+     */
+    @Getter @Setter
+    private String nombre;
+    /**
+     * Primer apellido de la persona
+     */
+    @Getter @Setter
+    private String apellido1;
+    /**
+     * Segundo apellido de la persona
+     */
+    @Getter @Setter
+    private String apellido2;
+    /**
+     * Identificador de la direccion de domicilio
+     */
+    @Getter @Setter
+    private int direccionDomicilioId;
+    /**
+     * Identificador de la direccion de notificacion
+     */
+    @Getter @Setter
+    private int direccionNotificacionId;
+    /**
+     * NIF de la persona
+     */
+    @Getter @Setter
+    private String nif;
+    /**
+     * Fecha de nacimiento de la persona
+     */
+    @Getter @Setter
+    private Date fechaNacimiento;
+    /**
+     * Codigo ISO alfa-2 del pais de nacionalidad
+     */
+    @Getter @Setter
+    private String nacionalidad;
+    /**
+     * Scoring de la persona
+     */
+    @Getter @Setter
+    private int scoring;
+    /**
+     * Fecha del scoring
+     */
+    @Getter @Setter
+    private Date fechaScoring;
+    /**
+     * Correo electronico de la persona
+     */
+    @Getter @Setter
+    private String email;
+
+    public PersonaGuardada() {
+    }
+}
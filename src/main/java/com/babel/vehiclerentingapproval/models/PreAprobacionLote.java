@@ -0,0 +1,50 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Clase que modela el resultado de evaluar un lote de solicitudes de renting, junto con el rendimiento de la evaluacion
+ *
+ * @see PreAprobacionResultado
+ */
+public class PreAprobacionLote {
+    /**
+     * Resultados de las solicitudes evaluadas, en el mismo orden en el que se pidieron
+     */
+    @Getter @Setter
+    private List<PreAprobacionResultado> resultados;
+    /**
+     * Ids de las solicitudes pedidas que no existen en la base de datos
+     */
+    @Getter @Setter
+    private List<Integer> noEncontradas;
+    /**
+     * Numero de bloques en los que se ha dividido el lote
+     */
+    @Getter @Setter
+    private int bloques;
+    /**
+     * Tiempo total de la evaluacion del lote en milisegundos
+     */
+    @Getter @Setter
+    private long tiempoMillis;
+    /**
+     * Solicitudes evaluadas por segundo
+     */
+    @Getter @Setter
+    private double solicitudesPorSegundo;
+
+    @Override
+    public String toString() {
+        return "PreAprobacionLote{" +
+                "resultados=" + getResultados() +
+                ", noEncontradas=" + getNoEncontradas() +
+                ", bloques=" + getBloques() +
+                ", tiempoMillis=" + getTiempoMillis() +
+                ", solicitudesPorSegundo=" + getSolicitudesPorSegundo() +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Clase que modela el resultado de la preaprobacion automatica de una solicitud dentro de un lote
+ *
+ * @see PreAprobacionLote
+ */
+public class PreAprobacionResultado {
+    /**
+     * Identificador de la solicitud de renting evaluada
+     */
+    @Getter
+    private final int solicitudId;
+    /**
+     * Resultado de la evaluacion: AA = Aprobada, PA = Pendiente Aprobacion, DM = Predenegacion Automatica
+     */
+    @Getter
+    private final String resultado;
+    /**
+     * Desglose de las reglas evaluadas y si se cumplen, para explicar el resultado
+     */
+    @Getter
+    private final Map<String, Boolean> reglas;
+
+    public PreAprobacionResultado(int solicitudId, String resultado, Map<String, Boolean> reglas) {
+        this.solicitudId = solicitudId;
+        this.resultado = resultado;
+        this.reglas = reglas;
+    }
+
+    @Override
+    public String toString() {
+        return "PreAprobacionResultado{" +
+                "solicitudId=" + getSolicitudId() +
+                ", resultado='" + getResultado() + '\'' +
+                ", reglas=" + getReglas() +
+                '}';
+    }
+}
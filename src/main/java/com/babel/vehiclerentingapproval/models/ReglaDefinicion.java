@@ -0,0 +1,61 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Clase que modela una regla automatica tal y como se declara en el fichero de reglas: compara un campo de los datos de
+ * entrada de la solicitud con un valor fijo o con otro campo.
+ *
+ * @see RuleInputSnapshot
+ */
+public class ReglaDefinicion {
+    /**
+     * Nombre de la regla, unico dentro del fichero
+     */
+    @Getter @Setter
+    private String nombre;
+    /**
+     * Grupo de la regla: predenegacion o preaprobacion
+     */
+    @Getter @Setter
+    private GrupoRegla grupo;
+    /**
+     * Campo de los datos de entrada que se compara
+     */
+    @Getter @Setter
+    private String campo;
+    /**
+     * Operador de comparacion: &lt;, &lt;=, &gt;, &gt;=, = o !=
+     */
+    @Getter @Setter
+    private String operador;
+    /**
+     * Valor fijo con el que se compara el campo, null si se compara con otro campo
+     */
+    @Getter @Setter
+    private String valor;
+    /**
+     * Campo de los datos de entrada con el que se compara, null si se compara con un valor fijo
+     */
+    @Getter @Setter
+    private String campoComparado;
+    /**
+     * Coste relativo de evaluar la regla; las reglas mas baratas se evaluan antes
+     */
+    @Getter @Setter
+    private int coste;
+
+    @Override
+    public String toString() {
+        return "ReglaDefinicion{" +
+                "nombre='" + getNombre() + '\'' +
+                ", grupo=" + getGrupo() +
+                ", campo='" + getCampo() + '\'' +
+                ", operador='" + getOperador() + '\'' +
+                ", valor='" + getValor() + '\'' +
+                ", campoComparado='" + getCampoComparado() + '\'' +
+                ", coste=" + getCoste() +
+                '}';
+    }
+}
@@ -0,0 +1,66 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Clase que modela las estadisticas de evaluacion de una regla automatica desde que se cargaron las reglas
+ *
+ * @see EstadisticasReglas
+ */
+public class ReglaEstadisticas {
+    /**
+     * Nombre de la regla
+     */
+    @Getter @Setter
+    private String nombre;
+    /**
+     * Grupo de la regla: predenegacion o preaprobacion
+     */
+    @Getter @Setter
+    private GrupoRegla grupo;
+    /**
+     * Coste declarado en el fichero de reglas
+     */
+    @Getter @Setter
+    private int coste;
+    /**
+     * Numero de veces que se ha evaluado la regla
+     */
+    @Getter @Setter
+    private long evaluaciones;
+    /**
+     * Numero de evaluaciones en las que la regla se ha cumplido
+     */
+    @Getter @Setter
+    private long cumplidas;
+    /**
+     * Proporcion de evaluaciones en las que la regla no se ha cumplido
+     */
+    @Getter @Setter
+    private double tasaRechazo;
+    /**
+     * Numero de evaluaciones cronometradas
+     */
+    @Getter @Setter
+    private long muestras;
+    /**
+     * Duracion media de las evaluaciones cronometradas en nanosegundos
+     */
+    @Getter @Setter
+    private double latenciaMediaNanos;
+
+    @Override
+    public String toString() {
+        return "ReglaEstadisticas{" +
+                "nombre='" + getNombre() + '\'' +
+                ", grupo=" + getGrupo() +
+                ", coste=" + getCoste() +
+                ", evaluaciones=" + getEvaluaciones() +
+                ", cumplidas=" + getCumplidas() +
+                ", tasaRechazo=" + getTasaRechazo() +
+                ", muestras=" + getMuestras() +
+                ", latenciaMediaNanos=" + getLatenciaMediaNanos() +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Clase que modela el resultado del alta de una persona dentro de un alta masiva
+ *
+ * @see com.babel.vehiclerentingapproval.services.PersonaService#addPersonas(java.util.List)
+ */
+public class ResultadoAltaPersona {
+    /**
+     * Linea del fichero importado en la que venia la persona, o 0 si no viene de un fichero
+     */
+    @Getter @Setter
+    private long linea;
+    /**
+     * ID asignado a la persona, o null si no se ha dado de alta
+     */
+    @Getter
+    private final Integer personaId;
+    /**
+     * Motivo por el que no se ha dado de alta, o null si se ha dado de alta
+     */
+    @Getter
+    private final String error;
+
+    private ResultadoAltaPersona(Integer personaId, String error) {
+        this.personaId = personaId;
+        this.error = error;
+    }
+
+    public static ResultadoAltaPersona creada(int personaId) {
+        return new ResultadoAltaPersona(personaId, null);
+    }
+
+    public static ResultadoAltaPersona fallida(String error) {
+        return new ResultadoAltaPersona(null, error);
+    }
+
+    public boolean isCreada() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoAltaPersona{" +
+                "linea=" + getLinea() +
+                ", personaId=" + getPersonaId() +
+                ", error='" + getError() + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Clase que modela el resultado del alta de una renta dentro de un alta masiva
+ *
+ * @see com.babel.vehiclerentingapproval.services.RentaService#addRentas(java.util.List, java.util.Set)
+ */
+public class ResultadoAltaRenta {
+    /**
+     * Linea del fichero importado en la que venia la renta, o 0 si no viene de un fichero
+     */
+    @Getter @Setter
+    private long linea;
+    /**
+     * ID asignado a la renta, o null si no se ha dado de alta
+     */
+    @Getter
+    private final Integer rentaId;
+    /**
+     * Motivo por el que no se ha dado de alta, o null si se ha dado de alta
+     */
+    @Getter
+    private final String error;
+
+    private ResultadoAltaRenta(Integer rentaId, String error) {
+        this.rentaId = rentaId;
+        this.error = error;
+    }
+
+    public static ResultadoAltaRenta creada(int rentaId) {
+        return new ResultadoAltaRenta(rentaId, null);
+    }
+
+    public static ResultadoAltaRenta fallida(String error) {
+        return new ResultadoAltaRenta(null, error);
+    }
+
+    public boolean isCreada() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoAltaRenta{" +
+                "linea=" + getLinea() +
+                ", rentaId=" + getRentaId() +
+                ", error='" + getError() + '\'' +
+                '}';
+    }
+}
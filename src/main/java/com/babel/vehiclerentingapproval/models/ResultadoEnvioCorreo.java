@@ -0,0 +1,49 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+
+/**
+ * Clase que modela el resultado de entrega de un correo electronico dentro de un envio masivo
+ *
+ * @see CorreoElectronico
+ */
+public class ResultadoEnvioCorreo {
+    /**
+     * Correo electronico del destinatario
+     */
+    @Getter
+    private final String destino;
+    /**
+     * Si el servidor de correo ha aceptado el mensaje
+     */
+    @Getter
+    private final boolean enviado;
+    /**
+     * Motivo por el que no se ha enviado, o null si se ha enviado
+     */
+    @Getter
+    private final String error;
+
+    private ResultadoEnvioCorreo(String destino, boolean enviado, String error) {
+        this.destino = destino;
+        this.enviado = enviado;
+        this.error = error;
+    }
+
+    public static ResultadoEnvioCorreo enviado(String destino) {
+        return new ResultadoEnvioCorreo(destino, true, null);
+    }
+
+    public static ResultadoEnvioCorreo fallido(String destino, String error) {
+        return new ResultadoEnvioCorreo(destino, false, error);
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoEnvioCorreo{" +
+                "destino='" + getDestino() + '\'' +
+                ", enviado=" + isEnviado() +
+                ", error='" + getError() + '\'' +
+                '}';
+    }
+}
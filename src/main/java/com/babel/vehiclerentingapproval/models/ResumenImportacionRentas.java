@@ -0,0 +1,57 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Clase que modela el resumen de una importacion masiva de rentas anuales, junto con su rendimiento
+ *
+ * @see ResultadoAltaRenta
+ */
+public class ResumenImportacionRentas {
+    /**
+     * Numero de lineas con datos leidas del fichero
+     */
+    @Getter @Setter
+    private long lineas;
+    /**
+     * Numero de rentas dadas de alta
+     */
+    @Getter @Setter
+    private long creadas;
+    /**
+     * Numero de lineas que no se han podido dar de alta
+     */
+    @Getter @Setter
+    private long fallidas;
+    /**
+     * Numero de lotes escritos en la base de datos
+     */
+    @Getter @Setter
+    private long lotes;
+    /**
+     * Tiempo total de la importacion en milisegundos
+     */
+    @Getter @Setter
+    private long tiempoMillis;
+    /**
+     * Lineas procesadas por segundo
+     */
+    @Getter @Setter
+    private double filasPorSegundo;
+
+    public ResumenImportacionRentas() {
+    }
+
+    @Override
+    public String toString() {
+        return "ResumenImportacionRentas{" +
+                "lineas=" + getLineas() +
+                ", creadas=" + getCreadas() +
+                ", fallidas=" + getFallidas() +
+                ", lotes=" + getLotes() +
+                ", tiempoMillis=" + getTiempoMillis() +
+                ", filasPorSegundo=" + getFilasPorSegundo() +
+                '}';
+    }
+}
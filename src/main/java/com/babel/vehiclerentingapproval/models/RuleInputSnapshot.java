@@ -0,0 +1,112 @@
+package com.babel.vehiclerentingapproval.models;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigInteger;
+import java.util.Date;
+
+/**
+ * Clase que modela todos los datos que necesitan las reglas de preaprobacion y predenegacion para evaluar una solicitud de renting.
+ * Se carga de base de datos de una sola vez, de modo que las reglas se evaluan en memoria sin hacer consultas propias.
+ *
+ * @see com.babel.vehiclerentingapproval.persistance.database.mappers.RuleInputMapper
+ */
+public class RuleInputSnapshot {
+    /**
+     * Identificador de la solicitud de renting
+     */
+    @Getter @Setter
+    private int solicitudId;
+    /**
+     * Identificador de la persona titular de la solicitud
+     */
+    @Getter @Setter
+    private int personaId;
+    /**
+     * Fecha de la solicitud de renting
+     */
+    @Getter @Setter
+    private Date fechaSolicitud;
+    /**
+     * Inversion de la solicitud de renting
+     */
+    @Getter @Setter
+    private Float inversion;
+    /**
+     * Cuota de la solicitud de renting
+     */
+    @Getter @Setter
+    private Float cuota;
+    /**
+     * Plazo de la solicitud de renting
+     */
+    @Getter @Setter
+    private BigInteger plazo;
+    /**
+     * Fecha de nacimiento del titular
+     */
+    @Getter @Setter
+    private Date fechaNacimiento;
+    /**
+     * Codigo ISO alfa-2 de la nacionalidad del titular
+     */
+    @Getter @Setter
+    private String nacionalidad;
+    /**
+     * Scoring del titular
+     */
+    @Getter @Setter
+    private int scoring;
+    /**
+     * Importe neto de la renta del titular en el año de la solicitud, null si no la tiene declarada
+     */
+    @Getter @Setter
+    private Float importeNeto;
+    /**
+     * CIF del empleador declarado en la renta del año de la solicitud
+     */
+    @Getter @Setter
+    private String cifEmpleador;
+    /**
+     * Años de antiguedad en el empleo declarado en la renta del año de la solicitud, null si no la tiene declarada
+     */
+    @Getter @Setter
+    private Float aniosEmpleo;
+    /**
+     * Importe total de impagos internos del titular
+     */
+    @Getter @Setter
+    private float importeImpagoInterno;
+    /**
+     * Numero de solicitudes anteriores del titular que no fueron aprobadas con garantias
+     */
+    @Getter @Setter
+    private int solicitudesNoAprobadasConGarantias;
+    /**
+     * Numero de solicitudes anteriores del titular que no fueron rechazadas
+     */
+    @Getter @Setter
+    private int solicitudesNoRechazadas;
+
+    @Override
+    public String toString() {
+        return "RuleInputSnapshot{" +
+                "solicitudId=" + getSolicitudId() +
+                ", personaId=" + getPersonaId() +
+                ", fechaSolicitud=" + getFechaSolicitud() +
+                ", inversion=" + getInversion() +
+                ", cuota=" + getCuota() +
+                ", plazo=" + getPlazo() +
+                ", fechaNacimiento=" + getFechaNacimiento() +
+                ", nacionalidad='" + getNacionalidad() + '\'' +
+                ", scoring=" + getScoring() +
+                ", importeNeto=" + getImporteNeto() +
+                ", cifEmpleador='" + getCifEmpleador() + '\'' +
+                ", aniosEmpleo=" + getAniosEmpleo() +
+                ", importeImpagoInterno=" + getImporteImpagoInterno() +
+                ", solicitudesNoAprobadasConGarantias=" + getSolicitudesNoAprobadasConGarantias() +
+                ", solicitudesNoRechazadas=" + getSolicitudesNoRechazadas() +
+                '}';
+    }
+}
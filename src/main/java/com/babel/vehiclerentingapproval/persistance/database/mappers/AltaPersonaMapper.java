@@ -0,0 +1,60 @@
+package com.babel.vehiclerentingapproval.persistance.database.mappers;
+
+import com.babel.vehiclerentingapproval.models.Direccion;
+import com.babel.vehiclerentingapproval.models.IdsAltaPersona;
+import com.babel.vehiclerentingapproval.models.Persona;
+import com.babel.vehiclerentingapproval.models.TelefonoContacto;
+import org.apache.ibatis.annotations.*;
+
+import java.util.List;
+
+/**
+ * Esta interfaz proporciona las consultas del alta de personas en lote: los IDs se reservan antes de insertar, de las
+ * secuencias de db/ALTA_PERSONA_SEQ.sql, y las inserciones llevan el ID explicito para poder agruparse en lotes JDBC,
+ * que no devuelven las claves generadas.
+ *
+ * @see com.babel.vehiclerentingapproval.services.impl.AltaPersonasLote
+ */
+@Mapper
+public interface AltaPersonaMapper {
+    /**
+     * Reserva IDs de las tres secuencias en una sola consulta. Cada fila trae un valor nuevo de cada secuencia; los
+     * que no se usen quedan como huecos en la numeracion.
+     *
+     * @param cantidad numero de filas de IDs a reservar
+     * @return una fila de IDs por cada unidad de cantidad
+     */
+    @Select("SELECT DIRECCION_SEQ.NEXTVAL AS DIRECCION_ID, PERSONA_SEQ.NEXTVAL AS PERSONA_ID, TELEFONO_CONTACTO_SEQ.NEXTVAL AS TELEFONO_ID " +
+            "FROM DUAL CONNECT BY LEVEL <= #{cantidad}")
+    @Results({
+            @Result(property = "direccionId", column = "DIRECCION_ID"),
+            @Result(property = "personaId", column = "PERSONA_ID"),
+            @Result(property = "telefonoId", column = "TELEFONO_ID")
+    })
+    List<IdsAltaPersona> reservarIds(int cantidad);
+
+    /**
+     * Inserta una direccion con su ID ya reservado
+     *
+     * @param direccion direccion con el ID asignado
+     */
+    @Insert("INSERT INTO DIRECCION (DIRECCION_ID, TIPO_VIA_ID, NOMBRE_CALLE, NUM, PISO, PUERTA, ESCALERA, OTRO_DATO, COD_POSTAL, MUNICIPIO, COD_PROVINCIA) VALUES (#{direccionId}, #{tipoViaId.tipoViaId}, #{nombreCalle}, #{numero}, #{piso, jdbcType=VARCHAR}, #{puerta, jdbcType=VARCHAR}, #{escalera, jdbcType=VARCHAR}, #{otroDato, jdbcType=VARCHAR}, #{codPostal}, #{municipio}, #{provincia.codProvincia})")
+    void insertDireccion(Direccion direccion);
+
+    /**
+     * Inserta una persona con su ID ya reservado y los de sus direcciones
+     *
+     * @param persona persona con el ID asignado
+     */
+    @Insert("INSERT INTO PERSONA (PERSONA_ID, NOMBRE, APELLIDO1, APELLIDO2, DIRECCION_DOMICILIO_ID, DIRECCION_NOTIFICACION_ID, NIF, FECHA_NACIMIENTO, NACIONALIDAD, EMAIL) VALUES (#{personaId}, #{nombre}, #{apellido1}, #{apellido2, jdbcType=VARCHAR}, #{direccionDomicilio.direccionId}, #{direccionNotificacion.direccionId}, #{nif}, #{fechaNacimiento, jdbcType=DATE}, #{nacionalidad.isoAlfa2}, #{email, jdbcType=VARCHAR})")
+    void insertPersona(Persona persona);
+
+    /**
+     * Inserta un telefono con su ID ya reservado
+     *
+     * @param telefono telefono con el ID asignado
+     * @param persona  persona duena del telefono, con el ID asignado
+     */
+    @Insert("INSERT INTO TELEFONO_CONTACTO (TELEFONO_ID, PERSONA_ID, TELEFONO) VALUES (#{telefono.telefonoId}, #{persona.personaId}, #{telefono.telefono})")
+    void insertTelefono(TelefonoContacto telefono, Persona persona);
+}
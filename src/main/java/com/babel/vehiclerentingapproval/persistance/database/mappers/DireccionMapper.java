@@ -2,6 +2,10 @@ package com.babel.vehiclerentingapproval.persistance.database.mappers;
 
 import com.babel.vehiclerentingapproval.models.Direccion;
 import org.apache.ibatis.annotations.*;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 /**
  * Esta interfaz proporciona metodos para el manejo de direcciones en la base de datos
  *
@@ -35,4 +39,50 @@ public interface DireccionMapper {
      */
     @Delete("UPDATE DIRECCION SET TIPO_VIA_ID=#{tipoViaId.tipoViaId},NOMBRE_CALLE=#{nombreCalle},NUM=#{numero},PISO=#{piso},PUERTA=#{puerta},ESCALERA=#{escalera}, OTRO_DATO=#{otroDato},COD_POSTAL=#{codPostal},MUNICIPIO=#{municipio},COD_PROVINCIA=#{provincia.codProvincia} WHERE DIRECCION_ID = #{direccionId}")
     int updateDireccion(Direccion direccion);
+    /**
+     * Devuelve las direcciones con las IDs indicadas, con el ID del tipo de via y el codigo de provincia
+     *
+     * @param direccionIds IDs de las direcciones, no vacia
+     * @return las direcciones encontradas, en cualquier orden
+     * @see Direccion
+     */
+    @Select({"<script>",
+            "SELECT DIRECCION_ID, TIPO_VIA_ID, NOMBRE_CALLE, NUM, PISO, PUERTA, ESCALERA, OTRO_DATO, COD_POSTAL, MUNICIPIO, COD_PROVINCIA FROM DIRECCION WHERE DIRECCION_ID IN",
+            "<foreach item='direccionId' collection='direccionIds' open='(' separator=',' close=')'>#{direccionId}</foreach>",
+            "</script>"})
+    @Results({
+            @Result(property = "direccionId", column = "DIRECCION_ID"),
+            @Result(property = "tipoViaId.tipoViaId", column = "TIPO_VIA_ID"),
+            @Result(property = "nombreCalle", column = "NOMBRE_CALLE"),
+            @Result(property = "numero", column = "NUM"),
+            @Result(property = "piso", column = "PISO"),
+            @Result(property = "puerta", column = "PUERTA"),
+            @Result(property = "escalera", column = "ESCALERA"),
+            @Result(property = "otroDato", column = "OTRO_DATO"),
+            @Result(property = "codPostal", column = "COD_POSTAL"),
+            @Result(property = "municipio", column = "MUNICIPIO"),
+            @Result(property = "provincia.codProvincia", column = "COD_PROVINCIA")
+    })
+    List<Direccion> getDirecciones(Collection<Integer> direccionIds);
+    /**
+     * Actualiza solo las columnas indicadas de una direccion
+     *
+     * @param direccion direccion con los valores nuevos
+     * @param columnas  columnas de DIRECCION a actualizar, no vacio
+     * @return numero de direcciones actualizadas
+     * @see com.babel.vehiclerentingapproval.services.impl.CambiosPersona
+     */
+    @Update({"<script>", "UPDATE DIRECCION <set>",
+            "<if test=\"columnas.contains('TIPO_VIA_ID')\">TIPO_VIA_ID=#{direccion.tipoViaId.tipoViaId},</if>",
+            "<if test=\"columnas.contains('NOMBRE_CALLE')\">NOMBRE_CALLE=#{direccion.nombreCalle},</if>",
+            "<if test=\"columnas.contains('NUM')\">NUM=#{direccion.numero},</if>",
+            "<if test=\"columnas.contains('PISO')\">PISO=#{direccion.piso, jdbcType=VARCHAR},</if>",
+            "<if test=\"columnas.contains('PUERTA')\">PUERTA=#{direccion.puerta, jdbcType=VARCHAR},</if>",
+            "<if test=\"columnas.contains('ESCALERA')\">ESCALERA=#{direccion.escalera, jdbcType=VARCHAR},</if>",
+            "<if test=\"columnas.contains('OTRO_DATO')\">OTRO_DATO=#{direccion.otroDato, jdbcType=VARCHAR},</if>",
+            "<if test=\"columnas.contains('COD_POSTAL')\">COD_POSTAL=#{direccion.codPostal},</if>",
+            "<if test=\"columnas.contains('MUNICIPIO')\">MUNICIPIO=#{direccion.municipio},</if>",
+            "<if test=\"columnas.contains('COD_PROVINCIA')\">COD_PROVINCIA=#{direccion.provincia.codProvincia},</if>",
+            "</set> WHERE DIRECCION_ID = #{direccion.direccionId}", "</script>"})
+    int updateDireccionParcial(Direccion direccion, Set<String> columnas);
 }
@@ -0,0 +1,70 @@
+package com.babel.vehiclerentingapproval.persistance.database.mappers;
+
+import com.babel.vehiclerentingapproval.models.CifInforma;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.ResultMap;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * Esta interfaz recorre la tabla INFORMA para cargar el registro de CIF en memoria. Las filas se entregan una a una
+ * a un ResultHandler, sin construir una lista con toda la tabla.
+ * Tambien permite comprobar un CIF concreto.
+ *
+ * @see CifInforma
+ */
+@Mapper
+public interface InformaMapper {
+    /**
+     * Consulta que devuelve el numero de CIF de la tabla INFORMA, para dimensionar el registro antes de cargarlo
+     *
+     * @return numero de filas de INFORMA
+     */
+    @Select("SELECT COUNT(*) FROM SCORING.INFORMA")
+    int contarCifs();
+
+    /**
+     * Consulta que recorre todos los CIF de la tabla INFORMA
+     *
+     * @param handler funcion que recibe cada fila
+     */
+    @Select("SELECT TRIM(CIF) AS CIF, ORA_ROWSCN AS SCN FROM SCORING.INFORMA")
+    @Options(fetchSize = 5000)
+    @Results(id = "cifInforma", value = {
+            @Result(property = "cif", column = "CIF"),
+            @Result(property = "scn", column = "SCN")
+    })
+    void recorrerCifs(ResultHandler<CifInforma> handler);
+
+    /**
+     * Consulta que recorre los CIF de la tabla INFORMA cuyo bloque ha cambiado despues del SCN indicado
+     *
+     * @param scn     mayor SCN ya cargado
+     * @param handler funcion que recibe cada fila
+     */
+    @Select("SELECT TRIM(CIF) AS CIF, ORA_ROWSCN AS SCN FROM SCORING.INFORMA WHERE ORA_ROWSCN > #{scn}")
+    @Options(fetchSize = 5000)
+    @ResultMap("cifInforma")
+    void recorrerCifsDesde(@Param("scn") long scn, ResultHandler<CifInforma> handler);
+
+    /**
+     * CIF de la columna con la misma normalizacion que CifHashSet.normalizar: sin espacios, puntos ni guiones y en
+     * mayusculas. Tiene un indice por funcion en db/INFORMA_CIF_NORMALIZADO_IX.sql.
+     */
+    String CIF_NORMALIZADO = "UPPER(TRANSLATE(CIF, 'X .-', 'X'))";
+
+    /**
+     * Consulta que comprueba si un CIF concreto esta en la tabla INFORMA. La usa el filtro de Bloom para confirmar
+     * sus respuestas positivas. El CIF guardado se compara normalizado, igual que el filtro, para que un CIF con
+     * espacios de relleno o con otro formato no se de por ausente.
+     *
+     * @param cif CIF normalizado
+     * @return true si el CIF esta en INFORMA
+     */
+    @Select("SELECT COUNT(*) FROM SCORING.INFORMA WHERE " + CIF_NORMALIZADO + " = #{cif} AND ROWNUM = 1")
+    boolean existeCif(@Param("cif") String cif);
+}
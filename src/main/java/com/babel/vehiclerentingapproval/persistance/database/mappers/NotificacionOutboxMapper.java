@@ -0,0 +1,109 @@
+package com.babel.vehiclerentingapproval.persistance.database.mappers;
+
+import com.babel.vehiclerentingapproval.models.NotificacionPendiente;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * Esta interfaz define los accesos a la bandeja de salida de notificaciones (tabla NOTIFICACION_OUTBOX, ver
+ * db/NOTIFICACION_OUTBOX.sql).
+ * <p>
+ * Cada instancia de la aplicacion reclama un bloque de notificaciones pendientes marcandolas con un identificador de
+ * reclamacion y retrasando su PROXIMO_INTENTO el tiempo de la reclamacion; asi ninguna otra instancia las coge mientras
+ * se envian, y si la instancia cae vuelven a estar disponibles al vencer ese tiempo. Todas las fechas se calculan con
+ * el reloj de la base de datos.
+ *
+ * @see NotificacionPendiente
+ */
+@Mapper
+public interface NotificacionOutboxMapper {
+    /**
+     * Inserta una notificacion pendiente de enviar. Se ejecuta dentro de la transaccion de quien la llama.
+     *
+     * @param notificacion la notificacion a insertar, en la que se guarda el id generado
+     */
+    @Insert("INSERT INTO SCORING.NOTIFICACION_OUTBOX (DESTINO, ASUNTO, MENSAJE, ESTADO, INTENTOS, PROXIMO_INTENTO, FECHA_ALTA) " +
+            "VALUES (#{destino}, #{asunto}, #{mensaje}, 'PENDIENTE', 0, SYSTIMESTAMP, SYSTIMESTAMP)")
+    @Options(useGeneratedKeys = true, keyProperty = "notificacionId", keyColumn = "NOTIFICACION_ID")
+    void insertarNotificacion(NotificacionPendiente notificacion);
+
+    /**
+     * Reclama como maximo {@code limite} notificaciones pendientes cuyo proximo intento ya ha llegado, las mas antiguas
+     * primero
+     *
+     * @param reclamacion  identificador unico de la reclamacion
+     * @param limite       numero maximo de notificaciones a reclamar
+     * @param duracionMs   milisegundos durante los que ninguna otra reclamacion puede coger las notificaciones
+     * @return el numero de notificaciones reclamadas
+     */
+    @Update("UPDATE SCORING.NOTIFICACION_OUTBOX SET RECLAMACION = #{reclamacion}, " +
+            "PROXIMO_INTENTO = SYSTIMESTAMP + NUMTODSINTERVAL(#{duracionMs} / 1000, 'SECOND') " +
+            "WHERE ESTADO = 'PENDIENTE' AND PROXIMO_INTENTO <= SYSTIMESTAMP AND NOTIFICACION_ID IN (" +
+            "SELECT NOTIFICACION_ID FROM (SELECT NOTIFICACION_ID FROM SCORING.NOTIFICACION_OUTBOX " +
+            "WHERE ESTADO = 'PENDIENTE' AND PROXIMO_INTENTO <= SYSTIMESTAMP ORDER BY PROXIMO_INTENTO) WHERE ROWNUM <= #{limite})")
+    int reclamarPendientes(@Param("reclamacion") String reclamacion, @Param("limite") int limite, @Param("duracionMs") long duracionMs);
+
+    /**
+     * @param reclamacion identificador de la reclamacion
+     * @return las notificaciones reclamadas con ese identificador que siguen pendientes
+     */
+    @Select("SELECT NOTIFICACION_ID, DESTINO, ASUNTO, MENSAJE, INTENTOS FROM SCORING.NOTIFICACION_OUTBOX " +
+            "WHERE RECLAMACION = #{reclamacion} AND ESTADO = 'PENDIENTE'")
+    @Result(property = "notificacionId", column = "NOTIFICACION_ID")
+    @Result(property = "destino", column = "DESTINO")
+    @Result(property = "asunto", column = "ASUNTO")
+    @Result(property = "mensaje", column = "MENSAJE")
+    @Result(property = "intentos", column = "INTENTOS")
+    List<NotificacionPendiente> listarReclamadas(String reclamacion);
+
+    /**
+     * Marca una notificacion como enviada
+     *
+     * @param notificacionId id de la notificacion
+     */
+    @Update("UPDATE SCORING.NOTIFICACION_OUTBOX SET ESTADO = 'ENVIADA', FECHA_ENVIO = SYSTIMESTAMP, RECLAMACION = NULL " +
+            "WHERE NOTIFICACION_ID = #{notificacionId}")
+    void marcarEnviada(long notificacionId);
+
+    /**
+     * Deja una notificacion pendiente para volver a intentarla pasado un tiempo
+     *
+     * @param notificacionId id de la notificacion
+     * @param intentos       numero de intentos fallidos, incluido el ultimo
+     * @param esperaMs       milisegundos hasta el siguiente intento
+     * @param error          mensaje del ultimo error
+     */
+    @Update("UPDATE SCORING.NOTIFICACION_OUTBOX SET INTENTOS = #{intentos}, RECLAMACION = NULL, " +
+            "PROXIMO_INTENTO = SYSTIMESTAMP + NUMTODSINTERVAL(#{esperaMs} / 1000, 'SECOND'), ULTIMO_ERROR = #{error,jdbcType=VARCHAR} " +
+            "WHERE NOTIFICACION_ID = #{notificacionId}")
+    void programarReintento(@Param("notificacionId") long notificacionId, @Param("intentos") int intentos,
+                            @Param("esperaMs") long esperaMs, @Param("error") String error);
+
+    /**
+     * Marca una notificacion como fallida definitivamente, tras agotar los intentos
+     *
+     * @param notificacionId id de la notificacion
+     * @param intentos       numero de intentos fallidos
+     * @param error          mensaje del ultimo error
+     */
+    @Update("UPDATE SCORING.NOTIFICACION_OUTBOX SET ESTADO = 'FALLIDA', INTENTOS = #{intentos}, RECLAMACION = NULL, " +
+            "ULTIMO_ERROR = #{error,jdbcType=VARCHAR} WHERE NOTIFICACION_ID = #{notificacionId}")
+    void marcarFallida(@Param("notificacionId") long notificacionId, @Param("intentos") int intentos, @Param("error") String error);
+
+    /**
+     * Borra las notificaciones enviadas hace mas de los dias indicados
+     *
+     * @param dias dias que se conservan las notificaciones enviadas
+     * @return el numero de notificaciones borradas
+     */
+    @Delete("DELETE FROM SCORING.NOTIFICACION_OUTBOX WHERE ESTADO = 'ENVIADA' AND FECHA_ENVIO < SYSTIMESTAMP - NUMTODSINTERVAL(#{dias}, 'DAY')")
+    int borrarEnviadas(int dias);
+}
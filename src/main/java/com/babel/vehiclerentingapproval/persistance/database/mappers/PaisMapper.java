@@ -3,6 +3,8 @@ package com.babel.vehiclerentingapproval.persistance.database.mappers;
 import com.babel.vehiclerentingapproval.models.Pais;
 import org.apache.ibatis.annotations.*;
 
+import java.util.List;
+
 /**
  * Esta interfaz proporciona metodos de manejo de paises en la base de datos
  *
@@ -30,4 +32,15 @@ public interface PaisMapper {
     @Result(property = "isoNum3", column = "ISO_NUM_3")
     @Result(property = "isoAlfa3", column = "ISO_ALFA_3")
     Pais getPais(String isoAlfa2);
+    /**
+     * Consulta que recupera todos los paises de la base de datos, para cargar la cache de datos de referencia
+     *
+     * @see Pais
+     * @return lista de paises
+     */
+    @Select("SELECT ISO_ALFA_2, ISO_NUM_3, ISO_ALFA_3, NOMBRE, ORDEN FROM PAIS")
+    @Result(property = "isoAlfa2", column = "ISO_ALFA_2")
+    @Result(property = "isoNum3", column = "ISO_NUM_3")
+    @Result(property = "isoAlfa3", column = "ISO_ALFA_3")
+    List<Pais> listarPaises();
 }
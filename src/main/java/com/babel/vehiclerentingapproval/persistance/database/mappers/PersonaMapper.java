@@ -1,6 +1,8 @@
 package com.babel.vehiclerentingapproval.persistance.database.mappers;
 
+import com.babel.vehiclerentingapproval.Security.usuario.CredencialesUsuario;
 import com.babel.vehiclerentingapproval.models.Persona;
+import com.babel.vehiclerentingapproval.models.PersonaGuardada;
 import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Options;
@@ -9,7 +11,9 @@ import com.babel.vehiclerentingapproval.models.ProductoContratado;
 import org.apache.ibatis.annotations.*;
 import org.springframework.security.core.userdetails.User;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Esta interfaz proporciona metodos para el manejo de la informacion de una persona en la base de datos
@@ -42,6 +46,28 @@ public interface PersonaMapper {
      */
     @Select("SELECT COUNT(NIF) FROM PERSONA WHERE NIF = #{nif,jdbcType=CHAR}")
     int existeNif(String nif);
+    /**
+     * Consulta que devuelve cuales de los NIFs indicados existen ya en la base de datos
+     *
+     * @param nifs NIFs a buscar, como maximo 1000 por limitacion de Oracle
+     * @return los NIFs de la lista que ya tiene alguna persona
+     */
+    @Select({"<script>",
+            "SELECT NIF FROM PERSONA WHERE NIF IN",
+            "<foreach item='nif' collection='nifs' open='(' separator=',' close=')'>#{nif,jdbcType=CHAR}</foreach>",
+            "</script>"})
+    List<String> getNifsExistentes(@Param("nifs") Collection<String> nifs);
+    /**
+     * Consulta que devuelve cuales de los IDs de persona indicados existen en la base de datos
+     *
+     * @param personaIds IDs a buscar, como maximo 1000 por limitacion de Oracle
+     * @return los IDs de la lista que tienen persona
+     */
+    @Select({"<script>",
+            "SELECT PERSONA_ID FROM PERSONA WHERE PERSONA_ID IN",
+            "<foreach item='id' collection='personaIds' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    List<Integer> getPersonasExistentes(@Param("personaIds") Collection<Integer> personaIds);
     /**
      * Consulta que devuelve una lista de objetos ProductoContratado de una persona
      *
@@ -73,6 +99,53 @@ public interface PersonaMapper {
             "WHERE PERSONA_ID=#{personaId}")
     void updatePersona(Persona persona);
 
+    /**
+     * Consulta que actualiza solo las columnas indicadas de una persona
+     *
+     * @param persona  Persona con los valores nuevos
+     * @param columnas columnas de PERSONA a actualizar, no vacio
+     * @see com.babel.vehiclerentingapproval.services.impl.CambiosPersona
+     */
+    @Update({"<script>", "UPDATE PERSONA <set>",
+            "<if test=\"columnas.contains('NOMBRE')\">NOMBRE=#{persona.nombre},</if>",
+            "<if test=\"columnas.contains('APELLIDO1')\">APELLIDO1=#{persona.apellido1},</if>",
+            "<if test=\"columnas.contains('APELLIDO2')\">APELLIDO2=#{persona.apellido2, jdbcType=VARCHAR},</if>",
+            "<if test=\"columnas.contains('DIRECCION_DOMICILIO_ID')\">DIRECCION_DOMICILIO_ID=#{persona.direccionDomicilio.direccionId},</if>",
+            "<if test=\"columnas.contains('DIRECCION_NOTIFICACION_ID')\">DIRECCION_NOTIFICACION_ID=#{persona.direccionNotificacion.direccionId},</if>",
+            "<if test=\"columnas.contains('NIF')\">NIF=#{persona.nif},</if>",
+            "<if test=\"columnas.contains('FECHA_NACIMIENTO')\">FECHA_NACIMIENTO=#{persona.fechaNacimiento, jdbcType=DATE},</if>",
+            "<if test=\"columnas.contains('NACIONALIDAD')\">NACIONALIDAD=#{persona.nacionalidad.isoAlfa2, jdbcType=VARCHAR},</if>",
+            "<if test=\"columnas.contains('SCORING')\">SCORING=#{persona.scoring},</if>",
+            "<if test=\"columnas.contains('FECHA_SCORING')\">FECHA_SCORING=#{persona.fechaScoring, jdbcType=DATE},</if>",
+            "<if test=\"columnas.contains('EMAIL')\">EMAIL=#{persona.email, jdbcType=VARCHAR},</if>",
+            "</set> WHERE PERSONA_ID=#{persona.personaId}", "</script>"})
+    int updatePersonaParcial(Persona persona, Set<String> columnas);
+
+    /**
+     * Consulta que obtiene los campos modificables de una persona tal como estan guardados
+     *
+     * @param personaId ID de la persona
+     * @return los campos guardados, o null si no existe la persona
+     * @see PersonaGuardada
+     */
+    @Select("SELECT PERSONA_ID, NOMBRE, APELLIDO1, APELLIDO2, DIRECCION_DOMICILIO_ID, DIRECCION_NOTIFICACION_ID, NIF, FECHA_NACIMIENTO, " +
+            "NACIONALIDAD, SCORING, FECHA_SCORING, EMAIL FROM PERSONA WHERE PERSONA_ID=#{personaId}")
+    @Results({
+            @Result(property = "personaId", column = "PERSONA_ID"),
+            @Result(property = "nombre", column = "NOMBRE"),
+            @Result(property = "apellido1", column = "APELLIDO1"),
+            @Result(property = "apellido2", column = "APELLIDO2"),
+            @Result(property = "direccionDomicilioId", column = "DIRECCION_DOMICILIO_ID"),
+            @Result(property = "direccionNotificacionId", column = "DIRECCION_NOTIFICACION_ID"),
+            @Result(property = "nif", column = "NIF"),
+            @Result(property = "fechaNacimiento", column = "FECHA_NACIMIENTO"),
+            @Result(property = "nacionalidad", column = "NACIONALIDAD"),
+            @Result(property = "scoring", column = "SCORING"),
+            @Result(property = "fechaScoring", column = "FECHA_SCORING"),
+            @Result(property = "email", column = "EMAIL")
+    })
+    PersonaGuardada getPersonaGuardada(int personaId);
+
     /**
      * Consulta que obtiene el email de una persona
      *
@@ -82,8 +155,21 @@ public interface PersonaMapper {
     @Select("SELECT EMAIL FROM PERSONA WHERE PERSONA_ID=#{personaId}")
     String getEmail(int personaId);
 
-    @Select("SELECT * FROM PERSONA WHERE EMAIL=#{email}")
-    Persona findEmailByEmail(String email);
+    /**
+     * Consulta que obtiene solo los datos que necesita el login de la persona con el email indicado. Se apoya en el
+     * indice PERSONA_EMAIL_IX (db/PERSONA_EMAIL_IX.sql)
+     *
+     * @param email email con el que inicia sesion la persona
+     * @return el email, el nombre y el hash de la contraseña, o null si no hay ninguna persona con ese email
+     * @see CredencialesUsuario
+     */
+    @Select("SELECT EMAIL, NOMBRE, PASSWORD FROM PERSONA WHERE EMAIL=#{email}")
+    @Results({
+            @Result(property = "email", column = "EMAIL"),
+            @Result(property = "nombre", column = "NOMBRE"),
+            @Result(property = "password", column = "PASSWORD")
+    })
+    CredencialesUsuario getCredenciales(String email);
 
 
 
@@ -2,6 +2,9 @@ package com.babel.vehiclerentingapproval.persistance.database.mappers;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
 /**
  * Esta interfaz proporciona metodos de manejo de profesiones en la base de datos
  *
@@ -17,4 +20,12 @@ public interface ProfesionMapper {
      */
     @Select("SELECT COUNT(PROFESION_ID) FROM PROFESION WHERE PROFESION_ID = #{profesionId}")
     int existeProfesion(int profesionId);
+
+    /**
+     * Consulta que devuelve los IDs de todas las profesiones
+     *
+     * @return lista con el ID de cada profesion
+     */
+    @Select("SELECT PROFESION_ID FROM PROFESION")
+    List<Integer> getProfesionIds();
 }
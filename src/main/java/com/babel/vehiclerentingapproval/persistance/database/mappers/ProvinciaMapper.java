@@ -3,6 +3,8 @@ package com.babel.vehiclerentingapproval.persistance.database.mappers;
 import com.babel.vehiclerentingapproval.models.Provincia;
 import org.apache.ibatis.annotations.*;
 
+import java.util.List;
+
 /**
  * Esta interfaz hace dos consultas referentes a las provincias
  *
@@ -28,4 +30,13 @@ public interface ProvinciaMapper {
     @Select("SELECT COD_PROVINCIA, NOMBRE FROM PROVINCIA WHERE COD_PROVINCIA = #{codProvincia}")
     @Result(property = "codProvincia", column = "COD_PROVINCIA")
     Provincia getProvincia(String codProvincia);
+    /**
+     * Consulta que recupera todas las provincias de la base de datos, para cargar la cache de datos de referencia
+     *
+     * @see Provincia
+     * @return lista de provincias
+     */
+    @Select("SELECT COD_PROVINCIA, NOMBRE FROM PROVINCIA")
+    @Result(property = "codProvincia", column = "COD_PROVINCIA")
+    List<Provincia> listarProvincias();
 }
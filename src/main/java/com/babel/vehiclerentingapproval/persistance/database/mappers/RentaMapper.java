@@ -5,6 +5,9 @@ import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
 /**
  * Esta interfaz sirve para hacer los accesos a la base de datos de renta
  *
@@ -28,4 +31,23 @@ public interface RentaMapper {
      */
     @Select("SELECT COUNT(RENTA_ID) FROM RENTA_ANUAL WHERE RENTA_ID = #{rentaId}")
     int existeRenta(int rentaId);
+
+    /**
+     * Reserva IDs de la secuencia de db/RENTA_ANUAL_SEQ.sql en una sola consulta, para insertar las rentas en lotes
+     * JDBC, que no devuelven las claves generadas. Los que no se usen quedan como huecos en la numeracion.
+     *
+     * @param cantidad numero de IDs a reservar
+     * @return los IDs reservados
+     */
+    @Select("SELECT RENTA_ANUAL_SEQ.NEXTVAL AS RENTA_ID FROM DUAL CONNECT BY LEVEL <= #{cantidad}")
+    List<Integer> reservarIds(int cantidad);
+
+    /**
+     * Inserta una renta con su ID ya reservado
+     *
+     * @param renta renta con el ID asignado
+     * @see #reservarIds(int)
+     */
+    @Insert("INSERT INTO RENTA_ANUAL (RENTA_ID, PERSONA_ID, PROFESION_ID, ANIO, IMPORTE_NETO, IMPORTE_BRUTO, IS_CUENTA_PROPIA, IAE, CIF_EMPLEADOR, FECHA_INICIO_EMPLEO) VALUES (#{rentaId}, #{persona.personaId}, #{profesion.profesionId}, #{anio}, #{importeNeto}, #{importeBruto}, #{isCuentaPropia}, #{iae, jdbcType=CHAR}, #{cifEmpleador, jdbcType=VARCHAR}, #{fechaInicioEmpleo, jdbcType=DATE})")
+    void insertRenta(Renta renta);
 }
@@ -0,0 +1,77 @@
+package com.babel.vehiclerentingapproval.persistance.database.mappers;
+
+import com.babel.vehiclerentingapproval.models.RuleInputSnapshot;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.ResultMap;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * Esta interfaz carga de una sola vez los datos de entrada de las reglas de preaprobacion y predenegacion
+ *
+ * @see RuleInputSnapshot
+ */
+@Mapper
+public interface RuleInputMapper {
+    /**
+     * Parte comun de las consultas de datos de entrada: la solicitud unida a su titular, a la renta del año de la
+     * solicitud, a los impagos internos y al historico de resoluciones del titular
+     */
+    String SNAPSHOT_SELECT = "SELECT sr.SOLICITUD_ID, sr.PERSONA_ID, sr.FECHA_SOLICITUD, sr.INVERSION, sr.CUOTA, sr.PLAZO," +
+            " p.FECHA_NACIMIENTO, p.NACIONALIDAD, p.SCORING, ra.IMPORTE_NETO, TRIM(ra.CIF_EMPLEADOR) AS CIF_EMPLEADOR," +
+            " (TO_DATE(CURRENT_DATE) - ra.FECHA_INICIO_EMPLEO)/365 AS ANIOS_EMPLEO," +
+            " NVL(ii.IMPORTE, 0) AS IMPORTE_IMPAGO_INTERNO, NVL(hs.NO_AG, 0) AS NO_AG, NVL(hs.NO_DA, 0) AS NO_DA" +
+            " FROM SCORING.SOLICITUD_RENTING sr" +
+            " INNER JOIN SCORING.PERSONA p ON p.PERSONA_ID = sr.PERSONA_ID" +
+            " LEFT JOIN SCORING.RENTA_ANUAL ra ON ra.PERSONA_ID = sr.PERSONA_ID AND ra.ANIO = EXTRACT(YEAR FROM sr.FECHA_SOLICITUD)" +
+            " LEFT JOIN (SELECT PERSONA_ID, SUM(IMPORTE) AS IMPORTE FROM SCORING.IMPAGO_INTERNO GROUP BY PERSONA_ID) ii ON ii.PERSONA_ID = sr.PERSONA_ID" +
+            " LEFT JOIN (SELECT PERSONA_ID, SUM(CASE WHEN COD_RESOLUCION NOT LIKE 'AG%' THEN 1 ELSE 0 END) AS NO_AG," +
+            "   SUM(CASE WHEN COD_RESOLUCION NOT LIKE 'DA%' THEN 1 ELSE 0 END) AS NO_DA" +
+            "   FROM SCORING.SOLICITUD_RENTING WHERE FECHA_RESOLUCION &lt;= ADD_MONTHS(SYSDATE,-24) GROUP BY PERSONA_ID) hs ON hs.PERSONA_ID = sr.PERSONA_ID ";
+
+    /**
+     * Consulta conjunta que obtiene los datos de entrada de las reglas para varias solicitudes a la vez
+     * (WHERE SOLICITUD_ID IN (...)). Las solicitudes que no existen no aparecen en el resultado.
+     *
+     * @param solicitudIds ids de las solicitudes a cargar, como maximo 1000 por limitacion de Oracle
+     * @return lista con los datos de entrada de cada solicitud encontrada
+     * @see RuleInputSnapshot
+     */
+    @Select({"<script>", SNAPSHOT_SELECT,
+            "WHERE sr.SOLICITUD_ID IN",
+            "<foreach item='id' collection='solicitudIds' open='(' separator=',' close=')'>#{id}</foreach>",
+            "</script>"})
+    @Results(id = "ruleInputSnapshot", value = {
+            @Result(property = "solicitudId", column = "SOLICITUD_ID"),
+            @Result(property = "personaId", column = "PERSONA_ID"),
+            @Result(property = "fechaSolicitud", column = "FECHA_SOLICITUD"),
+            @Result(property = "inversion", column = "INVERSION"),
+            @Result(property = "cuota", column = "CUOTA"),
+            @Result(property = "plazo", column = "PLAZO"),
+            @Result(property = "fechaNacimiento", column = "FECHA_NACIMIENTO"),
+            @Result(property = "nacionalidad", column = "NACIONALIDAD"),
+            @Result(property = "scoring", column = "SCORING"),
+            @Result(property = "importeNeto", column = "IMPORTE_NETO"),
+            @Result(property = "cifEmpleador", column = "CIF_EMPLEADOR"),
+            @Result(property = "aniosEmpleo", column = "ANIOS_EMPLEO"),
+            @Result(property = "importeImpagoInterno", column = "IMPORTE_IMPAGO_INTERNO"),
+            @Result(property = "solicitudesNoAprobadasConGarantias", column = "NO_AG"),
+            @Result(property = "solicitudesNoRechazadas", column = "NO_DA")
+    })
+    List<RuleInputSnapshot> obtenerSnapshots(@Param("solicitudIds") List<Integer> solicitudIds);
+
+    /**
+     * Consulta conjunta que obtiene en una sola consulta todos los datos de entrada de las reglas de una solicitud
+     *
+     * @param solicitudId id de la solicitud
+     * @return los datos de entrada de la solicitud, o null si no existe
+     * @see RuleInputSnapshot
+     */
+    @Select({"<script>", SNAPSHOT_SELECT, "WHERE sr.SOLICITUD_ID = #{solicitudId}", "</script>"})
+    @ResultMap("ruleInputSnapshot")
+    RuleInputSnapshot obtenerSnapshot(int solicitudId);
+}
@@ -4,9 +4,9 @@ import com.babel.vehiclerentingapproval.models.SolicitudRenting;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Select;
 
-import java.util.List;
 /**
- * Esta interfaz hace dos consultas referentes a las CIF de los Scorings
+ * Esta interfaz hace la consulta del CIF del empleador de una solicitud. Los CIF de Informa los carga el
+ * {@link InformaMapper}
  *
  * @author alvaro.dorado@babelgroup.com, ismael.mesa@babelgroup.com
  */
@@ -21,11 +21,4 @@ public interface SalariedMapper {
      */
     @Select("SELECT ra.CIF_EMPLEADOR FROM SCORING.SOLICITUD_RENTING sr INNER JOIN SCORING.RENTA_ANUAL ra ON sr.PERSONA_ID = ra.PERSONA_ID WHERE sr.SOLICITUD_ID = #{solicitudId} AND ra.ANIO = EXTRACT(YEAR FROM sr.FECHA_SOLICITUD)")
     String obtenerCIFSolicitud(SolicitudRenting solicitudRenting);
-    /**
-     * Consulta que devuelve una lista de CIF existentes
-     *
-     * @return lista de CIFs existentes
-     */
-    @Select("SELECT CIF FROM SCORING.INFORMA")
-    List<String> obtenerCIFInforma();
 }
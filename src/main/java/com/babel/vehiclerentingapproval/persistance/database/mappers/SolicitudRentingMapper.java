@@ -1,5 +1,6 @@
 package com.babel.vehiclerentingapproval.persistance.database.mappers;
 
+import com.babel.vehiclerentingapproval.models.CambioEstadoSolicitud;
 import com.babel.vehiclerentingapproval.models.SolicitudRenting;
 import com.babel.vehiclerentingapproval.models.TipoResultadoSolicitud;
 import org.apache.ibatis.annotations.*;
@@ -41,10 +42,33 @@ public interface SolicitudRentingMapper {
             @Result(property = "tipoResultadoSolicitud.codResultado", column = "COD_RESOLUCION")
     SolicitudRenting getSolicitudByID (int solicitudId);
 
+    /**
+     * Consulta conjunta que obtiene en una sola consulta la solicitud, su estado actual y el email del titular, que es
+     * todo lo que necesita un cambio de estado.
+     *
+     * @param solicitudId Este parámetro es el id de la Solicitud cuyo estado se va a cambiar
+     * @return los datos del cambio de estado, o null si la solicitud no existe
+     * @see CambioEstadoSolicitud
+     */
+    @Select("SELECT sr.SOLICITUD_ID, sr.PERSONA_ID, sr.COD_RESOLUCION, p.EMAIL FROM SCORING.SOLICITUD_RENTING sr " +
+            "INNER JOIN SCORING.PERSONA p ON p.PERSONA_ID = sr.PERSONA_ID WHERE sr.SOLICITUD_ID = #{solicitudId}")
+    @Result(property = "solicitudId", column = "SOLICITUD_ID")
+    @Result(property = "personaId", column = "PERSONA_ID")
+    @Result(property = "codResolucionActual", column = "COD_RESOLUCION")
+    @Result(property = "email", column = "EMAIL")
+    CambioEstadoSolicitud getCambioEstado (int solicitudId);
+
+    /**
+     * Cambia el codigo de resolucion de una solicitud.
+     *
+     * @param solicitudId Este parámetro es el id de la Solicitud a modificar
+     * @param nuevoEstado el nuevo estado de la solicitud
+     * @return el número de solicitudes modificadas, 0 si la solicitud ya no existe
+     */
     @Update("Update SOLICITUD_RENTING SET " +
-            "COD_RESOLUCION = #{nuevoEstado.codResultado,jdbcType=CHAR}" +
+            "COD_RESOLUCION = #{nuevoEstado.codResultado,jdbcType=CHAR} " +
             "Where SOLICITUD_ID=#{solicitudId}")
-    void modificaEstadoSolicitud (Integer solicitudId, TipoResultadoSolicitud nuevoEstado);
+    int modificaEstadoSolicitud (Integer solicitudId, TipoResultadoSolicitud nuevoEstado);
 
     /**
      * Inserta una nueva solicitud de renting en la base de datos.
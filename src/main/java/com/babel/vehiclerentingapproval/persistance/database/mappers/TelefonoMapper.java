@@ -54,4 +54,41 @@ public interface TelefonoMapper {
      */
     @Delete("DELETE FROM TELEFONO_CONTACTO WHERE PERSONA_ID = #{personaId}")
     void deleteTelefonosByIdPersona(Integer personaId);
+    /**
+     * Consulta que añade varios telefonos de una persona en una sola sentencia. Los IDs los pone la base de datos y no
+     * se devuelven
+     *
+     * @param personaId ID de la persona dueña de los telefonos
+     * @param telefonos telefonos a añadir, no vacia
+     */
+    @Insert({"<script>",
+            "INSERT INTO TELEFONO_CONTACTO (PERSONA_ID, TELEFONO) SELECT #{personaId}, TELEFONO FROM (",
+            "<foreach item='telefono' collection='telefonos' separator=' UNION ALL '>SELECT #{telefono.telefono} AS TELEFONO FROM DUAL</foreach>",
+            ")",
+            "</script>"})
+    int addTelefonos(Integer personaId, List<TelefonoContacto> telefonos);
+    /**
+     * Consulta que cambia el numero de varios telefonos de una persona en una sola sentencia
+     *
+     * @param personaId ID de la persona dueña de los telefonos
+     * @param telefonos telefonos con su ID y el numero nuevo, no vacia
+     */
+    @Update({"<script>",
+            "UPDATE TELEFONO_CONTACTO SET TELEFONO = CASE TELEFONO_ID",
+            "<foreach item='telefono' collection='telefonos'>WHEN #{telefono.telefonoId} THEN #{telefono.telefono} </foreach>",
+            "END WHERE PERSONA_ID = #{personaId} AND TELEFONO_ID IN",
+            "<foreach item='telefono' collection='telefonos' open='(' separator=',' close=')'>#{telefono.telefonoId}</foreach>",
+            "</script>"})
+    int updateTelefonos(Integer personaId, List<TelefonoContacto> telefonos);
+    /**
+     * Consulta que elimina varios telefonos de una persona en una sola sentencia
+     *
+     * @param personaId ID de la persona dueña de los telefonos
+     * @param telefonos telefonos a eliminar, no vacia
+     */
+    @Delete({"<script>",
+            "DELETE FROM TELEFONO_CONTACTO WHERE PERSONA_ID = #{personaId} AND TELEFONO_ID IN",
+            "<foreach item='telefono' collection='telefonos' open='(' separator=',' close=')'>#{telefono.telefonoId}</foreach>",
+            "</script>"})
+    int deleteTelefonos(Integer personaId, List<TelefonoContacto> telefonos);
 }
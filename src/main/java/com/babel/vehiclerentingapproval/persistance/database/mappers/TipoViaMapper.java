@@ -3,6 +3,8 @@ package com.babel.vehiclerentingapproval.persistance.database.mappers;
 import com.babel.vehiclerentingapproval.models.TipoVia;
 import org.apache.ibatis.annotations.*;
 
+import java.util.List;
+
 /**
  * Esta interfaz proporciona metodos de manejo de TipoVia en la base de datos
  *
@@ -30,4 +32,14 @@ public interface TipoViaMapper {
     @Result(property = "tipoViaId", column = "TIPO_VIA_ID")
     @Result(property = "descripcion", column = "DESCRIPCION")
     TipoVia getTipoVia(int tipoViaId);
+    /**
+     * Consulta que devuelve todos los tipos de via, para cargar la cache de datos de referencia
+     *
+     * @see TipoVia
+     * @return lista de tipos de via
+     */
+    @Select("SELECT TIPO_VIA_ID, DESCRIPCION FROM TIPO_VIA")
+    @Result(property = "tipoViaId", column = "TIPO_VIA_ID")
+    @Result(property = "descripcion", column = "DESCRIPCION")
+    List<TipoVia> listarTiposVia();
 }
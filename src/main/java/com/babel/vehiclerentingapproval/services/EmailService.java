@@ -1,7 +1,13 @@
 package com.babel.vehiclerentingapproval.services;
 
 
+import com.babel.vehiclerentingapproval.models.CorreoElectronico;
+import com.babel.vehiclerentingapproval.models.EstadisticasEnvioCorreo;
+import com.babel.vehiclerentingapproval.models.ResultadoEnvioCorreo;
+
 import javax.mail.MessagingException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Esta interfaz define un método para enviar correos electrónicos
@@ -18,4 +24,40 @@ public interface EmailService {
      * @param asunto  el asunto del correo electrónico
      */
     boolean sendMail(String mensaje, String destino, String asunto) throws MessagingException;
+
+    /**
+     * Metodo que envía un correo electrónico en los hilos dedicados al correo, sin bloquear al hilo que lo pide. Si la
+     * cola de envios esta llena el envio se rechaza al momento.
+     *
+     * @param mensaje el mensaje del correo electrónico
+     * @param destino el correo electrónico del destinatario
+     * @param asunto  el asunto del correo electrónico
+     * @return el resultado del envio, que termina con EmailNotSentException (503) si la cola esta llena
+     */
+    CompletableFuture<Boolean> sendMailAsync(String mensaje, String destino, String asunto);
+
+    /**
+     * Metodo que envía un bloque de correos electrónicos reutilizando las conexiones con el servidor de correo y
+     * limitando los mensajes por segundo a cada dominio de destino. El fallo de un correo no detiene el resto.
+     *
+     * @param correos los correos electrónicos a enviar
+     * @return el resultado de entrega de cada correo, en el mismo orden que los correos
+     */
+    List<ResultadoEnvioCorreo> sendMails(List<CorreoElectronico> correos);
+
+    /**
+     * Metodo que envía un bloque de correos electrónicos como {@link #sendMails(List)}, pero en los hilos dedicados al
+     * correo y sin bloquear al hilo que lo pide. Si la cola de envios esta llena el bloque se rechaza al momento.
+     *
+     * @param correos los correos electrónicos a enviar
+     * @return el resultado de entrega de cada correo, en el mismo orden que los correos, que termina con
+     * EmailNotSentException (503) si la cola esta llena
+     */
+    CompletableFuture<List<ResultadoEnvioCorreo>> sendMailsAsync(List<CorreoElectronico> correos);
+
+    /**
+     * @return la profundidad de la cola, los envios en curso, los rechazados y las conexiones abiertas
+     * @see EstadisticasEnvioCorreo
+     */
+    EstadisticasEnvioCorreo getEstadisticas();
 }
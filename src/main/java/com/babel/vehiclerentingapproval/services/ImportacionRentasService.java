@@ -0,0 +1,26 @@
+package com.babel.vehiclerentingapproval.services;
+
+import com.babel.vehiclerentingapproval.models.FormatoImportacion;
+import com.babel.vehiclerentingapproval.models.ResumenImportacionRentas;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Esta interfaz define la importacion masiva de rentas anuales desde un fichero
+ */
+public interface ImportacionRentasService {
+    /**
+     * Lee las rentas del fichero a medida que llega, las da de alta por lotes y escribe el resultado de cada linea en
+     * cuanto se conoce, sin cargar el fichero entero en memoria.
+     *
+     * @param entrada fichero con una renta por linea
+     * @param formato formato del fichero
+     * @param salida  donde se escribe un objeto JSON por linea con el resultado de cada renta y, al final, el resumen
+     * @return el resumen de la importacion
+     * @throws IOException si falla la lectura de la entrada o la escritura de la salida
+     * @see com.babel.vehiclerentingapproval.models.ResultadoAltaRenta
+     */
+    ResumenImportacionRentas importar(InputStream entrada, FormatoImportacion formato, OutputStream salida) throws IOException;
+}
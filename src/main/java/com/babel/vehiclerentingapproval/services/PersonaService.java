@@ -3,6 +3,7 @@ package com.babel.vehiclerentingapproval.services;
 import com.babel.vehiclerentingapproval.exceptions.*;
 import com.babel.vehiclerentingapproval.models.Persona;
 import com.babel.vehiclerentingapproval.models.ProductoContratado;
+import com.babel.vehiclerentingapproval.models.ResultadoAltaPersona;
 
 import java.util.List;
 
@@ -23,6 +24,14 @@ public interface PersonaService {
      */
     Persona addPersona (Persona persona);
 
+    /**
+     * Consulta que inserta un lote de personas en la base de datos, con las mismas validaciones que addPersona
+     *
+     * @param personas las personas a insertar
+     * @return el resultado de cada persona, en el mismo orden: su ID si se ha insertado o el motivo si no
+     */
+    List<ResultadoAltaPersona> addPersonas (List<Persona> personas);
+
     /**
      * Consulta que comprueba si una persona existe en la base de datos
      *
@@ -2,6 +2,8 @@ package com.babel.vehiclerentingapproval.services;
 
 import com.babel.vehiclerentingapproval.exceptions.ProfesionNotFoundException;
 
+import java.util.Set;
+
 /**
  * Esta interfaz define un método para comprobar la existencia de una profesion en la base de datos. Además define un metodo para validar la misma
  * @author andres.guijarro@babelgroup.com
@@ -21,4 +23,11 @@ public interface ProfesionService {
      * @return si es valida como profesion
      */
     public void validateProfesion(int profesionId) throws ProfesionNotFoundException;
+
+    /**
+     * Consulta que devuelve los IDs de todas las profesiones, para validar muchas sin una consulta por cada una
+     *
+     * @return conjunto con el ID de cada profesion
+     */
+    Set<Integer> getProfesionIds();
 }
@@ -4,6 +4,11 @@ import com.babel.vehiclerentingapproval.exceptions.PersonaNotFoundException;
 import com.babel.vehiclerentingapproval.exceptions.ProfesionNotFoundException;
 import com.babel.vehiclerentingapproval.exceptions.RentaFoundException;
 import com.babel.vehiclerentingapproval.models.Renta;
+import com.babel.vehiclerentingapproval.models.ResultadoAltaRenta;
+
+import java.util.List;
+import java.util.Set;
+
 /**
  * Esta clase SERVICE sirve como interfaz de las operaciones para hacer el CRUD de crear, validar una renta y comprobar que existe una renta
  *
@@ -22,6 +27,15 @@ public interface RentaService {
      */
     Renta addRenta(Renta renta) throws ProfesionNotFoundException, PersonaNotFoundException, RentaFoundException;
 
+    /**
+     * Agrega un lote de rentas al sistema. Las rentas que no pasan la validacion se devuelven con el motivo y no
+     * impiden el alta del resto.
+     * @param rentas rentas a agregar; el ID de cada una se asigna al insertarla
+     * @param profesionIds IDs de las profesiones existentes, obtenidos con ProfesionService.getProfesionIds
+     * @return el resultado de cada renta, en el mismo orden: su ID si se ha insertado o el motivo si no
+     */
+    List<ResultadoAltaRenta> addRentas(List<Renta> rentas, Set<Integer> profesionIds);
+
     /**
      * Comprueba si existe una renta en el sistema.
      * @param rentaId id de la renta a comprobar
@@ -2,6 +2,7 @@ package com.babel.vehiclerentingapproval.services;
 
 import com.babel.vehiclerentingapproval.exceptions.ResolucionSolicitudesNotFoundException;
 import com.babel.vehiclerentingapproval.models.ResolucionSolicitud;
+import com.babel.vehiclerentingapproval.services.referencia.VersionCatalogoResoluciones;
 
 import java.util.List;
 
@@ -18,4 +19,12 @@ public interface ResolucionSolicitudesService {
      * @see ResolucionSolicitud
      */
     public List<ResolucionSolicitud> getTipoResolucionesSolicitudes ( ) throws ResolucionSolicitudesNotFoundException;
+
+    /**
+     * Método que recupera la version actual del catalogo de codigos de resolucion, con su lista y su ETag.
+     *
+     * @throws ResolucionSolicitudesNotFoundException si no existe ninguna
+     * @see VersionCatalogoResoluciones
+     */
+    public VersionCatalogoResoluciones getCatalogoResoluciones ( ) throws ResolucionSolicitudesNotFoundException;
 }
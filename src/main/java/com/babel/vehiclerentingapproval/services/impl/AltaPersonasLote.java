@@ -0,0 +1,84 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import com.babel.vehiclerentingapproval.models.Direccion;
+import com.babel.vehiclerentingapproval.models.IdsAltaPersona;
+import com.babel.vehiclerentingapproval.models.Persona;
+import com.babel.vehiclerentingapproval.models.TelefonoContacto;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.AltaPersonaMapper;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserta personas con sus direcciones y telefonos en lotes JDBC, con el executor BATCH de MyBatis.
+ * <p>
+ * Los IDs se reservan de antemano con una sola consulta a las secuencias (AltaPersonaMapper.reservarIds) y se asignan
+ * a los objetos antes de insertar, asi las inserciones no necesitan las claves generadas y se agrupan por tabla: todas
+ * las direcciones, luego todas las personas y luego todos los telefonos. Un alta cuesta una consulta y tres lotes
+ * (uno por tabla) sea cual sea el numero de personas, direcciones y telefonos, en lugar de una sentencia por fila.
+ * <p>
+ * La sesion BATCH se abre aparte de la de los mappers, sobre la misma conexion cuando hay una transaccion de Spring en
+ * curso, para no cambiar el executor de la sesion de la transaccion.
+ *
+ * @see AltaPersonaMapper
+ */
+@Component
+public class AltaPersonasLote {
+    private final SqlSessionFactory sqlSessionFactory;
+
+    public AltaPersonasLote(SqlSessionFactory sqlSessionFactory) {
+        this.sqlSessionFactory = sqlSessionFactory;
+    }
+
+    /**
+     * Inserta las personas, con las referencias de sus direcciones y su nacionalidad ya resueltas, y les asigna los IDs
+     * de persona, direccion y telefono. Si la direccion de notificacion es el mismo objeto que la de domicilio se
+     * inserta una sola vez.
+     *
+     * @param personas personas a insertar
+     */
+    public void insertar(List<Persona> personas) {
+        if (personas.isEmpty()) {
+            return;
+        }
+        List<Direccion> direcciones = new ArrayList<>(personas.size() * 2);
+        List<TelefonoContacto> telefonos = new ArrayList<>();
+        for (Persona persona : personas) {
+            direcciones.add(persona.getDireccionDomicilio());
+            if (persona.getDireccionNotificacion() != persona.getDireccionDomicilio()) {
+                direcciones.add(persona.getDireccionNotificacion());
+            }
+            if (persona.getTelefonos() != null) {
+                telefonos.addAll(persona.getTelefonos());
+            }
+        }
+
+        try (SqlSession session = this.sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+            AltaPersonaMapper mapper = session.getMapper(AltaPersonaMapper.class);
+            List<IdsAltaPersona> ids = mapper.reservarIds(Math.max(direcciones.size(), Math.max(personas.size(), telefonos.size())));
+            for (var i = 0; i < direcciones.size(); i++) {
+                direcciones.get(i).setDireccionId(ids.get(i).getDireccionId());
+                mapper.insertDireccion(direcciones.get(i));
+            }
+            for (var i = 0; i < personas.size(); i++) {
+                personas.get(i).setPersonaId(ids.get(i).getPersonaId());
+                mapper.insertPersona(personas.get(i));
+            }
+            var i = 0;
+            for (Persona persona : personas) {
+                if (persona.getTelefonos() == null) {
+                    continue;
+                }
+                for (TelefonoContacto telefono : persona.getTelefonos()) {
+                    telefono.setTelefonoId(ids.get(i++).getTelefonoId());
+                    mapper.insertTelefono(telefono, persona);
+                }
+            }
+            session.commit();
+        }
+    }
+}
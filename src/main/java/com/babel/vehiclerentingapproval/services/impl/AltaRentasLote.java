@@ -0,0 +1,47 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import com.babel.vehiclerentingapproval.models.Renta;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.RentaMapper;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Inserta rentas anuales en un lote JDBC, con el executor BATCH de MyBatis.
+ * <p>
+ * Igual que {@link AltaPersonasLote}, los IDs se reservan de antemano con una sola consulta a la secuencia
+ * (RentaMapper.reservarIds) y todas las rentas se insertan con un unico lote, en lugar de una sentencia por fila.
+ *
+ * @see RentaMapper#insertRenta(Renta)
+ */
+@Component
+public class AltaRentasLote {
+    private final SqlSessionFactory sqlSessionFactory;
+
+    public AltaRentasLote(SqlSessionFactory sqlSessionFactory) {
+        this.sqlSessionFactory = sqlSessionFactory;
+    }
+
+    /**
+     * Inserta las rentas, ya validadas, y les asigna su ID
+     *
+     * @param rentas rentas a insertar
+     */
+    public void insertar(List<Renta> rentas) {
+        if (rentas.isEmpty()) {
+            return;
+        }
+        try (SqlSession session = this.sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+            RentaMapper mapper = session.getMapper(RentaMapper.class);
+            List<Integer> ids = mapper.reservarIds(rentas.size());
+            for (var i = 0; i < rentas.size(); i++) {
+                rentas.get(i).setRentaId(ids.get(i));
+                mapper.insertRenta(rentas.get(i));
+            }
+            session.commit();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import com.babel.vehiclerentingapproval.models.Direccion;
+import com.babel.vehiclerentingapproval.models.Persona;
+import com.babel.vehiclerentingapproval.models.PersonaGuardada;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Columnas de PERSONA y DIRECCION que cambia una modificacion respecto a lo guardado, para actualizar solo esas.
+ * <p>
+ * Las fechas se comparan por dia, porque las columnas son DATE y se escriben con jdbcType=DATE.
+ *
+ * @see PersonaServiceImpl#modificarPersona(Persona)
+ */
+final class CambiosPersona {
+    static final String NOMBRE = "NOMBRE";
+    static final String EMAIL = "EMAIL";
+
+    private CambiosPersona() {
+    }
+
+    /**
+     * @param guardada campos de la persona en la base de datos
+     * @param persona  persona con los valores nuevos
+     * @return las columnas de PERSONA cuyo valor cambia, vacio si no cambia ninguna
+     */
+    static Set<String> columnasPersona(PersonaGuardada guardada, Persona persona) {
+        Set<String> columnas = new HashSet<>();
+        comparar(columnas, NOMBRE, guardada.getNombre(), persona.getNombre());
+        comparar(columnas, "APELLIDO1", guardada.getApellido1(), persona.getApellido1());
+        comparar(columnas, "APELLIDO2", guardada.getApellido2(), persona.getApellido2());
+        comparar(columnas, "DIRECCION_DOMICILIO_ID", guardada.getDireccionDomicilioId(), persona.getDireccionDomicilio().getDireccionId());
+        comparar(columnas, "DIRECCION_NOTIFICACION_ID", guardada.getDireccionNotificacionId(), persona.getDireccionNotificacion().getDireccionId());
+        comparar(columnas, "NIF", guardada.getNif(), persona.getNif());
+        comparar(columnas, "FECHA_NACIMIENTO", dia(guardada.getFechaNacimiento()), dia(persona.getFechaNacimiento()));
+        comparar(columnas, "NACIONALIDAD", guardada.getNacionalidad(), persona.getNacionalidad() == null ? null : persona.getNacionalidad().getIsoAlfa2());
+        comparar(columnas, "SCORING", guardada.getScoring(), persona.getScoring());
+        comparar(columnas, "FECHA_SCORING", dia(guardada.getFechaScoring()), dia(persona.getFechaScoring()));
+        comparar(columnas, EMAIL, guardada.getEmail(), persona.getEmail());
+        return columnas;
+    }
+
+    /**
+     * @param guardada direccion en la base de datos
+     * @param direccion direccion con los valores nuevos
+     * @return las columnas de DIRECCION cuyo valor cambia, vacio si no cambia ninguna
+     */
+    static Set<String> columnasDireccion(Direccion guardada, Direccion direccion) {
+        Set<String> columnas = new HashSet<>();
+        comparar(columnas, "TIPO_VIA_ID", valor(guardada.getTipoViaId(), tipoVia -> tipoVia.getTipoViaId()), valor(direccion.getTipoViaId(), tipoVia -> tipoVia.getTipoViaId()));
+        comparar(columnas, "NOMBRE_CALLE", guardada.getNombreCalle(), direccion.getNombreCalle());
+        comparar(columnas, "NUM", guardada.getNumero(), direccion.getNumero());
+        comparar(columnas, "PISO", guardada.getPiso(), direccion.getPiso());
+        comparar(columnas, "PUERTA", guardada.getPuerta(), direccion.getPuerta());
+        comparar(columnas, "ESCALERA", guardada.getEscalera(), direccion.getEscalera());
+        comparar(columnas, "OTRO_DATO", guardada.getOtroDato(), direccion.getOtroDato());
+        comparar(columnas, "COD_POSTAL", guardada.getCodPostal(), direccion.getCodPostal());
+        comparar(columnas, "MUNICIPIO", guardada.getMunicipio(), direccion.getMunicipio());
+        comparar(columnas, "COD_PROVINCIA", valor(guardada.getProvincia(), provincia -> provincia.getCodProvincia()), valor(direccion.getProvincia(), provincia -> provincia.getCodProvincia()));
+        return columnas;
+    }
+
+    private static void comparar(Set<String> columnas, String columna, Object guardado, Object nuevo) {
+        if (!Objects.equals(guardado, nuevo)) {
+            columnas.add(columna);
+        }
+    }
+
+    private static <T> Object valor(T objeto, Function<T, Object> campo) {
+        return objeto == null ? null : campo.apply(objeto);
+    }
+
+    private static Object dia(Date fecha) {
+        return fecha == null ? null : Instant.ofEpochMilli(fecha.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+}
@@ -0,0 +1,97 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import com.babel.vehiclerentingapproval.models.TelefonoContacto;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Diferencia entre los telefonos guardados de una persona y los que llegan en una modificacion, para escribir solo lo
+ * que cambia.
+ * <p>
+ * Un telefono nuevo con el ID de uno guardado es ese telefono, y se actualiza si cambia el numero. Uno sin ID, o con
+ * un ID que no es de la persona, reutiliza el guardado con el mismo numero si queda alguno sin emparejar; si no,
+ * reutiliza cualquier otro guardado sobrante cambiandole el numero, y solo se inserta cuando no quedan guardados. Los
+ * guardados que no se emparejan con ninguno se borran.
+ *
+ * @see PersonaServiceImpl#modificarTelefono(com.babel.vehiclerentingapproval.models.Persona)
+ */
+final class CambiosTelefonos {
+    private final List<TelefonoContacto> insertar = new ArrayList<>();
+    private final List<TelefonoContacto> actualizar = new ArrayList<>();
+    private final List<TelefonoContacto> borrar = new ArrayList<>();
+
+    private CambiosTelefonos() {
+    }
+
+    /**
+     * Calcula los cambios y asigna a los telefonos nuevos el ID del guardado con el que se emparejan
+     *
+     * @param guardados telefonos de la persona en la base de datos
+     * @param nuevos    telefonos que debe tener la persona
+     */
+    static CambiosTelefonos calcular(List<TelefonoContacto> guardados, List<TelefonoContacto> nuevos) {
+        var cambios = new CambiosTelefonos();
+        Map<Integer, TelefonoContacto> sinEmparejar = new LinkedHashMap<>();
+        for (TelefonoContacto guardado : guardados) {
+            sinEmparejar.put(guardado.getTelefonoId(), guardado);
+        }
+
+        List<TelefonoContacto> sinId = new ArrayList<>();
+        for (TelefonoContacto nuevo : nuevos) {
+            TelefonoContacto guardado = sinEmparejar.remove(nuevo.getTelefonoId());
+            if (guardado == null) {
+                sinId.add(nuevo);
+            } else if (!Objects.equals(guardado.getTelefono(), nuevo.getTelefono())) {
+                cambios.actualizar.add(nuevo);
+            }
+        }
+
+        Map<String, Deque<TelefonoContacto>> porNumero = new HashMap<>();
+        for (TelefonoContacto guardado : sinEmparejar.values()) {
+            porNumero.computeIfAbsent(guardado.getTelefono(), numero -> new ArrayDeque<>()).add(guardado);
+        }
+        List<TelefonoContacto> pendientes = new ArrayList<>();
+        for (TelefonoContacto nuevo : sinId) {
+            Deque<TelefonoContacto> mismoNumero = porNumero.get(nuevo.getTelefono());
+            TelefonoContacto guardado = mismoNumero == null ? null : mismoNumero.poll();
+            if (guardado == null) {
+                pendientes.add(nuevo);
+            } else {
+                nuevo.setTelefonoId(guardado.getTelefonoId());
+                sinEmparejar.remove(guardado.getTelefonoId());
+            }
+        }
+
+        Iterator<TelefonoContacto> sobrantes = sinEmparejar.values().iterator();
+        for (TelefonoContacto nuevo : pendientes) {
+            if (sobrantes.hasNext()) {
+                nuevo.setTelefonoId(sobrantes.next().getTelefonoId());
+                cambios.actualizar.add(nuevo);
+            } else {
+                cambios.insertar.add(nuevo);
+            }
+        }
+        sobrantes.forEachRemaining(cambios.borrar::add);
+        return cambios;
+    }
+
+    List<TelefonoContacto> getInsertar() {
+        return insertar;
+    }
+
+    List<TelefonoContacto> getActualizar() {
+        return actualizar;
+    }
+
+    List<TelefonoContacto> getBorrar() {
+        return borrar;
+    }
+}
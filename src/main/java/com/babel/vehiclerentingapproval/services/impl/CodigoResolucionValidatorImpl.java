@@ -1,32 +1,32 @@
 package com.babel.vehiclerentingapproval.services.impl;
 
 import com.babel.vehiclerentingapproval.exceptions.EstadoSolicitudInvalidException;
-import com.babel.vehiclerentingapproval.persistance.database.mappers.TipoResultadoSolicitudMapper;
 import com.babel.vehiclerentingapproval.services.CodigoResolucionValidator;
+import com.babel.vehiclerentingapproval.services.referencia.CatalogoResoluciones;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 /**
  * Esta clase define un método para validar un codigo de resolución.Implementa la interfaz
- * CodigoResolucionValidator y utiliza un objeto TipoResultadoSolicitudMapper
- * para validar los códigos de resolución
+ * CodigoResolucionValidator y valida los códigos de resolución contra el catalogo en memoria,
+ * sin consultar la base de datos
  * @author javier.serrano@babelgroup.com
  * @see CodigoResolucionValidator
- * @see TipoResultadoSolicitudMapper
+ * @see CatalogoResoluciones
  */
 @Service
 @Log4j2
 public class CodigoResolucionValidatorImpl implements CodigoResolucionValidator {
-    TipoResultadoSolicitudMapper tipoResultadoSolicitudMapper;
+    CatalogoResoluciones catalogoResoluciones;
 
     /**
-     * Constructor de la clase. Recibe como argumento un objeto TipoResultadoSolicitudMapper
+     * Constructor de la clase. Recibe como argumento el catalogo de codigos de resolución
      * para realizar las validaciones de código de resolución.
-     * @param tipoResultadoSolicitudMapper objeto TipoResultadoSolicitudMapper para realizar las validaciones
+     * @param catalogoResoluciones catalogo de codigos de resolución para realizar las validaciones
      */
-    public CodigoResolucionValidatorImpl(TipoResultadoSolicitudMapper tipoResultadoSolicitudMapper) {
-        this.tipoResultadoSolicitudMapper = tipoResultadoSolicitudMapper;
+    public CodigoResolucionValidatorImpl(CatalogoResoluciones catalogoResoluciones) {
+        this.catalogoResoluciones = catalogoResoluciones;
     }
 
     /**
@@ -37,7 +37,7 @@ public class CodigoResolucionValidatorImpl implements CodigoResolucionValidator
     @Override
     public void validarCodResolucion(String codResolucion) {
         log.info("Entrando método validarCodResolucion");
-        if(this.tipoResultadoSolicitudMapper.codigoValido(codResolucion) != 1){
+        if(!this.catalogoResoluciones.esValido(codResolucion)){
             log.warn("Nueva excepción manejada, estado de solicitud inválido");
             throw new EstadoSolicitudInvalidException(HttpStatus.BAD_REQUEST);
         }
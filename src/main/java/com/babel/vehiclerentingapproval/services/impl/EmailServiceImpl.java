@@ -1,21 +1,52 @@
 package com.babel.vehiclerentingapproval.services.impl;
 
 
+import com.babel.vehiclerentingapproval.exceptions.ApplicationException;
 import com.babel.vehiclerentingapproval.exceptions.EmailNotSentException;
+import com.babel.vehiclerentingapproval.models.CorreoElectronico;
+import com.babel.vehiclerentingapproval.models.EstadisticasEnvioCorreo;
+import com.babel.vehiclerentingapproval.models.ResultadoEnvioCorreo;
 import com.babel.vehiclerentingapproval.services.EmailService;
 import lombok.SneakyThrows;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import javax.mail.*;
+import javax.annotation.PreDestroy;
+import javax.mail.Message;
+import javax.mail.MessagingException;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
-import java.util.Properties;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Esta clase define un método para enviar correos electrónicos
+ * Esta clase define un método para enviar correos electrónicos.
+ * <p>
+ * Los correos se envian por un {@link PoolTransporteSmtp} construido con la sesion, el servidor y las credenciales del
+ * {@link JavaMailSenderImpl} que configura Spring con las propiedades spring.mail.*, de modo que no se abre una conexion
+ * TLS nueva por cada correo. El tamaño y los tiempos del pool se configuran con las propiedades email.pool.*.
+ * <p>
+ * Los envios masivos reservan una conexion para bloques de como mucho email.lote.tamanio-bloque correos seguidos, y
+ * la devuelven al pool entre bloque y bloque y mientras esperan el turno de un dominio para no acapararla; ademas
+ * respetan un maximo de email.lote.mensajes-por-segundo-dominio correos por segundo a cada dominio de destino.
+ * <p>
+ * Los envios asincronos, sueltos o por bloques, se ejecutan en email.async.hilos hilos propios con una cola de como
+ * mucho email.async.capacidad-cola envios. Con la cola llena el envio se rechaza al momento en vez de bloquear al hilo que lo
+ * pide, de modo que la latencia del servidor de correo no llega a los hilos de las peticiones web.
  *
  * @author andres.guijarro@babelgroup.com
  * @author enrique.munoz@babelgroup.com
@@ -23,10 +54,50 @@ import java.util.Properties;
 @Service
 @Log4j2
 public class EmailServiceImpl implements EmailService {
+    /**
+     * Espera maxima hasta el turno del siguiente correo durante la que un envio masivo se queda con la conexion
+     */
+    private static final long MAX_ESPERA_CON_CONEXION_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
     final JavaMailSender mailSender;
+    private final PoolTransporteSmtp pool;
+    private final String remitente;
+    private final int tamanioBloque;
+    private final LimitadorPorDominio limitador;
+    private final ThreadPoolExecutor executor;
+    private final int capacidadCola;
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final LongAdder enviados = new LongAdder();
+    private final LongAdder fallidos = new LongAdder();
+    private final LongAdder rechazados = new LongAdder();
 
-    public EmailServiceImpl(JavaMailSender mailSender) {
+    public EmailServiceImpl(JavaMailSender mailSender,
+                            @Value("${email.pool.tamanio:4}") int tamanio,
+                            @Value("${email.pool.espera-ms:10000}") long esperaMs,
+                            @Value("${email.pool.inactividad-maxima-ms:30000}") long inactividadMaximaMs,
+                            @Value("${email.pool.validar-tras-ms:1000}") long validarTrasMs,
+                            @Value("${email.lote.tamanio-bloque:100}") int tamanioBloque,
+                            @Value("${email.lote.mensajes-por-segundo-dominio:20}") int mensajesPorSegundoDominio,
+                            @Value("${email.async.hilos:4}") int hilos,
+                            @Value("${email.async.capacidad-cola:1000}") int capacidadCola) {
+        if (!(mailSender instanceof JavaMailSenderImpl)) {
+            throw new IllegalArgumentException("El envio de correos necesita un JavaMailSenderImpl: " + mailSender);
+        }
         this.mailSender = mailSender;
+        var configuracion = (JavaMailSenderImpl) mailSender;
+        this.remitente = configuracion.getUsername();
+        this.pool = new PoolTransporteSmtp(configuracion.getSession(), configuracion.getHost(), configuracion.getPort(),
+                configuracion.getUsername(), configuracion.getPassword(), tamanio, esperaMs, inactividadMaximaMs, validarTrasMs);
+        this.tamanioBloque = Math.max(1, tamanioBloque);
+        this.limitador = new LimitadorPorDominio(mensajesPorSegundoDominio);
+        this.capacidadCola = Math.max(1, capacidadCola);
+        var counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(Math.max(1, hilos), Math.max(1, hilos), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.capacidadCola), runnable -> {
+            var thread = new Thread(runnable, "email-async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
     }
 
     /**
@@ -38,48 +109,220 @@ public class EmailServiceImpl implements EmailService {
      */
     @SneakyThrows
     public boolean sendMail(String mensaje, String destino, String asunto)  {
-        //usuario y contraseña del usuario de google que vayamos a utilizar
-        var username = "solicitudrenting@gmail.com";
-        var psw = "hswrinyhboucvsss";
-
-        //propiedades del mensaje
-        String mensage = mensaje;
-        String to = destino;
-        String subject = asunto;
-
-        //propiedades de la conexión
-        var props = new Properties();
-        props.put("mail.smtp.auth", "true");
-        props.put("mail.smtp.starttls.enable", "true");
-        props.put("mail.smtp.host", "smtp.gmail.com");
-        props.put("mail.smtp.port", "587");
-        props.put("mail.smtp.ssl.trust", "smtp.gmail.com");
-
-        var session = Session.getInstance(props,
-                new javax.mail.Authenticator() {
-                    @Override
-                    protected PasswordAuthentication getPasswordAuthentication() {
-                        return new PasswordAuthentication(username, psw);
-
-                    }
-                });
-
+        Message message = this.crearMensaje(mensaje, destino, asunto);
         try {
-            Message message = new MimeMessage(session);
-            message.setFrom(new InternetAddress(username));
-            message.setRecipients(Message.RecipientType.TO,
-                    InternetAddress.parse(to));
-            message.setSubject(subject);
-            message.setText(mensage);
-            Transport.send(message);
+            pool.enviar(message);
             return true;
-        } catch (EmailNotSentException e) {
-            log.warn("EL Email no ha sido enviado");
-            throw new EmailNotSentException("No se ha podido enviar el email", HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (MessagingException e) {
+            log.warn("EL Email no ha sido enviado a: {}", destino);
+            throw e;
+        }
+    }
+
+    /**
+     * Metodo que envía un correo electrónico en los hilos dedicados al correo, sin bloquear al hilo que lo pide.
+     *
+     * @param mensaje el mensaje del correo electrónico
+     * @param destino el correo electrónico del destinatario
+     * @param asunto  el asunto del correo electrónico
+     * @return el resultado del envio, que termina con EmailNotSentException (503) si la cola esta llena
+     */
+    @Override
+    public CompletableFuture<Boolean> sendMailAsync(String mensaje, String destino, String asunto) {
+        try {
+            return CompletableFuture.supplyAsync(() -> this.enviarEnCurso(mensaje, destino, asunto), executor);
+        } catch (RejectedExecutionException e) {
+            rechazados.increment();
+            log.warn("Cola de envio de correos llena ({} envios), se rechaza el correo a: {}", capacidadCola, destino);
+            return CompletableFuture.failedFuture(
+                    new EmailNotSentException("La cola de envio de correos esta llena", HttpStatus.SERVICE_UNAVAILABLE));
         }
+    }
 
+    private boolean enviarEnCurso(String mensaje, String destino, String asunto) {
+        enCurso.incrementAndGet();
+        var enviado = false;
+        try {
+            enviado = this.sendMail(mensaje, destino, asunto);
+            return enviado;
+        } finally {
+            enCurso.decrementAndGet();
+            (enviado ? enviados : fallidos).increment();
+        }
     }
 
+    /**
+     * Metodo que envía un bloque de correos electrónicos. Se reserva un turno para cada correo segun su dominio y se
+     * envian por orden de turno, de modo que mientras un dominio espera se adelantan los de otros dominios. Los
+     * correos se envian seguidos por la misma conexion, que se devuelve al pool cada email.lote.tamanio-bloque correos
+     * y mientras se espera un turno.
+     *
+     * @param correos los correos electrónicos a enviar
+     * @return el resultado de entrega de cada correo, en el mismo orden que los correos
+     */
+    @Override
+    public List<ResultadoEnvioCorreo> sendMails(List<CorreoElectronico> correos) {
+        long inicio = System.nanoTime();
+        var resultados = new ResultadoEnvioCorreo[correos.size()];
+        var mensajes = new Message[correos.size()];
+        var turnos = new long[correos.size()];
+        List<Integer> orden = new ArrayList<>(correos.size());
+        for (var i = 0; i < correos.size(); i++) {
+            CorreoElectronico correo = correos.get(i);
+            try {
+                mensajes[i] = this.crearMensaje(correo.getMensaje(), correo.getDestino(), correo.getAsunto());
+                turnos[i] = limitador.reservar(correo.getDominio());
+                orden.add(i);
+            } catch (MessagingException e) {
+                resultados[i] = fallido(correo, e);
+            }
+        }
+        orden.sort(Comparator.comparingLong(i -> turnos[i]));
 
-}
+        for (var desde = 0; desde < orden.size(); desde += tamanioBloque) {
+            List<Integer> bloque = orden.subList(desde, Math.min(desde + tamanioBloque, orden.size()));
+            try {
+                this.enviarBloque(correos, mensajes, turnos, bloque, resultados);
+            } catch (EmailNotSentException e) {
+                bloque.stream().filter(i -> resultados[i] == null).forEach(i -> resultados[i] = fallido(correos.get(i), e));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                orden.stream().filter(i -> resultados[i] == null).forEach(i -> resultados[i] = fallido(correos.get(i), e));
+                break;
+            }
+        }
+
+        long enviados = Arrays.stream(resultados).filter(ResultadoEnvioCorreo::isEnviado).count();
+        this.enviados.add(enviados);
+        this.fallidos.add(correos.size() - enviados);
+        log.info("Envio masivo de correos: {} enviados de {} en {} ms", enviados, correos.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+        return Arrays.asList(resultados);
+    }
+
+    /**
+     * Metodo que envía un bloque de correos electrónicos en los hilos dedicados al correo, sin bloquear al hilo que lo
+     * pide. Mientras se envia, los correos del bloque cuentan como en curso.
+     *
+     * @param correos los correos electrónicos a enviar
+     * @return el resultado de entrega de cada correo, que termina con EmailNotSentException (503) si la cola esta llena
+     */
+    @Override
+    public CompletableFuture<List<ResultadoEnvioCorreo>> sendMailsAsync(List<CorreoElectronico> correos) {
+        try {
+            return CompletableFuture.supplyAsync(() -> this.enviarLoteEnCurso(correos), executor);
+        } catch (RejectedExecutionException e) {
+            rechazados.add(correos.size());
+            log.warn("Cola de envio de correos llena ({} envios), se rechaza un bloque de {} correos", capacidadCola, correos.size());
+            return CompletableFuture.failedFuture(
+                    new EmailNotSentException("La cola de envio de correos esta llena", HttpStatus.SERVICE_UNAVAILABLE));
+        }
+    }
+
+    private List<ResultadoEnvioCorreo> enviarLoteEnCurso(List<CorreoElectronico> correos) {
+        enCurso.addAndGet(correos.size());
+        try {
+            return this.sendMails(correos);
+        } finally {
+            enCurso.addAndGet(-correos.size());
+        }
+    }
+
+    /**
+     * Envia por una misma conexion los correos del bloque, esperando a que llegue el turno de cada uno. La conexion se
+     * reserva cuando llega el turno del primer correo y, si el siguiente turno tarda mas de
+     * MAX_ESPERA_CON_CONEXION_NANOS, se devuelve al pool durante la espera para que la usen otros envios.
+     */
+    private void enviarBloque(List<CorreoElectronico> correos, Message[] mensajes, long[] turnos, List<Integer> bloque,
+                              ResultadoEnvioCorreo[] resultados) throws InterruptedException {
+        PoolTransporteSmtp.LoteSmtp lote = null;
+        try {
+            for (Integer i : bloque) {
+                long espera = turnos[i] - System.nanoTime();
+                if (lote != null && espera > MAX_ESPERA_CON_CONEXION_NANOS) {
+                    lote.close();
+                    lote = null;
+                }
+                if (espera > 0) {
+                    TimeUnit.NANOSECONDS.sleep(espera);
+                }
+                if (lote == null) {
+                    lote = pool.abrirLote();
+                }
+                try {
+                    lote.enviar(mensajes[i]);
+                    resultados[i] = ResultadoEnvioCorreo.enviado(correos.get(i).getDestino());
+                } catch (MessagingException | RuntimeException e) {
+                    log.warn("EL Email no ha sido enviado a: {}", correos.get(i).getDestino());
+                    resultados[i] = fallido(correos.get(i), e);
+                }
+            }
+        } finally {
+            if (lote != null) {
+                lote.close();
+            }
+        }
+    }
+
+    private Message crearMensaje(String mensaje, String destino, String asunto) throws MessagingException {
+        Message message = new MimeMessage(pool.getSession());
+        message.setFrom(new InternetAddress(remitente));
+        message.setRecipients(Message.RecipientType.TO,
+                InternetAddress.parse(destino));
+        message.setSubject(asunto);
+        message.setText(mensaje);
+        message.saveChanges();
+        return message;
+    }
 
+    private static ResultadoEnvioCorreo fallido(CorreoElectronico correo, Exception e) {
+        String motivo = e instanceof ApplicationException ? ((ApplicationException) e).getExternalMessage() : e.getMessage();
+        return ResultadoEnvioCorreo.fallido(correo.getDestino(), e.getClass().getSimpleName() + ": " + motivo);
+    }
+
+    @Override
+    public EstadisticasEnvioCorreo getEstadisticas() {
+        var estadisticas = new EstadisticasEnvioCorreo();
+        estadisticas.setHilos(executor.getMaximumPoolSize());
+        estadisticas.setCapacidadCola(capacidadCola);
+        estadisticas.setEnCola(executor.getQueue().size());
+        estadisticas.setEnCurso(enCurso.get());
+        estadisticas.setEnviados(enviados.sum());
+        estadisticas.setFallidos(fallidos.sum());
+        estadisticas.setRechazados(rechazados.sum());
+        estadisticas.setConexionesAbiertas(pool.getAbiertas());
+        estadisticas.setConexionesLibres(pool.getLibres());
+        return estadisticas;
+    }
+
+    /**
+     * Cierra las conexiones SMTP que llevan mas de email.pool.inactividad-maxima-ms sin usarse, antes de que las corte
+     * el servidor
+     */
+    @Scheduled(fixedDelayString = "${email.pool.inactividad-maxima-ms:30000}", initialDelayString = "${email.pool.inactividad-maxima-ms:30000}")
+    public void cerrarConexionesInactivas() {
+        limitador.purgar();
+        int cerradas = pool.cerrarInactivas();
+        if (cerradas > 0) {
+            log.debug("Cerradas {} conexiones SMTP inactivas, quedan {} abiertas; {} mensajes por {} conexiones creadas",
+                    cerradas, pool.getAbiertas(), pool.getMensajes(), pool.getCreadas());
+        }
+    }
+
+    /**
+     * Deja de aceptar envios asincronos, espera a los pendientes como mucho email.pool.espera-ms y cierra las conexiones
+     */
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(pool.getEsperaMs(), TimeUnit.MILLISECONDS)) {
+                log.warn("Quedan {} correos sin enviar al cerrar", executor.shutdownNow().size() + enCurso.get());
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        pool.close();
+    }
+}
@@ -0,0 +1,190 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import com.babel.vehiclerentingapproval.exceptions.ApplicationException;
+import com.babel.vehiclerentingapproval.models.FormatoImportacion;
+import com.babel.vehiclerentingapproval.models.Persona;
+import com.babel.vehiclerentingapproval.models.ResultadoAltaPersona;
+import com.babel.vehiclerentingapproval.models.ResumenImportacionPersonas;
+import com.babel.vehiclerentingapproval.services.ImportacionPersonasService;
+import com.babel.vehiclerentingapproval.services.PersonaService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementacion de la importacion masiva de personas.
+ * <p>
+ * El fichero se lee linea a linea y las personas se acumulan en lotes de como maximo persona.importacion.tamanio-lote
+ * lineas, que se dan de alta con {@link PersonaService#addPersonas(List)} en una transaccion por lote. El resultado de
+ * cada linea se escribe al terminar su lote, de modo que en memoria solo hay un lote y ninguna linea de mas de
+ * persona.importacion.longitud-maxima-linea caracteres. Una linea que no se puede leer o una persona que no pasa la
+ * validacion no impiden el alta del resto; si falla la escritura de un lote, fallan todas las lineas de ese lote.
+ *
+ * @see LectorPersonas
+ * @see LineasFichero
+ */
+@Service
+@Log4j2
+public class ImportacionPersonasServiceImpl implements ImportacionPersonasService {
+    private static final byte[] SALTO_LINEA = {'\n'};
+
+    private final PersonaService personaService;
+    private final ObjectReader lectorJson;
+    private final ObjectWriter escritorJson;
+    private final int tamanioLote;
+    private final int longitudMaximaLinea;
+
+    public ImportacionPersonasServiceImpl(PersonaService personaService, ObjectMapper objectMapper,
+                                          @Value("${persona.importacion.tamanio-lote:500}") int tamanioLote,
+                                          @Value("${persona.importacion.longitud-maxima-linea:65536}") int longitudMaximaLinea) {
+        this.personaService = personaService;
+        this.lectorJson = objectMapper.readerFor(Persona.class);
+        this.escritorJson = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.tamanioLote = Math.max(1, tamanioLote);
+        this.longitudMaximaLinea = Math.max(1, longitudMaximaLinea);
+    }
+
+    @Override
+    public ResumenImportacionPersonas importar(InputStream entrada, FormatoImportacion formato, OutputStream salida) throws IOException {
+        long inicio = System.nanoTime();
+        var resumen = new ResumenImportacionPersonas();
+        var lector = new LectorPersonas(formato, lectorJson);
+        var lineas = new LineasFichero(entrada, longitudMaximaLinea);
+        var out = new BufferedOutputStream(salida);
+        var lote = new Lote(tamanioLote);
+
+        String linea;
+        while ((linea = lineas.siguiente()) != null) {
+            if (linea.isBlank()) {
+                continue;
+            }
+            if (lineas.isDemasiadoLarga()) {
+                lote.fallida(lineas.getNumero(), "La linea supera los " + longitudMaximaLinea + " caracteres");
+            } else {
+                try {
+                    Persona persona = lector.leer(linea);
+                    if (persona != null) {
+                        lote.persona(lineas.getNumero(), persona);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    lote.fallida(lineas.getNumero(), motivo(e));
+                }
+            }
+            if (lote.size() >= tamanioLote) {
+                this.escribirLote(lote, resumen, out);
+            }
+        }
+        if (lote.size() > 0) {
+            this.escribirLote(lote, resumen, out);
+        }
+
+        long tiempoNanos = System.nanoTime() - inicio;
+        resumen.setTiempoMillis(TimeUnit.NANOSECONDS.toMillis(tiempoNanos));
+        resumen.setPersonasPorSegundo(resumen.getLineas() / Math.max(tiempoNanos / 1e9, 1e-9));
+        escritorJson.writeValue(out, resumen);
+        out.write(SALTO_LINEA);
+        out.flush();
+        log.info("Importacion de personas finalizada: {} lineas, {} creadas, {} fallidas en {} lotes, {} ms ({} personas/s)",
+                resumen.getLineas(), resumen.getCreadas(), resumen.getFallidas(), resumen.getLotes(),
+                resumen.getTiempoMillis(), Math.round(resumen.getPersonasPorSegundo()));
+        return resumen;
+    }
+
+    /**
+     * Da de alta las personas del lote, escribe el resultado de cada linea en orden y vacia el lote
+     */
+    private void escribirLote(Lote lote, ResumenImportacionPersonas resumen, OutputStream out) throws IOException {
+        List<ResultadoAltaPersona> altas;
+        if (lote.personas.isEmpty()) {
+            altas = List.of();
+        } else {
+            try {
+                altas = this.personaService.addPersonas(lote.personas);
+            } catch (RuntimeException e) {
+                log.warn("No se ha podido dar de alta el lote de {} personas", lote.personas.size(), e);
+                String motivo = motivo(e);
+                altas = new ArrayList<>(lote.personas.size());
+                for (var i = 0; i < lote.personas.size(); i++) {
+                    altas.add(ResultadoAltaPersona.fallida(motivo));
+                }
+            }
+        }
+
+        var siguienteAlta = altas.iterator();
+        for (var i = 0; i < lote.resultados.size(); i++) {
+            ResultadoAltaPersona resultado = lote.resultados.get(i);
+            if (resultado == null) {
+                resultado = siguienteAlta.next();
+            }
+            resultado.setLinea(lote.lineas.get(i));
+            if (resultado.isCreada()) {
+                resumen.setCreadas(resumen.getCreadas() + 1);
+            } else {
+                resumen.setFallidas(resumen.getFallidas() + 1);
+            }
+            escritorJson.writeValue(out, resultado);
+            out.write(SALTO_LINEA);
+        }
+        out.flush();
+        resumen.setLineas(resumen.getLineas() + lote.size());
+        resumen.setLotes(resumen.getLotes() + 1);
+        lote.vaciar();
+    }
+
+    private static String motivo(Exception e) {
+        String motivo = e instanceof ApplicationException ? ((ApplicationException) e).getExternalMessage() : e.getMessage();
+        return e.getClass().getSimpleName() + ": " + motivo;
+    }
+
+    /**
+     * Lineas del lote en curso: para cada una, su numero y su resultado si ya ha fallado al leerla, o null si su
+     * persona esta pendiente de alta
+     */
+    private static final class Lote {
+        private final List<Long> lineas;
+        private final List<ResultadoAltaPersona> resultados;
+        private final List<Persona> personas;
+
+        private Lote(int tamanio) {
+            this.lineas = new ArrayList<>(tamanio);
+            this.resultados = new ArrayList<>(tamanio);
+            this.personas = new ArrayList<>(tamanio);
+        }
+
+        private void persona(long linea, Persona persona) {
+            lineas.add(linea);
+            resultados.add(null);
+            personas.add(persona);
+        }
+
+        private void fallida(long linea, String error) {
+            lineas.add(linea);
+            resultados.add(ResultadoAltaPersona.fallida(error));
+        }
+
+        private int size() {
+            return lineas.size();
+        }
+
+        private void vaciar() {
+            lineas.clear();
+            resultados.clear();
+            personas.clear();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import com.babel.vehiclerentingapproval.exceptions.ApplicationException;
+import com.babel.vehiclerentingapproval.models.FormatoImportacion;
+import com.babel.vehiclerentingapproval.models.Renta;
+import com.babel.vehiclerentingapproval.models.ResultadoAltaRenta;
+import com.babel.vehiclerentingapproval.models.ResumenImportacionRentas;
+import com.babel.vehiclerentingapproval.services.ImportacionRentasService;
+import com.babel.vehiclerentingapproval.services.ProfesionService;
+import com.babel.vehiclerentingapproval.services.RentaService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementacion de la importacion masiva de rentas anuales.
+ * <p>
+ * Los IDs de las profesiones se cargan una vez al empezar, asi que cada renta se valida contra un conjunto en memoria.
+ * El fichero se lee linea a linea y las rentas se acumulan en lotes de como maximo renta.importacion.tamanio-lote
+ * lineas, que se dan de alta con {@link RentaService#addRentas(List, Set)} en una transaccion por lote: una consulta
+ * para comprobar las personas y un lote JDBC para insertar. El resultado de cada linea se escribe al terminar su
+ * lote, de modo que en memoria solo hay un lote y ninguna linea de mas de renta.importacion.longitud-maxima-linea
+ * caracteres. Una linea que no se puede leer o una renta que no pasa la validacion no impiden el alta del resto; si
+ * falla la escritura de un lote, fallan todas las lineas de ese lote.
+ *
+ * @see LectorRentas
+ * @see LineasFichero
+ */
+@Service
+@Log4j2
+public class ImportacionRentasServiceImpl implements ImportacionRentasService {
+    private static final byte[] SALTO_LINEA = {'\n'};
+
+    private final RentaService rentaService;
+    private final ProfesionService profesionService;
+    private final ObjectReader lectorJson;
+    private final ObjectWriter escritorJson;
+    private final int tamanioLote;
+    private final int longitudMaximaLinea;
+
+    public ImportacionRentasServiceImpl(RentaService rentaService, ProfesionService profesionService, ObjectMapper objectMapper,
+                                        @Value("${renta.importacion.tamanio-lote:500}") int tamanioLote,
+                                        @Value("${renta.importacion.longitud-maxima-linea:4096}") int longitudMaximaLinea) {
+        this.rentaService = rentaService;
+        this.profesionService = profesionService;
+        this.lectorJson = objectMapper.readerFor(Renta.class);
+        this.escritorJson = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.tamanioLote = Math.max(1, tamanioLote);
+        this.longitudMaximaLinea = Math.max(1, longitudMaximaLinea);
+    }
+
+    @Override
+    public ResumenImportacionRentas importar(InputStream entrada, FormatoImportacion formato, OutputStream salida) throws IOException {
+        long inicio = System.nanoTime();
+        var resumen = new ResumenImportacionRentas();
+        Set<Integer> profesionIds = this.profesionService.getProfesionIds();
+        var lector = new LectorRentas(formato, lectorJson);
+        var lineas = new LineasFichero(entrada, longitudMaximaLinea);
+        var out = new BufferedOutputStream(salida);
+        var lote = new Lote(tamanioLote);
+
+        String linea;
+        while ((linea = lineas.siguiente()) != null) {
+            if (linea.isBlank()) {
+                continue;
+            }
+            if (lineas.isDemasiadoLarga()) {
+                lote.fallida(lineas.getNumero(), "La linea supera los " + longitudMaximaLinea + " caracteres");
+            } else {
+                try {
+                    Renta renta = lector.leer(linea);
+                    if (renta != null) {
+                        lote.renta(lineas.getNumero(), renta);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    lote.fallida(lineas.getNumero(), motivo(e));
+                }
+            }
+            if (lote.size() >= tamanioLote) {
+                this.escribirLote(lote, profesionIds, resumen, out);
+            }
+        }
+        if (lote.size() > 0) {
+            this.escribirLote(lote, profesionIds, resumen, out);
+        }
+
+        long tiempoNanos = System.nanoTime() - inicio;
+        resumen.setTiempoMillis(TimeUnit.NANOSECONDS.toMillis(tiempoNanos));
+        resumen.setFilasPorSegundo(resumen.getLineas() / Math.max(tiempoNanos / 1e9, 1e-9));
+        escritorJson.writeValue(out, resumen);
+        out.write(SALTO_LINEA);
+        out.flush();
+        log.info("Importacion de rentas finalizada: {} lineas, {} creadas, {} fallidas en {} lotes, {} ms ({} filas/s)",
+                resumen.getLineas(), resumen.getCreadas(), resumen.getFallidas(), resumen.getLotes(),
+                resumen.getTiempoMillis(), Math.round(resumen.getFilasPorSegundo()));
+        return resumen;
+    }
+
+    /**
+     * Da de alta las rentas del lote, escribe el resultado de cada linea en orden y vacia el lote
+     */
+    private void escribirLote(Lote lote, Set<Integer> profesionIds, ResumenImportacionRentas resumen, OutputStream out) throws IOException {
+        List<ResultadoAltaRenta> altas;
+        if (lote.rentas.isEmpty()) {
+            altas = List.of();
+        } else {
+            try {
+                altas = this.rentaService.addRentas(lote.rentas, profesionIds);
+            } catch (RuntimeException e) {
+                log.warn("No se ha podido dar de alta el lote de {} rentas", lote.rentas.size(), e);
+                String motivo = motivo(e);
+                altas = new ArrayList<>(lote.rentas.size());
+                for (var i = 0; i < lote.rentas.size(); i++) {
+                    altas.add(ResultadoAltaRenta.fallida(motivo));
+                }
+            }
+        }
+
+        var siguienteAlta = altas.iterator();
+        for (var i = 0; i < lote.resultados.size(); i++) {
+            ResultadoAltaRenta resultado = lote.resultados.get(i);
+            if (resultado == null) {
+                resultado = siguienteAlta.next();
+            }
+            resultado.setLinea(lote.lineas.get(i));
+            if (resultado.isCreada()) {
+                resumen.setCreadas(resumen.getCreadas() + 1);
+            } else {
+                resumen.setFallidas(resumen.getFallidas() + 1);
+            }
+            escritorJson.writeValue(out, resultado);
+            out.write(SALTO_LINEA);
+        }
+        out.flush();
+        resumen.setLineas(resumen.getLineas() + lote.size());
+        resumen.setLotes(resumen.getLotes() + 1);
+        lote.vaciar();
+    }
+
+    private static String motivo(Exception e) {
+        String motivo = e instanceof ApplicationException ? ((ApplicationException) e).getExternalMessage() : e.getMessage();
+        return e.getClass().getSimpleName() + ": " + motivo;
+    }
+
+    /**
+     * Lineas del lote en curso: para cada una, su numero y su resultado si ya ha fallado al leerla, o null si su renta
+     * esta pendiente de alta
+     */
+    private static final class Lote {
+        private final List<Long> lineas;
+        private final List<ResultadoAltaRenta> resultados;
+        private final List<Renta> rentas;
+
+        private Lote(int tamanio) {
+            this.lineas = new ArrayList<>(tamanio);
+            this.resultados = new ArrayList<>(tamanio);
+            this.rentas = new ArrayList<>(tamanio);
+        }
+
+        private void renta(long linea, Renta renta) {
+            lineas.add(linea);
+            resultados.add(null);
+            rentas.add(renta);
+        }
+
+        private void fallida(long linea, String error) {
+            lineas.add(linea);
+            resultados.add(ResultadoAltaRenta.fallida(error));
+        }
+
+        private int size() {
+            return lineas.size();
+        }
+
+        private void vaciar() {
+            lineas.clear();
+            resultados.clear();
+            rentas.clear();
+        }
+    }
+}
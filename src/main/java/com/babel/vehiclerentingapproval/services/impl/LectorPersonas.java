@@ -0,0 +1,167 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import com.babel.vehiclerentingapproval.models.*;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Convierte cada linea de un fichero de importacion en una persona.
+ * <p>
+ * En NDJSON cada linea es una persona con el mismo JSON que acepta POST /persona. En CSV la primera linea es la
+ * cabecera con los nombres de las columnas, sin distinguir mayusculas: nombre, apellido1, apellido2, nif,
+ * fechaNacimiento (aaaa-mm-dd), email, nacionalidad (ISO alfa-2), tipoViaId, nombreCalle, numero, piso, puerta,
+ * escalera, otroDato, codPostal, municipio, codProvincia y telefonos (separados por '|'). Las columnas desconocidas se
+ * ignoran. La direccion del CSV es a la vez la de domicilio y la de notificacion. Los campos pueden ir entre comillas
+ * dobles, pero no pueden contener saltos de linea.
+ *
+ * @see ImportacionPersonasServiceImpl
+ */
+final class LectorPersonas {
+    private final FormatoImportacion formato;
+    private final ObjectReader lectorJson;
+    private String[] columnas;
+
+    LectorPersonas(FormatoImportacion formato, ObjectReader lectorJson) {
+        this.formato = formato;
+        this.lectorJson = lectorJson;
+    }
+
+    /**
+     * @param linea linea no vacia del fichero
+     * @return la persona de la linea, o null si la linea es la cabecera del CSV
+     * @throws IOException              si la linea no es un JSON valido de persona
+     * @throws IllegalArgumentException si algun campo del CSV no tiene un valor valido
+     */
+    Persona leer(String linea) throws IOException {
+        if (formato == FormatoImportacion.NDJSON) {
+            return lectorJson.readValue(linea);
+        }
+        if (columnas == null) {
+            columnas = campos(linea).toArray(new String[0]);
+            for (var i = 0; i < columnas.length; i++) {
+                columnas[i] = columnas[i].trim().toLowerCase(Locale.ROOT);
+            }
+            return null;
+        }
+        return this.personaCsv(campos(linea));
+    }
+
+    private Persona personaCsv(List<String> valores) {
+        var persona = new Persona();
+        var direccion = new Direccion();
+        persona.setDireccionDomicilio(direccion);
+        persona.setDireccionNotificacion(direccion);
+        persona.setDireccionDomicilioSameAsNotificacion(true);
+        for (var i = 0; i < columnas.length && i < valores.size(); i++) {
+            String valor = valores.get(i).trim();
+            if (valor.isEmpty()) {
+                continue;
+            }
+            switch (columnas[i]) {
+                case "nombre":
+                    persona.setNombre(valor);
+                    break;
+                case "apellido1":
+                    persona.setApellido1(valor);
+                    break;
+                case "apellido2":
+                    persona.setApellido2(valor);
+                    break;
+                case "nif":
+                    persona.setNif(valor);
+                    break;
+                case "fechanacimiento":
+                    persona.setFechaNacimiento(Date.from(LocalDate.parse(valor).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+                    break;
+                case "email":
+                    persona.setEmail(valor);
+                    break;
+                case "nacionalidad":
+                    var pais = new Pais();
+                    pais.setIsoAlfa2(valor);
+                    persona.setNacionalidad(pais);
+                    break;
+                case "tipoviaid":
+                    direccion.setTipoViaId(new TipoVia(Integer.valueOf(valor), null));
+                    break;
+                case "nombrecalle":
+                    direccion.setNombreCalle(valor);
+                    break;
+                case "numero":
+                    direccion.setNumero(valor);
+                    break;
+                case "piso":
+                    direccion.setPiso(valor);
+                    break;
+                case "puerta":
+                    direccion.setPuerta(valor);
+                    break;
+                case "escalera":
+                    direccion.setEscalera(valor);
+                    break;
+                case "otrodato":
+                    direccion.setOtroDato(valor);
+                    break;
+                case "codpostal":
+                    direccion.setCodPostal(valor);
+                    break;
+                case "municipio":
+                    direccion.setMunicipio(valor);
+                    break;
+                case "codprovincia":
+                    direccion.setProvincia(new Provincia(valor, null));
+                    break;
+                case "telefonos":
+                    List<TelefonoContacto> telefonos = new ArrayList<>();
+                    for (String telefono : valor.split("\\|")) {
+                        if (!telefono.isBlank()) {
+                            telefonos.add(new TelefonoContacto(0, telefono.trim()));
+                        }
+                    }
+                    persona.setTelefonos(telefonos);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return persona;
+    }
+
+    /**
+     * Separa una linea CSV por comas, respetando las comillas dobles y las comillas escapadas como ""
+     */
+    static List<String> campos(String linea) {
+        List<String> campos = new ArrayList<>();
+        var campo = new StringBuilder();
+        var entreComillas = false;
+        for (var i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c != '"') {
+                    campo.append(c);
+                } else if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else {
+                    entreComillas = false;
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+}
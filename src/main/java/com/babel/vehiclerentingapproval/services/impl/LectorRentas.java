@@ -0,0 +1,99 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import com.babel.vehiclerentingapproval.models.FormatoImportacion;
+import com.babel.vehiclerentingapproval.models.Persona;
+import com.babel.vehiclerentingapproval.models.Profesion;
+import com.babel.vehiclerentingapproval.models.Renta;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Convierte cada linea de un fichero de importacion en una renta anual.
+ * <p>
+ * En NDJSON cada linea es una renta con el mismo JSON que acepta POST /renta. En CSV la primera linea es la cabecera
+ * con los nombres de las columnas, sin distinguir mayusculas: personaId, profesionId, anio, importeNeto, importeBruto,
+ * isCuentaPropia, iae, cifEmpleador y fechaInicioEmpleo (aaaa-mm-dd). Las columnas desconocidas se ignoran y los
+ * campos siguen las mismas reglas de comillas que en {@link LectorPersonas}.
+ *
+ * @see ImportacionRentasServiceImpl
+ */
+final class LectorRentas {
+    private final FormatoImportacion formato;
+    private final ObjectReader lectorJson;
+    private String[] columnas;
+
+    LectorRentas(FormatoImportacion formato, ObjectReader lectorJson) {
+        this.formato = formato;
+        this.lectorJson = lectorJson;
+    }
+
+    /**
+     * @param linea linea no vacia del fichero
+     * @return la renta de la linea, o null si la linea es la cabecera del CSV
+     * @throws IOException              si la linea no es un JSON valido de renta
+     * @throws IllegalArgumentException si algun campo del CSV no tiene un valor valido
+     */
+    Renta leer(String linea) throws IOException {
+        if (formato == FormatoImportacion.NDJSON) {
+            return lectorJson.readValue(linea);
+        }
+        if (columnas == null) {
+            columnas = LectorPersonas.campos(linea).toArray(new String[0]);
+            for (var i = 0; i < columnas.length; i++) {
+                columnas[i] = columnas[i].trim().toLowerCase(Locale.ROOT);
+            }
+            return null;
+        }
+        return this.rentaCsv(LectorPersonas.campos(linea));
+    }
+
+    private Renta rentaCsv(List<String> valores) {
+        var renta = new Renta();
+        for (var i = 0; i < columnas.length && i < valores.size(); i++) {
+            String valor = valores.get(i).trim();
+            if (valor.isEmpty()) {
+                continue;
+            }
+            switch (columnas[i]) {
+                case "personaid":
+                    var persona = new Persona();
+                    persona.setPersonaId(Integer.parseInt(valor));
+                    renta.setPersona(persona);
+                    break;
+                case "profesionid":
+                    renta.setProfesion(new Profesion(Integer.parseInt(valor), null));
+                    break;
+                case "anio":
+                    renta.setAnio(Integer.parseInt(valor));
+                    break;
+                case "importeneto":
+                    renta.setImporteNeto(Float.parseFloat(valor));
+                    break;
+                case "importebruto":
+                    renta.setImporteBruto(Float.parseFloat(valor));
+                    break;
+                case "iscuentapropia":
+                    renta.setIsCuentaPropia(Integer.parseInt(valor));
+                    break;
+                case "iae":
+                    renta.setIae(valor);
+                    break;
+                case "cifempleador":
+                    renta.setCifEmpleador(valor);
+                    break;
+                case "fechainicioempleo":
+                    renta.setFechaInicioEmpleo(Date.from(LocalDate.parse(valor).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return renta;
+    }
+}
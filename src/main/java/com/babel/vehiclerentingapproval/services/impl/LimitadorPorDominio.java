@@ -0,0 +1,59 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita los mensajes por segundo que se envian a cada dominio de correo, para no saturar al servidor de correo ni
+ * que los servidores de destino rechacen los envios masivos.
+ * <p>
+ * Cada dominio tiene el instante del siguiente turno libre; reservar un turno lo adelanta un intervalo. Los turnos se
+ * reservan sin bloquear, y es quien envia el que espera hasta su turno.
+ */
+final class LimitadorPorDominio {
+    private final long intervaloNanos;
+    private final LongSupplier reloj;
+    private final ConcurrentMap<String, AtomicLong> siguientes = new ConcurrentHashMap<>();
+
+    /**
+     * @param mensajesPorSegundo mensajes por segundo a cada dominio; 0 o menos es sin limite
+     */
+    LimitadorPorDominio(int mensajesPorSegundo) {
+        this(mensajesPorSegundo, System::nanoTime);
+    }
+
+    LimitadorPorDominio(int mensajesPorSegundo, LongSupplier reloj) {
+        this.intervaloNanos = mensajesPorSegundo > 0 ? TimeUnit.SECONDS.toNanos(1) / mensajesPorSegundo : 0;
+        this.reloj = reloj;
+    }
+
+    /**
+     * Reserva el siguiente turno libre para enviar un mensaje al dominio
+     *
+     * @return el instante, en la escala de {@link System#nanoTime()}, a partir del cual se puede enviar
+     */
+    long reservar(String dominio) {
+        long ahora = reloj.getAsLong();
+        if (intervaloNanos == 0) {
+            return ahora;
+        }
+        AtomicLong siguiente = siguientes.computeIfAbsent(dominio, d -> new AtomicLong(ahora));
+        long turno = siguiente.getAndAccumulate(ahora, (anterior, actual) -> Math.max(anterior, actual) + intervaloNanos);
+        return Math.max(turno, ahora);
+    }
+
+    /**
+     * Olvida los dominios sin turnos reservados pendientes, para que no crezca el mapa de dominios
+     */
+    void purgar() {
+        long ahora = reloj.getAsLong();
+        siguientes.values().removeIf(siguiente -> siguiente.get() < ahora);
+    }
+
+    int getDominios() {
+        return siguientes.size();
+    }
+}
@@ -0,0 +1,71 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lee un fichero UTF-8 linea a linea sin guardar en memoria mas de longitudMaximaLinea + 1 caracteres por linea, para
+ * que una linea arbitrariamente larga no agote la memoria. Las lineas pueden acabar en "\n" o en "\r\n".
+ *
+ * @see ImportacionPersonasServiceImpl
+ * @see ImportacionRentasServiceImpl
+ */
+final class LineasFichero {
+    private final Reader reader;
+    private final int longitudMaximaLinea;
+    private final StringBuilder linea = new StringBuilder();
+    private int longitud;
+    private long numero;
+
+    LineasFichero(InputStream entrada, int longitudMaximaLinea) {
+        this.reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        this.longitudMaximaLinea = longitudMaximaLinea;
+    }
+
+    /**
+     * Lee la siguiente linea, sin su salto de linea
+     *
+     * @return la linea, truncada si es demasiado larga, o null si no quedan lineas
+     */
+    String siguiente() throws IOException {
+        linea.setLength(0);
+        longitud = 0;
+        int c;
+        while ((c = reader.read()) >= 0) {
+            if (c == '\n') {
+                numero++;
+                return linea.toString();
+            }
+            if (c == '\r') {
+                continue;
+            }
+            if (longitud <= longitudMaximaLinea) {
+                linea.append((char) c);
+            }
+            longitud = longitud == Integer.MAX_VALUE ? longitud : longitud + 1;
+        }
+        if (longitud == 0) {
+            return null;
+        }
+        numero++;
+        return linea.toString();
+    }
+
+    /**
+     * @return si la ultima linea leida supera longitudMaximaLinea caracteres
+     */
+    boolean isDemasiadoLarga() {
+        return longitud > longitudMaximaLinea;
+    }
+
+    /**
+     * @return numero de la ultima linea leida, empezando en 1
+     */
+    long getNumero() {
+        return numero;
+    }
+}
@@ -1,16 +1,24 @@
 package com.babel.vehiclerentingapproval.services.impl;
 
 
+import com.babel.vehiclerentingapproval.Security.Service.CacheUsuarios;
 import com.babel.vehiclerentingapproval.exceptions.*;
 import com.babel.vehiclerentingapproval.models.*;
 import com.babel.vehiclerentingapproval.persistance.database.mappers.*;
 import com.babel.vehiclerentingapproval.services.PersonaService;
+import com.babel.vehiclerentingapproval.services.referencia.DatosReferencia;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Implementación del servicio de persona.
@@ -21,28 +29,32 @@ import java.util.List;
  * @see DireccionMapper
  * @see PersonaMapper
  * @see TelefonoMapper
- * @see TipoViaMapper
- * @see ProvinciaMapper
- * @see PaisMapper
+ * @see DatosReferencia
+ * @see CacheUsuarios
+ * @see AltaPersonasLote
  */
 @Log4j2
 @Service
 public class PersonaServiceImpl implements PersonaService {
+    /**
+     * Numero maximo de elementos que admite Oracle en una lista IN
+     */
+    private static final int MAX_IN_ORACLE = 1000;
 
     private DireccionMapper direccionMapper;
     private PersonaMapper personaMapper;
     private TelefonoMapper telefonoMapper;
-    private TipoViaMapper tipoViaMapper;
-    private ProvinciaMapper provinciaMapper;
-    private PaisMapper paisMapper;
+    private DatosReferencia datosReferencia;
+    private CacheUsuarios cacheUsuarios;
+    private AltaPersonasLote altaPersonasLote;
 
-    public PersonaServiceImpl (DireccionMapper direccionMapper, PersonaMapper personaMapper, TelefonoMapper telefonoMapper, TipoViaMapper tipoViaMapper, ProvinciaMapper provinciaMapper, PaisMapper paisMapper) {
+    public PersonaServiceImpl (DireccionMapper direccionMapper, PersonaMapper personaMapper, TelefonoMapper telefonoMapper, DatosReferencia datosReferencia, CacheUsuarios cacheUsuarios, AltaPersonasLote altaPersonasLote) {
         this.direccionMapper = direccionMapper;
         this.personaMapper = personaMapper;
         this.telefonoMapper = telefonoMapper;
-        this.tipoViaMapper = tipoViaMapper;
-        this.provinciaMapper = provinciaMapper;
-        this.paisMapper = paisMapper;
+        this.datosReferencia = datosReferencia;
+        this.cacheUsuarios = cacheUsuarios;
+        this.altaPersonasLote = altaPersonasLote;
     }
 
     /**
@@ -54,15 +66,16 @@ public class PersonaServiceImpl implements PersonaService {
      * - WrongLenghtFieldException si los datos de entrada sobrepasan la longitud máxima.<br>
      * - DniFoundException si se encuentra un dni ya existente previamente. <br>
      * En caso de cualquier otra excepción, se devuelve un error interno.
+     * <p>
+     * Las direcciones, la persona y sus teléfonos se insertan en lotes JDBC con los IDs reservados de antemano.
      *
      * @param persona Persona con la informacion referente
      * @return se devuelve la persona por si se requieren mas operaciones a posteriori
-     * @see PaisMapper
-     * @see PersonaMapper
+     * @see DatosReferencia
+     * @see AltaPersonasLote
      * @see #validatePersona(int)
      * @see #validateNif(String)
      * @see #addPersonaDireccion(Persona)
-     * @see #addTelefonos(Persona)
      */
     @Override
     @Transactional
@@ -73,28 +86,147 @@ public class PersonaServiceImpl implements PersonaService {
 
         this.addPersonaDireccion(persona);
 
-        var pais = this.paisMapper.getPais(persona.getNacionalidad().getIsoAlfa2());
+        var pais = this.datosReferencia.getPais(persona.getNacionalidad().getIsoAlfa2());
 
         persona.setNacionalidad(pais);
-        this.personaMapper.insertPersona(persona);
-        this.addTelefonos(persona);
+        this.altaPersonasLote.insertar(List.of(persona));
         log.info("Proceso de de adicción de una persona finalizado");
         return persona;
     }
 
     /**
-     * Añade telefonos a persona.
+     * Alta de un lote de personas.
+     * <p>
+     * Cada persona se valida con las mismas reglas que en {@link #addPersona(Persona)}, comprobando además que trae
+     * NIF, que el NIF no se repite dentro del lote y que los datos de referencia de sus direcciones y su nacionalidad
+     * existen. Los NIFs del lote se comprueban con una consulta por cada 1000. Las personas que no pasan la validación
+     * se devuelven con el motivo y el resto se insertan juntas con {@link AltaPersonasLote}.
      *
-     * @param persona
-     * @return void.
-     * @see TelefonoMapper
+     * @param personas Personas con la informacion referente
+     * @return el resultado de cada persona, en el mismo orden
+     * @see AltaPersonasLote
+     * @see PersonaMapper#getNifsExistentes(java.util.Collection)
+     */
+    @Override
+    @Transactional
+    public List<ResultadoAltaPersona> addPersonas (List<Persona> personas) {
+        log.info("Procesando la adicción de un lote de {} personas", personas.size());
+        Set<String> nifsOcupados = this.getNifsExistentes(personas);
+        List<ResultadoAltaPersona> resultados = new ArrayList<>(personas.size());
+        List<Persona> validas = new ArrayList<>(personas.size());
+        for (Persona persona : personas) {
+            try {
+                this.validatePersonData(persona);
+                if (persona.getNif() == null || persona.getNif().isEmpty()) {
+                    throw new InputIsNullOrIsEmpty("nif", HttpStatus.BAD_REQUEST);
+                }
+                if (!nifsOcupados.add(persona.getNif())) {
+                    throw new DniFoundException(HttpStatus.NOT_FOUND);
+                }
+                this.validateReferencias(persona);
+                validas.add(persona);
+                resultados.add(null);
+            } catch (RuntimeException e) {
+                String motivo = e instanceof ApplicationException ? ((ApplicationException) e).getExternalMessage() : e.getMessage();
+                resultados.add(ResultadoAltaPersona.fallida(e.getClass().getSimpleName() + ": " + motivo));
+            }
+        }
+
+        this.altaPersonasLote.insertar(validas);
+        var insertadas = validas.iterator();
+        for (var i = 0; i < resultados.size(); i++) {
+            if (resultados.get(i) == null) {
+                resultados.set(i, ResultadoAltaPersona.creada(insertadas.next().getPersonaId()));
+            }
+        }
+        log.info("Proceso de adicción de un lote de personas finalizado: {} insertadas de {}", validas.size(), personas.size());
+        return resultados;
+    }
+
+    /**
+     * Se obtienen los NIFs del lote que ya tiene alguna persona en la base de datos.
+     *
+     * @param personas Personas del lote
+     * @return conjunto modificable con los NIFs existentes
+     * @see PersonaMapper#getNifsExistentes(java.util.Collection)
+     */
+    private Set<String> getNifsExistentes (List<Persona> personas) {
+        List<String> nifs = new ArrayList<>(personas.size());
+        for (Persona persona : personas) {
+            if (persona != null && persona.getNif() != null && !persona.getNif().isEmpty()) {
+                nifs.add(persona.getNif());
+            }
+        }
+        Set<String> existentes = new HashSet<>();
+        for (var desde = 0; desde < nifs.size(); desde += MAX_IN_ORACLE) {
+            existentes.addAll(this.personaMapper.getNifsExistentes(nifs.subList(desde, Math.min(desde + MAX_IN_ORACLE, nifs.size()))));
+        }
+        return existentes;
+    }
+
+    /**
+     * Se resuelven los datos de referencia de las direcciones y la nacionalidad de una persona, comprobando que
+     * existen para que un dato erróneo no haga fallar la inserción de todo el lote.
+     * <p>
+     * El método maneja las siguientes excepciones: <br>
+     * - InputIsNullOrIsEmpty si falta la dirección, su tipo de vía, su provincia o la nacionalidad.<br>
+     * - DatoReferenciaNotFoundException si el tipo de vía, la provincia o la nacionalidad no existen.
+     *
+     * @param persona Persona con la informacion referente
+     * @see DatosReferencia
      */
-    private void addTelefonos (Persona persona) {
-        log.info("Procesando la adicción de los teléfonos de una persona");
-        for (TelefonoContacto telefonoContacto : persona.getTelefonos()) {
-            this.telefonoMapper.addTelefono(telefonoContacto, persona);
+    private void validateReferencias (Persona persona) {
+        validateDireccion(persona.getDireccionDomicilio(), "direccionDomicilio");
+        if (!persona.isDireccionDomicilioSameAsNotificacion()) {
+            validateDireccion(persona.getDireccionNotificacion(), "direccionNotificacion");
+        }
+        if (persona.getNacionalidad() == null) {
+            throw new InputIsNullOrIsEmpty("nacionalidad", HttpStatus.BAD_REQUEST);
+        }
+        this.resolveDireccion(persona.getDireccionDomicilio());
+        if (persona.isDireccionDomicilioSameAsNotificacion()) {
+            persona.setDireccionNotificacion(persona.getDireccionDomicilio());
+        } else {
+            this.resolveDireccion(persona.getDireccionNotificacion());
+        }
+        String isoAlfa2 = persona.getNacionalidad().getIsoAlfa2();
+        var pais = this.datosReferencia.getPais(isoAlfa2);
+        if (pais == null) {
+            throw new DatoReferenciaNotFoundException("nacionalidad", isoAlfa2, HttpStatus.NOT_FOUND);
+        }
+        persona.setNacionalidad(pais);
+    }
+
+    /**
+     * Se sustituyen el tipo de vía y la provincia de una dirección por los de los datos de referencia.
+     *
+     * @param direccion Dirección con el tipo de vía y la provincia informados
+     */
+    private void resolveDireccion (Direccion direccion) {
+        int tipoViaId = direccion.getTipoViaId().getTipoViaId();
+        var tipoVia = this.datosReferencia.getTipoVia(tipoViaId);
+        if (tipoVia == null) {
+            throw new DatoReferenciaNotFoundException("tipoViaId", tipoViaId, HttpStatus.NOT_FOUND);
+        }
+        String codProvincia = direccion.getProvincia().getCodProvincia();
+        var provincia = this.datosReferencia.getProvincia(codProvincia);
+        if (provincia == null) {
+            throw new DatoReferenciaNotFoundException("provincia", codProvincia, HttpStatus.NOT_FOUND);
+        }
+        direccion.setTipoViaId(tipoVia);
+        direccion.setProvincia(provincia);
+    }
+
+    private static void validateDireccion (Direccion direccion, String campo) {
+        if (direccion == null) {
+            throw new InputIsNullOrIsEmpty(campo, HttpStatus.BAD_REQUEST);
+        }
+        if (direccion.getTipoViaId() == null) {
+            throw new InputIsNullOrIsEmpty("tipoViaId", HttpStatus.BAD_REQUEST);
+        }
+        if (direccion.getProvincia() == null) {
+            throw new InputIsNullOrIsEmpty("provincia", HttpStatus.BAD_REQUEST);
         }
-        log.info("Proceso de adicción de los teléfonos de una persona finalizado");
     }
 
     /**
@@ -156,30 +288,26 @@ public class PersonaServiceImpl implements PersonaService {
     }
 
     /**
-     * Se añaden las direcciones de domicilio y notificacion a persona para un posterior update a la bbdd.
+     * Se añaden las direcciones de domicilio y notificacion a persona para un posterior insert a la bbdd.
      * <p>
      *
      * @param persona Persona con la informacion referente
-     * @return se devuelve la persona con las direcciones ya incluida, incluyendo los mappers del tipo de vía y provincia
-     * @see TipoViaMapper
-     * @see ProvinciaMapper
-     * @see DireccionMapper
+     * @return se devuelve la persona con las direcciones ya incluida, incluyendo el tipo de vía y la provincia de los datos de referencia
+     * @see DatosReferencia
      */
     private Persona addPersonaDireccion (Persona persona) {
         log.info("Procesando la adicción de la dirección de una persona");
-        var tipoVia = this.tipoViaMapper.getTipoVia(persona.getDireccionDomicilio().getTipoViaId().getTipoViaId());
+        var tipoVia = this.datosReferencia.getTipoVia(persona.getDireccionDomicilio().getTipoViaId().getTipoViaId());
         persona.getDireccionDomicilio().setTipoViaId(tipoVia);
-        var provincia = this.provinciaMapper.getProvincia(persona.getDireccionDomicilio().getProvincia().getCodProvincia());
+        var provincia = this.datosReferencia.getProvincia(persona.getDireccionDomicilio().getProvincia().getCodProvincia());
         persona.getDireccionDomicilio().setProvincia(provincia);
-        this.direccionMapper.insertDireccion(persona.getDireccionDomicilio());
         if (persona.isDireccionDomicilioSameAsNotificacion()) {
             persona.setDireccionNotificacion(persona.getDireccionDomicilio());
         } else {
-            provincia = this.provinciaMapper.getProvincia(persona.getDireccionNotificacion().getProvincia().getCodProvincia());
+            provincia = this.datosReferencia.getProvincia(persona.getDireccionNotificacion().getProvincia().getCodProvincia());
             persona.getDireccionNotificacion().setProvincia(provincia);
-            tipoVia = this.tipoViaMapper.getTipoVia(persona.getDireccionNotificacion().getTipoViaId().getTipoViaId());
+            tipoVia = this.datosReferencia.getTipoVia(persona.getDireccionNotificacion().getTipoViaId().getTipoViaId());
             persona.getDireccionNotificacion().setTipoViaId(tipoVia);
-            this.direccionMapper.insertDireccion(persona.getDireccionNotificacion());
         }
         log.info("Proceso de adicción de la dirección de una persona finalizado");
         return persona;
@@ -192,11 +320,15 @@ public class PersonaServiceImpl implements PersonaService {
      * - PersonaNotFoundException si no se encuentra el idPersona asociado.<br>
      * - DireccionNotFoundException si se introducen datos no válidos en dirección.<br>
      * En caso de cualquier otra excepción, se devuelve un error interno.
+     * <p>
+     * Se cargan la persona y sus direcciones tal como están guardadas y solo se actualizan las filas y columnas que
+     * cambian. Si no cambia nada no se escribe nada.
      *
      * @param persona Persona con la informacion referente
      * @return se devuelve la persona por si se requieren mas operaciones a posteriori
      * @see DireccionMapper
      * @see PersonaMapper
+     * @see CambiosPersona
      */
     @Override
     @Transactional
@@ -206,44 +338,90 @@ public class PersonaServiceImpl implements PersonaService {
             persona.setDireccionNotificacion(persona.getDireccionDomicilio());
         }
 
-        this.validatePersonaExistente(persona);
+        PersonaGuardada guardada = this.personaMapper.getPersonaGuardada(persona.getPersonaId());
+        if (guardada == null) {
+            throw new PersonaNotFoundException();
+        }
 
         //Actualizamos las direcciones anteriores
-        direccionMapper.updateDireccion(persona.getDireccionDomicilio());
-        direccionMapper.updateDireccion(persona.getDireccionNotificacion());
+        Map<Integer, Direccion> direcciones = new LinkedHashMap<>();
+        direcciones.put(persona.getDireccionDomicilio().getDireccionId(), persona.getDireccionDomicilio());
+        direcciones.put(persona.getDireccionNotificacion().getDireccionId(), persona.getDireccionNotificacion());
+        Map<Integer, Direccion> direccionesGuardadas = new HashMap<>();
+        for (Direccion direccion : this.direccionMapper.getDirecciones(direcciones.keySet())) {
+            direccionesGuardadas.put(direccion.getDireccionId(), direccion);
+        }
+        if (!direccionesGuardadas.keySet().containsAll(direcciones.keySet())) { //Si no existe alguna direccion
+            throw new DireccionNotFoundException(HttpStatus.NOT_FOUND);
+        }
+        for (Direccion direccion : direcciones.values()) {
+            Set<String> columnas = CambiosPersona.columnasDireccion(direccionesGuardadas.get(direccion.getDireccionId()), direccion);
+            if (!columnas.isEmpty()) {
+                this.direccionMapper.updateDireccionParcial(direccion, columnas);
+            }
+        }
 
         //Insertamos el resto de cambios
-        this.personaMapper.updatePersona(persona);
-        this.modificarTelefono(persona);
+        Set<String> columnas = CambiosPersona.columnasPersona(guardada, persona);
+        if (!columnas.isEmpty()) {
+            this.personaMapper.updatePersonaParcial(persona, columnas);
+        }
+        this.sincronizarTelefonos(persona);
+
+        //El login no debe seguir usando los datos anteriores de la persona
+        if (columnas.contains(CambiosPersona.EMAIL) || columnas.contains(CambiosPersona.NOMBRE)) {
+            this.cacheUsuarios.invalidar(guardada.getEmail());
+            this.cacheUsuarios.invalidar(persona.getEmail());
+        }
         log.info("Proceso de modificación de los datos de una persona finalizado");
     }
 
     /**
      * Se modifican los registros de teléfono asociados a una persona.
+     * <p>
+     * Solo se escribe lo que cambia respecto a los teléfonos guardados: una sentencia para borrar los que sobran, otra
+     * para cambiar el número de los que cambian y otra para añadir los que faltan. Los teléfonos que no cambian no
+     * cuestan ninguna escritura. Si la persona no trae la lista de teléfonos, no se modifican.
      *
      * @param persona Persona con la informacion referente
      * @return void
      * @see TelefonoMapper
+     * @see CambiosTelefonos
      */
     @Transactional
     public void modificarTelefono (Persona persona){
         log.info("Procesando la modificación de los teléfonos de una persona");
         if (existePersona(persona.getPersonaId())) {
-            List<TelefonoContacto> telefonos = persona.getTelefonos();
-            List<TelefonoContacto> telefonosAntiguos = telefonoMapper.listarTelefonos(persona.getPersonaId());
-
-            for (var i = 0; i < telefonosAntiguos.size(); i++) {
-                this.telefonoMapper.deleteTelefono(persona.getPersonaId(), telefonosAntiguos.get(i));
-            }
-            for (var i = 0; i < telefonos.size(); i++) {
-                this.telefonoMapper.addTelefono(telefonos.get(i), persona);
-            }
+            this.sincronizarTelefonos(persona);
         } else {
             throw new PersonaNotFoundException();
         }
         log.info("Proceso de modificación de los teléfonos de una persona finalizado");
     }
 
+    /**
+     * Se escriben los cambios de los teléfonos de una persona que ya se sabe que existe.
+     *
+     * @param persona Persona con la informacion referente
+     * @see CambiosTelefonos
+     */
+    private void sincronizarTelefonos (Persona persona) {
+        if (persona.getTelefonos() == null) {
+            return;
+        }
+        List<TelefonoContacto> telefonosAntiguos = telefonoMapper.listarTelefonos(persona.getPersonaId());
+        var cambios = CambiosTelefonos.calcular(telefonosAntiguos, persona.getTelefonos());
+        if (!cambios.getBorrar().isEmpty()) {
+            this.telefonoMapper.deleteTelefonos(persona.getPersonaId(), cambios.getBorrar());
+        }
+        if (!cambios.getActualizar().isEmpty()) {
+            this.telefonoMapper.updateTelefonos(persona.getPersonaId(), cambios.getActualizar());
+        }
+        if (!cambios.getInsertar().isEmpty()) {
+            this.telefonoMapper.addTelefonos(persona.getPersonaId(), cambios.getInsertar());
+        }
+    }
+
     /**
      * Validacion de datos de persona (nombre)
      * <p>
@@ -257,9 +435,9 @@ public class PersonaServiceImpl implements PersonaService {
      * @see #validateNombre(Persona)
      */
     public void validatePersonData (Persona persona){
-        log.info("Procesando la validación de los datos de una persona");
+        log.debug("Procesando la validación de los datos de una persona");
         this.validateNombre(persona);
-        log.info("Proceso de validación de los datos de una persona finalizado");
+        log.debug("Proceso de validación de los datos de una persona finalizado");
     }
 
     /**
@@ -274,14 +452,14 @@ public class PersonaServiceImpl implements PersonaService {
      * @return void
      */
     public void validateNombre (Persona persona){
-        log.info("Procesando la validación del nombre de una persona");
+        log.debug("Procesando la validación del nombre de una persona");
         if ((persona.getNombre() == null) || persona.getNombre().isEmpty()) {
             throw new RequiredMissingFieldException(HttpStatus.BAD_REQUEST);
         }
         if (persona.getNombre().length() > 50) {
             throw new WrongLenghtFieldException("nombre", HttpStatus.BAD_REQUEST);
         }
-        log.info("Proceso de validación del nombre de una persona finalizado");
+        log.debug("Proceso de validación del nombre de una persona finalizado");
     }
 
     /**
@@ -302,30 +480,6 @@ public class PersonaServiceImpl implements PersonaService {
         log.info("Proceso de validación de los datos de una persona finalizado");
     }
 
-    /**
-     * Validacion de la existencia de una persona <p>
-     * <p>
-     * El método maneja las siguientes excepciones: <br>
-     * - PersonaNotFoundException si no se encuentra la ID de persona <br>
-     * - DireccionNotFoundException si no se encuentra la ID de persona <br>
-     * En caso de cualquier otra excepción, se devuelve un error interno.
-     *
-     * @param persona Persona con la informacion referente
-     * @return void
-     * @see #existePersona(int)
-     * @see #existeDireccion(int)
-     */
-    private void validatePersonaExistente (Persona persona){
-        log.info("Procesando la validación de la existencia de una persona");
-        if (!existePersona(persona.getPersonaId())) {
-            throw new PersonaNotFoundException();
-        }
-        if (!existeDireccion(persona.getDireccionDomicilio().getDireccionId()) || !existeDireccion(persona.getDireccionNotificacion().getDireccionId())) { //Si no existe alguna direcicon
-            throw new DireccionNotFoundException(HttpStatus.NOT_FOUND);
-        }
-        log.info("Proceso de validación de la existencia de una persona finalizado");
-    }
-
     /**
      * Validacion del dni
      * El método maneja las siguientes excepciones: <br>
@@ -0,0 +1,288 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import com.babel.vehiclerentingapproval.exceptions.EmailNotSentException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpStatus;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Pool de conexiones SMTP autenticadas sobre una unica {@link Session} de javax.mail.
+ * <p>
+ * Como mucho hay {@code tamanio} conexiones abiertas a la vez; quien pide una cuando estan todas ocupadas espera hasta
+ * {@code esperaMs} milisegundos. Las conexiones libres se reutilizan en orden LIFO, para que las que sobran envejezcan y
+ * se cierren. Al prestar una conexion que lleva mas de {@code validarTrasMs} milisegundos sin usarse se comprueba con
+ * un NOOP que sigue viva; las que llevan mas de {@code inactividadMaximaMs} se cierran sin comprobarlas.
+ * <p>
+ * La conexion y la negociacion STARTTLS y AUTH las hace {@link Transport#connect(String, int, String, String)} segun
+ * las propiedades de la sesion.
+ */
+@Log4j2
+final class PoolTransporteSmtp implements AutoCloseable {
+    private final Session session;
+    private final String host;
+    private final int puerto;
+    private final String usuario;
+    private final String password;
+    private final long esperaMs;
+    private final long inactividadMaximaMs;
+    private final long validarTrasMs;
+    private final LongSupplier reloj;
+    private final Semaphore permisos;
+    private final Deque<ConexionSmtp> libres = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger abiertas = new AtomicInteger();
+    private final LongAdder creadas = new LongAdder();
+    private final LongAdder reutilizadas = new LongAdder();
+    private final LongAdder mensajes = new LongAdder();
+    private volatile boolean cerrado;
+
+    PoolTransporteSmtp(Session session, String host, int puerto, String usuario, String password, int tamanio,
+                       long esperaMs, long inactividadMaximaMs, long validarTrasMs) {
+        this(session, host, puerto, usuario, password, tamanio, esperaMs, inactividadMaximaMs, validarTrasMs, System::currentTimeMillis);
+    }
+
+    PoolTransporteSmtp(Session session, String host, int puerto, String usuario, String password, int tamanio,
+                       long esperaMs, long inactividadMaximaMs, long validarTrasMs, LongSupplier reloj) {
+        this.session = session;
+        this.host = host;
+        this.puerto = puerto;
+        this.usuario = usuario;
+        this.password = password;
+        this.esperaMs = esperaMs;
+        this.inactividadMaximaMs = inactividadMaximaMs;
+        this.validarTrasMs = validarTrasMs;
+        this.reloj = reloj;
+        this.permisos = new Semaphore(Math.max(1, tamanio), true);
+    }
+
+    Session getSession() {
+        return session;
+    }
+
+    /**
+     * Envia un mensaje por una conexion del pool. Si la conexion falla y no era nueva se reintenta una vez con una
+     * conexion nueva, por si el servidor la habia cerrado despues de validarla.
+     *
+     * @param mensaje mensaje con sus destinatarios, ya preparado con saveChanges
+     * @throws EmailNotSentException si no hay ninguna conexion libre en el tiempo de espera
+     */
+    void enviar(Message mensaje) throws MessagingException {
+        try (LoteSmtp lote = this.abrirLote()) {
+            lote.enviar(mensaje);
+        }
+    }
+
+    /**
+     * Reserva una conexion del pool para enviar varios mensajes seguidos por ella, sin devolverla al pool entre uno y
+     * otro. La conexion se devuelve al cerrar el lote.
+     *
+     * @throws EmailNotSentException si no hay ninguna conexion libre en el tiempo de espera
+     */
+    LoteSmtp abrirLote() {
+        this.adquirir();
+        return new LoteSmtp();
+    }
+
+    /**
+     * Cierra las conexiones libres que llevan mas de la inactividad maxima sin usarse
+     *
+     * @return el numero de conexiones cerradas
+     */
+    int cerrarInactivas() {
+        long ahora = reloj.getAsLong();
+        var cerradas = 0;
+        for (ConexionSmtp conexion : libres) {
+            if (ahora - conexion.ultimoUso > inactividadMaximaMs && libres.removeFirstOccurrence(conexion)) {
+                this.cerrar(conexion);
+                cerradas++;
+            }
+        }
+        return cerradas;
+    }
+
+    long getEsperaMs() {
+        return esperaMs;
+    }
+
+    int getAbiertas() {
+        return abiertas.get();
+    }
+
+    int getLibres() {
+        return libres.size();
+    }
+
+    long getCreadas() {
+        return creadas.sum();
+    }
+
+    long getReutilizadas() {
+        return reutilizadas.sum();
+    }
+
+    long getMensajes() {
+        return mensajes.sum();
+    }
+
+    @Override
+    public void close() {
+        cerrado = true;
+        ConexionSmtp conexion;
+        while ((conexion = libres.pollFirst()) != null) {
+            this.cerrar(conexion);
+        }
+    }
+
+    private void adquirir() {
+        try {
+            if (permisos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.warn("No hay conexiones SMTP libres tras {} ms", esperaMs);
+        throw new EmailNotSentException("No hay conexiones con el servidor de correo disponibles", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * @return una conexion libre y viva, o null si no queda ninguna
+     */
+    private ConexionSmtp tomarLibre() {
+        ConexionSmtp conexion;
+        while ((conexion = libres.pollFirst()) != null) {
+            long inactiva = reloj.getAsLong() - conexion.ultimoUso;
+            if (inactiva <= inactividadMaximaMs && (inactiva <= validarTrasMs || conexion.transport.isConnected())) {
+                reutilizadas.increment();
+                return conexion;
+            }
+            this.cerrar(conexion);
+        }
+        return null;
+    }
+
+    private ConexionSmtp abrir() throws MessagingException {
+        Transport transport = session.getTransport();
+        transport.connect(host, puerto, usuario, password);
+        abiertas.incrementAndGet();
+        creadas.increment();
+        return new ConexionSmtp(transport);
+    }
+
+    private void liberar(ConexionSmtp conexion) {
+        conexion.ultimoUso = reloj.getAsLong();
+        libres.offerFirst(conexion);
+        if (cerrado && libres.removeFirstOccurrence(conexion)) {
+            this.cerrar(conexion);
+        }
+    }
+
+    private void cerrar(ConexionSmtp conexion) {
+        abiertas.decrementAndGet();
+        try {
+            conexion.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error al cerrar una conexion SMTP", e);
+        }
+    }
+
+    /**
+     * Conexion reservada para enviar varios mensajes seguidos. No es segura entre hilos.
+     */
+    final class LoteSmtp implements AutoCloseable {
+        private ConexionSmtp conexion;
+        private boolean cerrado;
+
+        private LoteSmtp() {
+        }
+
+        /**
+         * Envia un mensaje por la conexion reservada, abriendola si hace falta. Si la conexion falla y no era nueva se
+         * reintenta una vez con una conexion nueva. Un destinatario rechazado por el servidor no invalida la conexion ni
+         * se reintenta; un SendFailedException sin direcciones rechazadas o con la conexion caida (como el [EOF] de una
+         * conexion cortada) se trata como cualquier otro fallo de la conexion.
+         *
+         * @param mensaje mensaje con sus destinatarios, ya preparado con saveChanges
+         */
+        void enviar(Message mensaje) throws MessagingException {
+            if (conexion == null) {
+                conexion = tomarLibre();
+            }
+            if (conexion != null) {
+                try {
+                    this.enviarPorConexion(mensaje);
+                    return;
+                } catch (MessagingException e) {
+                    if (conexion != null) {
+                        throw e;
+                    }
+                    log.debug("Conexion SMTP reutilizada caida, se reintenta con una nueva", e);
+                }
+            }
+            conexion = abrir();
+            this.enviarPorConexion(mensaje);
+        }
+
+        /**
+         * Envia el mensaje por la conexion reservada. Si falla por algo que no sea un rechazo de destinatarios, cierra la
+         * conexion y la deja a null para que no vuelva al pool.
+         */
+        private void enviarPorConexion(Message mensaje) throws MessagingException {
+            try {
+                conexion.transport.sendMessage(mensaje, mensaje.getAllRecipients());
+                mensajes.increment();
+            } catch (MessagingException | RuntimeException e) {
+                if (!this.esRechazoDeDestinatarios(e)) {
+                    cerrar(conexion);
+                    conexion = null;
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * @return true si el servidor ha rechazado alguna direccion y la conexion sigue abierta
+         */
+        private boolean esRechazoDeDestinatarios(Exception e) {
+            if (!(e instanceof SendFailedException)) {
+                return false;
+            }
+            Address[] rechazadas = ((SendFailedException) e).getInvalidAddresses();
+            return rechazadas != null && rechazadas.length > 0 && conexion.transport.isConnected();
+        }
+
+        @Override
+        public void close() {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            if (conexion != null) {
+                liberar(conexion);
+                conexion = null;
+            }
+            permisos.release();
+        }
+    }
+
+    private static final class ConexionSmtp {
+        private final Transport transport;
+        private volatile long ultimoUso;
+
+        private ConexionSmtp(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
@@ -7,6 +7,9 @@ import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * Esta clase define un método para comprobar la existencia de una profesion en la base de datos. Además define un metodo para validar la misma.
  *
@@ -47,4 +50,14 @@ public class ProfesionServiceImpl implements ProfesionService {
         return this.profesionMapper.existeProfesion(profesionId) != 0;
     }
 
+    /**
+     * Consulta que devuelve los IDs de todas las profesiones
+     *
+     * @return conjunto con el ID de cada profesion
+     */
+    @Override
+    public Set<Integer> getProfesionIds () {
+        log.info("Cargando los ids de las profesiones");
+        return new HashSet<>(this.profesionMapper.getProfesionIds());
+    }
 }
@@ -1,8 +1,9 @@
 package com.babel.vehiclerentingapproval.services.impl;
 
-import com.babel.vehiclerentingapproval.exceptions.EstadoSolicitudInvalidException;
-import com.babel.vehiclerentingapproval.exceptions.RentaFoundException;
+import com.babel.vehiclerentingapproval.exceptions.*;
 import com.babel.vehiclerentingapproval.models.Renta;
+import com.babel.vehiclerentingapproval.models.ResultadoAltaRenta;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.PersonaMapper;
 import com.babel.vehiclerentingapproval.persistance.database.mappers.RentaMapper;
 import com.babel.vehiclerentingapproval.services.PersonaService;
 import com.babel.vehiclerentingapproval.services.ProfesionService;
@@ -10,16 +11,29 @@ import com.babel.vehiclerentingapproval.services.RentaService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Esta clase es la implementación del método crear del CRUD y del metodo para validar y comprobar las renta.
  *
  * @author adres.guijarro@babelgroup.com
  * @see RentaService
+ * @see AltaRentasLote
  */
 @Service
 @Log4j2
 public class RentaServiceImpl implements RentaService {
+    /**
+     * Numero maximo de elementos que admite Oracle en una lista IN
+     */
+    private static final int MAX_IN_ORACLE = 1000;
+
     RentaMapper rentaMapper;
 
 
@@ -27,11 +41,17 @@ public class RentaServiceImpl implements RentaService {
 
     ProfesionService profesionService;
 
-    public RentaServiceImpl (RentaMapper rentaMapper, PersonaService personaService, ProfesionService profesionService) {
+    PersonaMapper personaMapper;
+
+    AltaRentasLote altaRentasLote;
+
+    public RentaServiceImpl (RentaMapper rentaMapper, PersonaService personaService, ProfesionService profesionService, PersonaMapper personaMapper, AltaRentasLote altaRentasLote) {
         log.info("Entrando en el constructor de RentaServiceImpl");
         this.rentaMapper = rentaMapper;
         this.personaService = personaService;
         this.profesionService = profesionService;
+        this.personaMapper = personaMapper;
+        this.altaRentasLote = altaRentasLote;
         log.info("Saliendo del constructor de RentaServiceImpl");
     }
 
@@ -56,6 +76,99 @@ public class RentaServiceImpl implements RentaService {
         return renta;
     }
 
+    /**
+     * Metodo que agrega un lote de rentas. Las profesiones se comprueban contra el conjunto de IDs recibido y las
+     * personas con una consulta por cada 1000 IDs, en lugar de tres consultas por renta como en addRenta. El ID de
+     * renta que traigan se ignora, porque se asigna de la secuencia al insertar, asi que no hace falta validateRenta.
+     * Las rentas validas se insertan juntas con {@link AltaRentasLote}.
+     *
+     * @param rentas       las rentas que se van a añadir
+     * @param profesionIds IDs de las profesiones existentes
+     * @return el resultado de cada renta, en el mismo orden
+     * @see PersonaMapper#getPersonasExistentes(java.util.Collection)
+     */
+    @Override
+    @Transactional
+    public List<ResultadoAltaRenta> addRentas (List<Renta> rentas, Set<Integer> profesionIds) {
+        log.info("Entrando en addRentas con {} rentas", rentas.size());
+        Set<Integer> personas = this.getPersonasExistentes(rentas);
+        List<ResultadoAltaRenta> resultados = new ArrayList<>(rentas.size());
+        List<Renta> validas = new ArrayList<>(rentas.size());
+        for (Renta renta : rentas) {
+            try {
+                this.validateRentaLote(renta, profesionIds, personas);
+                validas.add(renta);
+                resultados.add(null);
+            } catch (RuntimeException e) {
+                String motivo = e instanceof ApplicationException ? ((ApplicationException) e).getExternalMessage() : e.getMessage();
+                resultados.add(ResultadoAltaRenta.fallida(e.getClass().getSimpleName() + ": " + motivo));
+            }
+        }
+
+        this.altaRentasLote.insertar(validas);
+        var insertadas = validas.iterator();
+        for (var i = 0; i < resultados.size(); i++) {
+            if (resultados.get(i) == null) {
+                resultados.set(i, ResultadoAltaRenta.creada(insertadas.next().getRentaId()));
+            }
+        }
+        log.info("Saliendo de addRentas: {} insertadas de {}", validas.size(), rentas.size());
+        return resultados;
+    }
+
+    /**
+     * Comprueba una renta del lote sin consultar la base de datos.
+     *
+     * @param renta        la renta a comprobar
+     * @param profesionIds IDs de las profesiones existentes
+     * @param personas     IDs de las personas del lote que existen
+     * @throws InputIsNullOrIsEmpty       si falta la persona o la profesion; el IAE es opcional, como en addRenta
+     * @throws ProfesionNotFoundException si la profesion no existe
+     * @throws PersonaNotFoundException   si la persona no existe
+     * @throws WrongLenghtFieldException  si el IAE o el CIF del empleador son demasiado largos
+     */
+    private void validateRentaLote (Renta renta, Set<Integer> profesionIds, Set<Integer> personas) {
+        if (renta.getProfesion() == null) {
+            throw new InputIsNullOrIsEmpty("profesion", HttpStatus.BAD_REQUEST);
+        }
+        if (!profesionIds.contains(renta.getProfesion().getProfesionId())) {
+            throw new ProfesionNotFoundException(HttpStatus.NOT_FOUND, renta.getProfesion().getProfesionId());
+        }
+        if (renta.getPersona() == null) {
+            throw new InputIsNullOrIsEmpty("persona", HttpStatus.BAD_REQUEST);
+        }
+        if (!personas.contains(renta.getPersona().getPersonaId())) {
+            throw new PersonaNotFoundException(renta.getPersona().getPersonaId(), HttpStatus.NOT_FOUND);
+        }
+        if (renta.getIae() != null && renta.getIae().length() > 5) {
+            throw new WrongLenghtFieldException("iae", HttpStatus.BAD_REQUEST);
+        }
+        if (renta.getCifEmpleador() != null && renta.getCifEmpleador().length() > 10) {
+            throw new WrongLenghtFieldException("cifEmpleador", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Obtiene los IDs de las personas de las rentas que existen en la base de datos.
+     *
+     * @param rentas las rentas del lote
+     * @return conjunto con los IDs existentes
+     */
+    private Set<Integer> getPersonasExistentes (List<Renta> rentas) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (Renta renta : rentas) {
+            if (renta != null && renta.getPersona() != null) {
+                ids.add(renta.getPersona().getPersonaId());
+            }
+        }
+        List<Integer> pendientes = new ArrayList<>(ids);
+        Set<Integer> existentes = new HashSet<>();
+        for (var desde = 0; desde < pendientes.size(); desde += MAX_IN_ORACLE) {
+            existentes.addAll(this.personaMapper.getPersonasExistentes(pendientes.subList(desde, Math.min(desde + MAX_IN_ORACLE, pendientes.size()))));
+        }
+        return existentes;
+    }
+
     /**
      * Comprueba si una renta existe.
      *
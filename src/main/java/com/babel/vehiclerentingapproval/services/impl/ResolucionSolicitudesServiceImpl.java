@@ -2,8 +2,9 @@ package com.babel.vehiclerentingapproval.services.impl;
 
 import com.babel.vehiclerentingapproval.exceptions.ResolucionSolicitudesNotFoundException;
 import com.babel.vehiclerentingapproval.models.ResolucionSolicitud;
-import com.babel.vehiclerentingapproval.persistance.database.mappers.ResolucionSolicitudesMapper;
 import com.babel.vehiclerentingapproval.services.ResolucionSolicitudesService;
+import com.babel.vehiclerentingapproval.services.referencia.CatalogoResoluciones;
+import com.babel.vehiclerentingapproval.services.referencia.VersionCatalogoResoluciones;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -12,19 +13,19 @@ import java.util.List;
 
 /**
  * Esta clase da soporte al servicio de resolucion de solicitudes. Proporciona un método para
- * la obtención del tipo de solicitudes
+ * la obtención del tipo de solicitudes, que se leen del catalogo en memoria
  *
  * @author andres.guijarro@babelgroup.com
- * @see ResolucionSolicitudesMapper
+ * @see CatalogoResoluciones
  */
 @Log4j2
 @Service
 public class ResolucionSolicitudesServiceImpl implements ResolucionSolicitudesService {
 
-    ResolucionSolicitudesMapper resolucionSolicitudesMapper;
+    CatalogoResoluciones catalogoResoluciones;
 
-    public ResolucionSolicitudesServiceImpl (ResolucionSolicitudesMapper resolucionSolicitudesMapper) {
-        this.resolucionSolicitudesMapper = resolucionSolicitudesMapper;
+    public ResolucionSolicitudesServiceImpl (CatalogoResoluciones catalogoResoluciones) {
+        this.catalogoResoluciones = catalogoResoluciones;
     }
 
     /**
@@ -32,28 +33,29 @@ public class ResolucionSolicitudesServiceImpl implements ResolucionSolicitudesSe
      *
      * @return Una lista de objetos de tipo ResolucionSolicitud con los datos de la base de datos
      * @throws ResolucionSolicitudesNotFoundException Si no se encuentra ningun datos de resolucion de solicitudes.
-     * @see #existenSolicitudes()
+     * @see #getCatalogoResoluciones()
      * @see ResolucionSolicitud
      */
     @Override
     public List<ResolucionSolicitud> getTipoResolucionesSolicitudes ( ) {
-        List<ResolucionSolicitud> lista;
-        this.existenSolicitudes();
         log.info("Obteniendo la lista de las resoluciones de las solitudes");
-        lista = resolucionSolicitudesMapper.getTipoResolucionesSolicitudes();
-        return lista;
+        return this.getCatalogoResoluciones().getResoluciones();
     }
 
     /**
-     * Comprueba si existe una persona con el identificador proporcionado. Si no existe, lanza la excepcion ResolucionSolicitudesNotFoundException
+     * Recupera la version actual del catalogo de codigos de resolucion, con su ETag.
      *
-     * @throws ResolucionSolicitudesNotFoundException si no se encuentran codigos de resolución de solicitudes en la base de datos.
+     * @return la version actual del catalogo
+     * @throws ResolucionSolicitudesNotFoundException si el catalogo esta vacio.
      */
-    private void existenSolicitudes ( ) {
-        if (resolucionSolicitudesMapper.getTipoResolucionesSolicitudes().isEmpty()) {
+    @Override
+    public VersionCatalogoResoluciones getCatalogoResoluciones ( ) {
+        VersionCatalogoResoluciones catalogo = catalogoResoluciones.getActual();
+        if (catalogo.getResoluciones().isEmpty()) {
             log.error("No existen resoluciones de solicitudes");
             throw new ResolucionSolicitudesNotFoundException(HttpStatus.NOT_FOUND);
         }
+        return catalogo;
     }
 
 
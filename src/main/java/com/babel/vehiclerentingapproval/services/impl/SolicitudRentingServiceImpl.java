@@ -1,25 +1,28 @@
 package com.babel.vehiclerentingapproval.services.impl;
 
 import com.babel.vehiclerentingapproval.exceptions.*;
+import com.babel.vehiclerentingapproval.models.CambioEstadoSolicitud;
+import com.babel.vehiclerentingapproval.models.ResolucionSolicitud;
 import com.babel.vehiclerentingapproval.models.SolicitudRenting;
 import com.babel.vehiclerentingapproval.models.TipoResultadoSolicitud;
-import com.babel.vehiclerentingapproval.persistance.database.mappers.PersonaMapper;
 import com.babel.vehiclerentingapproval.persistance.database.mappers.SolicitudRentingMapper;
 import com.babel.vehiclerentingapproval.persistance.database.mappers.TipoResultadoSolicitudMapper;
 import com.babel.vehiclerentingapproval.services.CodigoResolucionValidator;
-import com.babel.vehiclerentingapproval.services.EmailService;
 import com.babel.vehiclerentingapproval.services.PersonaService;
 import com.babel.vehiclerentingapproval.services.SolicitudRentingService;
+import com.babel.vehiclerentingapproval.services.journal.SolicitudJournal;
+import com.babel.vehiclerentingapproval.services.notificacion.NotificacionOutbox;
+import com.babel.vehiclerentingapproval.services.referencia.CatalogoResoluciones;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.mail.MessagingException;
-import java.io.*;
+import java.io.UncheckedIOException;
 import java.math.BigInteger;
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 
 
@@ -37,54 +40,33 @@ public class SolicitudRentingServiceImpl implements SolicitudRentingService {
     private final PersonaService personaService;
     private final CodigoResolucionValidator codigoResolucionValidator;
 
-    private final PersonaMapper personaMapper;
-    private final EmailService emailService;
+    private final NotificacionOutbox notificacionOutbox;
+    private final SolicitudJournal solicitudJournal;
+    private final CatalogoResoluciones catalogoResoluciones;
 
-    private static final String FILE_NAME = "registroSolicitudRenting.txt";
-
-    private static int lastId = 0;
-
-    public SolicitudRentingServiceImpl (SolicitudRentingMapper solicitudRentingMapper, TipoResultadoSolicitudMapper tipoResultadoSolicitudMapper, PersonaService personaService, CodigoResolucionValidator codigoResolucionValidator, PersonaMapper personaMapper, EmailService emailService) {
+    public SolicitudRentingServiceImpl (SolicitudRentingMapper solicitudRentingMapper, TipoResultadoSolicitudMapper tipoResultadoSolicitudMapper, PersonaService personaService, CodigoResolucionValidator codigoResolucionValidator, NotificacionOutbox notificacionOutbox, SolicitudJournal solicitudJournal, CatalogoResoluciones catalogoResoluciones) {
         this.solicitudRentingMapper = solicitudRentingMapper;
         this.tipoResultadoSolicitudMapper = tipoResultadoSolicitudMapper;
         this.personaService = personaService;
         this.codigoResolucionValidator = codigoResolucionValidator;
-        this.personaMapper = personaMapper;
-        this.emailService = emailService;
-
+        this.notificacionOutbox = notificacionOutbox;
+        this.solicitudJournal = solicitudJournal;
+        this.catalogoResoluciones = catalogoResoluciones;
     }
 
+    /**
+     * Registra el alta de una solicitud de renting en el journal de solicitudes.
+     * Un fallo al registrar no invalida el alta, solo se deja constancia en el log.
+     *
+     * @param solicitudRenting la solicitud de renting dada de alta
+     * @see SolicitudJournal
+     */
     public void registrarSolicitudEnArchivo(SolicitudRenting solicitudRenting) {
-
-
-        File file = new File(FILE_NAME);
-        if (file.exists()) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(FILE_NAME))) {
-                String lastLine = null;
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    lastLine = line;
-                }
-                if (lastLine != null) {
-                    String[] parts = lastLine.split(",");
-                    if (parts.length == 2) {
-                        lastId = Integer.parseInt(parts[0]);
-                    }
-                }
-            } catch (IOException e) {
-                log.error("Error al leer el archivo de registro de solicitud", e);
-            }
-        }
-
-        lastId++;
-
-        LocalDateTime fechaHoraActual = LocalDateTime.now();
-        String registro = String.format("%d,%s%n", lastId, fechaHoraActual.toString() + ", id_Solicitud: " + String.valueOf(solicitudRenting.getSolicitudId()));
-
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_NAME, true))) {
-            writer.write(registro);
-        } catch (IOException e) {
-            log.error("Error al guardar registro de solicitud en archivo", e);
+        try {
+            long secuencia = this.solicitudJournal.append(solicitudRenting.getSolicitudId());
+            log.debug("Solicitud con ID: {} registrada en el journal con secuencia {}", solicitudRenting.getSolicitudId(), secuencia);
+        } catch (UncheckedIOException e) {
+            log.error("Error al guardar registro de solicitud en el journal", e);
         }
     }
 
@@ -137,7 +119,7 @@ public class SolicitudRentingServiceImpl implements SolicitudRentingService {
         solicitudRenting.setPersona(personaService.invalidPersonId(solicitudRenting.getPersona().getPersonaId()));
         log.debug("Persona asociada correctamente a la solicitud de renting");
 
-        // Llama al nuevo método para registrar la solicitud en el archivo
+        // Registra el alta de la solicitud en el journal
         registrarSolicitudEnArchivo(solicitudRenting);
 
         log.info("Finalizando el proceso para agregar una nueva solicitud de renting con éxito");
@@ -251,16 +233,22 @@ public class SolicitudRentingServiceImpl implements SolicitudRentingService {
     }
 
     /**
-     * Modifica únicamete el estado de una solicitud de renting, se comprueba a través de la base de datos que el nuevo estado sea uno de los valores posible.
+     * Modifica únicamete el estado de una solicitud de renting, se comprueba en el catalogo de codigos de resolución que el nuevo estado sea uno de los valores posible.
+     * <p>
+     * La solicitud y el email del titular se leen en una sola consulta y la descripcion del nuevo estado sale del
+     * catalogo, asi que el cambio hace dos accesos a la base de datos: esa consulta y el UPDATE. El correo al titular
+     * se encola en la bandeja de salida dentro de la misma transaccion y se envia despues en segundo plano, asi que el
+     * cambio no espera al servidor SMTP.
      *
      * @param solicitudId ID de solicitud de renting.
      * @param nuevoEstado Nuevo estado de solicitud rentinh por validar.
      * @return void (llamada a base de datos (mapper) para modificar el estado.
      * @throws SolicitudRentingNotFoundException cuando no exista el ID de la solicitud.
      * @throws EstadoSolicitudNotFoundException  cuando el estado de la solicitud no sea uno de los valores válidos posibles.
-     * @see #getListaEstados()
+     * @see CatalogoResoluciones
      * @see SolicitudRentingService
-     * @see SolicitudRentingMapper
+     * @see SolicitudRentingMapper#getCambioEstado(int)
+     * @see NotificacionOutbox
      */
 
     @Transactional
@@ -269,46 +257,48 @@ public class SolicitudRentingServiceImpl implements SolicitudRentingService {
 
         log.info("Modificando el estado de la solicitud con ID: {}", solicitudId);
 
-        List<String> posiblesEstados = this.tipoResultadoSolicitudMapper.getListaEstados();
-        int existeEstado = this.solicitudRentingMapper.existeSolicitud(solicitudId);
-        SolicitudRenting solicitud = this.solicitudRentingMapper.getSolicitudByID(solicitudId);
-
-        if (!posiblesEstados.contains(nuevoEstado.getCodResultado())) {
+        if (!this.catalogoResoluciones.esValido(nuevoEstado.getCodResultado())) {
             log.warn("Estado de solicitud no encontrado");
             throw new EstadoSolicitudNotFoundException(HttpStatus.NOT_FOUND);
         }
-        if (existeEstado == 0) {
+
+        CambioEstadoSolicitud cambio = this.solicitudRentingMapper.getCambioEstado(solicitudId);
+        if (cambio == null) {
             log.warn("Solicitud de renting no encontrada con ID: {}", solicitudId);
             throw new SolicitudRentingNotFoundException(HttpStatus.NOT_FOUND);
         }
 
-        String email = this.personaMapper.getEmail(solicitud.getPersona().getPersonaId());
+        String email = cambio.getEmail();
         if (email == null || email.indexOf('@') == -1) {
             log.error("Error al enviar el correo electrónico a: {}", email);
             throw new FailedSendingEmail(HttpStatus.BAD_REQUEST, email);
         }
 
-        var estadoSolicitud = this.tipoResultadoSolicitudMapper.getEstadoSolicitud(solicitudId);
-        log.debug("Enviando notificación por correo electrónico a: {}", email);
-        emailService.sendMail("Su solicitud se encuentra: " + estadoSolicitud, email, "Cambios en tu solicitud");
-        log.debug("Correo electrónico enviado correctamente");
-
-        log.info("Actualizando el estado de la solicitud con ID: {} al estado: {}", solicitudId, nuevoEstado.getCodResultado());
-        this.solicitudRentingMapper.modificaEstadoSolicitud(solicitudId, nuevoEstado);
+        log.info("Actualizando el estado de la solicitud con ID: {} del estado: {} al estado: {}", solicitudId, cambio.getCodResolucionActual(), nuevoEstado.getCodResultado());
+        if (this.solicitudRentingMapper.modificaEstadoSolicitud(solicitudId, nuevoEstado) == 0) {
+            log.warn("Solicitud de renting con ID: {} borrada antes de cambiar su estado", solicitudId);
+            throw new SolicitudRentingNotFoundException(HttpStatus.NOT_FOUND);
+        }
         log.info("Estado de la solicitud actualizado correctamente");
+
+        var estadoSolicitud = this.catalogoResoluciones.getDescripcion(nuevoEstado.getCodResultado());
+        log.debug("Encolando notificación por correo electrónico a: {}", email);
+        notificacionOutbox.encolar(email, "Cambios en tu solicitud", "Su solicitud se encuentra: " + estadoSolicitud);
     }
 
 
     /**
      * Modifica únicamete el estado de una solicitud de renting, se comprueba a través de la base de datos que el nuevo estado sea uno de los valores posible.
      *
-     * @return List<String> (llamada a base de datos (mapper) para recoger posibles estados.
+     * @return List<String> con los posibles estados, leidos del catalogo de codigos de resolución.
      */
     @Override
     public List<String> getListaEstados ( ) {
         log.info("Obteniendo la lista de estados de las solicitudes");
 
-        List<String> listaEstados = this.tipoResultadoSolicitudMapper.getListaEstados();
+        List<String> listaEstados = this.catalogoResoluciones.getActual().getResoluciones().stream()
+                .map(ResolucionSolicitud::getCodigoResultado)
+                .collect(Collectors.toList());
 
         if (listaEstados.isEmpty()) {
             log.warn("La lista de estados de las solicitudes está vacía");
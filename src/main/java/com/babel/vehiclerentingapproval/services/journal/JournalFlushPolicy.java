@@ -0,0 +1,19 @@
+package com.babel.vehiclerentingapproval.services.journal;
+
+/**
+ * Politicas de volcado a disco (fsync) del escritor del journal de solicitudes.
+ */
+public enum JournalFlushPolicy {
+    /**
+     * Se vuelca a disco cada vez que se acumulan journal.flush.records registros sin volcar
+     */
+    RECORDS,
+    /**
+     * Se vuelca a disco cada journal.flush.interval-ms milisegundos si hay registros pendientes
+     */
+    INTERVAL,
+    /**
+     * Se vuelca a disco cada grupo escrito y el hilo de la peticion espera a que su registro sea duradero
+     */
+    DURABLE
+}
@@ -0,0 +1,51 @@
+package com.babel.vehiclerentingapproval.services.journal;
+
+import com.babel.vehiclerentingapproval.models.JournalRecord;
+import com.babel.vehiclerentingapproval.models.JournalStats;
+
+import java.util.function.Consumer;
+
+/**
+ * Esta interfaz define el journal de solo escritura al final (append-only) donde se registran las solicitudes de renting dadas de alta.
+ * Sustituye al antiguo fichero de texto registroSolicitudRenting.txt, que no se migra: solo guardaba la secuencia y la
+ * fecha, sin el id de la solicitud.
+ *
+ * @see JournalRecord
+ */
+public interface SolicitudJournal {
+    /**
+     * Añade un registro al final del journal con coste constante, independientemente del tamaño del journal.
+     *
+     * @param solicitudId id de la solicitud de renting a registrar
+     * @return numero de secuencia asignado al registro
+     */
+    long append(int solicitudId);
+
+    /**
+     * Bloquea hasta que todos los registros añadidos hasta el momento esten volcados a disco.
+     */
+    void flush();
+
+    /**
+     * Recorre los registros del journal en orden de secuencia, empezando por la secuencia indicada.
+     *
+     * @param fromSequence primera secuencia a devolver (inclusive)
+     * @param consumer     funcion que recibe cada registro leido
+     */
+    void replay(long fromSequence, Consumer<JournalRecord> consumer);
+
+    /**
+     * Devuelve la ultima secuencia asignada en el journal.
+     *
+     * @return ultima secuencia, o 0 si el journal esta vacio
+     */
+    long getLastSequence();
+
+    /**
+     * Devuelve las metricas del escritor del journal: profundidad de la cola, tamaño de grupo y latencia de volcado.
+     *
+     * @return las metricas actuales del journal
+     * @see JournalStats
+     */
+    JournalStats getStats();
+}
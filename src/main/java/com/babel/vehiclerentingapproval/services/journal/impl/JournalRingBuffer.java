@@ -0,0 +1,135 @@
+package com.babel.vehiclerentingapproval.services.journal.impl;
+
+import com.babel.vehiclerentingapproval.models.JournalRecord;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Buffer circular acotado de multiples productores y un unico consumidor (MPSC) para los registros del journal.
+ * <p>
+ * La posicion de cada registro en el buffer es su propia secuencia, reservada antes con {@link JournalSequencer},
+ * asi que los productores no compiten por ningun indice: cada uno espera a que su hueco quede libre, lo rellena
+ * y lo publica. El consumidor recorre las secuencias en orden y se detiene en el primer hueco sin publicar.
+ * Cuando el buffer esta lleno los productores esperan (contrapresion) en lugar de crecer sin limite, pero solo hasta
+ * un plazo: si el consumidor no avanza, el productor abandona su secuencia y el consumidor la entrega como un registro
+ * anulado ({@link JournalRecord#SOLICITUD_ANULADA}), de modo que no queda ningun hueco que detenga al resto.
+ */
+final class JournalRingBuffer {
+    /**
+     * Funcion que recibe cada registro leido del buffer
+     */
+    interface Handler {
+        void onRecord(long sequence, long epochNanos, int solicitudId);
+    }
+
+    private final int capacity;
+    private final int mask;
+    private final long[] epochNanos;
+    private final int[] solicitudIds;
+    private final AtomicLongArray published;
+    private final Map<Long, Long> abandoned = new ConcurrentHashMap<>();
+    private volatile long consumed;
+
+    /**
+     * @param requestedCapacity capacidad minima, se redondea a la siguiente potencia de dos
+     * @param lastSequence      ultima secuencia ya escrita; el consumidor empieza por la siguiente
+     */
+    JournalRingBuffer(int requestedCapacity, long lastSequence) {
+        this.capacity = Integer.highestOneBit(Math.max(1, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.epochNanos = new long[capacity];
+        this.solicitudIds = new int[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.consumed = lastSequence;
+    }
+
+    /**
+     * Publica un registro en el hueco de su secuencia, esperando como mucho timeoutNanos si el consumidor aun no lo ha
+     * liberado. Si se agota la espera la secuencia queda abandonada y el consumidor la entregara como anulada.
+     *
+     * @param sequence     secuencia reservada por el productor
+     * @param epochNanos   instante del registro
+     * @param solicitudId  id de la solicitud
+     * @param timeoutNanos espera maxima a que quede libre el hueco
+     * @return true si se ha publicado, false si se ha abandonado la secuencia
+     */
+    boolean publish(long sequence, long epochNanos, int solicitudId, long timeoutNanos) {
+        var attempts = 0;
+        long start = System.nanoTime();
+        while (sequence - consumed > capacity) {
+            if (System.nanoTime() - start >= timeoutNanos) {
+                abandoned.put(sequence, epochNanos);
+                return false;
+            }
+            backoff(attempts++);
+        }
+        int index = (int) sequence & mask;
+        this.epochNanos[index] = epochNanos;
+        this.solicitudIds[index] = solicitudId;
+        this.published.set(index, sequence);
+        return true;
+    }
+
+    /**
+     * Entrega al manejador, en orden, los registros publicados consecutivos. Solo lo invoca el hilo consumidor.
+     *
+     * @param max     numero maximo de registros a entregar
+     * @param handler funcion que recibe cada registro
+     * @return numero de registros entregados
+     */
+    int drain(int max, Handler handler) {
+        long next = consumed + 1;
+        var count = 0;
+        try {
+            while (count < max) {
+                int index = (int) next & mask;
+                if (published.get(index) == next) {
+                    handler.onRecord(next, epochNanos[index], solicitudIds[index]);
+                } else {
+                    Long abandonedAt = abandoned.isEmpty() ? null : abandoned.get(next);
+                    if (abandonedAt == null) {
+                        break;
+                    }
+                    handler.onRecord(next, abandonedAt, JournalRecord.SOLICITUD_ANULADA);
+                    abandoned.remove(next);
+                }
+                next++;
+                count++;
+            }
+        } finally {
+            consumed = next - 1;
+        }
+        return count;
+    }
+
+    /**
+     * Indica si el siguiente registro que toca consumir ya esta publicado o abandonado.
+     *
+     * @return true si hay al menos un registro listo para consumir
+     */
+    boolean hasPublished() {
+        long next = consumed + 1;
+        return published.get((int) next & mask) == next || (!abandoned.isEmpty() && abandoned.containsKey(next));
+    }
+
+    long getConsumed() {
+        return consumed;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    private static void backoff(int attempts) {
+        if (attempts < 100) {
+            Thread.onSpinWait();
+        } else if (attempts < 200) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(10_000);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.babel.vehiclerentingapproval.services.journal.impl;
+
+import com.babel.vehiclerentingapproval.models.JournalRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Segmento del journal de solicitudes: un fichero preasignado y mapeado en memoria con una cabecera y huecos de tamaño fijo.
+ * <p>
+ * Cabecera ({@value #HEADER_SIZE} bytes): magic, version, secuencia base y capacidad en registros.<br>
+ * Registro ({@value #RECORD_SIZE} bytes): secuencia, epoch en nanosegundos, id de solicitud y checksum.<br>
+ * La posicion de un registro se deduce de su secuencia, por lo que escribir y leer cuesta O(1).
+ */
+final class JournalSegment implements Closeable {
+    static final int MAGIC = 0x534F4C4A;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final int RECORD_SIZE = 24;
+    static final String PREFIX = "solicitud-";
+    static final String SUFFIX = ".journal";
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long baseSequence;
+    private final int capacity;
+
+    private JournalSegment(Path path, FileChannel channel, MappedByteBuffer buffer, long baseSequence, int capacity) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.baseSequence = baseSequence;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Crea y preasigna un segmento nuevo en el directorio indicado.
+     *
+     * @param directory    directorio del journal
+     * @param baseSequence secuencia del primer registro del segmento
+     * @param capacity     numero de registros que caben en el segmento
+     * @return el segmento creado, mapeado en lectura y escritura
+     */
+    static JournalSegment create(Path directory, long baseSequence, int capacity) throws IOException {
+        var path = directory.resolve(fileName(baseSequence));
+        var channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, baseSequence);
+        buffer.putInt(16, capacity);
+        buffer.force();
+        return new JournalSegment(path, channel, buffer, baseSequence, capacity);
+    }
+
+    /**
+     * Abre un segmento existente validando su cabecera.
+     *
+     * @param path     fichero del segmento
+     * @param writable true para mapearlo en escritura, false para solo lectura
+     * @return el segmento abierto
+     */
+    static JournalSegment open(Path path, boolean writable) throws IOException {
+        FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ);
+        var mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        var buffer = channel.map(mode, 0, channel.size());
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Segmento de journal no valido: " + path);
+        }
+        long baseSequence = buffer.getLong(8);
+        int capacity = Math.min(buffer.getInt(16), (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE);
+        return new JournalSegment(path, channel, buffer, baseSequence, capacity);
+    }
+
+    static String fileName(long baseSequence) {
+        return String.format("%s%020d%s", PREFIX, baseSequence, SUFFIX);
+    }
+
+    static boolean isSegmentFile(Path path) {
+        var name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    /**
+     * Cuenta los registros validos del segmento. Como los registros se escriben de forma contigua
+     * basta con una busqueda binaria del primer hueco vacio, que solo se hace una vez al arrancar.
+     *
+     * @return numero de registros escritos en el segmento
+     */
+    int recoverCount() {
+        int low = 0;
+        int high = capacity;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (isValid(mid)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    boolean contains(long sequence) {
+        return sequence >= baseSequence && sequence < baseSequence + capacity;
+    }
+
+    void write(long sequence, long epochNanos, int solicitudId) {
+        int offset = offset(sequence - baseSequence);
+        ByteBuffer target = this.buffer;
+        target.putLong(offset + 8, epochNanos);
+        target.putInt(offset + 16, solicitudId);
+        target.putInt(offset + 20, checksum(sequence, epochNanos, solicitudId));
+        target.putLong(offset, sequence);
+    }
+
+    boolean isValid(long slot) {
+        if (slot < 0 || slot >= capacity) {
+            return false;
+        }
+        int offset = offset(slot);
+        long sequence = buffer.getLong(offset);
+        return sequence == baseSequence + slot
+                && buffer.getInt(offset + 20) == checksum(sequence, buffer.getLong(offset + 8), buffer.getInt(offset + 16));
+    }
+
+    JournalRecord read(long slot) {
+        int offset = offset(slot);
+        return new JournalRecord(buffer.getLong(offset), buffer.getLong(offset + 8), buffer.getInt(offset + 16));
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    long getBaseSequence() {
+        return baseSequence;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static int offset(long slot) {
+        return HEADER_SIZE + (int) slot * RECORD_SIZE;
+    }
+
+    private static int checksum(long sequence, long epochNanos, int solicitudId) {
+        long hash = sequence * 0x9E3779B97F4A7C15L ^ epochNanos ^ ((long) solicitudId << 17);
+        return (int) (hash ^ (hash >>> 32)) ^ MAGIC;
+    }
+}
@@ -0,0 +1,40 @@
+package com.babel.vehiclerentingapproval.services.journal.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de secuencias del journal de solicitudes.
+ * <p>
+ * Se apoya en un {@link AtomicLong}, por lo que cada hilo obtiene una secuencia unica con una sola instruccion atomica,
+ * sin bloqueos, sin huecos y sin duplicados. Al arrancar se restaura con la ultima secuencia duradera del journal.
+ */
+public class JournalSequencer {
+    private final AtomicLong lastSequence = new AtomicLong();
+
+    /**
+     * Restaura el generador con la ultima secuencia escrita en disco.
+     *
+     * @param durableTail ultima secuencia recuperada del journal, 0 si esta vacio
+     */
+    public void restore(long durableTail) {
+        this.lastSequence.set(durableTail);
+    }
+
+    /**
+     * Reserva la siguiente secuencia.
+     *
+     * @return secuencia reservada, siempre la anterior mas uno
+     */
+    public long next() {
+        return this.lastSequence.incrementAndGet();
+    }
+
+    /**
+     * Devuelve la ultima secuencia reservada.
+     *
+     * @return ultima secuencia reservada
+     */
+    public long current() {
+        return this.lastSequence.get();
+    }
+}
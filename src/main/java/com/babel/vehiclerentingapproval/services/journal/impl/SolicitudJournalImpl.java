@@ -0,0 +1,400 @@
+package com.babel.vehiclerentingapproval.services.journal.impl;
+
+import com.babel.vehiclerentingapproval.models.JournalRecord;
+import com.babel.vehiclerentingapproval.models.JournalStats;
+import com.babel.vehiclerentingapproval.services.journal.JournalFlushPolicy;
+import com.babel.vehiclerentingapproval.services.journal.SolicitudJournal;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Implementacion del journal de solicitudes sobre segmentos preasignados y mapeados en memoria.
+ * <p>
+ * La cola del journal se recupera una sola vez al arrancar; a partir de ahi cada alta escribe un registro de
+ * tamaño fijo en la posicion que le corresponde por su secuencia, sin releer el fichero. Cuando un segmento
+ * se llena se fuerza a disco y se abre el siguiente.
+ * <p>
+ * Los hilos de las peticiones solo reservan una secuencia con {@link JournalSequencer} y publican el registro en un
+ * {@link JournalRingBuffer}. Un unico hilo escritor en segundo plano vacia el buffer en grupos, los escribe en el
+ * segmento y los vuelca a disco con un solo fsync por grupo segun la {@link JournalFlushPolicy} configurada.
+ * <p>
+ * Si el escritor no puede escribir (disco lleno, rotacion fallida) las altas fallan al momento con
+ * {@link UncheckedIOException} en lugar de esperar a un hueco en el buffer, y un productor que ya esperaba lo hace como
+ * mucho journal.ring.publish-timeout-ms; su secuencia se escribe entonces como registro anulado.
+ *
+ * @see JournalSegment
+ * @see JournalSequencer
+ * @see JournalRingBuffer
+ */
+@Service
+@Log4j2
+public class SolicitudJournalImpl implements SolicitudJournal {
+    private static final int MAX_GROUP = 4096;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long STOPPING_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final int ringCapacity;
+    private final JournalFlushPolicy flushPolicy;
+    private final int flushRecords;
+    private final long flushIntervalNanos;
+    private final long drainTimeoutNanos;
+    private final long publishTimeoutNanos;
+    final JournalSequencer sequencer = new JournalSequencer();
+    private final AtomicLong requestedDurable = new AtomicLong();
+    final Object durableMonitor = new Object();
+
+    private JournalRingBuffer ring;
+    private JournalSegment current;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile boolean writerParked;
+    private volatile IOException writeFailure;
+    private volatile long writtenSequence;
+    private volatile long durableSequence;
+
+    private volatile long flushCount;
+    private volatile long lastGroupSize;
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+    private volatile long totalFlushNanos;
+
+    public SolicitudJournalImpl(@Value("${journal.directory:journal}") String directory,
+                                @Value("${journal.segment-records:1048576}") int segmentRecords,
+                                @Value("${journal.ring.capacity:8192}") int ringCapacity,
+                                @Value("${journal.flush.policy:INTERVAL}") JournalFlushPolicy flushPolicy,
+                                @Value("${journal.flush.records:256}") int flushRecords,
+                                @Value("${journal.flush.interval-ms:10}") long flushIntervalMillis,
+                                @Value("${journal.shutdown.drain-timeout-ms:5000}") long drainTimeoutMillis,
+                                @Value("${journal.ring.publish-timeout-ms:5000}") long publishTimeoutMillis) {
+        this.directory = Paths.get(directory);
+        this.segmentRecords = segmentRecords;
+        this.ringCapacity = ringCapacity;
+        this.flushPolicy = flushPolicy;
+        this.flushRecords = Math.max(1, flushRecords);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMillis));
+        this.drainTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, drainTimeoutMillis));
+        this.publishTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, publishTimeoutMillis));
+    }
+
+    /**
+     * Abre el ultimo segmento del journal (o crea el primero), recupera la secuencia de cola y arranca el hilo escritor.
+     */
+    @PostConstruct
+    public synchronized void init() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = listSegments();
+            long durableTail;
+            if (segments.isEmpty()) {
+                current = JournalSegment.create(directory, 1, segmentRecords);
+                durableTail = 0;
+            } else {
+                current = JournalSegment.open(segments.get(segments.size() - 1), true);
+                durableTail = current.getBaseSequence() + current.recoverCount() - 1;
+            }
+            sequencer.restore(durableTail);
+            ring = new JournalRingBuffer(ringCapacity, durableTail);
+            writtenSequence = durableTail;
+            durableSequence = durableTail;
+            log.info("Journal de solicitudes abierto en {} con ultima secuencia {} y politica {}", current.getPath(), durableTail, flushPolicy);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se ha podido abrir el journal de solicitudes", e);
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "solicitud-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Reserva la secuencia y deja el registro en el buffer; la escritura y el fsync los hace el hilo escritor.
+     * Con la politica DURABLE espera ademas a que el registro este en disco.
+     *
+     * @throws UncheckedIOException si el escritor esta fallando o el buffer sigue lleno tras
+     *                              journal.ring.publish-timeout-ms
+     */
+    @Override
+    public long append(int solicitudId) {
+        IOException failure = writeFailure;
+        if (failure != null) {
+            throw new UncheckedIOException("El journal de solicitudes no puede escribir", failure);
+        }
+        long sequence = sequencer.next();
+        if (!ring.publish(sequence, epochNanos(), solicitudId, publishTimeoutNanos)) {
+            throw new UncheckedIOException(new IOException("El buffer del journal de solicitudes sigue lleno tras "
+                    + TimeUnit.NANOSECONDS.toMillis(publishTimeoutNanos) + " ms, se anula la secuencia " + sequence));
+        }
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        if (flushPolicy == JournalFlushPolicy.DURABLE) {
+            awaitDurable(sequence);
+        }
+        return sequence;
+    }
+
+    @Override
+    public void flush() {
+        awaitDurable(sequencer.current());
+    }
+
+    @Override
+    public void replay(long fromSequence, Consumer<JournalRecord> consumer) {
+        long last = durableSequence;
+        List<Path> segments;
+        try {
+            segments = listSegments();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se ha podido listar el journal de solicitudes", e);
+        }
+        for (var i = 0; i < segments.size(); i++) {
+            if (i + 1 < segments.size() && baseSequenceOf(segments.get(i + 1)) <= fromSequence) {
+                continue;
+            }
+            try (var segment = JournalSegment.open(segments.get(i), false)) {
+                long slot = Math.max(0, fromSequence - segment.getBaseSequence());
+                while (segment.isValid(slot) && segment.getBaseSequence() + slot <= last) {
+                    JournalRecord record = segment.read(slot);
+                    if (record.getSolicitudId() != JournalRecord.SOLICITUD_ANULADA) {
+                        consumer.accept(record);
+                    }
+                    slot++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se ha podido leer el segmento " + segments.get(i), e);
+            }
+        }
+    }
+
+    @Override
+    public long getLastSequence() {
+        return sequencer.current();
+    }
+
+    @Override
+    public JournalStats getStats() {
+        var stats = new JournalStats();
+        long flushes = flushCount;
+        long last = sequencer.current();
+        stats.setFlushPolicy(flushPolicy.name());
+        stats.setLastSequence(last);
+        stats.setQueueDepth(last - writtenSequence);
+        stats.setDurableSequence(durableSequence);
+        stats.setFlushCount(flushes);
+        stats.setLastGroupSize(lastGroupSize);
+        stats.setLastFlushLatencyMicros(TimeUnit.NANOSECONDS.toMicros(lastFlushNanos));
+        stats.setMaxFlushLatencyMicros(TimeUnit.NANOSECONDS.toMicros(maxFlushNanos));
+        stats.setAvgFlushLatencyMicros(flushes == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalFlushNanos / flushes));
+        return stats;
+    }
+
+    /**
+     * Detiene el hilo escritor tras vaciar el buffer, fuerza a disco y cierra el segmento activo. El vaciado espera como
+     * mucho journal.shutdown.drain-timeout-ms a las secuencias reservadas que aun no se han publicado.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.NANOSECONDS.toMillis(drainTimeoutNanos) + TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            current.force();
+            current.close();
+        } catch (IOException e) {
+            log.error("Error al cerrar el journal de solicitudes", e);
+        }
+    }
+
+    /**
+     * Bucle del hilo escritor: vacia el buffer en grupos, escribe cada registro en su hueco y decide cuando volcar a disco.
+     * Al detenerse sigue vaciando hasta la ultima secuencia reservada, pero no mas de journal.shutdown.drain-timeout-ms:
+     * una secuencia reservada por un productor que nunca llega a publicarla no debe bloquear el cierre.
+     */
+    private void runWriter() {
+        long pending = 0;
+        long lastFlush = System.nanoTime();
+        var stopping = false;
+        long drainDeadline = 0;
+        while (running || ring.getConsumed() < sequencer.current()) {
+            if (!running) {
+                if (!stopping) {
+                    stopping = true;
+                    drainDeadline = System.nanoTime() + drainTimeoutNanos;
+                } else if (System.nanoTime() - drainDeadline >= 0) {
+                    log.warn("Journal de solicitudes cerrado sin escribir {} secuencias reservadas tras la {}",
+                            sequencer.current() - ring.getConsumed(), ring.getConsumed());
+                    break;
+                }
+            }
+            int drained;
+            try {
+                drained = ring.drain(MAX_GROUP, this::writeRecord);
+                writeFailure = null;
+            } catch (UncheckedIOException e) {
+                if (writeFailure == null) {
+                    log.error("Error al escribir en el journal de solicitudes, se rechazan las altas hasta que se recupere", e);
+                }
+                writeFailure = e.getCause();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            pending += drained;
+            long now = System.nanoTime();
+            if (pending > 0 && shouldFlush(pending, now - lastFlush)) {
+                flushGroup(pending);
+                pending = 0;
+                lastFlush = System.nanoTime();
+            } else if (drained == 0) {
+                park(pending > 0 ? Math.max(1, flushIntervalNanos - (now - lastFlush)) : IDLE_PARK_NANOS);
+            }
+        }
+        if (pending > 0) {
+            flushGroup(pending);
+        }
+    }
+
+    private boolean shouldFlush(long pending, long sinceLastFlush) {
+        if (requestedDurable.get() > durableSequence) {
+            return true;
+        }
+        switch (flushPolicy) {
+            case RECORDS:
+                return pending >= flushRecords;
+            case INTERVAL:
+                return sinceLastFlush >= flushIntervalNanos;
+            default:
+                return true;
+        }
+    }
+
+    private void writeRecord(long sequence, long epochNanos, int solicitudId) {
+        if (!current.contains(sequence)) {
+            roll(sequence);
+        }
+        current.write(sequence, epochNanos, solicitudId);
+        writtenSequence = sequence;
+    }
+
+    /**
+     * Vuelca a disco el grupo escrito con un unico fsync y despierta a los hilos que esperan su registro.
+     */
+    private void flushGroup(long groupSize) {
+        long start = System.nanoTime();
+        current.force();
+        long elapsed = System.nanoTime() - start;
+        lastFlushNanos = elapsed;
+        maxFlushNanos = Math.max(maxFlushNanos, elapsed);
+        totalFlushNanos += elapsed;
+        lastGroupSize = groupSize;
+        flushCount++;
+        synchronized (durableMonitor) {
+            durableSequence = writtenSequence;
+            durableMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * Espera a que la secuencia este en disco. Nunca vuelve sin que lo este: si el escritor falla o el hilo se interrumpe
+     * lanza UncheckedIOException, conservando el estado de interrupcion.
+     */
+    private void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        requestedDurable.accumulateAndGet(sequence, Math::max);
+        LockSupport.unpark(writer);
+        synchronized (durableMonitor) {
+            while (durableSequence < sequence) {
+                if (!writer.isAlive()) {
+                    throw new IllegalStateException("El escritor del journal de solicitudes no esta activo");
+                }
+                IOException failure = writeFailure;
+                if (failure != null) {
+                    throw new UncheckedIOException("El journal de solicitudes no puede escribir", failure);
+                }
+                try {
+                    durableMonitor.wait(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(new InterruptedIOException(
+                            "Interrumpida la espera a que la secuencia " + sequence + " del journal este en disco"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Aparca el hilo escritor. Antes de aparcar se vuelve a comprobar el buffer para no perder el aviso de un productor.
+     */
+    private void park(long nanos) {
+        writerParked = true;
+        if (!ring.hasPublished() && requestedDurable.get() <= durableSequence) {
+            LockSupport.parkNanos(running ? nanos : Math.min(nanos, STOPPING_PARK_NANOS));
+        }
+        writerParked = false;
+    }
+
+    /**
+     * Fuerza a disco el segmento lleno, crea el siguiente y solo entonces cierra el lleno. Si no se puede crear el
+     * siguiente, el segmento activo sigue abierto y el registro se reintenta. Solo lo invoca el hilo escritor.
+     */
+    private void roll(long sequence) {
+        JournalSegment next;
+        try {
+            current.force();
+            next = JournalSegment.create(directory, sequence, segmentRecords);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se ha podido rotar el journal de solicitudes", e);
+        }
+        JournalSegment full = current;
+        current = next;
+        log.info("Journal de solicitudes rotado al segmento {}", current.getPath());
+        try {
+            full.close();
+        } catch (IOException e) {
+            log.error("Error al cerrar el segmento {} del journal de solicitudes", full.getPath(), e);
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(JournalSegment::isSegmentFile).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static long baseSequenceOf(Path segment) {
+        var name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(JournalSegment.PREFIX.length(), name.length() - JournalSegment.SUFFIX.length()));
+    }
+
+    private static long epochNanos() {
+        var now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+}
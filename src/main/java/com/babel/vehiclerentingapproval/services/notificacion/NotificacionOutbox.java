@@ -0,0 +1,26 @@
+package com.babel.vehiclerentingapproval.services.notificacion;
+
+/**
+ * Esta interfaz define la bandeja de salida de notificaciones por correo electronico.
+ * <p>
+ * Quien cambia algo que hay que notificar encola el correo en la misma transaccion que el cambio, sin esperar al
+ * servidor SMTP: si la transaccion se deshace la notificacion desaparece con ella, y si se confirma el correo se envia
+ * despues en segundo plano, con reintentos, aunque el servidor SMTP este caido en ese momento.
+ */
+public interface NotificacionOutbox {
+    /**
+     * Guarda un correo electronico para enviarlo en segundo plano. Se une a la transaccion en curso.
+     *
+     * @param destino el correo electrónico del destinatario
+     * @param asunto  el asunto del correo electrónico
+     * @param mensaje el mensaje del correo electrónico
+     */
+    void encolar(String destino, String asunto, String mensaje);
+
+    /**
+     * Envia las notificaciones pendientes cuyo proximo intento ya ha llegado
+     *
+     * @return el numero de notificaciones enviadas
+     */
+    int despachar();
+}
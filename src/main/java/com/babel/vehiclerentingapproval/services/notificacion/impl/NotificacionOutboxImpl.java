@@ -0,0 +1,221 @@
+package com.babel.vehiclerentingapproval.services.notificacion.impl;
+
+import com.babel.vehiclerentingapproval.exceptions.ApplicationException;
+import com.babel.vehiclerentingapproval.models.CorreoElectronico;
+import com.babel.vehiclerentingapproval.models.NotificacionPendiente;
+import com.babel.vehiclerentingapproval.models.ResultadoEnvioCorreo;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.NotificacionOutboxMapper;
+import com.babel.vehiclerentingapproval.services.EmailService;
+import com.babel.vehiclerentingapproval.services.notificacion.NotificacionOutbox;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Implementacion de la bandeja de salida de notificaciones sobre la tabla NOTIFICACION_OUTBOX.
+ * <p>
+ * Cada {@code notificacion.outbox.intervalo-ms} se reclaman bloques de como maximo {@code notificacion.outbox.lote}
+ * notificaciones, se ordenan por dominio de destino y se reparten en como mucho {@code notificacion.outbox.concurrencia}
+ * envios masivos en los hilos dedicados al correo ({@link EmailService#sendMailsAsync(List)}), cada uno por su propia
+ * conexion SMTP y con el limite de mensajes por segundo a cada dominio. Asi los envios de la bandeja cuentan en las
+ * estadisticas del correo y comparten su cola acotada; si la cola esta llena el bloque se reintenta como un fallo mas.
+ * Si un envio falla se reintenta con espera exponencial con jitter, desde {@code notificacion.outbox.espera-inicial-ms}
+ * hasta {@code notificacion.outbox.espera-maxima-ms}; tras {@code notificacion.outbox.max-intentos} intentos la
+ * notificacion se marca como fallida.
+ * <p>
+ * La entrega es al menos una vez: si la instancia cae entre el envio y la marca de enviada, el correo se vuelve a
+ * enviar cuando vence la reclamacion.
+ *
+ * @see NotificacionOutboxMapper
+ */
+@Service
+@Log4j2
+public class NotificacionOutboxImpl implements NotificacionOutbox {
+    private static final int MAX_ERROR = 1000;
+
+    private final NotificacionOutboxMapper notificacionOutboxMapper;
+    private final EmailService emailService;
+    private final int lote;
+    private final int concurrencia;
+    private final int maxIntentos;
+    private final long esperaInicialMs;
+    private final long esperaMaximaMs;
+    private final long reclamacionMs;
+    private final int diasRetencion;
+
+    public NotificacionOutboxImpl(NotificacionOutboxMapper notificacionOutboxMapper, EmailService emailService,
+                                  @Value("${notificacion.outbox.lote:50}") int lote,
+                                  @Value("${notificacion.outbox.concurrencia:4}") int concurrencia,
+                                  @Value("${notificacion.outbox.max-intentos:8}") int maxIntentos,
+                                  @Value("${notificacion.outbox.espera-inicial-ms:5000}") long esperaInicialMs,
+                                  @Value("${notificacion.outbox.espera-maxima-ms:600000}") long esperaMaximaMs,
+                                  @Value("${notificacion.outbox.reclamacion-ms:300000}") long reclamacionMs,
+                                  @Value("${notificacion.outbox.dias-retencion:30}") int diasRetencion) {
+        this.notificacionOutboxMapper = notificacionOutboxMapper;
+        this.emailService = emailService;
+        this.lote = Math.max(1, lote);
+        this.concurrencia = Math.max(1, concurrencia);
+        this.maxIntentos = Math.max(1, maxIntentos);
+        this.esperaInicialMs = Math.max(1, esperaInicialMs);
+        this.esperaMaximaMs = Math.max(this.esperaInicialMs, esperaMaximaMs);
+        this.reclamacionMs = reclamacionMs;
+        this.diasRetencion = diasRetencion;
+    }
+
+    @Override
+    public void encolar(String destino, String asunto, String mensaje) {
+        var notificacion = new NotificacionPendiente(destino, asunto, mensaje);
+        this.notificacionOutboxMapper.insertarNotificacion(notificacion);
+        log.debug("Notificacion {} encolada para: {}", notificacion.getNotificacionId(), destino);
+    }
+
+    /**
+     * Reclama y envia bloques de notificaciones hasta que no queden pendientes cuyo proximo intento haya llegado.
+     * Mientras tanto ocupa uno de los spring.task.scheduling.pool.size hilos del planificador, de modo que las demas
+     * tareas programadas siguen corriendo en los otros.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${notificacion.outbox.intervalo-ms:1000}", initialDelayString = "${notificacion.outbox.intervalo-ms:1000}")
+    public int despachar() {
+        var enviadas = 0;
+        int reclamadas;
+        do {
+            String reclamacion = UUID.randomUUID().toString();
+            reclamadas = this.notificacionOutboxMapper.reclamarPendientes(reclamacion, lote, reclamacionMs);
+            if (reclamadas > 0) {
+                enviadas += this.enviar(this.notificacionOutboxMapper.listarReclamadas(reclamacion));
+            }
+        } while (reclamadas >= lote);
+        return enviadas;
+    }
+
+    /**
+     * Borra cada dia las notificaciones enviadas hace mas de {@code notificacion.outbox.dias-retencion} dias
+     */
+    @Scheduled(cron = "${notificacion.outbox.purga-cron:0 30 3 * * ?}")
+    public void purgar() {
+        int borradas = this.notificacionOutboxMapper.borrarEnviadas(diasRetencion);
+        log.info("Purgadas {} notificaciones enviadas hace mas de {} dias", borradas, diasRetencion);
+    }
+
+    /**
+     * Envia en paralelo las notificaciones de un bloque, agrupadas por dominio, y espera a que terminen todas en el hilo
+     * que despacha
+     *
+     * @return el numero de notificaciones enviadas
+     */
+    private int enviar(List<NotificacionPendiente> notificaciones) {
+        List<CorreoElectronico> correos = new ArrayList<>(notificaciones.size());
+        for (NotificacionPendiente notificacion : notificaciones) {
+            correos.add(new CorreoElectronico(notificacion.getDestino(), notificacion.getAsunto(), notificacion.getMensaje()));
+        }
+        List<Integer> orden = new ArrayList<>(notificaciones.size());
+        for (var i = 0; i < notificaciones.size(); i++) {
+            orden.add(i);
+        }
+        orden.sort(Comparator.comparing(i -> correos.get(i).getDominio()));
+
+        int tamanio = (orden.size() + concurrencia - 1) / concurrencia;
+        List<List<NotificacionPendiente>> bloques = new ArrayList<>(concurrencia);
+        List<CompletableFuture<List<ResultadoEnvioCorreo>>> envios = new ArrayList<>(concurrencia);
+        for (var desde = 0; desde < orden.size(); desde += tamanio) {
+            List<NotificacionPendiente> bloque = new ArrayList<>(tamanio);
+            List<CorreoElectronico> correosBloque = new ArrayList<>(tamanio);
+            for (Integer i : orden.subList(desde, Math.min(desde + tamanio, orden.size()))) {
+                bloque.add(notificaciones.get(i));
+                correosBloque.add(correos.get(i));
+            }
+            bloques.add(bloque);
+            envios.add(this.emailService.sendMailsAsync(correosBloque));
+        }
+        var enviadas = 0;
+        for (var i = 0; i < envios.size(); i++) {
+            enviadas += this.registrar(bloques.get(i), envios.get(i));
+        }
+        log.info("Bloque de notificaciones despachado: {} enviadas de {}", enviadas, notificaciones.size());
+        return enviadas;
+    }
+
+    /**
+     * Espera al envio de un bloque y marca cada notificacion como enviada o programa su reintento
+     *
+     * @return el numero de notificaciones del bloque enviadas
+     */
+    private int registrar(List<NotificacionPendiente> notificaciones, CompletableFuture<List<ResultadoEnvioCorreo>> envio) {
+        List<ResultadoEnvioCorreo> resultados;
+        try {
+            resultados = envio.join();
+        } catch (CompletionException e) {
+            this.registrarFallo(notificaciones, e.getCause() != null ? e.getCause() : e);
+            return 0;
+        }
+        var enviadas = 0;
+        for (var i = 0; i < notificaciones.size(); i++) {
+            NotificacionPendiente notificacion = notificaciones.get(i);
+            ResultadoEnvioCorreo resultado = resultados.get(i);
+            if (!resultado.isEnviado()) {
+                this.registrarFallo(notificacion, resultado.getError() != null ? resultado.getError() : "El servidor de correo no ha aceptado el mensaje");
+            } else if (this.marcarEnviada(notificacion)) {
+                enviadas++;
+            }
+        }
+        return enviadas;
+    }
+
+    private boolean marcarEnviada(NotificacionPendiente notificacion) {
+        try {
+            this.notificacionOutboxMapper.marcarEnviada(notificacion.getNotificacionId());
+            return true;
+        } catch (RuntimeException e) {
+            log.error("No se ha podido marcar como enviada la notificacion {}, se reenviara al vencer la reclamacion", notificacion.getNotificacionId(), e);
+            return false;
+        }
+    }
+
+    private void registrarFallo(List<NotificacionPendiente> notificaciones, Throwable e) {
+        String motivo = e instanceof ApplicationException ? ((ApplicationException) e).getExternalMessage() : e.getMessage();
+        String error = e.getClass().getSimpleName() + ": " + motivo;
+        notificaciones.forEach(notificacion -> this.registrarFallo(notificacion, error));
+    }
+
+    private void registrarFallo(NotificacionPendiente notificacion, String error) {
+        int intentos = notificacion.getIntentos() + 1;
+        String truncado = error.length() > MAX_ERROR ? error.substring(0, MAX_ERROR) : error;
+        try {
+            if (intentos >= maxIntentos) {
+                log.error("Notificacion {} a {} descartada tras {} intentos: {}", notificacion.getNotificacionId(), notificacion.getDestino(), intentos, truncado);
+                this.notificacionOutboxMapper.marcarFallida(notificacion.getNotificacionId(), intentos, truncado);
+            } else {
+                long espera = this.calcularEspera(intentos);
+                log.warn("Notificacion {} a {} fallida (intento {}), se reintenta en {} ms: {}", notificacion.getNotificacionId(), notificacion.getDestino(), intentos, espera, truncado);
+                this.notificacionOutboxMapper.programarReintento(notificacion.getNotificacionId(), intentos, espera, truncado);
+            }
+        } catch (RuntimeException e) {
+            log.error("No se ha podido registrar el fallo de la notificacion {}, se reintentara al vencer la reclamacion", notificacion.getNotificacionId(), e);
+        }
+    }
+
+    /**
+     * Espera exponencial con jitter: entre la mitad y el total de espera-inicial * 2^(intentos-1), sin pasar de la
+     * espera maxima
+     *
+     * @param intentos numero de intentos fallidos, desde 1
+     * @return milisegundos hasta el siguiente intento
+     */
+    long calcularEspera(int intentos) {
+        long espera = esperaMaximaMs;
+        if (intentos - 1 < Long.numberOfLeadingZeros(esperaInicialMs) - 1) {
+            espera = Math.min(esperaMaximaMs, esperaInicialMs << (intentos - 1));
+        }
+        return espera / 2 + ThreadLocalRandom.current().nextLong(espera / 2 + 1);
+    }
+}
@@ -1,5 +1,7 @@
 package com.babel.vehiclerentingapproval.services.preautomaticresults;
 
+import com.babel.vehiclerentingapproval.models.EvaluacionReglas;
+import com.babel.vehiclerentingapproval.models.RuleInputSnapshot;
 import com.babel.vehiclerentingapproval.models.SolicitudRenting;
 import org.springframework.context.annotation.Bean;
 
@@ -14,4 +16,37 @@ public interface CalculateAutomaticResult {
     @Bean
     String totalResult(SolicitudRenting solicitudRenting);
 
+    Boolean findAnyDeny(RuleInputSnapshot snapshot);
+
+    Boolean findAllApproval(RuleInputSnapshot snapshot);
+
+    Boolean findAnyApproval(RuleInputSnapshot snapshot);
+
+    /**
+     * Evalua la solicitud en memoria a partir de sus datos de entrada ya cargados
+     *
+     * @param snapshot datos de entrada de las reglas de la solicitud
+     * @return AA = Aprobada, PA = Pendiente Aprobacion, DM = Predenegacion Automatica
+     */
+    String totalResult(RuleInputSnapshot snapshot);
+
+    /**
+     * Evalua la solicitud calculando cada regla como mucho una vez y devuelve el vector de reglas evaluadas
+     * junto con el resultado derivado de el
+     *
+     * @param solicitudRenting la solicitud de renting
+     * @return el vector de resultados de las reglas y el resultado AA, PA o DM
+     * @see EvaluacionReglas
+     */
+    EvaluacionReglas evaluar(SolicitudRenting solicitudRenting);
+
+    /**
+     * Evalua en memoria la solicitud calculando cada regla como mucho una vez
+     *
+     * @param snapshot datos de entrada de las reglas de la solicitud
+     * @return el vector de resultados de las reglas y el resultado AA, PA o DM
+     * @see EvaluacionReglas
+     */
+    EvaluacionReglas evaluar(RuleInputSnapshot snapshot);
+
 }
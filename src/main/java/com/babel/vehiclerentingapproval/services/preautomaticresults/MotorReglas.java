@@ -0,0 +1,74 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults;
+
+import com.babel.vehiclerentingapproval.exceptions.ReglaInvalidaException;
+import com.babel.vehiclerentingapproval.models.EstadisticasReglas;
+import com.babel.vehiclerentingapproval.models.EvaluacionReglas;
+import com.babel.vehiclerentingapproval.models.ReglaDefinicion;
+import com.babel.vehiclerentingapproval.models.RuleInputSnapshot;
+
+import java.util.List;
+
+/**
+ * Motor de reglas automaticas de preaprobacion y predenegacion. Las reglas se declaran en un fichero, se compilan a
+ * predicados sobre los datos de entrada de la solicitud y se pueden recargar sin reiniciar la aplicacion.
+ *
+ * @see ReglaDefinicion
+ */
+public interface MotorReglas {
+    /**
+     * Evalua la solicitud calculando cada regla como mucho una vez: si alguna regla de predenegación se cumple es DM,
+     * si se cumplen todas las de preaprobación AA, si se cumple alguna PA y si no DM.
+     *
+     * @param snapshot datos de entrada de las reglas de la solicitud
+     * @return el vector de resultados de las reglas y el resultado AA, PA o DM
+     */
+    EvaluacionReglas evaluar(RuleInputSnapshot snapshot);
+
+    /**
+     * @param snapshot datos de entrada de las reglas de la solicitud
+     * @return true si se cumple alguna regla de predenegación
+     */
+    boolean algunaDenegacion(RuleInputSnapshot snapshot);
+
+    /**
+     * @param snapshot datos de entrada de las reglas de la solicitud
+     * @return true si se cumplen todas las reglas de preaprobación
+     */
+    boolean todasAprobacion(RuleInputSnapshot snapshot);
+
+    /**
+     * @param snapshot datos de entrada de las reglas de la solicitud
+     * @return true si se cumple alguna regla de preaprobación
+     */
+    boolean algunaAprobacion(RuleInputSnapshot snapshot);
+
+    /**
+     * Vuelve a leer y compilar el fichero de reglas y sustituye las reglas en uso. Las evaluaciones en curso terminan
+     * con las reglas anteriores.
+     *
+     * @return version de las reglas cargadas
+     * @throws ReglaInvalidaException si el fichero no se puede leer o alguna regla no es valida; se mantienen las reglas anteriores
+     */
+    long recargar();
+
+    /**
+     * @return version de las reglas en uso, se incrementa en cada recarga
+     */
+    long getVersion();
+
+    /**
+     * @return las reglas en uso en el orden en que se evaluan: primero las de predenegación y despues las de preaprobación
+     */
+    List<ReglaDefinicion> getReglas();
+
+    /**
+     * Reordena las cadenas de reglas segun la latencia y la tasa de cumplimiento observadas, para que las cadenas
+     * "todas" fallen cuanto antes y las cadenas "alguna" se cumplan cuanto antes
+     */
+    void reordenar();
+
+    /**
+     * @return el orden actual de cada cadena de reglas con las estadisticas de cada regla
+     */
+    EstadisticasReglas getEstadisticas();
+}
@@ -0,0 +1,22 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults;
+
+import com.babel.vehiclerentingapproval.exceptions.InputIsNullOrIsEmpty;
+import com.babel.vehiclerentingapproval.models.PreAprobacionLote;
+
+import java.util.List;
+
+/**
+ * Esta interfaz define la evaluacion automatica de preaprobacion de un lote de solicitudes de renting
+ */
+public interface PreAprobacionLoteService {
+    /**
+     * Evalua las reglas de preaprobacion y predenegacion de todas las solicitudes indicadas. Los datos de entrada de
+     * las reglas se cargan por bloques con consultas conjuntas y los bloques se evaluan en paralelo.
+     *
+     * @param solicitudIds ids de las solicitudes a evaluar
+     * @return el resultado de cada solicitud, las solicitudes no encontradas y el rendimiento del lote
+     * @throws InputIsNullOrIsEmpty si la lista de ids es nula o esta vacia
+     * @see PreAprobacionLote
+     */
+    PreAprobacionLote evaluarLote(List<Integer> solicitudIds) throws InputIsNullOrIsEmpty;
+}
@@ -0,0 +1,31 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults;
+
+/**
+ * Registro en memoria de los CIF de empresas de la tabla INFORMA, que consulta la regla de CIF del empleador.
+ * La implementacion se elige con {@code informa.registro.tipo}: BLOOM (por defecto) o HASH.
+ */
+public interface RegistroCifInforma {
+    /**
+     * Comprueba si un CIF esta en INFORMA. El CIF se normaliza: se ignoran espacios, guiones y puntos y no se
+     * distinguen mayusculas.
+     *
+     * @param cif CIF a comprobar
+     * @return true si el CIF esta en INFORMA, false si no esta o es nulo o vacio
+     */
+    boolean contiene(String cif);
+
+    /**
+     * Vuelve a cargar la tabla INFORMA completa; es la unica forma de quitar del registro los CIF borrados
+     */
+    void recargar();
+
+    /**
+     * Añade al registro los CIF nuevos o modificados desde la ultima carga
+     */
+    void refrescar();
+
+    /**
+     * @return numero de CIF distintos del registro
+     */
+    int getTamanio();
+}
@@ -1,15 +1,19 @@
 package com.babel.vehiclerentingapproval.services.preautomaticresults.impl;
 
+import com.babel.vehiclerentingapproval.exceptions.SolicitudRentingNotFoundException;
+import com.babel.vehiclerentingapproval.models.EvaluacionReglas;
+import com.babel.vehiclerentingapproval.models.RuleInputSnapshot;
 import com.babel.vehiclerentingapproval.models.SolicitudRenting;
 import com.babel.vehiclerentingapproval.persistance.database.mappers.AutomaticResultMapper;
-import com.babel.vehiclerentingapproval.services.preautomaticresults.ApprovalRulesService;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.RuleInputMapper;
 import com.babel.vehiclerentingapproval.services.preautomaticresults.CalculateAutomaticResult;
-import com.babel.vehiclerentingapproval.services.preautomaticresults.DenyRulesService;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.MotorReglas;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
 /**
  * Clase que contiene los metodos que engloba todos los metodos destinados a comprobar el cumplimiento de reglas de preparobacion,
- * predenegacion, y la obtencion de un estado de la solicitud.
+ * predenegacion, y la obtencion de un estado de la solicitud. Las reglas las declara y evalua el {@link MotorReglas}.
  *
  * @author: ismael.mesa@babelgroup.com
  * @author: alvaro.dorado@babelgroup.com
@@ -17,20 +21,20 @@ import org.springframework.stereotype.Service;
 @Service
 public class CalculateAutomaticResultImpl implements CalculateAutomaticResult {
 
-    private DenyRulesService denyRulesService;
-    private ApprovalRulesService approvalRulesService;
+    private MotorReglas motorReglas;
+    private RuleInputMapper ruleInputMapper;
 
     /**
      * Constructor encargado de dar forma al objeto de tipo CalculateAutomaticResult
      *
-     * @param denyRulesService      parámetro de tipo DenyRulesService que contiene todos las reglas de predenegación
-     * @param approvalRulesService  parámetro de tipo  ApprovalRulesService que contiene todos las reglas de preaprovación
+     * @param motorReglas           parámetro de tipo MotorReglas que contiene las reglas de predenegación y preaprobación compiladas
      * @param automaticResultMapper parámetro de tipo AutomaticResultMapper realiza una query que actualiza el código de resolución
      *                              de una solicitud de renting.
+     * @param ruleInputMapper       parámetro de tipo RuleInputMapper que carga en una sola consulta los datos de entrada de las reglas
      */
-    public CalculateAutomaticResultImpl(DenyRulesService denyRulesService, ApprovalRulesService approvalRulesService, AutomaticResultMapper automaticResultMapper) {
-        this.denyRulesService = denyRulesService;
-        this.approvalRulesService = approvalRulesService;
+    public CalculateAutomaticResultImpl(MotorReglas motorReglas, AutomaticResultMapper automaticResultMapper, RuleInputMapper ruleInputMapper) {
+        this.motorReglas = motorReglas;
+        this.ruleInputMapper = ruleInputMapper;
     }
 
     /**
@@ -41,15 +45,7 @@ public class CalculateAutomaticResultImpl implements CalculateAutomaticResult {
      */
     @Override
     public Boolean findAnyDeny(SolicitudRenting solicitudRenting) {
-        boolean resultado;
-        if (Boolean.FALSE.equals(denyRulesService.validateClientAge(solicitudRenting)) &&
-                Boolean.FALSE.equals(denyRulesService.validateClientAgePlusPlazo(solicitudRenting)) &&
-                Boolean.FALSE.equals(denyRulesService.validateScoringTitular(solicitudRenting))) {
-            resultado = true;
-        } else {
-            resultado = false;
-        }
-        return resultado;
+        return this.findAnyDeny(this.cargarSnapshot(solicitudRenting));
     }
 
     /**
@@ -60,22 +56,7 @@ public class CalculateAutomaticResultImpl implements CalculateAutomaticResult {
      */
     @Override
     public Boolean findAllApproval(SolicitudRenting solicitudRenting) {
-        boolean resultado;
-        if (Boolean.TRUE.equals(approvalRulesService.validateCIFCliente(solicitudRenting)) &&
-                Boolean.TRUE.equals(approvalRulesService.validateInversion(solicitudRenting)) &&
-                        Boolean.TRUE.equals(approvalRulesService.validateInversionIngresos(solicitudRenting)) &&
-                                Boolean.TRUE.equals(approvalRulesService.validateScoringPersona(solicitudRenting)) &&
-                                        Boolean.TRUE.equals(approvalRulesService.validateImpagoCuota(solicitudRenting)) &&
-                                                Boolean.TRUE.equals(approvalRulesService.validateNationality(solicitudRenting)) &&
-                                                        Boolean.TRUE.equals(approvalRulesService.validateYearsExperience(solicitudRenting)) &&
-                                                                Boolean.TRUE.equals(approvalRulesService.validateClienteNoAprobadoConGarantias(solicitudRenting)) &&
-                                                                        Boolean.TRUE.equals(approvalRulesService.validateClienteNoRechazadoPreviamente(solicitudRenting)))
-        {
-            resultado = true;
-        } else{
-            resultado = false;
-        }
-        return resultado;
+        return this.findAllApproval(this.cargarSnapshot(solicitudRenting));
     }
 
     /**
@@ -86,21 +67,7 @@ public class CalculateAutomaticResultImpl implements CalculateAutomaticResult {
      */
     @Override
     public Boolean findAnyApproval(SolicitudRenting solicitudRenting) {
-        boolean resultado;
-        if (Boolean.TRUE.equals(this.approvalRulesService.validateCIFCliente(solicitudRenting)) ||
-                Boolean.TRUE.equals(this.approvalRulesService.validateInversion(solicitudRenting)) ||
-                Boolean.TRUE.equals(this.approvalRulesService.validateInversionIngresos(solicitudRenting)) ||
-                Boolean.TRUE.equals(this.approvalRulesService.validateScoringPersona(solicitudRenting)) ||
-                Boolean.TRUE.equals(this.approvalRulesService.validateImpagoCuota(solicitudRenting)) ||
-                Boolean.TRUE.equals(this.approvalRulesService.validateNationality(solicitudRenting)) ||
-                Boolean.TRUE.equals(this.approvalRulesService.validateYearsExperience(solicitudRenting)) ||
-                Boolean.TRUE.equals(this.approvalRulesService.validateClienteNoAprobadoConGarantias(solicitudRenting)) ||
-                Boolean.TRUE.equals(this.approvalRulesService.validateClienteNoRechazadoPreviamente(solicitudRenting))) {
-            resultado = true;
-        } else {
-            resultado = false;
-        }
-        return resultado;
+        return this.findAnyApproval(this.cargarSnapshot(solicitudRenting));
     }
 
     /**
@@ -109,31 +76,97 @@ public class CalculateAutomaticResultImpl implements CalculateAutomaticResult {
      * Alguna regla de predenegación se cumple
      * Alguna regla de predenegación se cumple
      * devolviendo el estado de la solicitud, respecto a ello.
+     * <p>
+     * Los datos de entrada de todas las reglas se cargan con una unica consulta y las reglas se evaluan en memoria.
      *
      * @param solicitudRenting la solicitud de renting.
      * @return resultado equivalente al estado de la solicitud tras comprobar todas las validaciones.
      * devolviendo: AA = Aprobada, PA = Pendiente Aprobacion, DM = Predenegacion Automatica.
+     * @throws SolicitudRentingNotFoundException si la solicitud no existe
      */
     @Override
     public String totalResult(SolicitudRenting solicitudRenting) {
+        return this.totalResult(this.cargarSnapshot(solicitudRenting));
+    }
 
-        var result = "";
+    /**
+     * Carga con una sola consulta los datos de entrada de las reglas de la solicitud
+     */
+    private RuleInputSnapshot cargarSnapshot(SolicitudRenting solicitudRenting) {
+        RuleInputSnapshot snapshot = this.ruleInputMapper.obtenerSnapshot(solicitudRenting.getSolicitudId());
+        if (snapshot == null) {
+            throw new SolicitudRentingNotFoundException(HttpStatus.NOT_FOUND);
+        }
+        return snapshot;
+    }
 
-        if (Boolean.TRUE.equals(this.findAnyDeny(solicitudRenting))) {
-            if (Boolean.TRUE.equals(this.findAllApproval(solicitudRenting))) {
-                result = "AA";
-            } else if (Boolean.TRUE.equals(this.findAnyApproval(solicitudRenting))) {
-                result = "PA";
-            } else {
-                result = "DM";
-            }
-        } else {
-            result = "DM";
+    /**
+     * Metodo que evalua la solicitud y devuelve su resultado junto con el vector de reglas evaluadas
+     *
+     * @param solicitudRenting la solicitud de renting
+     * @return el vector de resultados de las reglas y el resultado derivado
+     * @throws SolicitudRentingNotFoundException si la solicitud no existe
+     */
+    @Override
+    public EvaluacionReglas evaluar(SolicitudRenting solicitudRenting) {
+        return this.evaluar(this.cargarSnapshot(solicitudRenting));
+    }
 
+    /**
+     * Metodo encargado de comprobar en memoria que no se cumpla alguna regla de predenegación
+     *
+     * @param snapshot datos de entrada de las reglas de la solicitud
+     * @return Si no ha encontrado ninguna regla de predenación devuelve True, en caso contrario False.
+     */
+    @Override
+    public Boolean findAnyDeny(RuleInputSnapshot snapshot) {
+        return !this.motorReglas.algunaDenegacion(snapshot);
+    }
 
-        }
-        return result;
+    /**
+     * Metodo encargado de comprobar en memoria que todas las reglas de preaprobación de cumplan
+     *
+     * @param snapshot datos de entrada de las reglas de la solicitud
+     * @return Si todas las reglas de preaprobación se cumplen, devuelve True, en caso contrario False.
+     */
+    @Override
+    public Boolean findAllApproval(RuleInputSnapshot snapshot) {
+        return this.motorReglas.todasAprobacion(snapshot);
+    }
+
+    /**
+     * Metodo encargado de comprobar en memoria que se cumpla alguna regla de preaprobación
+     *
+     * @param snapshot datos de entrada de las reglas de la solicitud
+     * @return Si alguna regla de preaprobación se cumple devuelve True, en caso contrario, devuelve False
+     */
+    @Override
+    public Boolean findAnyApproval(RuleInputSnapshot snapshot) {
+        return this.motorReglas.algunaAprobacion(snapshot);
     }
 
+    /**
+     * Metodo que evalua en memoria una solicitud a partir de sus datos de entrada ya cargados: si alguna regla de
+     * predenegación se cumple es DM, si se cumplen todas las de preaprobación AA, si se cumple alguna PA y si no DM.
+     *
+     * @param snapshot datos de entrada de las reglas de la solicitud
+     * @return AA = Aprobada, PA = Pendiente Aprobacion, DM = Predenegacion Automatica.
+     */
+    @Override
+    public String totalResult(RuleInputSnapshot snapshot) {
+        return this.evaluar(snapshot).getResultado();
+    }
+
+    /**
+     * Metodo que evalua en memoria una solicitud. Cada regla se evalua como mucho una vez: cuando falla la comprobación de
+     * todas las reglas de preaprobación, la comprobación de alguna reutiliza los resultados ya guardados en el vector.
+     *
+     * @param snapshot datos de entrada de las reglas de la solicitud
+     * @return el vector de resultados de las reglas evaluadas y el resultado derivado
+     */
+    @Override
+    public EvaluacionReglas evaluar(RuleInputSnapshot snapshot) {
+        return this.motorReglas.evaluar(snapshot);
+    }
 
 }
@@ -0,0 +1,103 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults.impl;
+
+import com.babel.vehiclerentingapproval.models.RuleInputSnapshot;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.RegistroCifInforma;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Campos de los datos de entrada de la solicitud que pueden usar las reglas del fichero de reglas.
+ * Los campos numericos devuelven NaN cuando el dato no existe, de modo que ninguna comparacion con ellos se cumple.
+ * Los campos que no estan en los datos de entrada, como la presencia del CIF del empleador en INFORMA, se calculan
+ * al evaluar la regla, de modo que solo se consultan si la regla llega a evaluarse.
+ *
+ * @see RuleInputSnapshot
+ */
+enum CampoRegla {
+    EDAD("edad", snapshot -> anios(snapshot.getFechaNacimiento())),
+    EDAD_MAS_PLAZO("edadMasPlazo", snapshot -> snapshot.getPlazo() == null ? Double.NaN : anios(snapshot.getFechaNacimiento()) + snapshot.getPlazo().intValue()),
+    PLAZO("plazo", snapshot -> snapshot.getPlazo() == null ? Double.NaN : snapshot.getPlazo().doubleValue()),
+    INVERSION("inversion", snapshot -> numero(snapshot.getInversion())),
+    CUOTA("cuota", snapshot -> numero(snapshot.getCuota())),
+    SCORING("scoring", RuleInputSnapshot::getScoring),
+    IMPORTE_NETO("importeNeto", snapshot -> numero(snapshot.getImporteNeto())),
+    ANIOS_EMPLEO("aniosEmpleo", snapshot -> numero(snapshot.getAniosEmpleo())),
+    IMPORTE_IMPAGO_INTERNO("importeImpagoInterno", RuleInputSnapshot::getImporteImpagoInterno),
+    CIF_EN_INFORMA("cifEnInforma", null) {
+        @Override
+        ToDoubleFunction<RuleInputSnapshot> numerico(RegistroCifInforma registroCifInforma) {
+            return snapshot -> registroCifInforma.contiene(snapshot.getCifEmpleador()) ? 1 : 0;
+        }
+    },
+    SOLICITUDES_NO_APROBADAS_CON_GARANTIAS("solicitudesNoAprobadasConGarantias", RuleInputSnapshot::getSolicitudesNoAprobadasConGarantias),
+    SOLICITUDES_NO_RECHAZADAS("solicitudesNoRechazadas", RuleInputSnapshot::getSolicitudesNoRechazadas),
+    NACIONALIDAD("nacionalidad", null, RuleInputSnapshot::getNacionalidad);
+
+    private final String clave;
+    private final ToDoubleFunction<RuleInputSnapshot> numero;
+    private final Function<RuleInputSnapshot, String> texto;
+
+    CampoRegla(String clave, ToDoubleFunction<RuleInputSnapshot> numero) {
+        this(clave, numero, null);
+    }
+
+    CampoRegla(String clave, ToDoubleFunction<RuleInputSnapshot> numero, Function<RuleInputSnapshot, String> texto) {
+        this.clave = clave;
+        this.numero = numero;
+        this.texto = texto;
+    }
+
+    /**
+     * Busca el campo por el nombre con el que se declara en el fichero de reglas
+     *
+     * @param clave nombre del campo en el fichero de reglas
+     * @return el campo, o null si no existe
+     */
+    static CampoRegla desde(String clave) {
+        for (CampoRegla campo : values()) {
+            if (campo.clave.equals(clave)) {
+                return campo;
+            }
+        }
+        return null;
+    }
+
+    boolean isNumerico() {
+        return texto == null;
+    }
+
+    /**
+     * Devuelve la funcion que obtiene el valor numerico del campo
+     *
+     * @param registroCifInforma registro de CIF de INFORMA, para los campos que lo consultan
+     * @return funcion que devuelve el valor del campo, o NaN si no existe
+     */
+    ToDoubleFunction<RuleInputSnapshot> numerico(RegistroCifInforma registroCifInforma) {
+        return numero;
+    }
+
+    String texto(RuleInputSnapshot snapshot) {
+        return texto.apply(snapshot);
+    }
+
+    String getClave() {
+        return clave;
+    }
+
+    private static double numero(Number valor) {
+        return valor == null ? Double.NaN : valor.doubleValue();
+    }
+
+    private static double anios(Date fechaNacimiento) {
+        if (fechaNacimiento == null) {
+            return Double.NaN;
+        }
+        var fechaNacimientoLocalDate = fechaNacimiento.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        return ChronoUnit.YEARS.between(fechaNacimientoLocalDate, LocalDate.now());
+    }
+}
@@ -0,0 +1,176 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults.impl;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Conjunto de CIF con direccionamiento abierto y sondeo lineal sobre un array de long.
+ * <p>
+ * Cada CIF normalizado de hasta 10 caracteres alfanumericos se codifica en un long con 6 bits por caracter (0 queda
+ * para los huecos vacios), asi que el conjunto no guarda ningun String y la consulta no reserva memoria. Los CIF que
+ * no caben en esa codificacion, que no deberian darse, se guardan aparte en un HashSet. La tabla se mantiene como
+ * mucho medio llena y dobla su tamaño al pasar de ahi, asi que la capacidad esperada es solo una estimacion (un
+ * COUNT(*) que puede quedarse corto si se insertan filas mientras se carga).
+ * <p>
+ * No es seguro para escrituras concurrentes: se rellena en un solo hilo y despues solo se consulta.
+ */
+final class CifHashSet {
+    private static final long VACIO = 0L;
+    private static final long NO_CODIFICABLE = -1L;
+    private static final int MAX_CARACTERES = 10;
+
+    private long[] tabla;
+    private int mascara;
+    private final Set<String> otros = new HashSet<>();
+    private int tamanio;
+
+    /**
+     * @param capacidadEsperada numero de CIF que se espera guardar; la tabla se dimensiona al doble y crece si se supera
+     */
+    CifHashSet(int capacidadEsperada) {
+        int capacidad = Integer.highestOneBit(Math.max(16, capacidadEsperada * 2 - 1)) << 1;
+        this.tabla = new long[capacidad];
+        this.mascara = capacidad - 1;
+    }
+
+    /**
+     * Crea una copia con sitio para los CIF actuales mas los indicados
+     *
+     * @param adicionales numero de CIF que se van a añadir a la copia
+     * @return la copia
+     */
+    CifHashSet copiar(int adicionales) {
+        var copia = new CifHashSet(tamanio + adicionales);
+        for (long codigo : tabla) {
+            if (codigo != VACIO) {
+                copia.anadirCodigo(codigo);
+            }
+        }
+        copia.otros.addAll(otros);
+        copia.tamanio += otros.size();
+        return copia;
+    }
+
+    /**
+     * @param cif CIF a añadir, sin normalizar
+     * @return true si no estaba ya en el conjunto
+     */
+    boolean anadir(String cif) {
+        long codigo = codificar(cif);
+        if (codigo == VACIO) {
+            return false;
+        }
+        if (codigo == NO_CODIFICABLE) {
+            boolean nuevo = otros.add(normalizar(cif));
+            if (nuevo) {
+                tamanio++;
+            }
+            return nuevo;
+        }
+        if ((tamanio + 1) * 2 > tabla.length) {
+            this.ampliar();
+        }
+        return anadirCodigo(codigo);
+    }
+
+    boolean contiene(String cif) {
+        long codigo = codificar(cif);
+        if (codigo == VACIO) {
+            return false;
+        }
+        if (codigo == NO_CODIFICABLE) {
+            return !otros.isEmpty() && otros.contains(normalizar(cif));
+        }
+        for (int i = indice(codigo); ; i = (i + 1) & mascara) {
+            long actual = tabla[i];
+            if (actual == codigo) {
+                return true;
+            }
+            if (actual == VACIO) {
+                return false;
+            }
+        }
+    }
+
+    int getTamanio() {
+        return tamanio;
+    }
+
+    private boolean anadirCodigo(long codigo) {
+        for (int i = indice(codigo); ; i = (i + 1) & mascara) {
+            long actual = tabla[i];
+            if (actual == codigo) {
+                return false;
+            }
+            if (actual == VACIO) {
+                tabla[i] = codigo;
+                tamanio++;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Dobla el tamaño de la tabla y vuelve a colocar los codigos guardados
+     */
+    private void ampliar() {
+        long[] anterior = tabla;
+        this.tabla = new long[anterior.length << 1];
+        this.mascara = tabla.length - 1;
+        int guardados = tamanio;
+        for (long codigo : anterior) {
+            if (codigo != VACIO) {
+                anadirCodigo(codigo);
+            }
+        }
+        this.tamanio = guardados;
+    }
+
+    private int indice(long codigo) {
+        long mezcla = codigo * 0x9E3779B97F4A7C15L;
+        return (int) (mezcla ^ (mezcla >>> 32)) & mascara;
+    }
+
+    /**
+     * Codifica el CIF normalizado en un long, 6 bits por caracter: 1-10 para los digitos y 11-36 para las letras
+     *
+     * @param cif CIF sin normalizar
+     * @return el codigo, 0 si el CIF es nulo o vacio y -1 si no se puede codificar
+     */
+    static long codificar(String cif) {
+        if (cif == null) {
+            return VACIO;
+        }
+        long codigo = 0;
+        var caracteres = 0;
+        for (var i = 0; i < cif.length(); i++) {
+            char c = cif.charAt(i);
+            int valor;
+            if (c >= '0' && c <= '9') {
+                valor = c - '0' + 1;
+            } else if (c >= 'A' && c <= 'Z') {
+                valor = c - 'A' + 11;
+            } else if (c >= 'a' && c <= 'z') {
+                valor = c - 'a' + 11;
+            } else if (c == ' ' || c == '-' || c == '.') {
+                continue;
+            } else {
+                return NO_CODIFICABLE;
+            }
+            if (++caracteres > MAX_CARACTERES) {
+                return NO_CODIFICABLE;
+            }
+            codigo = (codigo << 6) | valor;
+        }
+        return codigo;
+    }
+
+    /**
+     * @param cif CIF sin normalizar
+     * @return el CIF sin espacios, guiones ni puntos y en mayusculas
+     */
+    static String normalizar(String cif) {
+        return cif.replaceAll("[ .\\-]", "").toUpperCase(Locale.ROOT);
+    }
+}
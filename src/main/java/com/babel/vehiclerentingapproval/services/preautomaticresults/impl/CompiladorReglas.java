@@ -0,0 +1,180 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults.impl;
+
+import com.babel.vehiclerentingapproval.exceptions.ReglaInvalidaException;
+import com.babel.vehiclerentingapproval.models.GrupoRegla;
+import com.babel.vehiclerentingapproval.models.ReglaDefinicion;
+import com.babel.vehiclerentingapproval.models.RuleInputSnapshot;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.RegistroCifInforma;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Lee las reglas declaradas en el fichero de reglas y las compila a predicados.
+ * <p>
+ * El fichero es un fichero de propiedades con la lista de reglas en la clave {@code reglas} y, por cada regla,
+ * las claves {@code regla.<nombre>.grupo}, {@code campo}, {@code operador}, {@code valor} o {@code campoComparado}
+ * y {@code coste}. Dentro de cada grupo las reglas se ordenan de menor a mayor coste, manteniendo el orden del
+ * fichero entre reglas del mismo coste. Ese es el orden inicial; despues lo ajusta el motor con lo observado.
+ */
+final class CompiladorReglas {
+    private static final String LISTA = "reglas";
+    private static final String PREFIJO = "regla.";
+
+    private CompiladorReglas() {
+    }
+
+    /**
+     * Lee las definiciones de las reglas en el orden en que aparecen en la clave {@code reglas}
+     *
+     * @param propiedades contenido del fichero de reglas
+     * @return las definiciones de las reglas
+     * @throws ReglaInvalidaException si falta la lista de reglas o algun dato obligatorio de una regla
+     */
+    static List<ReglaDefinicion> leer(Properties propiedades) {
+        String lista = propiedades.getProperty(LISTA);
+        if (lista == null || lista.isBlank()) {
+            throw new ReglaInvalidaException(LISTA, "no hay ninguna regla declarada", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        List<ReglaDefinicion> definiciones = new ArrayList<>();
+        Set<String> nombres = new HashSet<>();
+        for (String nombre : lista.split(",")) {
+            nombre = nombre.trim();
+            if (!nombres.add(nombre)) {
+                throw new ReglaInvalidaException(nombre, "esta declarada mas de una vez", HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+            var definicion = new ReglaDefinicion();
+            definicion.setNombre(nombre);
+            definicion.setGrupo(grupo(nombre, obligatoria(propiedades, nombre, "grupo")));
+            definicion.setCampo(obligatoria(propiedades, nombre, "campo"));
+            definicion.setOperador(obligatoria(propiedades, nombre, "operador"));
+            definicion.setValor(propiedad(propiedades, nombre, "valor"));
+            definicion.setCampoComparado(propiedad(propiedades, nombre, "campoComparado"));
+            definicion.setCoste(entero(nombre, "coste", propiedad(propiedades, nombre, "coste")));
+            definiciones.add(definicion);
+        }
+        return definiciones;
+    }
+
+    /**
+     * Compila las definiciones a un pipeline con las reglas de cada grupo ordenadas por coste
+     *
+     * @param definiciones reglas en el orden del fichero; esa es su posicion en el vector de resultados
+     * @param version      version que se asigna a las reglas
+     * @param registroCifInforma registro de CIF de INFORMA que consultan las reglas sobre el CIF del empleador
+     * @return el pipeline de reglas compiladas
+     * @throws ReglaInvalidaException si algun campo u operador no existe o el valor no es compatible con el campo
+     */
+    static PipelineReglas compilar(List<ReglaDefinicion> definiciones, long version, RegistroCifInforma registroCifInforma) {
+        List<String> nombres = new ArrayList<>(definiciones.size());
+        List<ReglaCompilada> denegacion = new ArrayList<>();
+        List<ReglaCompilada> aprobacion = new ArrayList<>();
+        for (ReglaDefinicion definicion : definiciones) {
+            var regla = new ReglaCompilada(nombres.size(), definicion, predicado(definicion, registroCifInforma));
+            nombres.add(definicion.getNombre());
+            (definicion.getGrupo() == GrupoRegla.DENEGACION ? denegacion : aprobacion).add(regla);
+        }
+        denegacion.sort(Comparator.comparingInt(ReglaCompilada::getCoste));
+        aprobacion.sort(Comparator.comparingInt(ReglaCompilada::getCoste));
+        return new PipelineReglas(version, nombres, denegacion, aprobacion, aprobacion);
+    }
+
+    private static Predicate<RuleInputSnapshot> predicado(ReglaDefinicion definicion, RegistroCifInforma registroCifInforma) {
+        String nombre = definicion.getNombre();
+        CampoRegla campo = campo(nombre, definicion.getCampo());
+        OperadorRegla operador = OperadorRegla.desde(definicion.getOperador());
+        if (operador == null) {
+            throw new ReglaInvalidaException(nombre, "el operador " + definicion.getOperador() + " no existe", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        if ((definicion.getValor() == null) == (definicion.getCampoComparado() == null)) {
+            throw new ReglaInvalidaException(nombre, "debe tener valor o campoComparado, pero no ambos", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        if (!campo.isNumerico()) {
+            if (!operador.admiteTexto() || definicion.getValor() == null) {
+                throw new ReglaInvalidaException(nombre, "el campo " + campo.getClave() + " solo admite = o != con un valor fijo", HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+            String valor = definicion.getValor();
+            boolean igual = operador == OperadorRegla.IGUAL;
+            return snapshot -> {
+                String texto = campo.texto(snapshot);
+                return texto != null && valor.equalsIgnoreCase(texto) == igual;
+            };
+        }
+        ToDoubleFunction<RuleInputSnapshot> numero = campo.numerico(registroCifInforma);
+        if (definicion.getCampoComparado() != null) {
+            CampoRegla comparado = campo(nombre, definicion.getCampoComparado());
+            if (!comparado.isNumerico()) {
+                throw new ReglaInvalidaException(nombre, "el campo " + comparado.getClave() + " no es numerico", HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+            ToDoubleFunction<RuleInputSnapshot> numeroComparado = comparado.numerico(registroCifInforma);
+            return snapshot -> {
+                double valor = numero.applyAsDouble(snapshot);
+                double referencia = numeroComparado.applyAsDouble(snapshot);
+                return !Double.isNaN(valor) && !Double.isNaN(referencia) && operador.comparar(valor, referencia);
+            };
+        }
+        double referencia = numero(nombre, definicion.getValor());
+        return snapshot -> {
+            double valor = numero.applyAsDouble(snapshot);
+            return !Double.isNaN(valor) && operador.comparar(valor, referencia);
+        };
+    }
+
+    private static CampoRegla campo(String nombre, String clave) {
+        CampoRegla campo = CampoRegla.desde(clave);
+        if (campo == null) {
+            throw new ReglaInvalidaException(nombre, "el campo " + clave + " no existe", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return campo;
+    }
+
+    private static GrupoRegla grupo(String nombre, String grupo) {
+        try {
+            return GrupoRegla.valueOf(grupo.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ReglaInvalidaException(nombre, "el grupo " + grupo + " no existe", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private static double numero(String nombre, String valor) {
+        if ("true".equalsIgnoreCase(valor) || "false".equalsIgnoreCase(valor)) {
+            return Boolean.parseBoolean(valor) ? 1 : 0;
+        }
+        try {
+            return Double.parseDouble(valor);
+        } catch (NumberFormatException e) {
+            throw new ReglaInvalidaException(nombre, "el valor " + valor + " no es numerico", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private static int entero(String nombre, String clave, String valor) {
+        if (valor == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new ReglaInvalidaException(nombre, "el " + clave + " " + valor + " no es un numero entero", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private static String obligatoria(Properties propiedades, String nombre, String clave) {
+        String valor = propiedad(propiedades, nombre, clave);
+        if (valor == null) {
+            throw new ReglaInvalidaException(nombre, "falta la clave " + PREFIJO + nombre + "." + clave, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return valor;
+    }
+
+    private static String propiedad(Properties propiedades, String nombre, String clave) {
+        String valor = propiedades.getProperty(PREFIJO + nombre + "." + clave);
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+}
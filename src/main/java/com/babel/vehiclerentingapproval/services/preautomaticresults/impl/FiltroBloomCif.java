@@ -0,0 +1,194 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults.impl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Filtro de Bloom de CIF sobre un array de long.
+ * <p>
+ * Se dimensiona a partir del numero de CIF esperados y de la probabilidad de falso positivo deseada. Cada CIF se
+ * reduce a una huella de 64 bits (la misma codificacion que {@link CifHashSet} cuando es posible) y de ella se derivan
+ * las k posiciones por doble hash, asi que la consulta no reserva memoria. Un "no" es definitivo; un "quiza" hay que
+ * confirmarlo contra la base de datos.
+ * <p>
+ * No es seguro para escrituras concurrentes: se rellena en un solo hilo y despues solo se consulta.
+ */
+final class FiltroBloomCif {
+    private static final double LN2 = Math.log(2);
+
+    private final long[] bits;
+    private final long numeroBits;
+    private final int numeroHashes;
+    private final int esperados;
+    private final double probabilidadFalsoPositivo;
+    private int insertados;
+
+    /**
+     * @param esperados                 numero de CIF que se espera guardar
+     * @param probabilidadFalsoPositivo probabilidad de falso positivo con ese numero de CIF, entre 0 y 1
+     */
+    FiltroBloomCif(int esperados, double probabilidadFalsoPositivo) {
+        if (probabilidadFalsoPositivo <= 0 || probabilidadFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("La probabilidad de falso positivo debe estar entre 0 y 1: " + probabilidadFalsoPositivo);
+        }
+        int n = Math.max(1, esperados);
+        long m = Math.max(64, (long) Math.ceil(-n * Math.log(probabilidadFalsoPositivo) / (LN2 * LN2)));
+        this.bits = new long[(int) ((m + 63) >>> 6)];
+        this.numeroBits = (long) bits.length << 6;
+        this.numeroHashes = Math.max(1, (int) Math.round((double) numeroBits / n * LN2));
+        this.esperados = n;
+        this.probabilidadFalsoPositivo = probabilidadFalsoPositivo;
+    }
+
+    private FiltroBloomCif(FiltroBloomCif origen) {
+        this.bits = origen.bits.clone();
+        this.numeroBits = origen.numeroBits;
+        this.numeroHashes = origen.numeroHashes;
+        this.esperados = origen.esperados;
+        this.probabilidadFalsoPositivo = origen.probabilidadFalsoPositivo;
+        this.insertados = origen.insertados;
+    }
+
+    private FiltroBloomCif(long[] bits, int numeroHashes, int esperados, double probabilidadFalsoPositivo, int insertados) {
+        this.bits = bits;
+        this.numeroBits = (long) bits.length << 6;
+        this.numeroHashes = numeroHashes;
+        this.esperados = esperados;
+        this.probabilidadFalsoPositivo = probabilidadFalsoPositivo;
+        this.insertados = insertados;
+    }
+
+    /**
+     * @return una copia independiente del filtro
+     */
+    FiltroBloomCif copiar() {
+        return new FiltroBloomCif(this);
+    }
+
+    /**
+     * @param cif CIF a añadir, sin normalizar
+     * @return true si ha cambiado algun bit, es decir, si el CIF seguro que no estaba
+     */
+    boolean anadir(String cif) {
+        long huella = huella(cif);
+        if (huella == 0) {
+            return false;
+        }
+        long h1 = mezclar(huella);
+        long h2 = mezclar(huella ^ 0x9E3779B97F4A7C15L) | 1;
+        var cambiado = false;
+        for (var i = 0; i < numeroHashes; i++) {
+            long posicion = Math.floorMod(h1 + i * h2, numeroBits);
+            int palabra = (int) (posicion >>> 6);
+            long mascara = 1L << posicion;
+            if ((bits[palabra] & mascara) == 0) {
+                bits[palabra] |= mascara;
+                cambiado = true;
+            }
+        }
+        if (cambiado) {
+            insertados++;
+        }
+        return cambiado;
+    }
+
+    /**
+     * @param cif CIF a comprobar, sin normalizar
+     * @return false si el CIF seguro que no esta, true si puede estar
+     */
+    boolean quizaContiene(String cif) {
+        long huella = huella(cif);
+        if (huella == 0) {
+            return false;
+        }
+        long h1 = mezclar(huella);
+        long h2 = mezclar(huella ^ 0x9E3779B97F4A7C15L) | 1;
+        for (var i = 0; i < numeroHashes; i++) {
+            long posicion = Math.floorMod(h1 + i * h2, numeroBits);
+            if ((bits[(int) (posicion >>> 6)] & (1L << posicion)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true si el filtro ya tiene mas CIF de los esperados y su tasa de falsos positivos supera la configurada
+     */
+    boolean isSaturado() {
+        return insertados > esperados;
+    }
+
+    int getInsertados() {
+        return insertados;
+    }
+
+    int getNumeroHashes() {
+        return numeroHashes;
+    }
+
+    long getNumeroBits() {
+        return numeroBits;
+    }
+
+    double getProbabilidadFalsoPositivo() {
+        return probabilidadFalsoPositivo;
+    }
+
+    void escribir(DataOutput salida) throws IOException {
+        salida.writeDouble(probabilidadFalsoPositivo);
+        salida.writeInt(esperados);
+        salida.writeInt(insertados);
+        salida.writeInt(numeroHashes);
+        salida.writeInt(bits.length);
+        for (long palabra : bits) {
+            salida.writeLong(palabra);
+        }
+    }
+
+    static FiltroBloomCif leer(DataInput entrada) throws IOException {
+        double probabilidadFalsoPositivo = entrada.readDouble();
+        int esperados = entrada.readInt();
+        int insertados = entrada.readInt();
+        int numeroHashes = entrada.readInt();
+        int palabras = entrada.readInt();
+        if (numeroHashes < 1 || palabras < 1 || esperados < 1) {
+            throw new IOException("Cabecera de filtro de Bloom no valida");
+        }
+        var bits = new long[palabras];
+        for (var i = 0; i < palabras; i++) {
+            bits[i] = entrada.readLong();
+        }
+        return new FiltroBloomCif(bits, numeroHashes, esperados, probabilidadFalsoPositivo, insertados);
+    }
+
+    /**
+     * Huella de 64 bits del CIF normalizado: su codificacion en {@link CifHashSet} si cabe y si no un FNV-1a de los
+     * caracteres normalizados
+     *
+     * @param cif CIF sin normalizar
+     * @return la huella, 0 si el CIF es nulo o vacio
+     */
+    static long huella(String cif) {
+        long codigo = CifHashSet.codificar(cif);
+        if (codigo != -1L) {
+            return codigo;
+        }
+        long hash = 0xCBF29CE484222325L;
+        for (var i = 0; i < cif.length(); i++) {
+            char c = cif.charAt(i);
+            if (c == ' ' || c == '-' || c == '.') {
+                continue;
+            }
+            hash = (hash ^ Character.toUpperCase(c)) * 0x100000001B3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static long mezclar(long valor) {
+        valor = (valor ^ (valor >>> 33)) * 0xFF51AFD7ED558CCDL;
+        valor = (valor ^ (valor >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return valor ^ (valor >>> 33);
+    }
+}
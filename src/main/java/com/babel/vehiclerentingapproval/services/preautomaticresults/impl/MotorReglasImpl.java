@@ -0,0 +1,248 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults.impl;
+
+import com.babel.vehiclerentingapproval.exceptions.ReglaInvalidaException;
+import com.babel.vehiclerentingapproval.models.EstadisticasReglas;
+import com.babel.vehiclerentingapproval.models.EvaluacionReglas;
+import com.babel.vehiclerentingapproval.models.ReglaDefinicion;
+import com.babel.vehiclerentingapproval.models.RuleInputSnapshot;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.MotorReglas;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.RegistroCifInforma;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Implementacion del motor de reglas sobre un fichero de propiedades.
+ * <p>
+ * Al arrancar se lee y compila el fichero indicado en {@code preaprobacion.reglas.fichero}. Cada cierto tiempo se
+ * comprueba la fecha de modificacion del fichero y, si ha cambiado, se vuelve a compilar y se sustituye el pipeline en
+ * uso de una sola vez. Si el fichero nuevo no es valido se registra el error y se siguen usando las reglas anteriores.
+ * <p>
+ * Cada regla cuenta cuantas veces se cumple y una de cada {@code preaprobacion.reglas.muestreo} evaluaciones se
+ * cronometra. Periodicamente se reordena cada cadena por latencia entre probabilidad de cortarla: las cadenas "todas"
+ * ponen primero las reglas baratas que mas fallan y las cadenas "alguna" las baratas que mas se cumplen. El resultado
+ * no cambia con el orden porque las reglas no tienen efectos secundarios; solo cambia cuantas se evaluan.
+ *
+ * @see CompiladorReglas
+ */
+@Service
+@Log4j2
+public class MotorReglasImpl implements MotorReglas {
+    private static final String DM = "DM";
+
+    private final ResourceLoader resourceLoader;
+    private final RegistroCifInforma registroCifInforma;
+    private final String ubicacion;
+    private final int muestreo;
+    private volatile PipelineReglas pipeline;
+    private volatile long ultimaModificacion;
+    private volatile long reordenaciones;
+
+    public MotorReglasImpl(ResourceLoader resourceLoader, RegistroCifInforma registroCifInforma,
+                           @Value("${preaprobacion.reglas.fichero:classpath:reglas-preaprobacion.properties}") String ubicacion,
+                           @Value("${preaprobacion.reglas.muestreo:16}") int muestreo) {
+        this.resourceLoader = resourceLoader;
+        this.registroCifInforma = registroCifInforma;
+        this.ubicacion = ubicacion;
+        this.muestreo = Math.max(1, muestreo);
+    }
+
+    /**
+     * Compila las reglas al arrancar; si el fichero no es valido la aplicacion no arranca.
+     */
+    @PostConstruct
+    public void init() {
+        this.recargar();
+    }
+
+    @Override
+    public synchronized long recargar() {
+        Resource recurso = resourceLoader.getResource(ubicacion);
+        long modificacion = modificacion(recurso);
+        Properties propiedades = new Properties();
+        try (var reader = new InputStreamReader(recurso.getInputStream(), StandardCharsets.UTF_8)) {
+            propiedades.load(reader);
+        } catch (IOException e) {
+            throw new ReglaInvalidaException(ubicacion, "no se ha podido leer el fichero de reglas", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        long version = pipeline == null ? 1 : pipeline.getVersion() + 1;
+        PipelineReglas nuevo = CompiladorReglas.compilar(CompiladorReglas.leer(propiedades), version, registroCifInforma);
+        this.pipeline = nuevo;
+        this.ultimaModificacion = modificacion;
+        this.reordenaciones = 0;
+        log.info("Reglas automaticas cargadas de {} en la version {}: {} de predenegacion y {} de preaprobacion",
+                ubicacion, version, nuevo.getDenegacion().size(), nuevo.getAprobacionTodas().size());
+        return version;
+    }
+
+    /**
+     * Recarga las reglas si el fichero ha cambiado desde la ultima carga
+     */
+    @Scheduled(fixedDelayString = "${preaprobacion.reglas.comprobacion-ms:30000}", initialDelayString = "${preaprobacion.reglas.comprobacion-ms:30000}")
+    public void comprobarCambios() {
+        long modificacion = modificacion(resourceLoader.getResource(ubicacion));
+        if (modificacion == ultimaModificacion) {
+            return;
+        }
+        try {
+            this.recargar();
+        } catch (ReglaInvalidaException e) {
+            this.ultimaModificacion = modificacion;
+            log.error("No se han recargado las reglas automaticas, se mantiene la version {}: {}", pipeline.getVersion(), e.getExternalMessage());
+        }
+    }
+
+    /**
+     * Reordena cada cadena de reglas segun las estadisticas observadas. Solo sustituye el pipeline si el orden cambia.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${preaprobacion.reglas.reordenacion-ms:60000}", initialDelayString = "${preaprobacion.reglas.reordenacion-ms:60000}")
+    public synchronized void reordenar() {
+        PipelineReglas actual = this.pipeline;
+        List<ReglaCompilada> denegacion = ordenar(actual.getDenegacion(), ReglaCompilada::probabilidadCumplida);
+        List<ReglaCompilada> aprobacionTodas = ordenar(actual.getAprobacionTodas(), regla -> 1 - regla.probabilidadCumplida());
+        List<ReglaCompilada> aprobacionAlguna = ordenar(actual.getAprobacionAlguna(), ReglaCompilada::probabilidadCumplida);
+        if (denegacion.equals(actual.getDenegacion()) && aprobacionTodas.equals(actual.getAprobacionTodas())
+                && aprobacionAlguna.equals(actual.getAprobacionAlguna())) {
+            return;
+        }
+        this.pipeline = actual.reordenar(denegacion, aprobacionTodas, aprobacionAlguna);
+        this.reordenaciones++;
+        log.info("Reglas automaticas reordenadas: predenegacion {}, todas las de preaprobacion {}, alguna de preaprobacion {}",
+                nombres(denegacion), nombres(aprobacionTodas), nombres(aprobacionAlguna));
+    }
+
+    @Override
+    public EvaluacionReglas evaluar(RuleInputSnapshot snapshot) {
+        PipelineReglas reglas = this.pipeline;
+        EvaluacionReglas evaluacion = reglas.nuevaEvaluacion();
+        boolean medir = this.medir();
+        if (algunaCumple(reglas.getDenegacion(), snapshot, evaluacion, medir)) {
+            evaluacion.setResultado(DM);
+        } else if (todasCumplen(reglas.getAprobacionTodas(), snapshot, evaluacion, medir)) {
+            evaluacion.setResultado("AA");
+        } else if (algunaCumple(reglas.getAprobacionAlguna(), snapshot, evaluacion, medir)) {
+            evaluacion.setResultado("PA");
+        } else {
+            evaluacion.setResultado(DM);
+        }
+        return evaluacion;
+    }
+
+    @Override
+    public boolean algunaDenegacion(RuleInputSnapshot snapshot) {
+        PipelineReglas reglas = this.pipeline;
+        return algunaCumple(reglas.getDenegacion(), snapshot, reglas.nuevaEvaluacion(), this.medir());
+    }
+
+    @Override
+    public boolean todasAprobacion(RuleInputSnapshot snapshot) {
+        PipelineReglas reglas = this.pipeline;
+        return todasCumplen(reglas.getAprobacionTodas(), snapshot, reglas.nuevaEvaluacion(), this.medir());
+    }
+
+    @Override
+    public boolean algunaAprobacion(RuleInputSnapshot snapshot) {
+        PipelineReglas reglas = this.pipeline;
+        return algunaCumple(reglas.getAprobacionAlguna(), snapshot, reglas.nuevaEvaluacion(), this.medir());
+    }
+
+    @Override
+    public long getVersion() {
+        return pipeline.getVersion();
+    }
+
+    @Override
+    public List<ReglaDefinicion> getReglas() {
+        return pipeline.getDefiniciones();
+    }
+
+    @Override
+    public EstadisticasReglas getEstadisticas() {
+        PipelineReglas reglas = this.pipeline;
+        var estadisticas = new EstadisticasReglas();
+        estadisticas.setVersion(reglas.getVersion());
+        estadisticas.setReordenaciones(reordenaciones);
+        estadisticas.setDenegacion(reglas.getDenegacion().stream().map(ReglaCompilada::estadisticas).collect(Collectors.toList()));
+        estadisticas.setAprobacionTodas(reglas.getAprobacionTodas().stream().map(ReglaCompilada::estadisticas).collect(Collectors.toList()));
+        estadisticas.setAprobacionAlguna(reglas.getAprobacionAlguna().stream().map(ReglaCompilada::estadisticas).collect(Collectors.toList()));
+        return estadisticas;
+    }
+
+    /**
+     * Decide si se cronometra la evaluacion actual, una de cada {@code muestreo}
+     */
+    private boolean medir() {
+        return muestreo == 1 || ThreadLocalRandom.current().nextInt(muestreo) == 0;
+    }
+
+    /**
+     * Ordena una cadena de menor a mayor latencia entre probabilidad de cortarla. Con reglas independientes es el orden
+     * que minimiza el coste esperado de la cadena. A igualdad se mantiene el orden actual.
+     *
+     * @param reglas           cadena en su orden actual
+     * @param probabilidadCorte probabilidad de que la regla corte la cadena: que falle en una cadena "todas" o que se cumpla en una "alguna"
+     * @return la cadena en el nuevo orden
+     */
+    private static List<ReglaCompilada> ordenar(List<ReglaCompilada> reglas, ToDoubleFunction<ReglaCompilada> probabilidadCorte) {
+        List<ReglaCompilada> ordenadas = new ArrayList<>(reglas);
+        ordenadas.sort(Comparator.comparingDouble(regla -> regla.latenciaMedia() / probabilidadCorte.applyAsDouble(regla)));
+        return ordenadas;
+    }
+
+    private static List<String> nombres(List<ReglaCompilada> reglas) {
+        return reglas.stream().map(regla -> regla.getDefinicion().getNombre()).collect(Collectors.toList());
+    }
+
+    private static boolean algunaCumple(List<ReglaCompilada> reglas, RuleInputSnapshot snapshot, EvaluacionReglas evaluacion, boolean medir) {
+        for (ReglaCompilada regla : reglas) {
+            if (cumple(regla, snapshot, evaluacion, medir)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean todasCumplen(List<ReglaCompilada> reglas, RuleInputSnapshot snapshot, EvaluacionReglas evaluacion, boolean medir) {
+        for (ReglaCompilada regla : reglas) {
+            if (!cumple(regla, snapshot, evaluacion, medir)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Devuelve el resultado de la regla desde el vector, evaluandola solo la primera vez que se pide
+     */
+    private static boolean cumple(ReglaCompilada regla, RuleInputSnapshot snapshot, EvaluacionReglas evaluacion, boolean medir) {
+        if (!evaluacion.isEvaluada(regla.getIndice())) {
+            evaluacion.registrar(regla.getIndice(), regla.test(snapshot, medir));
+        }
+        return evaluacion.isCumplida(regla.getIndice());
+    }
+
+    private static long modificacion(Resource recurso) {
+        try {
+            return recurso.lastModified();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults.impl;
+
+/**
+ * Operadores de comparacion que pueden usar las reglas del fichero de reglas. Los campos de texto solo admiten
+ * igualdad y desigualdad, sin distinguir mayusculas.
+ */
+enum OperadorRegla {
+    MENOR("<") {
+        @Override
+        boolean comparar(double valor, double referencia) {
+            return valor < referencia;
+        }
+    },
+    MENOR_IGUAL("<=") {
+        @Override
+        boolean comparar(double valor, double referencia) {
+            return valor <= referencia;
+        }
+    },
+    MAYOR(">") {
+        @Override
+        boolean comparar(double valor, double referencia) {
+            return valor > referencia;
+        }
+    },
+    MAYOR_IGUAL(">=") {
+        @Override
+        boolean comparar(double valor, double referencia) {
+            return valor >= referencia;
+        }
+    },
+    IGUAL("=") {
+        @Override
+        boolean comparar(double valor, double referencia) {
+            return valor == referencia;
+        }
+    },
+    DISTINTO("!=") {
+        @Override
+        boolean comparar(double valor, double referencia) {
+            return valor != referencia;
+        }
+    };
+
+    private final String simbolo;
+
+    OperadorRegla(String simbolo) {
+        this.simbolo = simbolo;
+    }
+
+    abstract boolean comparar(double valor, double referencia);
+
+    boolean admiteTexto() {
+        return this == IGUAL || this == DISTINTO;
+    }
+
+    /**
+     * Busca el operador por su simbolo en el fichero de reglas
+     *
+     * @param simbolo simbolo del operador
+     * @return el operador, o null si no existe
+     */
+    static OperadorRegla desde(String simbolo) {
+        for (OperadorRegla operador : values()) {
+            if (operador.simbolo.equals(simbolo)) {
+                return operador;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults.impl;
+
+import com.babel.vehiclerentingapproval.models.EvaluacionReglas;
+import com.babel.vehiclerentingapproval.models.ReglaDefinicion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conjunto inmutable de reglas compiladas de una version del fichero de reglas, con las reglas de cada cadena ya
+ * ordenadas para su evaluacion. Una recarga o una reordenacion crean un pipeline nuevo en lugar de modificar el que se
+ * esta usando; una reordenacion comparte las mismas reglas compiladas, y con ellas sus estadisticas.
+ */
+final class PipelineReglas {
+    private final long version;
+    private final List<String> nombres;
+    private final List<ReglaCompilada> denegacion;
+    private final List<ReglaCompilada> aprobacionTodas;
+    private final List<ReglaCompilada> aprobacionAlguna;
+
+    /**
+     * @param version          version de las reglas
+     * @param nombres          nombres de las reglas por posicion en el vector de resultados
+     * @param denegacion       reglas de predenegacion en orden de evaluacion
+     * @param aprobacionTodas  reglas de preaprobacion en el orden en que se comprueba si se cumplen todas
+     * @param aprobacionAlguna reglas de preaprobacion en el orden en que se comprueba si se cumple alguna
+     */
+    PipelineReglas(long version, List<String> nombres, List<ReglaCompilada> denegacion,
+                   List<ReglaCompilada> aprobacionTodas, List<ReglaCompilada> aprobacionAlguna) {
+        this.version = version;
+        this.nombres = List.copyOf(nombres);
+        this.denegacion = List.copyOf(denegacion);
+        this.aprobacionTodas = List.copyOf(aprobacionTodas);
+        this.aprobacionAlguna = List.copyOf(aprobacionAlguna);
+    }
+
+    /**
+     * Crea un pipeline con las mismas reglas y version pero en otro orden
+     */
+    PipelineReglas reordenar(List<ReglaCompilada> denegacion, List<ReglaCompilada> aprobacionTodas, List<ReglaCompilada> aprobacionAlguna) {
+        return new PipelineReglas(version, nombres, denegacion, aprobacionTodas, aprobacionAlguna);
+    }
+
+    EvaluacionReglas nuevaEvaluacion() {
+        return new EvaluacionReglas(nombres, version);
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    List<ReglaCompilada> getDenegacion() {
+        return denegacion;
+    }
+
+    List<ReglaCompilada> getAprobacionTodas() {
+        return aprobacionTodas;
+    }
+
+    List<ReglaCompilada> getAprobacionAlguna() {
+        return aprobacionAlguna;
+    }
+
+    /**
+     * @return las definiciones de las reglas en orden de evaluacion, primero las de predenegacion
+     */
+    List<ReglaDefinicion> getDefiniciones() {
+        List<ReglaDefinicion> definiciones = new ArrayList<>(denegacion.size() + aprobacionTodas.size());
+        denegacion.forEach(regla -> definiciones.add(regla.getDefinicion()));
+        aprobacionTodas.forEach(regla -> definiciones.add(regla.getDefinicion()));
+        return definiciones;
+    }
+}
@@ -0,0 +1,131 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults.impl;
+
+import com.babel.vehiclerentingapproval.exceptions.InputIsNullOrIsEmpty;
+import com.babel.vehiclerentingapproval.models.EvaluacionReglas;
+import com.babel.vehiclerentingapproval.models.PreAprobacionLote;
+import com.babel.vehiclerentingapproval.models.PreAprobacionResultado;
+import com.babel.vehiclerentingapproval.models.RuleInputSnapshot;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.RuleInputMapper;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.CalculateAutomaticResult;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.PreAprobacionLoteService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementacion de la evaluacion por lotes de la preaprobacion automatica.
+ * <p>
+ * El lote se divide en bloques de como maximo preaprobacion.batch.chunk-size solicitudes. Cada bloque carga los datos
+ * de entrada de todas sus solicitudes con una unica consulta (WHERE SOLICITUD_ID IN (...)) y las evalua en memoria con
+ * {@link CalculateAutomaticResult}, devolviendo el desglose de reglas de cada una. Los bloques se reparten entre un
+ * pool de preaprobacion.batch.threads hilos.
+ *
+ * @see RuleInputMapper
+ */
+@Service
+@Log4j2
+public class PreAprobacionLoteServiceImpl implements PreAprobacionLoteService {
+    /**
+     * Numero maximo de elementos que admite Oracle en una lista IN
+     */
+    private static final int MAX_IN_ORACLE = 1000;
+
+    private final RuleInputMapper ruleInputMapper;
+    private final CalculateAutomaticResult calculateAutomaticResult;
+    private final int chunkSize;
+    private final ExecutorService executor;
+
+    public PreAprobacionLoteServiceImpl(RuleInputMapper ruleInputMapper, CalculateAutomaticResult calculateAutomaticResult,
+                                        @Value("${preaprobacion.batch.chunk-size:500}") int chunkSize,
+                                        @Value("${preaprobacion.batch.threads:4}") int threads) {
+        this.ruleInputMapper = ruleInputMapper;
+        this.calculateAutomaticResult = calculateAutomaticResult;
+        this.chunkSize = Math.max(1, Math.min(chunkSize, MAX_IN_ORACLE));
+        var counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            var thread = new Thread(runnable, "preaprobacion-batch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public PreAprobacionLote evaluarLote(List<Integer> solicitudIds) throws InputIsNullOrIsEmpty {
+        if (solicitudIds == null || solicitudIds.isEmpty()) {
+            throw new InputIsNullOrIsEmpty("solicitudIds", HttpStatus.BAD_REQUEST);
+        }
+        long inicio = System.nanoTime();
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(solicitudIds));
+
+        List<CompletableFuture<Map<Integer, EvaluacionReglas>>> bloques = new ArrayList<>();
+        for (var desde = 0; desde < ids.size(); desde += chunkSize) {
+            List<Integer> bloque = ids.subList(desde, Math.min(desde + chunkSize, ids.size()));
+            bloques.add(CompletableFuture.supplyAsync(() -> evaluarBloque(bloque), executor));
+        }
+
+        Map<Integer, EvaluacionReglas> evaluadas = new HashMap<>(ids.size() * 2);
+        try {
+            for (CompletableFuture<Map<Integer, EvaluacionReglas>> bloque : bloques) {
+                evaluadas.putAll(bloque.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+
+        List<PreAprobacionResultado> resultados = new ArrayList<>(evaluadas.size());
+        List<Integer> noEncontradas = new ArrayList<>();
+        for (Integer id : ids) {
+            EvaluacionReglas evaluacion = evaluadas.get(id);
+            if (evaluacion == null) {
+                noEncontradas.add(id);
+            } else {
+                resultados.add(new PreAprobacionResultado(id, evaluacion.getResultado(), evaluacion.getReglas()));
+            }
+        }
+
+        long tiempoNanos = System.nanoTime() - inicio;
+        var lote = new PreAprobacionLote();
+        lote.setResultados(resultados);
+        lote.setNoEncontradas(noEncontradas);
+        lote.setBloques(bloques.size());
+        lote.setTiempoMillis(TimeUnit.NANOSECONDS.toMillis(tiempoNanos));
+        lote.setSolicitudesPorSegundo(resultados.size() / Math.max(tiempoNanos / 1e9, 1e-9));
+        log.info("Lote de preaprobacion evaluado: {} solicitudes en {} bloques, {} no encontradas, {} ms ({} solicitudes/s)",
+                resultados.size(), bloques.size(), noEncontradas.size(), lote.getTiempoMillis(), Math.round(lote.getSolicitudesPorSegundo()));
+        return lote;
+    }
+
+    /**
+     * Carga con una sola consulta los datos de entrada de todas las solicitudes del bloque y las evalua en memoria
+     */
+    private Map<Integer, EvaluacionReglas> evaluarBloque(List<Integer> bloque) {
+        List<RuleInputSnapshot> snapshots = this.ruleInputMapper.obtenerSnapshots(bloque);
+        Map<Integer, EvaluacionReglas> resultados = new HashMap<>(snapshots.size() * 2);
+        for (RuleInputSnapshot snapshot : snapshots) {
+            resultados.put(snapshot.getSolicitudId(), this.calculateAutomaticResult.evaluar(snapshot));
+        }
+        return resultados;
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,213 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults.impl;
+
+import com.babel.vehiclerentingapproval.models.CifInforma;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.InformaMapper;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.RegistroCifInforma;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementacion del registro de CIF de INFORMA con un {@link FiltroBloomCif} delante de la base de datos.
+ * <p>
+ * El filtro ocupa unos pocos bits por CIF en lugar de guardar los CIF. Si dice que un CIF no esta, se responde sin ir a
+ * la base de datos; si dice que puede estar, se confirma con una consulta puntual a INFORMA. El filtro se dimensiona
+ * con el numero de filas de la tabla y la probabilidad de falso positivo {@code informa.registro.bloom.probabilidad-falso-positivo},
+ * y se guarda en el fichero {@code informa.registro.bloom.fichero} para que el arranque no tenga que recorrer la tabla.
+ * <p>
+ * Al arrancar se carga el fichero y se le añaden las filas con ORA_ROWSCN posterior al guardado; si no hay fichero se
+ * recorre la tabla completa. Los refrescos programados añaden las filas nuevas a una copia del filtro, que sustituye a
+ * la actual de una sola vez. Como de un filtro de Bloom no se pueden quitar CIF, cada
+ * {@code informa.registro.refrescos-por-recarga} refrescos, o antes si el filtro supera los CIF esperados, se vuelve a
+ * construir desde cero.
+ */
+@Service
+@Log4j2
+@ConditionalOnProperty(name = "informa.registro.tipo", havingValue = "BLOOM", matchIfMissing = true)
+public class RegistroCifInformaBloomImpl implements RegistroCifInforma {
+    private static final int MAGICO = 0x43494642;
+    private static final int VERSION_FICHERO = 1;
+
+    private final InformaMapper informaMapper;
+    private final double probabilidadFalsoPositivo;
+    private final Path fichero;
+    private final int refrescosPorRecarga;
+    private final LongAdder consultas = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+    private final LongAdder falsosPositivos = new LongAdder();
+    private volatile FiltroBloomCif filtro;
+    private long ultimoScn;
+    private int refrescos;
+
+    public RegistroCifInformaBloomImpl(InformaMapper informaMapper,
+                                       @Value("${informa.registro.bloom.probabilidad-falso-positivo:0.01}") double probabilidadFalsoPositivo,
+                                       @Value("${informa.registro.bloom.fichero:informa-cif.bloom}") String fichero,
+                                       @Value("${informa.registro.refrescos-por-recarga:12}") int refrescosPorRecarga) {
+        this.informaMapper = informaMapper;
+        this.probabilidadFalsoPositivo = probabilidadFalsoPositivo;
+        this.fichero = Paths.get(fichero);
+        this.refrescosPorRecarga = Math.max(1, refrescosPorRecarga);
+    }
+
+    /**
+     * Carga el filtro del fichero y lo pone al dia, o lo construye recorriendo la tabla si no hay fichero valido.
+     * Si la base de datos no responde la aplicacion arranca igualmente: mientras no haya filtro todas las consultas
+     * van a la base de datos y la carga se reintenta en el siguiente refresco.
+     */
+    @PostConstruct
+    public synchronized void init() {
+        try {
+            if (this.leerFichero()) {
+                this.anadirCambios();
+            } else {
+                this.recargar();
+            }
+        } catch (RuntimeException e) {
+            log.error("No se ha podido cargar el filtro de CIF de INFORMA, se reintentara en el siguiente refresco", e);
+        }
+    }
+
+    @Override
+    public boolean contiene(String cif) {
+        if (FiltroBloomCif.huella(cif) == 0) {
+            return false;
+        }
+        consultas.increment();
+        FiltroBloomCif actual = filtro;
+        if (actual != null && !actual.quizaContiene(cif)) {
+            descartadas.increment();
+            return false;
+        }
+        boolean existe = informaMapper.existeCif(CifHashSet.normalizar(cif));
+        if (!existe && actual != null) {
+            falsosPositivos.increment();
+        }
+        return existe;
+    }
+
+    @Override
+    public synchronized void recargar() {
+        long inicio = System.currentTimeMillis();
+        int filas = informaMapper.contarCifs();
+        // margen para las altas de los refrescos incrementales hasta la siguiente recarga
+        var nuevo = new FiltroBloomCif(filas + filas / 10, probabilidadFalsoPositivo);
+        long[] maximoScn = {0L};
+        informaMapper.recorrerCifs(contexto -> {
+            CifInforma fila = contexto.getResultObject();
+            nuevo.anadir(fila.getCif());
+            maximoScn[0] = Math.max(maximoScn[0], fila.getScn());
+        });
+        this.filtro = nuevo;
+        this.ultimoScn = maximoScn[0];
+        this.refrescos = 0;
+        this.escribirFichero(nuevo, maximoScn[0]);
+        log.info("Filtro de CIF de INFORMA construido: {} CIF, {} bits y {} funciones hash en {} ms",
+                nuevo.getInsertados(), nuevo.getNumeroBits(), nuevo.getNumeroHashes(), System.currentTimeMillis() - inicio);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${informa.registro.refresco-ms:300000}", initialDelayString = "${informa.registro.refresco-ms:300000}")
+    public synchronized void refrescar() {
+        if (filtro == null || filtro.isSaturado() || ++refrescos >= refrescosPorRecarga) {
+            this.recargar();
+        } else {
+            this.anadirCambios();
+        }
+        log.info("Filtro de CIF de INFORMA: {} consultas, {} resueltas sin base de datos, {} falsos positivos",
+                consultas.sum(), descartadas.sum(), falsosPositivos.sum());
+    }
+
+    /**
+     * @return numero aproximado de CIF distintos añadidos al filtro, 0 si todavia no se ha cargado
+     */
+    @Override
+    public int getTamanio() {
+        FiltroBloomCif actual = filtro;
+        return actual == null ? 0 : actual.getInsertados();
+    }
+
+    /**
+     * Añade a una copia del filtro las filas cambiadas desde el ultimo SCN y la publica si ha cambiado algo
+     */
+    private void anadirCambios() {
+        FiltroBloomCif copia = filtro.copiar();
+        long[] maximoScn = {ultimoScn};
+        int[] filas = {0};
+        informaMapper.recorrerCifsDesde(ultimoScn, contexto -> {
+            CifInforma fila = contexto.getResultObject();
+            copia.anadir(fila.getCif());
+            maximoScn[0] = Math.max(maximoScn[0], fila.getScn());
+            filas[0]++;
+        });
+        if (filas[0] == 0) {
+            return;
+        }
+        this.filtro = copia;
+        this.ultimoScn = maximoScn[0];
+        this.escribirFichero(copia, maximoScn[0]);
+        log.info("Filtro de CIF de INFORMA refrescado: {} filas cambiadas, {} CIF", filas[0], copia.getInsertados());
+    }
+
+    /**
+     * Carga el filtro del fichero si existe y se construyo con la misma probabilidad de falso positivo
+     *
+     * @return true si se ha cargado
+     */
+    private boolean leerFichero() {
+        if (!Files.isRegularFile(fichero)) {
+            return false;
+        }
+        try (var entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(fichero)))) {
+            if (entrada.readInt() != MAGICO || entrada.readInt() != VERSION_FICHERO) {
+                log.warn("El fichero {} no es un filtro de CIF valido, se construye de nuevo", fichero);
+                return false;
+            }
+            long scn = entrada.readLong();
+            FiltroBloomCif leido = FiltroBloomCif.leer(entrada);
+            if (Double.compare(leido.getProbabilidadFalsoPositivo(), probabilidadFalsoPositivo) != 0) {
+                log.info("El filtro de CIF de {} se construyo con otra probabilidad de falso positivo, se construye de nuevo", fichero);
+                return false;
+            }
+            this.filtro = leido;
+            this.ultimoScn = scn;
+            this.refrescos = 0;
+            log.info("Filtro de CIF de INFORMA cargado de {}: {} CIF hasta el SCN {}", fichero, leido.getInsertados(), scn);
+            return true;
+        } catch (IOException e) {
+            log.warn("No se ha podido leer el filtro de CIF de {}, se construye de nuevo", fichero, e);
+            return false;
+        }
+    }
+
+    /**
+     * Guarda el filtro en un fichero temporal y lo mueve sobre el definitivo, para no dejar nunca un fichero a medias
+     */
+    private void escribirFichero(FiltroBloomCif filtro, long scn) {
+        Path temporal = fichero.resolveSibling(fichero.getFileName() + ".tmp");
+        try {
+            try (var salida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporal)))) {
+                salida.writeInt(MAGICO);
+                salida.writeInt(VERSION_FICHERO);
+                salida.writeLong(scn);
+                filtro.escribir(salida);
+            }
+            Files.move(temporal, fichero, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("No se ha podido guardar el filtro de CIF en {}", fichero, e);
+        }
+    }
+}
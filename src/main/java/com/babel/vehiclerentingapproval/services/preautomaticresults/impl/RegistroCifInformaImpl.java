@@ -0,0 +1,108 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults.impl;
+
+import com.babel.vehiclerentingapproval.models.CifInforma;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.InformaMapper;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.RegistroCifInforma;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementacion del registro de CIF de INFORMA sobre un {@link CifHashSet}.
+ * <p>
+ * Al arrancar se carga la tabla completa. Despues, cada {@code informa.registro.refresco-ms} se leen solo las filas
+ * cuyo ORA_ROWSCN es posterior al ultimo cargado y se añaden a una copia del conjunto, que sustituye al actual de una
+ * sola vez. Las filas borradas no se detectan asi, por lo que cada {@code informa.registro.refrescos-por-recarga}
+ * refrescos se vuelve a cargar la tabla completa.
+ * <p>
+ * Responde sin ir nunca a la base de datos a cambio de tener toda la tabla en memoria. Se usa con
+ * {@code informa.registro.tipo=HASH}.
+ *
+ * @see RegistroCifInformaBloomImpl
+ */
+@Service
+@Log4j2
+@ConditionalOnProperty(name = "informa.registro.tipo", havingValue = "HASH")
+public class RegistroCifInformaImpl implements RegistroCifInforma {
+    private final InformaMapper informaMapper;
+    private final int refrescosPorRecarga;
+    private volatile CifHashSet cifs = new CifHashSet(0);
+    private volatile boolean cargado;
+    private long ultimoScn;
+    private int refrescos;
+
+    public RegistroCifInformaImpl(InformaMapper informaMapper,
+                                  @Value("${informa.registro.refrescos-por-recarga:12}") int refrescosPorRecarga) {
+        this.informaMapper = informaMapper;
+        this.refrescosPorRecarga = Math.max(1, refrescosPorRecarga);
+    }
+
+    /**
+     * Carga la tabla al arrancar. Si la base de datos no responde la aplicacion arranca igualmente y la carga se
+     * reintenta en el siguiente refresco.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            this.recargar();
+        } catch (RuntimeException e) {
+            log.error("No se ha podido cargar el registro de CIF de INFORMA, se reintentara en el siguiente refresco", e);
+        }
+    }
+
+    @Override
+    public boolean contiene(String cif) {
+        return cifs.contiene(cif);
+    }
+
+    @Override
+    public synchronized void recargar() {
+        long inicio = System.currentTimeMillis();
+        var nuevo = new CifHashSet(informaMapper.contarCifs());
+        long[] maximoScn = {0L};
+        informaMapper.recorrerCifs(contexto -> {
+            CifInforma fila = contexto.getResultObject();
+            nuevo.anadir(fila.getCif());
+            maximoScn[0] = Math.max(maximoScn[0], fila.getScn());
+        });
+        this.cifs = nuevo;
+        this.ultimoScn = maximoScn[0];
+        this.refrescos = 0;
+        this.cargado = true;
+        log.info("Registro de CIF de INFORMA cargado: {} CIF en {} ms", nuevo.getTamanio(), System.currentTimeMillis() - inicio);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${informa.registro.refresco-ms:300000}", initialDelayString = "${informa.registro.refresco-ms:300000}")
+    public synchronized void refrescar() {
+        if (!cargado || ++refrescos >= refrescosPorRecarga) {
+            this.recargar();
+            return;
+        }
+        List<CifInforma> cambios = new ArrayList<>();
+        informaMapper.recorrerCifsDesde(ultimoScn, contexto -> cambios.add(contexto.getResultObject()));
+        if (cambios.isEmpty()) {
+            return;
+        }
+        CifHashSet copia = cifs.copiar(cambios.size());
+        long maximoScn = ultimoScn;
+        for (CifInforma fila : cambios) {
+            copia.anadir(fila.getCif());
+            maximoScn = Math.max(maximoScn, fila.getScn());
+        }
+        this.cifs = copia;
+        this.ultimoScn = maximoScn;
+        log.info("Registro de CIF de INFORMA refrescado: {} filas cambiadas, {} CIF", cambios.size(), copia.getTamanio());
+    }
+
+    @Override
+    public int getTamanio() {
+        return cifs.getTamanio();
+    }
+}
@@ -0,0 +1,105 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults.impl;
+
+import com.babel.vehiclerentingapproval.models.ReglaDefinicion;
+import com.babel.vehiclerentingapproval.models.ReglaEstadisticas;
+import com.babel.vehiclerentingapproval.models.RuleInputSnapshot;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Regla del fichero de reglas ya compilada a un predicado sobre los datos de entrada de la solicitud.
+ * <p>
+ * Cuenta cuantas veces se evalua y cuantas se cumple, y acumula la duracion de las evaluaciones cronometradas. Solo se
+ * cronometra una muestra de las evaluaciones para que medir no cueste mas que evaluar.
+ */
+final class ReglaCompilada {
+    private final int indice;
+    private final ReglaDefinicion definicion;
+    private final Predicate<RuleInputSnapshot> predicado;
+    private final LongAdder evaluaciones = new LongAdder();
+    private final LongAdder cumplidas = new LongAdder();
+    private final LongAdder muestras = new LongAdder();
+    private final LongAdder nanosMuestras = new LongAdder();
+
+    /**
+     * @param indice     posicion de la regla en el vector de resultados
+     * @param definicion regla tal y como se declara en el fichero
+     * @param predicado  predicado compilado de la regla
+     */
+    ReglaCompilada(int indice, ReglaDefinicion definicion, Predicate<RuleInputSnapshot> predicado) {
+        this.indice = indice;
+        this.definicion = definicion;
+        this.predicado = predicado;
+    }
+
+    /**
+     * Evalua la regla y cuenta el resultado
+     *
+     * @param snapshot datos de entrada de la solicitud
+     * @param medir    true si ademas hay que cronometrar la evaluacion
+     * @return true si la regla se cumple
+     */
+    boolean test(RuleInputSnapshot snapshot, boolean medir) {
+        long inicio = medir ? System.nanoTime() : 0L;
+        boolean cumplida = predicado.test(snapshot);
+        if (medir) {
+            nanosMuestras.add(System.nanoTime() - inicio);
+            muestras.increment();
+        }
+        evaluaciones.increment();
+        if (cumplida) {
+            cumplidas.increment();
+        }
+        return cumplida;
+    }
+
+    /**
+     * Probabilidad estimada de que la regla se cumpla, con suavizado de Laplace para que una regla poco evaluada
+     * no tenga nunca probabilidad 0 o 1
+     *
+     * @return probabilidad entre 0 y 1, sin llegar a ninguno de los dos
+     */
+    double probabilidadCumplida() {
+        return (cumplidas.sum() + 1.0) / (evaluaciones.sum() + 2.0);
+    }
+
+    /**
+     * Latencia media observada en nanosegundos. Si la regla aun no se ha cronometrado se usa su coste declarado, que es
+     * menor que cualquier latencia real: asi las reglas sin medir se prueban pronto y se obtienen datos de ellas.
+     *
+     * @return latencia media estimada
+     */
+    double latenciaMedia() {
+        long numeroMuestras = muestras.sum();
+        return numeroMuestras == 0 ? Math.max(1, definicion.getCoste()) : (double) nanosMuestras.sum() / numeroMuestras;
+    }
+
+    ReglaEstadisticas estadisticas() {
+        long numeroEvaluaciones = evaluaciones.sum();
+        long numeroCumplidas = cumplidas.sum();
+        long numeroMuestras = muestras.sum();
+        var estadisticas = new ReglaEstadisticas();
+        estadisticas.setNombre(definicion.getNombre());
+        estadisticas.setGrupo(definicion.getGrupo());
+        estadisticas.setCoste(definicion.getCoste());
+        estadisticas.setEvaluaciones(numeroEvaluaciones);
+        estadisticas.setCumplidas(numeroCumplidas);
+        estadisticas.setTasaRechazo(numeroEvaluaciones == 0 ? 0 : (double) (numeroEvaluaciones - numeroCumplidas) / numeroEvaluaciones);
+        estadisticas.setMuestras(numeroMuestras);
+        estadisticas.setLatenciaMediaNanos(numeroMuestras == 0 ? 0 : (double) nanosMuestras.sum() / numeroMuestras);
+        return estadisticas;
+    }
+
+    int getIndice() {
+        return indice;
+    }
+
+    ReglaDefinicion getDefinicion() {
+        return definicion;
+    }
+
+    int getCoste() {
+        return definicion.getCoste();
+    }
+}
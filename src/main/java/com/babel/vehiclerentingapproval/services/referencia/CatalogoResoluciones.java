@@ -0,0 +1,37 @@
+package com.babel.vehiclerentingapproval.services.referencia;
+
+/**
+ * Esta interfaz define el catalogo en memoria de los codigos de resolucion de las solicitudes de renting
+ * (tabla TIPO_RESULTADO_SOLICITUD). Validar un codigo, obtener su descripcion o listar el catalogo no hace ninguna
+ * consulta a la base de datos.
+ *
+ * @see VersionCatalogoResoluciones
+ */
+public interface CatalogoResoluciones {
+    /**
+     * @param codigo codigo de resolucion
+     * @return true si el codigo esta en el catalogo actual
+     */
+    boolean esValido(String codigo);
+
+    /**
+     * @param codigo codigo de resolucion
+     * @return la descripcion del codigo, o null si no esta en el catalogo actual
+     */
+    String getDescripcion(String codigo);
+
+    /**
+     * Devuelve la version actual del catalogo. Quien necesite leer varios datos coherentes entre si (por ejemplo la
+     * lista y su ETag) debe leerlos todos de la misma version.
+     *
+     * @return la version actual del catalogo
+     */
+    VersionCatalogoResoluciones getActual();
+
+    /**
+     * Vuelve a leer la tabla y publica una nueva version solo si el contenido ha cambiado
+     *
+     * @return true si ha cambiado el catalogo
+     */
+    boolean recargar();
+}
@@ -0,0 +1,46 @@
+package com.babel.vehiclerentingapproval.services.referencia;
+
+import com.babel.vehiclerentingapproval.models.EstadisticasCache;
+import com.babel.vehiclerentingapproval.models.Pais;
+import com.babel.vehiclerentingapproval.models.Provincia;
+import com.babel.vehiclerentingapproval.models.TipoVia;
+
+import java.util.List;
+
+/**
+ * Esta interfaz define el acceso cacheado a las tablas de referencia (PAIS, PROVINCIA y TIPO_VIA), que casi nunca
+ * cambian. Cada consulta se resuelve en memoria y solo va a la base de datos si el dato no esta en la cache o ha
+ * caducado.
+ * <p>
+ * Los objetos devueltos son copias, de modo que quien los recibe puede modificarlos sin alterar la cache.
+ */
+public interface DatosReferencia {
+    /**
+     * @param isoAlfa2 codigo ISO alfa-2 del pais
+     * @return el pais, o null si no existe
+     */
+    Pais getPais(String isoAlfa2);
+
+    /**
+     * @param codProvincia codigo de la provincia
+     * @return la provincia, o null si no existe
+     */
+    Provincia getProvincia(String codProvincia);
+
+    /**
+     * @param tipoViaId id del tipo de via
+     * @return el tipo de via, o null si no existe
+     */
+    TipoVia getTipoVia(int tipoViaId);
+
+    /**
+     * Vacia todas las caches y las vuelve a cargar de la base de datos
+     */
+    void invalidar();
+
+    /**
+     * @return las metricas de cada cache
+     * @see EstadisticasCache
+     */
+    List<EstadisticasCache> getEstadisticas();
+}
@@ -0,0 +1,127 @@
+package com.babel.vehiclerentingapproval.services.referencia;
+
+import com.babel.vehiclerentingapproval.models.ResolucionSolicitud;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Version inmutable del catalogo de codigos de resolucion (tabla TIPO_RESULTADO_SOLICITUD).
+ * <p>
+ * Los codigos son de dos caracteres alfanumericos en mayusculas, asi que se indexan con un hash perfecto sobre un array
+ * de 36 x 36 posiciones: la consulta no calcula hashCode, no compara cadenas y no reserva memoria. Un codigo con otro
+ * formato se busca en un mapa aparte, que normalmente esta vacio.
+ * <p>
+ * El ETag se calcula con el contenido, no con el numero de version, para que sea el mismo en todas las instancias de
+ * la aplicacion y tras un reinicio. Las resoluciones de la lista son compartidas y no deben modificarse.
+ */
+public final class VersionCatalogoResoluciones {
+    private static final int BASE = 36;
+
+    private final long version;
+    private final String etag;
+    private final List<ResolucionSolicitud> resoluciones;
+    private final String[] descripciones = new String[BASE * BASE];
+    private final Map<String, String> otros = new HashMap<>();
+
+    /**
+     * @param version      numero de version del catalogo
+     * @param resoluciones codigos de resolucion con su descripcion
+     */
+    public VersionCatalogoResoluciones(long version, List<ResolucionSolicitud> resoluciones) {
+        this.version = version;
+        this.resoluciones = Collections.unmodifiableList(new ArrayList<>(resoluciones));
+        for (ResolucionSolicitud resolucion : resoluciones) {
+            int indice = indice(resolucion.getCodigoResultado());
+            if (indice >= 0) {
+                descripciones[indice] = resolucion.getDescripcion() == null ? "" : resolucion.getDescripcion();
+            } else if (resolucion.getCodigoResultado() != null) {
+                otros.put(resolucion.getCodigoResultado(), resolucion.getDescripcion() == null ? "" : resolucion.getDescripcion());
+            }
+        }
+        this.etag = calcularEtag(this.resoluciones);
+    }
+
+    /**
+     * @param codigo codigo de resolucion
+     * @return true si el codigo esta en el catalogo
+     */
+    public boolean contiene(String codigo) {
+        return this.getDescripcion(codigo) != null;
+    }
+
+    /**
+     * @param codigo codigo de resolucion
+     * @return la descripcion del codigo, o null si no esta en el catalogo
+     */
+    public String getDescripcion(String codigo) {
+        int indice = indice(codigo);
+        if (indice >= 0) {
+            return descripciones[indice];
+        }
+        return codigo == null || otros.isEmpty() ? null : otros.get(codigo);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return ETag HTTP fuerte del catalogo, entre comillas
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * @return lista inmutable de los codigos de resolucion en el orden de la base de datos
+     */
+    public List<ResolucionSolicitud> getResoluciones() {
+        return resoluciones;
+    }
+
+    private static int indice(String codigo) {
+        if (codigo == null || codigo.length() != 2) {
+            return -1;
+        }
+        int primero = digito(codigo.charAt(0));
+        int segundo = digito(codigo.charAt(1));
+        return primero < 0 || segundo < 0 ? -1 : primero * BASE + segundo;
+    }
+
+    private static int digito(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static String calcularEtag(List<ResolucionSolicitud> resoluciones) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            for (ResolucionSolicitud resolucion : resoluciones) {
+                digest.update(String.valueOf(resolucion.getCodigoResultado()).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(String.valueOf(resolucion.getDescripcion()).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            var etag = new StringBuilder("\"");
+            byte[] hash = digest.digest();
+            for (var i = 0; i < 8; i++) {
+                etag.append(String.format("%02x", hash[i]));
+            }
+            return etag.append('"').toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
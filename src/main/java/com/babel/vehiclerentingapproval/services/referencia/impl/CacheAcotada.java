@@ -0,0 +1,116 @@
+package com.babel.vehiclerentingapproval.services.referencia.impl;
+
+import com.babel.vehiclerentingapproval.models.EstadisticasCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache de lectura a traves (read-through) con caducidad y tamaño maximo.
+ * <p>
+ * Cada entrada caduca pasado el TTL desde que se cargo. Cuando se supera el tamaño maximo se descarta la entrada usada
+ * hace mas tiempo (LRU). La carga desde la base de datos se hace fuera del bloqueo, asi que dos fallos simultaneos de la
+ * misma clave pueden cargarla dos veces, lo que es inocuo para datos de referencia. Los valores nulos no se cachean.
+ * <p>
+ * Tambien la usa la cache de credenciales de usuario del login.
+ *
+ * @param <K> tipo de la clave
+ * @param <V> tipo del valor
+ */
+public final class CacheAcotada<K, V> {
+    private final String nombre;
+    private final long ttlNanos;
+    private final int tamanioMaximo;
+    private final LongSupplier reloj;
+    private final Map<K, Entrada<V>> entradas;
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+
+    /**
+     * @param nombre        nombre de la cache para las metricas
+     * @param ttlMillis     tiempo de vida de cada entrada en milisegundos
+     * @param tamanioMaximo numero maximo de entradas
+     */
+    public CacheAcotada(String nombre, long ttlMillis, int tamanioMaximo) {
+        this(nombre, ttlMillis, tamanioMaximo, System::nanoTime);
+    }
+
+    CacheAcotada(String nombre, long ttlMillis, int tamanioMaximo, LongSupplier reloj) {
+        this.nombre = nombre;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.tamanioMaximo = Math.max(1, tamanioMaximo);
+        this.reloj = reloj;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> eldest) {
+                return size() > CacheAcotada.this.tamanioMaximo;
+            }
+        };
+    }
+
+    /**
+     * Devuelve el valor de la cache o, si no esta o ha caducado, lo carga y lo guarda
+     *
+     * @param clave    clave a buscar
+     * @param cargador funcion que carga el valor de la base de datos
+     * @return el valor, o null si el cargador no lo encuentra
+     */
+    public V obtener(K clave, Function<K, V> cargador) {
+        synchronized (this) {
+            Entrada<V> entrada = entradas.get(clave);
+            if (entrada != null && reloj.getAsLong() - entrada.cargada < ttlNanos) {
+                aciertos.increment();
+                return entrada.valor;
+            }
+        }
+        fallos.increment();
+        V valor = cargador.apply(clave);
+        if (valor != null) {
+            this.poner(clave, valor);
+        }
+        return valor;
+    }
+
+    public synchronized void poner(K clave, V valor) {
+        entradas.put(clave, new Entrada<>(valor, reloj.getAsLong()));
+    }
+
+    /**
+     * Descarta la entrada de la clave, para que la siguiente consulta la vuelva a cargar
+     */
+    public synchronized void invalidar(K clave) {
+        entradas.remove(clave);
+    }
+
+    public synchronized void vaciar() {
+        entradas.clear();
+    }
+
+    public synchronized int getTamanio() {
+        return entradas.size();
+    }
+
+    public EstadisticasCache estadisticas() {
+        var estadisticas = new EstadisticasCache();
+        estadisticas.setNombre(nombre);
+        estadisticas.setTamanio(this.getTamanio());
+        estadisticas.setTamanioMaximo(tamanioMaximo);
+        estadisticas.setAciertos(aciertos.sum());
+        estadisticas.setFallos(fallos.sum());
+        return estadisticas;
+    }
+
+    private static final class Entrada<V> {
+        private final V valor;
+        private final long cargada;
+
+        private Entrada(V valor, long cargada) {
+            this.valor = valor;
+            this.cargada = cargada;
+        }
+    }
+}
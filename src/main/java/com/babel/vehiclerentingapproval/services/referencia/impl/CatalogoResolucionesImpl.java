@@ -0,0 +1,72 @@
+package com.babel.vehiclerentingapproval.services.referencia.impl;
+
+import com.babel.vehiclerentingapproval.persistance.database.mappers.ResolucionSolicitudesMapper;
+import com.babel.vehiclerentingapproval.services.referencia.CatalogoResoluciones;
+import com.babel.vehiclerentingapproval.services.referencia.VersionCatalogoResoluciones;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Implementacion del catalogo de codigos de resolucion.
+ * <p>
+ * La version actual se guarda en un campo volatile y se sustituye entera, asi que las lecturas no se bloquean nunca.
+ * Cada {@code referencia.resoluciones.refresco-ms} se vuelve a leer la tabla, que tiene pocas filas, y solo se publica
+ * una nueva version si ha cambiado el contenido.
+ *
+ * @see ResolucionSolicitudesMapper
+ */
+@Service
+@Log4j2
+public class CatalogoResolucionesImpl implements CatalogoResoluciones {
+    private final ResolucionSolicitudesMapper resolucionSolicitudesMapper;
+    private volatile VersionCatalogoResoluciones actual = new VersionCatalogoResoluciones(0, List.of());
+
+    public CatalogoResolucionesImpl(ResolucionSolicitudesMapper resolucionSolicitudesMapper) {
+        this.resolucionSolicitudesMapper = resolucionSolicitudesMapper;
+    }
+
+    /**
+     * Carga el catalogo al arrancar. Si la base de datos no responde la aplicacion arranca con el catalogo vacio y la
+     * carga se reintenta en el siguiente refresco.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            this.recargar();
+        } catch (RuntimeException e) {
+            log.error("No se ha podido cargar el catalogo de codigos de resolucion, se reintentara en el siguiente refresco", e);
+        }
+    }
+
+    @Override
+    public boolean esValido(String codigo) {
+        return actual.contiene(codigo);
+    }
+
+    @Override
+    public String getDescripcion(String codigo) {
+        return actual.getDescripcion(codigo);
+    }
+
+    @Override
+    public VersionCatalogoResoluciones getActual() {
+        return actual;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${referencia.resoluciones.refresco-ms:60000}", initialDelayString = "${referencia.resoluciones.refresco-ms:60000}")
+    public synchronized boolean recargar() {
+        VersionCatalogoResoluciones anterior = actual;
+        var leida = new VersionCatalogoResoluciones(anterior.getVersion() + 1, resolucionSolicitudesMapper.getTipoResolucionesSolicitudes());
+        if (leida.getEtag().equals(anterior.getEtag())) {
+            return false;
+        }
+        this.actual = leida;
+        log.info("Catalogo de codigos de resolucion cargado en la version {}: {} codigos", leida.getVersion(), leida.getResoluciones().size());
+        return true;
+    }
+}
@@ -0,0 +1,112 @@
+package com.babel.vehiclerentingapproval.services.referencia.impl;
+
+import com.babel.vehiclerentingapproval.models.EstadisticasCache;
+import com.babel.vehiclerentingapproval.models.Pais;
+import com.babel.vehiclerentingapproval.models.Provincia;
+import com.babel.vehiclerentingapproval.models.TipoVia;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.PaisMapper;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.ProvinciaMapper;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.TipoViaMapper;
+import com.babel.vehiclerentingapproval.services.referencia.DatosReferencia;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Implementacion de los datos de referencia sobre una {@link CacheAcotada} por tabla.
+ * <p>
+ * Al arrancar se cargan las tres tablas completas (hasta el tamaño maximo de cada cache), asi que el alta de una
+ * persona no hace ninguna consulta de datos de referencia. Las entradas caducan a los {@code referencia.cache.ttl-ms}
+ * milisegundos y se vuelven a leer de la base de datos la siguiente vez que se piden.
+ *
+ * @see PaisMapper
+ * @see ProvinciaMapper
+ * @see TipoViaMapper
+ */
+@Service
+@Log4j2
+public class DatosReferenciaImpl implements DatosReferencia {
+    private final PaisMapper paisMapper;
+    private final ProvinciaMapper provinciaMapper;
+    private final TipoViaMapper tipoViaMapper;
+    private final CacheAcotada<String, Pais> paises;
+    private final CacheAcotada<String, Provincia> provincias;
+    private final CacheAcotada<Integer, TipoVia> tiposVia;
+
+    public DatosReferenciaImpl(PaisMapper paisMapper, ProvinciaMapper provinciaMapper, TipoViaMapper tipoViaMapper,
+                               @Value("${referencia.cache.ttl-ms:3600000}") long ttlMillis,
+                               @Value("${referencia.cache.tamanio-maximo:1000}") int tamanioMaximo) {
+        this.paisMapper = paisMapper;
+        this.provinciaMapper = provinciaMapper;
+        this.tipoViaMapper = tipoViaMapper;
+        this.paises = new CacheAcotada<>("PAIS", ttlMillis, tamanioMaximo);
+        this.provincias = new CacheAcotada<>("PROVINCIA", ttlMillis, tamanioMaximo);
+        this.tiposVia = new CacheAcotada<>("TIPO_VIA", ttlMillis, tamanioMaximo);
+    }
+
+    /**
+     * Precarga las caches. Si la base de datos no responde la aplicacion arranca igualmente y los datos se cargan
+     * segun se vayan pidiendo.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            this.calentar();
+        } catch (RuntimeException e) {
+            log.error("No se han podido precargar los datos de referencia, se cargaran segun se pidan", e);
+        }
+    }
+
+    @Override
+    public Pais getPais(String isoAlfa2) {
+        return copiar(paises.obtener(isoAlfa2, paisMapper::getPais));
+    }
+
+    @Override
+    public Provincia getProvincia(String codProvincia) {
+        return copiar(provincias.obtener(codProvincia, provinciaMapper::getProvincia));
+    }
+
+    @Override
+    public TipoVia getTipoVia(int tipoViaId) {
+        return copiar(tiposVia.obtener(tipoViaId, tipoViaMapper::getTipoVia));
+    }
+
+    @Override
+    public void invalidar() {
+        paises.vaciar();
+        provincias.vaciar();
+        tiposVia.vaciar();
+        log.info("Caches de datos de referencia invalidadas");
+        this.init();
+    }
+
+    @Override
+    public List<EstadisticasCache> getEstadisticas() {
+        return List.of(paises.estadisticas(), provincias.estadisticas(), tiposVia.estadisticas());
+    }
+
+    private void calentar() {
+        long inicio = System.currentTimeMillis();
+        paisMapper.listarPaises().forEach(pais -> paises.poner(pais.getIsoAlfa2(), pais));
+        provinciaMapper.listarProvincias().forEach(provincia -> provincias.poner(provincia.getCodProvincia(), provincia));
+        tipoViaMapper.listarTiposVia().forEach(tipoVia -> tiposVia.poner(tipoVia.getTipoViaId(), tipoVia));
+        log.info("Datos de referencia precargados en {} ms: {} paises, {} provincias y {} tipos de via",
+                System.currentTimeMillis() - inicio, paises.getTamanio(), provincias.getTamanio(), tiposVia.getTamanio());
+    }
+
+    private static Pais copiar(Pais pais) {
+        return pais == null ? null : new Pais(pais.getIsoAlfa2(), pais.getIsoNum3(), pais.getIsoAlfa3(), pais.getNombre(), pais.getOrden());
+    }
+
+    private static Provincia copiar(Provincia provincia) {
+        return provincia == null ? null : new Provincia(provincia.getCodProvincia(), provincia.getNombre());
+    }
+
+    private static TipoVia copiar(TipoVia tipoVia) {
+        return tipoVia == null ? null : new TipoVia(tipoVia.getTipoViaId(), tipoVia.getDescripcion());
+    }
+}
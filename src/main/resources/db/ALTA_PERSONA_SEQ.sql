@@ -0,0 +1,19 @@
+-- Secuencias de las que AltaPersonasLote reserva de una vez los IDs de las direcciones, personas y telefonos que
+-- inserta en lote (AltaPersonaMapper.reservarIds). Empiezan despues del mayor ID existente.
+-- Las columnas de ID dejan de ser IDENTITY y toman por defecto el siguiente valor de su secuencia, para que las
+-- inserciones de una en una (DireccionMapper, PersonaMapper, TelefonoMapper) no repitan los IDs reservados.
+DECLARE
+    PROCEDURE crear_secuencia(secuencia VARCHAR2, tabla VARCHAR2, columna VARCHAR2) IS
+        siguiente NUMBER;
+    BEGIN
+        EXECUTE IMMEDIATE 'SELECT NVL(MAX(' || columna || '), 0) + 1 FROM SCORING.' || tabla INTO siguiente;
+        EXECUTE IMMEDIATE 'CREATE SEQUENCE SCORING.' || secuencia || ' START WITH ' || siguiente || ' CACHE 100';
+        EXECUTE IMMEDIATE 'ALTER TABLE SCORING.' || tabla || ' MODIFY ' || columna || ' DROP IDENTITY';
+        EXECUTE IMMEDIATE 'ALTER TABLE SCORING.' || tabla || ' MODIFY ' || columna || ' DEFAULT ON NULL SCORING.' || secuencia || '.NEXTVAL';
+    END;
+BEGIN
+    crear_secuencia('DIRECCION_SEQ', 'DIRECCION', 'DIRECCION_ID');
+    crear_secuencia('PERSONA_SEQ', 'PERSONA', 'PERSONA_ID');
+    crear_secuencia('TELEFONO_CONTACTO_SEQ', 'TELEFONO_CONTACTO', 'TELEFONO_ID');
+END;
+/
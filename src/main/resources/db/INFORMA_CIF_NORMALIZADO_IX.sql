@@ -0,0 +1,3 @@
+-- Indice para la confirmacion de CIF del filtro de Bloom (InformaMapper.existeCif), que compara el CIF normalizado.
+-- La expresion debe coincidir con InformaMapper.CIF_NORMALIZADO para que Oracle use el indice.
+CREATE INDEX SCORING.INFORMA_CIF_NORMALIZADO_IX ON SCORING.INFORMA (UPPER(TRANSLATE(CIF, 'X .-', 'X')));
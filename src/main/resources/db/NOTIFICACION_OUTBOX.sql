@@ -0,0 +1,19 @@
+-- Bandeja de salida de notificaciones por correo electronico (patron transactional outbox).
+-- Las filas se insertan en la misma transaccion que el cambio que notifican y las envia NotificacionOutboxImpl.
+CREATE TABLE SCORING.NOTIFICACION_OUTBOX (
+    NOTIFICACION_ID  NUMBER GENERATED BY DEFAULT ON NULL AS IDENTITY PRIMARY KEY,
+    DESTINO          VARCHAR2(320)  NOT NULL,
+    ASUNTO           VARCHAR2(200)  NOT NULL,
+    MENSAJE          VARCHAR2(4000) NOT NULL,
+    ESTADO           VARCHAR2(10)   DEFAULT 'PENDIENTE' NOT NULL,
+    INTENTOS         NUMBER(4)      DEFAULT 0 NOT NULL,
+    PROXIMO_INTENTO  TIMESTAMP      DEFAULT SYSTIMESTAMP NOT NULL,
+    RECLAMACION      VARCHAR2(36),
+    ULTIMO_ERROR     VARCHAR2(1000),
+    FECHA_ALTA       TIMESTAMP      DEFAULT SYSTIMESTAMP NOT NULL,
+    FECHA_ENVIO      TIMESTAMP,
+    CONSTRAINT NOTIFICACION_OUTBOX_ESTADO_CK CHECK (ESTADO IN ('PENDIENTE', 'ENVIADA', 'FALLIDA'))
+);
+
+CREATE INDEX SCORING.NOTIFICACION_OUTBOX_PEND_IX ON SCORING.NOTIFICACION_OUTBOX (ESTADO, PROXIMO_INTENTO);
+CREATE INDEX SCORING.NOTIFICACION_OUTBOX_RECL_IX ON SCORING.NOTIFICACION_OUTBOX (RECLAMACION);
@@ -0,0 +1,2 @@
+-- Indice para el login, que busca la persona por su email (PersonaMapper.getCredenciales).
+CREATE INDEX SCORING.PERSONA_EMAIL_IX ON SCORING.PERSONA (EMAIL);
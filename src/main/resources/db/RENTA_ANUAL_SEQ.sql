@@ -0,0 +1,13 @@
+-- Secuencia de la que AltaRentasLote reserva de una vez los IDs de las rentas que inserta en lote
+-- (RentaMapper.reservarIds). Empieza despues del mayor ID existente.
+-- La columna RENTA_ID deja de ser IDENTITY y toma por defecto el siguiente valor de la secuencia, para que las
+-- inserciones de una en una (RentaMapper.addRenta) no repitan los IDs reservados.
+DECLARE
+    siguiente NUMBER;
+BEGIN
+    SELECT NVL(MAX(RENTA_ID), 0) + 1 INTO siguiente FROM SCORING.RENTA_ANUAL;
+    EXECUTE IMMEDIATE 'CREATE SEQUENCE SCORING.RENTA_ANUAL_SEQ START WITH ' || siguiente || ' CACHE 100';
+    EXECUTE IMMEDIATE 'ALTER TABLE SCORING.RENTA_ANUAL MODIFY RENTA_ID DROP IDENTITY';
+    EXECUTE IMMEDIATE 'ALTER TABLE SCORING.RENTA_ANUAL MODIFY RENTA_ID DEFAULT ON NULL SCORING.RENTA_ANUAL_SEQ.NEXTVAL';
+END;
+/
@@ -0,0 +1,88 @@
+package com.babel.vehiclerentingapproval.Security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class CacheTokensVerificadosTest {
+    private final AtomicLong reloj = new AtomicLong(System.currentTimeMillis());
+
+    @Test
+    void getAuthentication_shouldVerifyTokenOnlyOnce() {
+        var cache = new CacheTokensVerificados(100, reloj::get);
+        String token = TokenUtils.createToken("Nombre", "usuario@example.com");
+
+        for (var i = 0; i < 5; i++) {
+            UsernamePasswordAuthenticationToken autenticacion = cache.getAuthentication(token);
+            Assertions.assertEquals("usuario@example.com", autenticacion.getPrincipal());
+        }
+
+        Assertions.assertEquals(1, cache.getFallos());
+        Assertions.assertEquals(4, cache.getAciertos());
+        Assertions.assertEquals(1, cache.getTamanio());
+    }
+
+    @Test
+    void getAuthentication_shouldNotCache_invalidTokens() {
+        var cache = new CacheTokensVerificados(100, reloj::get);
+        String ajeno = Jwts.builder().setSubject("intruso@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(Keys.secretKeyFor(SignatureAlgorithm.HS256)).compact();
+
+        Assertions.assertNull(cache.getAuthentication(ajeno));
+        Assertions.assertNull(cache.getAuthentication("no.es.un.token"));
+        Assertions.assertEquals(0, cache.getTamanio());
+    }
+
+    @Test
+    void getAuthentication_shouldExpireEntry_whenTokenExpires() {
+        var cache = new CacheTokensVerificados(100, reloj::get);
+        String token = TokenUtils.createToken("Nombre", "usuario@example.com");
+        cache.getAuthentication(token);
+
+        reloj.addAndGet(TimeUnit.DAYS.toMillis(31));
+
+        Assertions.assertEquals(1, cache.purgar());
+        Assertions.assertEquals(0, cache.getTamanio());
+    }
+
+    @Test
+    void getAuthentication_shouldVerifyAgain_afterTokenExpiry() {
+        var cache = new CacheTokensVerificados(100, reloj::get);
+        String token = TokenUtils.createToken("Nombre", "usuario@example.com");
+        cache.getAuthentication(token);
+
+        reloj.addAndGet(TimeUnit.DAYS.toMillis(31));
+        cache.getAuthentication(token);
+
+        Assertions.assertEquals(0, cache.getAciertos());
+        Assertions.assertEquals(2, cache.getFallos());
+    }
+
+    @Test
+    void getAuthentication_shouldStayBounded() {
+        var cache = new CacheTokensVerificados(10, reloj::get);
+
+        for (var i = 0; i < 50; i++) {
+            Assertions.assertNotNull(cache.getAuthentication(TokenUtils.createToken("Nombre", "usuario" + i + "@example.com")));
+        }
+
+        Assertions.assertTrue(cache.getTamanio() <= 10);
+    }
+
+    @Test
+    void getAuthentication_shouldAlwaysVerify_whenDisabled() {
+        var cache = new CacheTokensVerificados(0, reloj::get);
+        String token = TokenUtils.createToken("Nombre", "usuario@example.com");
+
+        Assertions.assertEquals("usuario@example.com", cache.getAuthentication(token).getPrincipal());
+        Assertions.assertEquals(0, cache.getTamanio());
+    }
+}
@@ -0,0 +1,57 @@
+package com.babel.vehiclerentingapproval.Security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+
+class PasswordEncoderAcotadoTest {
+    private PasswordEncoderAcotado encoder;
+
+    @AfterEach
+    void tearDown() {
+        this.encoder.close();
+    }
+
+    @Test
+    void matches_shouldVerifyPassword_inPool() {
+        this.encoder = new PasswordEncoderAcotado(4, 2, 10, 5000);
+        String hash = this.encoder.encode("Marte2025");
+
+        Assertions.assertTrue(this.encoder.matches("Marte2025", hash));
+        Assertions.assertFalse(this.encoder.matches("Venus2025", hash));
+    }
+
+    @Test
+    void matches_shouldAcceptHashes_withOtherStrength() {
+        this.encoder = new PasswordEncoderAcotado(12, 2, 10, 5000);
+
+        Assertions.assertTrue(this.encoder.matches("Marte2025", new BCryptPasswordEncoder(4).encode("Marte2025")));
+    }
+
+    @Test
+    void matches_shouldReject_whenQueueIsFull() throws Exception {
+        this.encoder = new PasswordEncoderAcotado(14, 1, 1, 60000);
+        String hash = new BCryptPasswordEncoder(14).encode("Marte2025");
+        CompletableFuture<Boolean> enCurso = CompletableFuture.supplyAsync(() -> this.encoder.matches("Marte2025", hash));
+        CompletableFuture<Boolean> enCola = CompletableFuture.supplyAsync(() -> this.encoder.matches("Marte2025", hash));
+        while (this.encoder.getEnCurso() < 1 || this.encoder.getEnCola() < 1) {
+            Thread.sleep(5);
+        }
+
+        Assertions.assertThrows(VerificacionSaturadaException.class, () -> this.encoder.matches("Marte2025", hash));
+        Assertions.assertEquals(1, this.encoder.getRechazadas());
+        Assertions.assertTrue(enCurso.join());
+        Assertions.assertTrue(enCola.join());
+    }
+
+    @Test
+    void matches_shouldReject_whenVerificationTakesTooLong() {
+        this.encoder = new PasswordEncoderAcotado(14, 1, 1, 10);
+        String hash = new BCryptPasswordEncoder(14).encode("Marte2025");
+
+        Assertions.assertThrows(VerificacionSaturadaException.class, () -> this.encoder.matches("Marte2025", hash));
+    }
+}
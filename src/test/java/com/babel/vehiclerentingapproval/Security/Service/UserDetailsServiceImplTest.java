@@ -0,0 +1,58 @@
+package com.babel.vehiclerentingapproval.Security.Service;
+
+import com.babel.vehiclerentingapproval.Security.usuario.CredencialesUsuario;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.PersonaMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+class UserDetailsServiceImplTest {
+    private PersonaMapper personaMapper;
+    private CacheUsuarios cacheUsuarios;
+    private UserDetailsServiceImpl userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        this.personaMapper = Mockito.mock(PersonaMapper.class);
+        this.cacheUsuarios = new CacheUsuarios(60000, 100);
+        this.userDetailsService = new UserDetailsServiceImpl(this.personaMapper, this.cacheUsuarios);
+        var credenciales = new CredencialesUsuario();
+        credenciales.setEmail("usuario@example.com");
+        credenciales.setNombre("Nombre");
+        credenciales.setPassword("$2a$10$hash");
+        Mockito.when(this.personaMapper.getCredenciales("usuario@example.com")).thenReturn(credenciales);
+    }
+
+    @Test
+    void loadUserByUsername_shouldQueryPersonaOnce_forRepeatedLogins() {
+        for (var i = 0; i < 3; i++) {
+            UserDetails usuario = this.userDetailsService.loadUserByUsername("usuario@example.com");
+            Assertions.assertEquals("usuario@example.com", usuario.getUsername());
+            Assertions.assertEquals("$2a$10$hash", usuario.getPassword());
+            Assertions.assertEquals("Nombre", ((UserDetailsImpl) usuario).getNombre());
+        }
+
+        Mockito.verify(this.personaMapper, Mockito.times(1)).getCredenciales("usuario@example.com");
+    }
+
+    @Test
+    void loadUserByUsername_shouldQueryAgain_afterInvalidation() {
+        this.userDetailsService.loadUserByUsername("usuario@example.com");
+
+        this.cacheUsuarios.invalidar("usuario@example.com");
+        this.userDetailsService.loadUserByUsername("usuario@example.com");
+
+        Mockito.verify(this.personaMapper, Mockito.times(2)).getCredenciales("usuario@example.com");
+    }
+
+    @Test
+    void loadUserByUsername_shouldThrowUsernameNotFoundException_whenPersonaNotFound() {
+        Assertions.assertThrows(UsernameNotFoundException.class, () -> this.userDetailsService.loadUserByUsername("nadie@example.com"));
+        Assertions.assertThrows(UsernameNotFoundException.class, () -> this.userDetailsService.loadUserByUsername("nadie@example.com"));
+
+        Mockito.verify(this.personaMapper, Mockito.times(2)).getCredenciales("nadie@example.com");
+    }
+}
@@ -0,0 +1,127 @@
+package com.babel.vehiclerentingapproval.benchmarks;
+
+import com.babel.vehiclerentingapproval.models.Direccion;
+import com.babel.vehiclerentingapproval.models.Pais;
+import com.babel.vehiclerentingapproval.models.Persona;
+import com.babel.vehiclerentingapproval.models.Provincia;
+import com.babel.vehiclerentingapproval.models.TelefonoContacto;
+import com.babel.vehiclerentingapproval.models.TipoVia;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.AltaPersonaMapper;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.DireccionMapper;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.PersonaMapper;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.TelefonoMapper;
+import com.babel.vehiclerentingapproval.services.impl.AltaPersonasLote;
+import com.babel.vehiclerentingapproval.services.impl.JdbcSimulado;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de las altas de personas por segundo, con 2 direcciones y 5 telefonos cada una, insertando una
+ * sentencia por fila con los mappers de siempre (8 idas y vueltas) o en lote con {@link AltaPersonasLote} (4 idas y
+ * vueltas). La base de datos es {@link JdbcSimulado}, que espera latenciaMicros en cada ida y vuelta como lo haria la
+ * red hasta Oracle. Se ejecuta con el metodo main desde el classpath de test.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AltaPersonaBenchmark {
+    @Param({"0", "250"})
+    private long latenciaMicros;
+
+    private JdbcSimulado baseDatos;
+    private SqlSessionFactory sqlSessionFactory;
+    private AltaPersonasLote altaPersonasLote;
+    private Persona persona;
+
+    @Setup
+    public void setUp() {
+        this.baseDatos = new JdbcSimulado(this.latenciaMicros);
+        this.sqlSessionFactory = this.baseDatos.crearSqlSessionFactory(
+                DireccionMapper.class, PersonaMapper.class, TelefonoMapper.class, AltaPersonaMapper.class);
+        this.altaPersonasLote = new AltaPersonasLote(this.sqlSessionFactory);
+        this.persona = new Persona("juan@example.com", "Juan", null);
+        this.persona.setNombre("Juan");
+        this.persona.setApellido1("Francés");
+        this.persona.setNif("1111112F");
+        this.persona.setEmail("juan@example.com");
+        this.persona.setNacionalidad(new Pais("ES", 724, "ESP", "ESPAÑA", 1));
+        this.persona.setDireccionDomicilio(direccion("Gran via"));
+        this.persona.setDireccionNotificacion(direccion("Plaza nueva"));
+        this.persona.setDireccionDomicilioSameAsNotificacion(false);
+        List<TelefonoContacto> telefonos = new ArrayList<>();
+        for (var i = 0; i < 5; i++) {
+            telefonos.add(new TelefonoContacto(0, "60000000" + i));
+        }
+        this.persona.setTelefonos(telefonos);
+    }
+
+    @Setup(Level.Iteration)
+    public void reiniciar() {
+        this.baseDatos.reiniciar();
+    }
+
+    /**
+     * Alta como la hacia PersonaServiceImpl antes del lote: una sentencia por fila, con las claves generadas
+     */
+    @Benchmark
+    public Persona altaPorSentencia() {
+        try (SqlSession session = this.sqlSessionFactory.openSession()) {
+            DireccionMapper direccionMapper = session.getMapper(DireccionMapper.class);
+            direccionMapper.insertDireccion(this.persona.getDireccionDomicilio());
+            direccionMapper.insertDireccion(this.persona.getDireccionNotificacion());
+            session.getMapper(PersonaMapper.class).insertPersona(this.persona);
+            TelefonoMapper telefonoMapper = session.getMapper(TelefonoMapper.class);
+            for (TelefonoContacto telefono : this.persona.getTelefonos()) {
+                telefonoMapper.addTelefono(telefono, this.persona);
+            }
+            session.commit();
+        }
+        return this.persona;
+    }
+
+    /**
+     * Alta en lote: reserva de IDs y un lote JDBC por tabla
+     */
+    @Benchmark
+    public Persona altaEnLote() {
+        this.altaPersonasLote.insertar(List.of(this.persona));
+        return this.persona;
+    }
+
+    private static Direccion direccion(String calle) {
+        var direccion = new Direccion();
+        direccion.setNombreCalle(calle);
+        direccion.setNumero("1");
+        direccion.setCodPostal("41001");
+        direccion.setMunicipio("Sevilla");
+        direccion.setTipoViaId(new TipoVia(1, "Calle"));
+        direccion.setProvincia(new Provincia("SVQ", "Sevilla"));
+        return direccion;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AltaPersonaBenchmark.class.getSimpleName()).build()).run();
+    }
+}
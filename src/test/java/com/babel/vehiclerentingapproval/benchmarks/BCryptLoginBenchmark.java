@@ -0,0 +1,62 @@
+package com.babel.vehiclerentingapproval.benchmarks;
+
+import com.babel.vehiclerentingapproval.Security.PasswordEncoderAcotado;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de los logins por segundo que verifica {@link PasswordEncoderAcotado} con cada coste de BCrypt, con 8
+ * hilos pidiendo logins a la vez sobre un pool de tantos hilos como procesadores. Sirve para elegir
+ * seguridad.bcrypt.fuerza segun los logins por segundo que se tengan que atender. Se ejecuta con el metodo main desde
+ * el classpath de test.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class BCryptLoginBenchmark {
+    @Param({"8", "10", "12"})
+    private int fuerza;
+
+    private PasswordEncoderAcotado encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        this.encoder = new PasswordEncoderAcotado(this.fuerza, 0, 64, 60000);
+        this.hash = this.encoder.encode("Marte2025");
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.encoder.close();
+    }
+
+    @Benchmark
+    public boolean login() {
+        return this.encoder.matches("Marte2025", this.hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BCryptLoginBenchmark.class.getSimpleName()).build()).run();
+    }
+}
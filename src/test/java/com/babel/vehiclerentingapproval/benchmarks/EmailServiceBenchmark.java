@@ -0,0 +1,114 @@
+package com.babel.vehiclerentingapproval.benchmarks;
+
+import com.babel.vehiclerentingapproval.models.CorreoElectronico;
+import com.babel.vehiclerentingapproval.models.ResultadoEnvioCorreo;
+import com.babel.vehiclerentingapproval.services.impl.EmailServiceImpl;
+import com.babel.vehiclerentingapproval.services.impl.ServidorSmtpFalso;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.Transport;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH de los mensajes por segundo que envia {@link EmailServiceImpl} contra un servidor SMTP local en
+ * memoria, uno a uno y en envios masivos de 100 correos, comparado con abrir y cerrar una conexion por mensaje. Se ejecuta con el metodo main desde el
+ * classpath de test.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class EmailServiceBenchmark {
+    private static final int CORREOS_MASIVO = 100;
+
+    private ServidorSmtpFalso servidor;
+    private JavaMailSenderImpl mailSender;
+    private EmailServiceImpl emailService;
+    private List<CorreoElectronico> correos;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.servidor = new ServidorSmtpFalso();
+        this.mailSender = new JavaMailSenderImpl();
+        this.mailSender.setHost("localhost");
+        this.mailSender.setPort(this.servidor.getPuerto());
+        this.mailSender.setUsername("solicitudrenting@example.com");
+        this.mailSender.getJavaMailProperties().put("mail.smtp.auth", "false");
+        this.emailService = new EmailServiceImpl(this.mailSender, 4, 10000, 30000, 1000, 100, 0, 4, 1000);
+        this.correos = new ArrayList<>(CORREOS_MASIVO);
+        for (var i = 0; i < CORREOS_MASIVO; i++) {
+            this.correos.add(new CorreoElectronico("destino" + i + "@dominio" + i % 10 + ".com", "Cambios en tu solicitud", "Su solicitud se encuentra: Aprobada"));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.emailService.close();
+        this.servidor.close();
+    }
+
+    /**
+     * Envio por el pool de conexiones
+     */
+    @Benchmark
+    public boolean enviarConPool() {
+        return this.emailService.sendMail("Su solicitud se encuentra: Aprobada", "destino@example.com", "Cambios en tu solicitud");
+    }
+
+    /**
+     * Envio masivo por una conexion reservada para todo el bloque, sin limite por dominio
+     */
+    @Benchmark
+    @OperationsPerInvocation(CORREOS_MASIVO)
+    public List<ResultadoEnvioCorreo> enviarMasivo() {
+        return this.emailService.sendMails(this.correos);
+    }
+
+    /**
+     * Envio abriendo y cerrando una conexion por mensaje, como hacia EmailServiceImpl con Transport.send antes del pool
+     */
+    @Benchmark
+    public boolean enviarConexionPorMensaje() throws MessagingException {
+        Message message = new MimeMessage(this.mailSender.getSession());
+        message.setFrom(new InternetAddress("solicitudrenting@example.com"));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse("destino@example.com"));
+        message.setSubject("Cambios en tu solicitud");
+        message.setText("Su solicitud se encuentra: Aprobada");
+        message.saveChanges();
+        try (Transport transport = this.mailSender.getSession().getTransport()) {
+            transport.connect("localhost", this.servidor.getPuerto(), null, null);
+            transport.sendMessage(message, message.getAllRecipients());
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmailServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.babel.vehiclerentingapproval.benchmarks;
+
+import com.babel.vehiclerentingapproval.Security.CacheTokensVerificados;
+import com.babel.vehiclerentingapproval.Security.JWTAuthorizationFilter;
+import com.babel.vehiclerentingapproval.Security.TokenUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH del coste por peticion de {@link JWTAuthorizationFilter} con un mismo token, con la cache de tokens
+ * verificados y sin ella (max-entradas a 0, que verifica la firma en cada peticion). Se ejecuta con el metodo main
+ * desde el classpath de test.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtFilterBenchmark {
+    private static final FilterChain CADENA_VACIA = (request, response) -> { };
+
+    private JWTAuthorizationFilter conCache;
+    private JWTAuthorizationFilter sinCache;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        this.conCache = new JWTAuthorizationFilter(new CacheTokensVerificados(10000));
+        this.sinCache = new JWTAuthorizationFilter(new CacheTokensVerificados(0));
+        this.request = new MockHttpServletRequest("GET", "/solicitud/1");
+        this.request.addHeader("Authorization", "Bearer " + TokenUtils.createToken("Nombre", "usuario@example.com"));
+        this.response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication filtrarConCache() throws ServletException, IOException {
+        return this.filtrar(this.conCache);
+    }
+
+    @Benchmark
+    public Authentication filtrarSinCache() throws ServletException, IOException {
+        return this.filtrar(this.sinCache);
+    }
+
+    private Authentication filtrar(JWTAuthorizationFilter filtro) throws ServletException, IOException {
+        filtro.doFilter(this.request, this.response, CADENA_VACIA);
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return autenticacion;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
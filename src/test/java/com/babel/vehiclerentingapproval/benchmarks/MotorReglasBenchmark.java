@@ -0,0 +1,98 @@
+package com.babel.vehiclerentingapproval.benchmarks;
+
+import com.babel.vehiclerentingapproval.models.EvaluacionReglas;
+import com.babel.vehiclerentingapproval.models.RuleInputSnapshot;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.RegistroCifInforma;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.impl.MotorReglasImpl;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark JMH del coste de una decision de preaprobacion con las reglas del fichero por defecto, sin acceso a base de
+ * datos. Se ejecuta con el metodo main desde el classpath de test.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MotorReglasBenchmark {
+    private MotorReglasImpl motorReglas;
+    private RuleInputSnapshot aprobada;
+    private RuleInputSnapshot pendiente;
+    private RuleInputSnapshot denegada;
+
+    @Setup
+    public void setUp() {
+        RegistroCifInforma registroCifInforma = Mockito.mock(RegistroCifInforma.class);
+        Mockito.when(registroCifInforma.contiene("45442L")).thenReturn(true);
+        this.motorReglas = new MotorReglasImpl(new DefaultResourceLoader(), registroCifInforma, "classpath:reglas-preaprobacion.properties", 16);
+        this.motorReglas.init();
+        this.aprobada = this.crearSnapshot(3, 90000f);
+        this.pendiente = this.crearSnapshot(3, 10000f);
+        this.denegada = this.crearSnapshot(8, 90000f);
+    }
+
+    private RuleInputSnapshot crearSnapshot(int scoring, float inversion) {
+        RuleInputSnapshot snapshot = new RuleInputSnapshot();
+        snapshot.setFechaNacimiento(new Date(TimeUnit.DAYS.toMillis(365L * 20)));
+        snapshot.setPlazo(BigInteger.valueOf(3));
+        snapshot.setScoring(scoring);
+        snapshot.setInversion(inversion);
+        snapshot.setImporteNeto(100000f);
+        snapshot.setCuota(500f);
+        snapshot.setImporteImpagoInterno(10f);
+        snapshot.setCifEmpleador("45442L");
+        snapshot.setNacionalidad("ES");
+        snapshot.setAniosEmpleo(10f);
+        snapshot.setSolicitudesNoAprobadasConGarantias(1);
+        snapshot.setSolicitudesNoRechazadas(1);
+        return snapshot;
+    }
+
+    /**
+     * Se evaluan todas las reglas
+     */
+    @Benchmark
+    public EvaluacionReglas evaluarAprobada() {
+        return this.motorReglas.evaluar(this.aprobada);
+    }
+
+    /**
+     * Falla una regla de preaprobacion y la comprobacion de alguna reutiliza el vector
+     */
+    @Benchmark
+    public EvaluacionReglas evaluarPendiente() {
+        return this.motorReglas.evaluar(this.pendiente);
+    }
+
+    /**
+     * Corta en la primera regla de predenegacion
+     */
+    @Benchmark
+    public EvaluacionReglas evaluarDenegada() {
+        return this.motorReglas.evaluar(this.denegada);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MotorReglasBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -1,9 +1,13 @@
 package com.babel.vehiclerentingapproval.controllers;
 
+import com.babel.vehiclerentingapproval.Security.Service.CacheUsuarios;
 import com.babel.vehiclerentingapproval.models.*;
 import com.babel.vehiclerentingapproval.persistance.database.mappers.*;
+import com.babel.vehiclerentingapproval.services.ImportacionPersonasService;
 import com.babel.vehiclerentingapproval.services.PersonaService;
+import com.babel.vehiclerentingapproval.services.impl.AltaPersonasLote;
 import com.babel.vehiclerentingapproval.services.impl.PersonaServiceImpl;
+import com.babel.vehiclerentingapproval.services.referencia.impl.DatosReferenciaImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -35,12 +39,13 @@ class PersonaControllerTest {
         PaisMapper paisMapper = Mockito.mock(PaisMapper.class);
 
 
-        personaService = new PersonaServiceImpl(direccionMapper, personaMapper, telefonoMapper, tipoViaMapper, provinciaMapper, paisMapper);
+        personaService = new PersonaServiceImpl(direccionMapper, personaMapper, telefonoMapper,
+                new DatosReferenciaImpl(paisMapper, provinciaMapper, tipoViaMapper, 60000, 100), Mockito.mock(CacheUsuarios.class), Mockito.mock(AltaPersonasLote.class));
 
     }
 
     private Persona personaficticia ( ) throws ParseException {
-        Persona personaFicticia = new Persona(persona.getPersonaId(), persona.getNombre(), persona.getEmail(), persona.getPassword());
+        Persona personaFicticia = new Persona();
         Direccion direccionFicticia = new Direccion();
         direccionFicticia.setDireccionId(1);
         direccionFicticia.setTipoViaId(new TipoVia(1, "Alameda"));
@@ -63,7 +68,7 @@ class PersonaControllerTest {
     @Test
     void testAddPersonaSuccess ( ) throws Exception {
         PersonaService personaService = Mockito.mock(PersonaService.class);
-        PersonaController personaController = new PersonaController(personaService);
+        PersonaController personaController = new PersonaController(personaService, Mockito.mock(ImportacionPersonasService.class));
         Persona persona = personaficticia();
 
         // Configurar el comportamiento de personaService.addPersona()
@@ -77,7 +82,7 @@ class PersonaControllerTest {
     @Test
     void testModificarPersonaSuccess ( ) throws Exception {
         PersonaService personaService = Mockito.mock(PersonaService.class);
-        PersonaController personaController = new PersonaController(personaService);
+        PersonaController personaController = new PersonaController(personaService, Mockito.mock(ImportacionPersonasService.class));
         Persona persona = personaficticia();
 
         // Configurar el comportamiento de personaService.addPersona()
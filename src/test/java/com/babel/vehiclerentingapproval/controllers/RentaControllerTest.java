@@ -1,13 +1,18 @@
 package com.babel.vehiclerentingapproval.controllers;
 
+import com.babel.vehiclerentingapproval.Security.Service.CacheUsuarios;
 import com.babel.vehiclerentingapproval.models.*;
 import com.babel.vehiclerentingapproval.persistance.database.mappers.*;
+import com.babel.vehiclerentingapproval.services.ImportacionRentasService;
 import com.babel.vehiclerentingapproval.services.PersonaService;
 import com.babel.vehiclerentingapproval.services.ProfesionService;
 import com.babel.vehiclerentingapproval.services.RentaService;
+import com.babel.vehiclerentingapproval.services.impl.AltaPersonasLote;
+import com.babel.vehiclerentingapproval.services.impl.AltaRentasLote;
 import com.babel.vehiclerentingapproval.services.impl.PersonaServiceImpl;
 import com.babel.vehiclerentingapproval.services.impl.ProfesionServiceImpl;
 import com.babel.vehiclerentingapproval.services.impl.RentaServiceImpl;
+import com.babel.vehiclerentingapproval.services.referencia.impl.DatosReferenciaImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -49,10 +54,11 @@ class RentaControllerTest {
         PaisMapper paisMapper = Mockito.mock(PaisMapper.class);
 
 
-        personaService = new PersonaServiceImpl(direccionMapper, personaMapper, telefonoMapper, tipoViaMapper, provinciaMapper, paisMapper);
+        personaService = new PersonaServiceImpl(direccionMapper, personaMapper, telefonoMapper,
+                new DatosReferenciaImpl(paisMapper, provinciaMapper, tipoViaMapper, 60000, 100), Mockito.mock(CacheUsuarios.class), Mockito.mock(AltaPersonasLote.class));
         profesionService = new ProfesionServiceImpl(profesionMapper);
 
-        rentaService = new RentaServiceImpl(rentaMapper, personaService, profesionService);
+        rentaService = new RentaServiceImpl(rentaMapper, personaService, profesionService, personaMapper, Mockito.mock(AltaRentasLote.class));
 
     }
 
@@ -74,7 +80,7 @@ class RentaControllerTest {
     }
 
     private Persona personaficticia() throws ParseException {
-        Persona personaFicticia = new Persona(persona.getPersonaId(), persona.getNombre(), persona.getEmail(), persona.getPassword());
+        Persona personaFicticia = new Persona();
         Direccion direccionFicticia = new Direccion();
         direccionFicticia.setDireccionId(1);
         direccionFicticia.setTipoViaId(new TipoVia(1, "Alameda"));
@@ -102,7 +108,7 @@ class RentaControllerTest {
     @Test
     void testAddRentaSuccess() throws Exception {
         RentaService rentaService = Mockito.mock(RentaService.class);
-        RentaController rentaController = new RentaController(rentaService);
+        RentaController rentaController = new RentaController(rentaService, Mockito.mock(ImportacionRentasService.class));
         Renta renta = createRenta();
 
         // Configurar el comportamiento de personaService.addPersona()
@@ -13,13 +13,19 @@ import com.babel.vehiclerentingapproval.services.SolicitudRentingService;
 import com.babel.vehiclerentingapproval.services.impl.PersonaServiceImpl;
 import com.babel.vehiclerentingapproval.services.impl.ResolucionSolicitudesServiceImpl;
 import com.babel.vehiclerentingapproval.services.impl.SolicitudRentingServiceImpl;
+import com.babel.vehiclerentingapproval.services.referencia.VersionCatalogoResoluciones;
+import com.babel.vehiclerentingapproval.services.referencia.impl.CatalogoResolucionesImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -34,7 +40,7 @@ class ResolucionSolicitudesControllerTest {
     @BeforeEach
     void setupAll() {
         resolucionSolicitudesMapper = Mockito.mock(ResolucionSolicitudesMapper.class);
-        resolucionSolicitudesService = new ResolucionSolicitudesServiceImpl(resolucionSolicitudesMapper);
+        resolucionSolicitudesService = new ResolucionSolicitudesServiceImpl(new CatalogoResolucionesImpl(resolucionSolicitudesMapper));
 
     }
 
@@ -56,12 +62,47 @@ class ResolucionSolicitudesControllerTest {
 
         List<ResolucionSolicitud> listaTest = createListaMock();
 
-        Mockito.when(resolucionSolicitudesService.getTipoResolucionesSolicitudes()).thenReturn(listaTest);
+        Mockito.when(resolucionSolicitudesService.getCatalogoResoluciones()).thenReturn(new VersionCatalogoResoluciones(1, listaTest));
 
 
-        ResponseEntity response = resolucionSolicitudesController.listarTiposResolucion();
+        ResponseEntity response = resolucionSolicitudesController.listarTiposResolucion(
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/listarTiposResolucion"), new MockHttpServletResponse()));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
+    @Test
+    void testListarTipoNotModified() throws Exception {
+        resolucionSolicitudesService = Mockito.mock(ResolucionSolicitudesService.class);
+        ResolucionSolicitudesController resolucionSolicitudesController = new ResolucionSolicitudesController(resolucionSolicitudesService);
+        var catalogo = new VersionCatalogoResoluciones(1, createListaMock());
+        Mockito.when(resolucionSolicitudesService.getCatalogoResoluciones()).thenReturn(catalogo);
+
+        var request = new MockHttpServletRequest("GET", "/listarTiposResolucion");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, catalogo.getEtag());
+        var servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity response = resolucionSolicitudesController.listarTiposResolucion(new ServletWebRequest(request, servletResponse));
+
+        assertEquals(null, response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        assertEquals(catalogo.getEtag(), servletResponse.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testListarTipoNotModified_withWeakEtagInList() throws Exception {
+        resolucionSolicitudesService = Mockito.mock(ResolucionSolicitudesService.class);
+        ResolucionSolicitudesController resolucionSolicitudesController = new ResolucionSolicitudesController(resolucionSolicitudesService);
+        var catalogo = new VersionCatalogoResoluciones(1, createListaMock());
+        Mockito.when(resolucionSolicitudesService.getCatalogoResoluciones()).thenReturn(catalogo);
+        var request = new MockHttpServletRequest("GET", "/listarTiposResolucion");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"otra-version\", W/" + catalogo.getEtag());
+        var servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity response = resolucionSolicitudesController.listarTiposResolucion(new ServletWebRequest(request, servletResponse));
+
+        assertEquals(null, response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+    }
+
 }
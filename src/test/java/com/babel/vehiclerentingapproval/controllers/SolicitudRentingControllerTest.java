@@ -9,6 +9,9 @@ import com.babel.vehiclerentingapproval.services.EmailService;
 import com.babel.vehiclerentingapproval.services.PersonaService;
 import com.babel.vehiclerentingapproval.services.SolicitudRentingService;
 import com.babel.vehiclerentingapproval.services.impl.SolicitudRentingServiceImpl;
+import com.babel.vehiclerentingapproval.services.journal.SolicitudJournal;
+import com.babel.vehiclerentingapproval.services.notificacion.NotificacionOutbox;
+import com.babel.vehiclerentingapproval.services.referencia.CatalogoResoluciones;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -40,13 +43,15 @@ class SolicitudRentingControllerTest {
         TipoResultadoSolicitudMapper tipoResultadoSolicitudMapper = Mockito.mock(TipoResultadoSolicitudMapper.class);
         PersonaService personaService = Mockito.mock(PersonaService.class);
         CodigoResolucionValidator codigoResolucionValidator = Mockito.mock(CodigoResolucionValidator.class);
-        EmailService emailService = Mockito.mock(EmailService.class);
-        solicitudRentingService = new SolicitudRentingServiceImpl(solicitudRentingMapper, tipoResultadoSolicitudMapper, personaService, codigoResolucionValidator, personaMapper, emailService);
+        NotificacionOutbox notificacionOutbox = Mockito.mock(NotificacionOutbox.class);
+        SolicitudJournal solicitudJournal = Mockito.mock(SolicitudJournal.class);
+        CatalogoResoluciones catalogoResoluciones = Mockito.mock(CatalogoResoluciones.class);
+        solicitudRentingService = new SolicitudRentingServiceImpl(solicitudRentingMapper, tipoResultadoSolicitudMapper, personaService, codigoResolucionValidator, notificacionOutbox, solicitudJournal, catalogoResoluciones);
     }
 
     private SolicitudRenting creaSolicitudFicticia() throws ParseException {
         SolicitudRenting solicitudFicticia = new SolicitudRenting();
-        Persona personaFicticia = new Persona(persona.getPersonaId(), persona.getNombre(), persona.getEmail(), persona.getPassword());
+        Persona personaFicticia = new Persona();
         Direccion direccionFicticia = new Direccion();
         TipoResultadoSolicitud tipoResultadoSolicitudFicticia = new TipoResultadoSolicitud();
         tipoResultadoSolicitudFicticia.setCodResultado("1");
@@ -25,7 +25,7 @@ class PersonaTest {
     }
 
     public Persona createPersona() throws ParseException {
-        Persona persona = new Persona(persona.getPersonaId(), persona.getNombre(), persona.getEmail(), persona.getPassword());
+        Persona persona = new Persona();
         persona.setNombre("Juan");
         persona.setApellido1("Francés");
         persona.setApellido2("Atúñez");
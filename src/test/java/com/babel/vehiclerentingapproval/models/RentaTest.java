@@ -49,7 +49,7 @@ class RentaTest {
     }
 
     public Persona createPersona() throws ParseException {
-        Persona persona = new Persona(persona.getPersonaId(), persona.getNombre(), persona.getEmail(), persona.getPassword());
+        Persona persona = new Persona();
         persona.setNombre("Juan");
         persona.setApellido1("Francés");
         persona.setApellido2("Atúñez");
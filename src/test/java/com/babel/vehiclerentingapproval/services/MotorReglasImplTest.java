@@ -0,0 +1,165 @@
+package com.babel.vehiclerentingapproval.services;
+
+import com.babel.vehiclerentingapproval.exceptions.ReglaInvalidaException;
+import com.babel.vehiclerentingapproval.models.EstadisticasReglas;
+import com.babel.vehiclerentingapproval.models.EvaluacionReglas;
+import com.babel.vehiclerentingapproval.models.ReglaDefinicion;
+import com.babel.vehiclerentingapproval.models.ReglaEstadisticas;
+import com.babel.vehiclerentingapproval.models.RuleInputSnapshot;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.RegistroCifInforma;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.impl.MotorReglasImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class MotorReglasImplTest {
+    private static final String REGLAS_SCORING = "reglas=SCORING_TITULAR,NACIONALIDAD\n" +
+            "regla.SCORING_TITULAR.grupo=DENEGACION\n" +
+            "regla.SCORING_TITULAR.campo=scoring\n" +
+            "regla.SCORING_TITULAR.operador=>=\n" +
+            "regla.SCORING_TITULAR.valor=%d\n" +
+            "regla.NACIONALIDAD.grupo=APROBACION\n" +
+            "regla.NACIONALIDAD.campo=nacionalidad\n" +
+            "regla.NACIONALIDAD.operador==\n" +
+            "regla.NACIONALIDAD.valor=ES\n";
+
+    @TempDir
+    Path directorio;
+
+    private MotorReglasImpl crearMotor(String ubicacion) {
+        MotorReglasImpl motor = new MotorReglasImpl(new DefaultResourceLoader(), Mockito.mock(RegistroCifInforma.class), ubicacion, 1);
+        motor.init();
+        return motor;
+    }
+
+    private RuleInputSnapshot crearSnapshot(int scoring) {
+        RuleInputSnapshot snapshot = new RuleInputSnapshot();
+        snapshot.setScoring(scoring);
+        snapshot.setNacionalidad("es");
+        snapshot.setPlazo(BigInteger.valueOf(36));
+        return snapshot;
+    }
+
+    private Path escribirReglas(String contenido, long modificacion) throws IOException {
+        Path fichero = directorio.resolve("reglas.properties");
+        Files.writeString(fichero, contenido);
+        Files.setLastModifiedTime(fichero, FileTime.fromMillis(modificacion));
+        return fichero;
+    }
+
+    @Test
+    void init_shouldOrderRulesCheapestFirst_whenDefaultFile() {
+        MotorReglasImpl motor = this.crearMotor("classpath:reglas-preaprobacion.properties");
+
+        List<String> orden = motor.getReglas().stream().map(ReglaDefinicion::getNombre).collect(Collectors.toList());
+
+        Assertions.assertEquals(12, orden.size());
+        Assertions.assertEquals(List.of("SCORING_TITULAR", "EDAD_MINIMA", "EDAD_MAS_PLAZO"), orden.subList(0, 3));
+        Assertions.assertEquals("INVERSION", orden.get(3));
+        Assertions.assertEquals("CIF_CLIENTE", orden.get(11));
+        Assertions.assertEquals(1, motor.getVersion());
+    }
+
+    @Test
+    void evaluar_shouldNotMatchComparison_whenFieldIsMissing() {
+        MotorReglasImpl motor = this.crearMotor("classpath:reglas-preaprobacion.properties");
+        RuleInputSnapshot snapshot = this.crearSnapshot(1);
+        snapshot.setInversion(90000f);
+        snapshot.setCuota(500f);
+
+        EvaluacionReglas evaluacion = motor.evaluar(snapshot);
+
+        Assertions.assertFalse(evaluacion.getReglas().get("EDAD_MINIMA"));
+        Assertions.assertFalse(evaluacion.getReglas().get("INVERSION_INGRESOS"));
+        Assertions.assertTrue(evaluacion.getReglas().get("INVERSION"));
+        Assertions.assertEquals("PA", evaluacion.getResultado());
+    }
+
+    @Test
+    void comprobarCambios_shouldApplyNewRules_whenFileIsModified() throws IOException {
+        Path fichero = this.escribirReglas(String.format(REGLAS_SCORING, 6), 1_000_000L);
+        MotorReglasImpl motor = this.crearMotor("file:" + fichero);
+        Assertions.assertEquals("AA", motor.evaluar(this.crearSnapshot(5)).getResultado());
+
+        this.escribirReglas(String.format(REGLAS_SCORING, 5), 2_000_000L);
+        motor.comprobarCambios();
+
+        EvaluacionReglas evaluacion = motor.evaluar(this.crearSnapshot(5));
+        Assertions.assertEquals("DM", evaluacion.getResultado());
+        Assertions.assertEquals(2, evaluacion.getVersionReglas());
+    }
+
+    @Test
+    void comprobarCambios_shouldKeepPreviousRules_whenNewFileIsInvalid() throws IOException {
+        Path fichero = this.escribirReglas(String.format(REGLAS_SCORING, 6), 1_000_000L);
+        MotorReglasImpl motor = this.crearMotor("file:" + fichero);
+
+        this.escribirReglas(String.format(REGLAS_SCORING, 6).replace("campo=scoring", "campo=desconocido"), 2_000_000L);
+        motor.comprobarCambios();
+
+        Assertions.assertEquals(1, motor.getVersion());
+        Assertions.assertEquals("AA", motor.evaluar(this.crearSnapshot(5)).getResultado());
+        Assertions.assertThrows(ReglaInvalidaException.class, motor::recargar);
+    }
+
+    @Test
+    void init_shouldThrowReglaInvalidaException_whenTextFieldUsesNumericOperator() throws IOException {
+        Path fichero = this.escribirReglas(String.format(REGLAS_SCORING, 6).replace("operador==", "operador=<"), 1_000_000L);
+
+        Assertions.assertThrows(ReglaInvalidaException.class, () -> this.crearMotor("file:" + fichero));
+    }
+
+    private List<String> nombres(List<ReglaEstadisticas> cadena) {
+        return cadena.stream().map(ReglaEstadisticas::getNombre).collect(Collectors.toList());
+    }
+
+    @Test
+    void reordenar_shouldPutFailingRuleFirstInAllApprovalChain_whenItRejectsEverySolicitud() {
+        MotorReglasImpl motor = this.crearMotor("classpath:reglas-preaprobacion.properties");
+        RuleInputSnapshot snapshot = this.crearSnapshot(1);
+        snapshot.setInversion(90000f);
+        snapshot.setImporteNeto(100000f);
+        snapshot.setCuota(500f);
+        snapshot.setNacionalidad("IT");
+        for (var i = 0; i < 200; i++) {
+            Assertions.assertEquals("PA", motor.evaluar(snapshot).getResultado());
+        }
+
+        motor.reordenar();
+
+        EstadisticasReglas estadisticas = motor.getEstadisticas();
+        List<String> todas = this.nombres(estadisticas.getAprobacionTodas());
+        Assertions.assertTrue(todas.indexOf("NACIONALIDAD") < todas.indexOf("INVERSION"));
+        List<String> alguna = this.nombres(estadisticas.getAprobacionAlguna());
+        Assertions.assertTrue(alguna.indexOf("INVERSION") < alguna.indexOf("NACIONALIDAD"));
+        Assertions.assertEquals(1, estadisticas.getReordenaciones());
+        ReglaEstadisticas nacionalidad = estadisticas.getAprobacionTodas().get(todas.indexOf("NACIONALIDAD"));
+        Assertions.assertEquals(200, nacionalidad.getEvaluaciones());
+        Assertions.assertEquals(1.0, nacionalidad.getTasaRechazo());
+        Assertions.assertEquals(200, nacionalidad.getMuestras());
+        Assertions.assertEquals("PA", motor.evaluar(snapshot).getResultado());
+    }
+
+    @Test
+    void reordenar_shouldKeepOrderAndVersion_whenNothingEvaluated() {
+        MotorReglasImpl motor = this.crearMotor("classpath:reglas-preaprobacion.properties");
+        List<ReglaDefinicion> antes = motor.getReglas();
+
+        motor.reordenar();
+
+        Assertions.assertEquals(0, motor.getEstadisticas().getReordenaciones());
+        Assertions.assertEquals(antes.stream().map(ReglaDefinicion::getNombre).collect(Collectors.toList()),
+                motor.getReglas().stream().map(ReglaDefinicion::getNombre).collect(Collectors.toList()));
+        Assertions.assertEquals(1, motor.getVersion());
+    }
+}
@@ -0,0 +1,122 @@
+package com.babel.vehiclerentingapproval.services;
+
+import com.babel.vehiclerentingapproval.exceptions.InputIsNullOrIsEmpty;
+import com.babel.vehiclerentingapproval.models.PreAprobacionLote;
+import com.babel.vehiclerentingapproval.models.RuleInputSnapshot;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.RuleInputMapper;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.CalculateAutomaticResult;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.RegistroCifInforma;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.impl.CalculateAutomaticResultImpl;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.impl.MotorReglasImpl;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.impl.PreAprobacionLoteServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.math.BigInteger;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.anyList;
+
+class PreAprobacionLoteServiceTest {
+    private RuleInputMapper ruleInputMapper;
+    private PreAprobacionLoteServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        this.ruleInputMapper = Mockito.mock(RuleInputMapper.class);
+        RegistroCifInforma registroCifInforma = Mockito.mock(RegistroCifInforma.class);
+        Mockito.when(registroCifInforma.contiene("45442L")).thenReturn(true);
+        MotorReglasImpl motorReglas = new MotorReglasImpl(new DefaultResourceLoader(), registroCifInforma, "classpath:reglas-preaprobacion.properties", 1);
+        motorReglas.init();
+        CalculateAutomaticResult calculateAutomaticResult = new CalculateAutomaticResultImpl(motorReglas, null, this.ruleInputMapper);
+        this.service = new PreAprobacionLoteServiceImpl(this.ruleInputMapper, calculateAutomaticResult, 2, 2);
+
+        Mockito.when(this.ruleInputMapper.obtenerSnapshots(anyList())).thenAnswer(invocation -> {
+            List<Integer> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id < 100).map(this::createSnapshot).collect(Collectors.toList());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.service.close();
+    }
+
+    /**
+     * Crea una solicitud que cumple todas las reglas de preaprobacion salvo, si el id es par, la de scoring
+     */
+    private RuleInputSnapshot createSnapshot(int solicitudId) {
+        RuleInputSnapshot snapshot = new RuleInputSnapshot();
+        snapshot.setSolicitudId(solicitudId);
+        try {
+            snapshot.setFechaNacimiento(new SimpleDateFormat("dd-MM-yyyy").parse("13-06-1990"));
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+        snapshot.setPlazo(BigInteger.valueOf(3));
+        snapshot.setInversion(90000f);
+        snapshot.setCuota(500f);
+        snapshot.setImporteNeto(100000f);
+        snapshot.setScoring(solicitudId % 2 == 0 ? 5 : 1);
+        snapshot.setCifEmpleador("45442L");
+        snapshot.setNacionalidad("ES");
+        snapshot.setAniosEmpleo(10f);
+        snapshot.setSolicitudesNoAprobadasConGarantias(1);
+        snapshot.setSolicitudesNoRechazadas(1);
+        return snapshot;
+    }
+
+    @Test
+    void evaluarLote_shouldEvaluateEverySolicitudInChunks() {
+        List<Integer> ids = List.of(1, 2, 3, 4, 5);
+
+        PreAprobacionLote lote = this.service.evaluarLote(ids);
+
+        Assertions.assertEquals(3, lote.getBloques());
+        Assertions.assertEquals(5, lote.getResultados().size());
+        Assertions.assertEquals(ids, lote.getResultados().stream().map(r -> r.getSolicitudId()).collect(Collectors.toList()));
+        Assertions.assertEquals("AA", lote.getResultados().get(0).getResultado());
+        Assertions.assertEquals("PA", lote.getResultados().get(1).getResultado());
+        Assertions.assertFalse(lote.getResultados().get(1).getReglas().get("SCORING_PERSONA"));
+        Assertions.assertTrue(lote.getNoEncontradas().isEmpty());
+        Assertions.assertTrue(lote.getSolicitudesPorSegundo() > 0);
+        Mockito.verify(this.ruleInputMapper, Mockito.times(3)).obtenerSnapshots(anyList());
+    }
+
+    @Test
+    void evaluarLote_shouldReportMissingSolicitudesAndIgnoreDuplicates() {
+        PreAprobacionLote lote = this.service.evaluarLote(List.of(1, 1, 150, 3));
+
+        Assertions.assertEquals(2, lote.getResultados().size());
+        Assertions.assertEquals(List.of(150), lote.getNoEncontradas());
+        Mockito.verify(this.ruleInputMapper, Mockito.times(2)).obtenerSnapshots(anyList());
+    }
+
+    @Test
+    void evaluarLote_shouldDenyWhenAnyDenyRuleMatches() {
+        Mockito.when(this.ruleInputMapper.obtenerSnapshots(anyList())).thenAnswer(invocation -> {
+            RuleInputSnapshot snapshot = createSnapshot(1);
+            snapshot.setScoring(7);
+            return new ArrayList<>(List.of(snapshot));
+        });
+
+        PreAprobacionLote lote = this.service.evaluarLote(List.of(1));
+
+        Assertions.assertEquals("DM", lote.getResultados().get(0).getResultado());
+    }
+
+    @Test
+    void evaluarLote_shouldThrowInputIsNullOrIsEmpty_whenListIsEmpty() {
+        Assertions.assertThrows(InputIsNullOrIsEmpty.class, () -> this.service.evaluarLote(Collections.emptyList()));
+        Assertions.assertThrows(InputIsNullOrIsEmpty.class, () -> this.service.evaluarLote(null));
+    }
+}
@@ -1,20 +1,23 @@
 package com.babel.vehiclerentingapproval.services;
 
+import com.babel.vehiclerentingapproval.exceptions.SolicitudRentingNotFoundException;
+import com.babel.vehiclerentingapproval.models.EvaluacionReglas;
 import com.babel.vehiclerentingapproval.models.Pais;
 import com.babel.vehiclerentingapproval.models.Persona;
 import com.babel.vehiclerentingapproval.models.Renta;
+import com.babel.vehiclerentingapproval.models.RuleInputSnapshot;
 import com.babel.vehiclerentingapproval.models.SolicitudRenting;
 import com.babel.vehiclerentingapproval.persistance.database.mappers.*;
-import com.babel.vehiclerentingapproval.services.preautomaticresults.ApprovalRulesService;
 import com.babel.vehiclerentingapproval.services.preautomaticresults.CalculateAutomaticResult;
-import com.babel.vehiclerentingapproval.services.preautomaticresults.DenyRulesService;
-import com.babel.vehiclerentingapproval.services.preautomaticresults.impl.ApprovalRulesServiceImpl;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.MotorReglas;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.RegistroCifInforma;
 import com.babel.vehiclerentingapproval.services.preautomaticresults.impl.CalculateAutomaticResultImpl;
-import com.babel.vehiclerentingapproval.services.preautomaticresults.impl.DenyRulesServicesImpl;
+import com.babel.vehiclerentingapproval.services.preautomaticresults.impl.MotorReglasImpl;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.core.io.DefaultResourceLoader;
 
 import java.math.BigInteger;
 import java.text.ParseException;
@@ -25,9 +28,8 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.anyInt;
 
 class PreAutomaticResultServiceTest {
-    ApprovalRulesService approvalRulesService;
-    DenyRulesService denyRulesService;
     CalculateAutomaticResult calculateAutomaticResult;
+    MotorReglas motorReglas;
     private ClienteExistenteGaranteMapper clienteExistenteGaranteMapper;
     private ScoringRatingMapper scoringRatingMapper;
     private EmploymentSeniorityMapper employmentSeniorityMapper;
@@ -38,7 +40,10 @@ class PreAutomaticResultServiceTest {
     private ImpagosCuotaMapper impagosCuotaMapper;
     private ApprovalClienteMapper garantiaMapper;
     private AutomaticResultMapper automaticResultMapper;
+    private RuleInputMapper ruleInputMapper;
+    private RegistroCifInforma registroCifInforma;
     SolicitudRenting solicitud;
+    RuleInputSnapshot snapshot;
 
     Renta renta;
 
@@ -53,20 +58,23 @@ class PreAutomaticResultServiceTest {
         this.impagosCuotaMapper = Mockito.mock((ImpagosCuotaMapper.class));
         this.garantiaMapper = Mockito.mock((ApprovalClienteMapper.class));
         this.clienteExistenteGaranteMapper = Mockito.mock((ClienteExistenteGaranteMapper.class));
+        this.ruleInputMapper = Mockito.mock((RuleInputMapper.class));
+        this.registroCifInforma = Mockito.mock(RegistroCifInforma.class);
+        Mockito.when(registroCifInforma.contiene("45442L")).thenReturn(true);
 
         this.solicitud = this.createSolicitudMock();
         this.renta = this.createRentaMock();
-        this.denyRulesService = new DenyRulesServicesImpl();
-
-        this.approvalRulesService = new ApprovalRulesServiceImpl(this.scoringRatingMapper,
-                this.employmentSeniorityMapper, this.inversionIngresosMapper, this.salariedMapper,
-                this.impagosCuotaMapper, this.garantiaMapper, this.clienteExistenteGaranteMapper);
-        this.calculateAutomaticResult = new CalculateAutomaticResultImpl(this.denyRulesService,this.approvalRulesService,this.automaticResultMapper);
+        this.snapshot = this.createSnapshotMock();
+        Mockito.when(ruleInputMapper.obtenerSnapshot(anyInt())).thenReturn(this.snapshot);
+        MotorReglasImpl motor = new MotorReglasImpl(new DefaultResourceLoader(), this.registroCifInforma, "classpath:reglas-preaprobacion.properties", 1);
+        motor.init();
+        this.motorReglas = motor;
+        this.calculateAutomaticResult = new CalculateAutomaticResultImpl(this.motorReglas,this.automaticResultMapper,this.ruleInputMapper);
     }
 
     private SolicitudRenting createSolicitudMock() {
         SolicitudRenting solicitud = new SolicitudRenting();
-        Persona persona = new Persona(persona.getPersonaId(), persona.getNombre(), persona.getEmail(), persona.getPassword());
+        Persona persona = new Persona();
         persona.setPersonaId(104);
         persona.setNombre("John");
         persona.setApellido1("Doe");
@@ -84,6 +92,21 @@ class PreAutomaticResultServiceTest {
         return solicitud;
     }
 
+    /**
+     * Datos de entrada de las reglas que devuelve la consulta conjunta para la solicitud
+     */
+    private RuleInputSnapshot createSnapshotMock() {
+        RuleInputSnapshot snapshot = new RuleInputSnapshot();
+        snapshot.setSolicitudId(this.solicitud.getSolicitudId());
+        snapshot.setPersonaId(104);
+        snapshot.setNacionalidad("ES");
+        snapshot.setScoring(750);
+        snapshot.setInversion(10000f);
+        snapshot.setCuota(500f);
+        snapshot.setPlazo(BigInteger.valueOf(36));
+        return snapshot;
+    }
+
     /**
      * Este metodo no seq
      * @return Renta que es
@@ -91,7 +114,7 @@ class PreAutomaticResultServiceTest {
      */
     private Renta createRentaMock() throws ParseException {
         Renta renta = new Renta();
-        Persona persona = new Persona(persona.getPersonaId(), persona.getNombre(), persona.getEmail(), persona.getPassword());
+        Persona persona = new Persona();
         persona.setNombre("John");
         persona.setApellido1("Doe");
         persona.setApellido2("Doe");
@@ -105,10 +128,10 @@ class PreAutomaticResultServiceTest {
 
     @Test
      void validateFindAnyDeny_shouldBeTrue_whenAllFalse() throws ParseException {
-        this.solicitud.getPersona().setFechaNacimiento(new SimpleDateFormat("dd-MM-yyyy").parse("13-06-2000"));
-        this.solicitud.getPersona().setScoring(1);
+        this.snapshot.setFechaNacimiento(new SimpleDateFormat("dd-MM-yyyy").parse("13-06-2000"));
+        this.snapshot.setScoring(1);
         BigInteger num2 = BigInteger.valueOf(10);
-        this.solicitud.setPlazo(num2);
+        this.snapshot.setPlazo(num2);
         boolean validateFindAnyDeny = this.calculateAutomaticResult.findAnyDeny(solicitud);
 
         Assertions.assertTrue(validateFindAnyDeny);
@@ -116,10 +139,10 @@ class PreAutomaticResultServiceTest {
     }
     @Test
      void validateFindAnyDeny_shouldBeFalse_whenAnyTrue() throws ParseException {
-        this.solicitud.getPersona().setFechaNacimiento(new SimpleDateFormat("dd-MM-yyyy").parse("13-06-2016"));
-        this.solicitud.getPersona().setScoring(1);
+        this.snapshot.setFechaNacimiento(new SimpleDateFormat("dd-MM-yyyy").parse("13-06-2016"));
+        this.snapshot.setScoring(1);
         BigInteger num2 = BigInteger.valueOf(10);
-        this.solicitud.setPlazo(num2);
+        this.snapshot.setPlazo(num2);
         boolean validateFindAnyDeny = this.calculateAutomaticResult.findAnyDeny(solicitud);
 
         Assertions.assertFalse(validateFindAnyDeny);
@@ -128,22 +151,16 @@ class PreAutomaticResultServiceTest {
 
     @Test
      void validateFindAllApproval_shouldBeTrue_whenAllTrue() throws ParseException {
-        this.solicitud.setInversion(10000f);
-        Mockito.when(inversionIngresosMapper.obtenerImporteNetoRenta(solicitud)).thenReturn(90000f);
-        Mockito.when(inversionIngresosMapper.obtenerInversionSolicitud(solicitud)).thenReturn(90000f);
-        Mockito.when(scoringRatingMapper.obtenercScoringPersona(solicitud)).thenReturn(3f);
-        Mockito.when(impagosCuotaMapper.obtenerImporteImpagoInterno(solicitud)).thenReturn(10f);
-        this.solicitud.setCuota(20f);
-        List<String> listaValores = new ArrayList<>();
-        listaValores.add("45442L");
-        listaValores.add("45442L");
-        listaValores.add("45442L");
-        Mockito.when(salariedMapper.obtenerCIFSolicitud(solicitud)).thenReturn("45442L");
-        Mockito.when(salariedMapper.obtenerCIFInforma()).thenReturn(listaValores);
-        this.solicitud.getPersona().getNacionalidad().setIsoAlfa2("ES");
-        Mockito.when(employmentSeniorityMapper.obtenerFechaInicioEmpleoSolicitud(solicitud)).thenReturn(10f);
-        Mockito.when(garantiaMapper.existeClienteAprobadoConGarantias(anyInt())).thenReturn(1);
-        Mockito.when(garantiaMapper.existeClienteRechazadoPreviamente(anyInt())).thenReturn(1);
+        this.snapshot.setInversion(90000f);
+        this.snapshot.setImporteNeto(90000f);
+        this.snapshot.setScoring(3);
+        this.snapshot.setImporteImpagoInterno(10f);
+        this.snapshot.setCuota(20f);
+        this.snapshot.setCifEmpleador("45442L");
+        this.snapshot.setNacionalidad("ES");
+        this.snapshot.setAniosEmpleo(10f);
+        this.snapshot.setSolicitudesNoAprobadasConGarantias(1);
+        this.snapshot.setSolicitudesNoRechazadas(1);
 
        boolean validateFindAllApproval = this.calculateAutomaticResult.findAllApproval(solicitud);
 
@@ -152,22 +169,16 @@ class PreAutomaticResultServiceTest {
     }
     @Test
      void validateFindAllApproval_shouldBeFalse_whenAnyFalse() throws ParseException {
-        this.solicitud.setInversion(90000f);
-        Mockito.when(inversionIngresosMapper.obtenerImporteNetoRenta(solicitud)).thenReturn(90000f);
-        Mockito.when(inversionIngresosMapper.obtenerInversionSolicitud(solicitud)).thenReturn(90000f);
-        Mockito.when(scoringRatingMapper.obtenercScoringPersona(solicitud)).thenReturn(8f);
-        Mockito.when(impagosCuotaMapper.obtenerImporteImpagoInterno(solicitud)).thenReturn(10f);
-        this.solicitud.setCuota(20f);
-        List<String> listaValores = new ArrayList<>();
-        listaValores.add("45442L");
-        listaValores.add("45442L");
-        listaValores.add("45442L");
-        Mockito.when(salariedMapper.obtenerCIFSolicitud(solicitud)).thenReturn("45442L");
-        Mockito.when(salariedMapper.obtenerCIFInforma()).thenReturn(listaValores);
-        this.solicitud.getPersona().getNacionalidad().setIsoAlfa2("ES");
-        Mockito.when(employmentSeniorityMapper.obtenerFechaInicioEmpleoSolicitud(solicitud)).thenReturn(10f);
-        Mockito.when(garantiaMapper.existeClienteAprobadoConGarantias(anyInt())).thenReturn(1);
-        Mockito.when(garantiaMapper.existeClienteRechazadoPreviamente(anyInt())).thenReturn(1);
+        this.snapshot.setInversion(90000f);
+        this.snapshot.setImporteNeto(90000f);
+        this.snapshot.setScoring(8);
+        this.snapshot.setImporteImpagoInterno(10f);
+        this.snapshot.setCuota(20f);
+        this.snapshot.setCifEmpleador("45442L");
+        this.snapshot.setNacionalidad("ES");
+        this.snapshot.setAniosEmpleo(10f);
+        this.snapshot.setSolicitudesNoAprobadasConGarantias(1);
+        this.snapshot.setSolicitudesNoRechazadas(1);
 
         boolean validateFindAllApproval = this.calculateAutomaticResult.findAllApproval(solicitud);
 
@@ -177,22 +188,16 @@ class PreAutomaticResultServiceTest {
 
     @Test
      void validateFindAnyApproval_shouldBeTrue_whenAnyTrue() throws ParseException {
-        this.solicitud.setInversion(10000f);
-        Mockito.when(inversionIngresosMapper.obtenerImporteNetoRenta(solicitud)).thenReturn(90000f);
-        Mockito.when(inversionIngresosMapper.obtenerInversionSolicitud(solicitud)).thenReturn(90000f);
-        Mockito.when(scoringRatingMapper.obtenercScoringPersona(solicitud)).thenReturn(3f);
-        Mockito.when(impagosCuotaMapper.obtenerImporteImpagoInterno(solicitud)).thenReturn(10f);
-        this.solicitud.setCuota(20f);
-        List<String> listaValores = new ArrayList<>();
-        listaValores.add("45442L");
-        listaValores.add("45442L");
-        listaValores.add("45442L");
-        Mockito.when(salariedMapper.obtenerCIFSolicitud(solicitud)).thenReturn("45442L");
-        Mockito.when(salariedMapper.obtenerCIFInforma()).thenReturn(listaValores);
-        this.solicitud.getPersona().getNacionalidad().setIsoAlfa2("ES");
-        Mockito.when(employmentSeniorityMapper.obtenerFechaInicioEmpleoSolicitud(solicitud)).thenReturn(10f);
-        Mockito.when(garantiaMapper.existeClienteAprobadoConGarantias(anyInt())).thenReturn(1);
-        Mockito.when(garantiaMapper.existeClienteRechazadoPreviamente(anyInt())).thenReturn(1);
+        this.snapshot.setInversion(90000f);
+        this.snapshot.setImporteNeto(90000f);
+        this.snapshot.setScoring(3);
+        this.snapshot.setImporteImpagoInterno(10f);
+        this.snapshot.setCuota(20f);
+        this.snapshot.setCifEmpleador("45442L");
+        this.snapshot.setNacionalidad("ES");
+        this.snapshot.setAniosEmpleo(10f);
+        this.snapshot.setSolicitudesNoAprobadasConGarantias(1);
+        this.snapshot.setSolicitudesNoRechazadas(1);
 
         boolean validateFindAnyApproval = this.calculateAutomaticResult.findAnyApproval(solicitud);
 
@@ -201,22 +206,16 @@ class PreAutomaticResultServiceTest {
     }
     @Test
      void validateFindAnyApproval_shouldBeFalse_whenAnyFalse() throws ParseException {
-        this.solicitud.setInversion(90000f);
-        Mockito.when(inversionIngresosMapper.obtenerImporteNetoRenta(solicitud)).thenReturn(90000f);
-        Mockito.when(inversionIngresosMapper.obtenerInversionSolicitud(solicitud)).thenReturn(90000f);
-        Mockito.when(scoringRatingMapper.obtenercScoringPersona(solicitud)).thenReturn(8f);
-        Mockito.when(impagosCuotaMapper.obtenerImporteImpagoInterno(solicitud)).thenReturn(10f);
-        this.solicitud.setCuota(20f);
-        List<String> listaValores = new ArrayList<>();
-        listaValores.add("45442L");
-        listaValores.add("45442L");
-        listaValores.add("45442L");
-        Mockito.when(salariedMapper.obtenerCIFSolicitud(solicitud)).thenReturn("45442L");
-        Mockito.when(salariedMapper.obtenerCIFInforma()).thenReturn(listaValores);
-        this.solicitud.getPersona().getNacionalidad().setIsoAlfa2("ES");
-        Mockito.when(employmentSeniorityMapper.obtenerFechaInicioEmpleoSolicitud(solicitud)).thenReturn(10f);
-        Mockito.when(garantiaMapper.existeClienteAprobadoConGarantias(anyInt())).thenReturn(1);
-        Mockito.when(garantiaMapper.existeClienteRechazadoPreviamente(anyInt())).thenReturn(1);
+        this.snapshot.setInversion(90000f);
+        this.snapshot.setImporteNeto(90000f);
+        this.snapshot.setScoring(8);
+        this.snapshot.setImporteImpagoInterno(10f);
+        this.snapshot.setCuota(20f);
+        this.snapshot.setCifEmpleador("45442L");
+        this.snapshot.setNacionalidad("ES");
+        this.snapshot.setAniosEmpleo(10f);
+        this.snapshot.setSolicitudesNoAprobadasConGarantias(1);
+        this.snapshot.setSolicitudesNoRechazadas(1);
 
         boolean validateFindAnyApproval = this.calculateAutomaticResult.findAllApproval(solicitud);
 
@@ -224,6 +223,59 @@ class PreAutomaticResultServiceTest {
 
     }
 
+    @Test
+    void totalResult_shouldLoadRuleInputsWithSingleQuery() throws ParseException {
+        this.snapshot.setFechaNacimiento(new SimpleDateFormat("dd-MM-yyyy").parse("13-06-1990"));
+        this.snapshot.setScoring(8);
+        this.snapshot.setPlazo(BigInteger.valueOf(3));
+
+        String resultado = this.calculateAutomaticResult.totalResult(solicitud);
+
+        Assertions.assertEquals("DM", resultado);
+        Mockito.verify(ruleInputMapper, Mockito.times(1)).obtenerSnapshot(anyInt());
+        Mockito.verifyNoInteractions(inversionIngresosMapper, scoringRatingMapper, impagosCuotaMapper, salariedMapper, employmentSeniorityMapper, garantiaMapper);
+    }
+
+    @Test
+    void totalResult_shouldThrowSolicitudRentingNotFoundException_whenSolicitudNotExists() {
+        Mockito.when(ruleInputMapper.obtenerSnapshot(anyInt())).thenReturn(null);
+
+        Assertions.assertThrows(SolicitudRentingNotFoundException.class, () -> this.calculateAutomaticResult.totalResult(solicitud));
+    }
+
+    @Test
+    void evaluar_shouldEvaluateEachRuleOnce_whenFindAllApprovalFails() throws ParseException {
+        this.snapshot.setFechaNacimiento(new SimpleDateFormat("dd-MM-yyyy").parse("13-06-1990"));
+        this.snapshot.setScoring(1);
+        this.snapshot.setPlazo(BigInteger.valueOf(3));
+        this.snapshot.setCifEmpleador("45442L");
+        this.snapshot.setInversion(90000f);
+        this.snapshot.setImporteNeto(1000f);
+
+        EvaluacionReglas evaluacion = this.calculateAutomaticResult.evaluar(solicitud);
+
+        Assertions.assertEquals("PA", evaluacion.getResultado());
+        Assertions.assertEquals(List.of("EDAD_MINIMA", "EDAD_MAS_PLAZO", "SCORING_TITULAR", "INVERSION", "INVERSION_INGRESOS"),
+                new ArrayList<>(evaluacion.getReglas().keySet()));
+        Assertions.assertFalse(evaluacion.getReglas().get("INVERSION_INGRESOS"));
+        Assertions.assertFalse(evaluacion.getReglas().containsKey("CIF_CLIENTE"));
+        Assertions.assertEquals(this.motorReglas.getVersion(), evaluacion.getVersionReglas());
+    }
+
+    @Test
+    void evaluar_shouldReturnDM_whenNoApprovalRuleMatches() throws ParseException {
+        this.snapshot.setFechaNacimiento(new SimpleDateFormat("dd-MM-yyyy").parse("13-06-1990"));
+        this.snapshot.setScoring(5);
+        this.snapshot.setPlazo(BigInteger.valueOf(3));
+        this.snapshot.setNacionalidad("IT");
+        this.snapshot.setImporteImpagoInterno(1000f);
+
+        EvaluacionReglas evaluacion = this.calculateAutomaticResult.evaluar(solicitud);
+
+        Assertions.assertEquals("DM", evaluacion.getResultado());
+        Assertions.assertEquals(this.motorReglas.getReglas().size(), evaluacion.getReglas().size());
+    }
+
      void validateTotalResult() throws ParseException {
         this.solicitud.getPersona().setFechaNacimiento(new SimpleDateFormat("dd-MM-yyyy").parse("13-06-2000"));
         this.solicitud.getPersona().setScoring(1);
@@ -0,0 +1,107 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import com.babel.vehiclerentingapproval.models.*;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.AltaPersonaMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+class AltaPersonasLoteTest {
+    private JdbcSimulado baseDatos;
+    private AltaPersonasLote altaPersonasLote;
+
+    @BeforeEach
+    void setUp() {
+        this.baseDatos = new JdbcSimulado(0);
+        this.altaPersonasLote = new AltaPersonasLote(this.baseDatos.crearSqlSessionFactory(AltaPersonaMapper.class));
+    }
+
+    @Test
+    void insertar_shouldUseOneQueryAndOneBatchPerTable() {
+        Persona persona = persona(false, 5);
+
+        this.altaPersonasLote.insertar(List.of(persona));
+
+        List<String> sentencias = this.baseDatos.getSentencias();
+        Assertions.assertEquals(4, this.baseDatos.getViajes(), sentencias.toString());
+        Assertions.assertTrue(sentencias.get(0).startsWith("SELECT"));
+        Assertions.assertTrue(sentencias.get(1).startsWith("INSERT INTO DIRECCION"));
+        Assertions.assertTrue(sentencias.get(2).startsWith("INSERT INTO PERSONA"));
+        Assertions.assertTrue(sentencias.get(3).startsWith("INSERT INTO TELEFONO_CONTACTO"));
+        Assertions.assertEquals(8, this.baseDatos.getFilas());
+    }
+
+    @Test
+    void insertar_shouldAssignDistinctIds_beforeInserting() {
+        List<Persona> personas = List.of(persona(false, 2), persona(true, 3), persona(false, 0));
+
+        this.altaPersonasLote.insertar(personas);
+
+        Set<Integer> direcciones = new HashSet<>();
+        Set<Integer> telefonos = new HashSet<>();
+        Set<Integer> ids = new HashSet<>();
+        for (Persona persona : personas) {
+            Assertions.assertTrue(persona.getPersonaId() > 0);
+            ids.add(persona.getPersonaId());
+            direcciones.add(persona.getDireccionDomicilio().getDireccionId());
+            direcciones.add(persona.getDireccionNotificacion().getDireccionId());
+            persona.getTelefonos().forEach(telefono -> telefonos.add(telefono.getTelefonoId()));
+        }
+        Assertions.assertEquals(3, ids.size());
+        Assertions.assertEquals(5, direcciones.size());
+        Assertions.assertEquals(5, telefonos.size());
+        Assertions.assertEquals(4, this.baseDatos.getViajes());
+        Assertions.assertEquals(5 + 3 + 5, this.baseDatos.getFilas());
+    }
+
+    @Test
+    void insertar_shouldInsertSharedAddressOnce() {
+        Persona persona = persona(true, 1);
+
+        this.altaPersonasLote.insertar(List.of(persona));
+
+        Assertions.assertSame(persona.getDireccionDomicilio(), persona.getDireccionNotificacion());
+        Assertions.assertEquals(1 + 1 + 1, this.baseDatos.getFilas());
+    }
+
+    @Test
+    void insertar_shouldDoNothing_whenListIsEmpty() {
+        this.altaPersonasLote.insertar(List.of());
+
+        Assertions.assertEquals(0, this.baseDatos.getViajes());
+    }
+
+    static Persona persona(boolean mismaDireccion, int numeroTelefonos) {
+        var persona = new Persona("juan@example.com", "Juan", null);
+        persona.setNombre("Juan");
+        persona.setApellido1("Francés");
+        persona.setNif("1111112F");
+        persona.setEmail("juan@example.com");
+        persona.setNacionalidad(new Pais("ES", 724, "ESP", "ESPAÑA", 1));
+        persona.setDireccionDomicilio(direccion("Gran via"));
+        persona.setDireccionNotificacion(mismaDireccion ? persona.getDireccionDomicilio() : direccion("Plaza nueva"));
+        persona.setDireccionDomicilioSameAsNotificacion(mismaDireccion);
+        List<TelefonoContacto> telefonos = new ArrayList<>();
+        for (var i = 0; i < numeroTelefonos; i++) {
+            telefonos.add(new TelefonoContacto(0, "60000000" + i));
+        }
+        persona.setTelefonos(telefonos);
+        return persona;
+    }
+
+    private static Direccion direccion(String calle) {
+        var direccion = new Direccion();
+        direccion.setNombreCalle(calle);
+        direccion.setNumero("1");
+        direccion.setCodPostal("41001");
+        direccion.setMunicipio("Sevilla");
+        direccion.setTipoViaId(new TipoVia(1, "Calle"));
+        direccion.setProvincia(new Provincia("SVQ", "Sevilla"));
+        return direccion;
+    }
+}
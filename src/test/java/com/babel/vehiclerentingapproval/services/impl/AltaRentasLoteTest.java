@@ -0,0 +1,65 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import com.babel.vehiclerentingapproval.models.Persona;
+import com.babel.vehiclerentingapproval.models.Profesion;
+import com.babel.vehiclerentingapproval.models.Renta;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.RentaMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+class AltaRentasLoteTest {
+    private JdbcSimulado baseDatos;
+    private AltaRentasLote altaRentasLote;
+
+    @BeforeEach
+    void setUp() {
+        this.baseDatos = new JdbcSimulado(0);
+        this.altaRentasLote = new AltaRentasLote(this.baseDatos.crearSqlSessionFactory(RentaMapper.class));
+    }
+
+    @Test
+    void insertar_shouldUseOneQueryAndOneBatch_andAssignDistinctIds() {
+        List<Renta> rentas = new ArrayList<>();
+        for (var i = 0; i < 250; i++) {
+            rentas.add(renta(i));
+        }
+
+        this.altaRentasLote.insertar(rentas);
+
+        List<String> sentencias = this.baseDatos.getSentencias();
+        Assertions.assertEquals(2, this.baseDatos.getViajes(), sentencias.toString());
+        Assertions.assertTrue(sentencias.get(0).startsWith("SELECT RENTA_ANUAL_SEQ"));
+        Assertions.assertTrue(sentencias.get(1).startsWith("INSERT INTO RENTA_ANUAL"));
+        Assertions.assertEquals(250, this.baseDatos.getFilas());
+        Set<Integer> ids = new HashSet<>();
+        rentas.forEach(renta -> ids.add(renta.getRentaId()));
+        Assertions.assertEquals(250, ids.size());
+        Assertions.assertFalse(ids.contains(0));
+    }
+
+    @Test
+    void insertar_shouldDoNothing_whenListIsEmpty() {
+        this.altaRentasLote.insertar(List.of());
+
+        Assertions.assertEquals(0, this.baseDatos.getViajes());
+    }
+
+    static Renta renta(int personaId) {
+        var persona = new Persona();
+        persona.setPersonaId(personaId);
+        var renta = new Renta();
+        renta.setPersona(persona);
+        renta.setProfesion(new Profesion(1, null));
+        renta.setAnio(2023);
+        renta.setImporteNeto(25000);
+        renta.setImporteBruto(32000);
+        renta.setIae("12");
+        return renta;
+    }
+}
@@ -0,0 +1,83 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import com.babel.vehiclerentingapproval.models.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+class CambiosPersonaTest {
+
+    @Test
+    void columnasPersona_shouldCompareDatesByDay() {
+        Persona persona = persona();
+        persona.setFechaNacimiento(Timestamp.valueOf(LocalDateTime.of(1980, 12, 29, 17, 30)));
+        PersonaGuardada guardada = guardada();
+        guardada.setFechaNacimiento(java.sql.Date.valueOf("1980-12-29"));
+
+        Assertions.assertEquals(Set.of(), CambiosPersona.columnasPersona(guardada, persona));
+
+        guardada.setFechaNacimiento(java.sql.Date.valueOf("1980-12-28"));
+        Assertions.assertEquals(Set.of("FECHA_NACIMIENTO"), CambiosPersona.columnasPersona(guardada, persona));
+    }
+
+    @Test
+    void columnasPersona_shouldReturnChangedColumns() {
+        Persona persona = persona();
+        persona.setEmail("nuevo@example.com");
+        persona.setNacionalidad(new Pais("FR", 250, "FRA", "FRANCIA", 2));
+
+        Assertions.assertEquals(Set.of("EMAIL", "NACIONALIDAD"), CambiosPersona.columnasPersona(guardada(), persona));
+    }
+
+    @Test
+    void columnasDireccion_shouldDetectNullsAndNestedIds() {
+        Direccion guardada = direccion();
+        Direccion direccion = direccion();
+        direccion.setPiso("2");
+        direccion.setProvincia(new Provincia("MAD", "Madrid"));
+
+        Assertions.assertEquals(Set.of("PISO", "COD_PROVINCIA"), CambiosPersona.columnasDireccion(guardada, direccion));
+        Assertions.assertEquals(Set.of(), CambiosPersona.columnasDireccion(guardada, direccion()));
+    }
+
+    private static Persona persona() {
+        Persona persona = new Persona("juan@example.com", "Juan", null);
+        persona.setPersonaId(1);
+        persona.setNombre("Juan");
+        persona.setApellido1("Francés");
+        persona.setNif("1111112F");
+        persona.setEmail("juan@example.com");
+        persona.setNacionalidad(new Pais("ES", 724, "ESP", "ESPAÑA", 1));
+        persona.setDireccionDomicilio(direccion());
+        persona.setDireccionNotificacion(persona.getDireccionDomicilio());
+        return persona;
+    }
+
+    private static PersonaGuardada guardada() {
+        PersonaGuardada guardada = new PersonaGuardada();
+        guardada.setPersonaId(1);
+        guardada.setNombre("Juan");
+        guardada.setApellido1("Francés");
+        guardada.setNif("1111112F");
+        guardada.setEmail("juan@example.com");
+        guardada.setNacionalidad("ES");
+        guardada.setDireccionDomicilioId(10);
+        guardada.setDireccionNotificacionId(10);
+        return guardada;
+    }
+
+    private static Direccion direccion() {
+        Direccion direccion = new Direccion();
+        direccion.setDireccionId(10);
+        direccion.setNombreCalle("Gran via");
+        direccion.setNumero("1");
+        direccion.setCodPostal("41001");
+        direccion.setMunicipio("Sevilla");
+        direccion.setTipoViaId(new TipoVia(1, "Calle"));
+        direccion.setProvincia(new Provincia("SVQ", "Sevilla"));
+        return direccion;
+    }
+}
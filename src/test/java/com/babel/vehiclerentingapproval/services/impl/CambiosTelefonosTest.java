@@ -0,0 +1,72 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import com.babel.vehiclerentingapproval.models.TelefonoContacto;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class CambiosTelefonosTest {
+
+    @Test
+    void calcular_shouldWriteNothing_whenPhonesAreUnchanged() {
+        var nuevos = List.of(new TelefonoContacto(0, "600000001"), new TelefonoContacto(2, "600000002"));
+
+        var cambios = CambiosTelefonos.calcular(guardados(), nuevos);
+
+        Assertions.assertTrue(cambios.getInsertar().isEmpty());
+        Assertions.assertTrue(cambios.getActualizar().isEmpty());
+        Assertions.assertTrue(cambios.getBorrar().isEmpty());
+        Assertions.assertEquals(1, nuevos.get(0).getTelefonoId());
+    }
+
+    @Test
+    void calcular_shouldUpdate_whenNumberOfKnownIdChanges() {
+        var cambiado = new TelefonoContacto(2, "699999999");
+
+        var cambios = CambiosTelefonos.calcular(guardados(), List.of(new TelefonoContacto(1, "600000001"), cambiado));
+
+        Assertions.assertEquals(List.of(cambiado), cambios.getActualizar());
+        Assertions.assertTrue(cambios.getInsertar().isEmpty());
+        Assertions.assertTrue(cambios.getBorrar().isEmpty());
+    }
+
+    @Test
+    void calcular_shouldReuseLeftoverRow_beforeInserting() {
+        var nuevo = new TelefonoContacto(0, "677777777");
+        var otro = new TelefonoContacto(0, "688888888");
+
+        var cambios = CambiosTelefonos.calcular(guardados(), List.of(new TelefonoContacto(0, "600000002"), nuevo, otro));
+
+        Assertions.assertEquals(List.of(nuevo), cambios.getActualizar());
+        Assertions.assertEquals(1, nuevo.getTelefonoId());
+        Assertions.assertEquals(List.of(otro), cambios.getInsertar());
+        Assertions.assertTrue(cambios.getBorrar().isEmpty());
+    }
+
+    @Test
+    void calcular_shouldDeleteOnlyRemovedPhones() {
+        var cambios = CambiosTelefonos.calcular(guardados(), List.of(new TelefonoContacto(0, "600000002")));
+
+        Assertions.assertEquals(1, cambios.getBorrar().size());
+        Assertions.assertEquals(1, cambios.getBorrar().get(0).getTelefonoId());
+        Assertions.assertTrue(cambios.getActualizar().isEmpty());
+        Assertions.assertTrue(cambios.getInsertar().isEmpty());
+    }
+
+    @Test
+    void calcular_shouldIgnoreIdsOfOtherPersons() {
+        var ajeno = new TelefonoContacto(99, "600000001");
+
+        var cambios = CambiosTelefonos.calcular(guardados(), List.of(ajeno, new TelefonoContacto(2, "600000002")));
+
+        Assertions.assertEquals(1, ajeno.getTelefonoId());
+        Assertions.assertTrue(cambios.getActualizar().isEmpty());
+        Assertions.assertTrue(cambios.getInsertar().isEmpty());
+        Assertions.assertTrue(cambios.getBorrar().isEmpty());
+    }
+
+    private static List<TelefonoContacto> guardados() {
+        return List.of(new TelefonoContacto(1, "600000001"), new TelefonoContacto(2, "600000002"));
+    }
+}
@@ -2,9 +2,9 @@ package com.babel.vehiclerentingapproval.services.impl;
 
 import com.babel.vehiclerentingapproval.exceptions.EstadoSolicitudInvalidException;
 import com.babel.vehiclerentingapproval.exceptions.EstadoSolicitudNotFoundException;
-import com.babel.vehiclerentingapproval.persistance.database.mappers.TipoResultadoSolicitudMapper;
 import com.babel.vehiclerentingapproval.services.CodigoResolucionValidator;
 import com.babel.vehiclerentingapproval.services.impl.CodigoResolucionValidatorImpl;
+import com.babel.vehiclerentingapproval.services.referencia.CatalogoResoluciones;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -16,12 +16,12 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 
 class CodigoResolucionValidatorImplTest {
-    TipoResultadoSolicitudMapper tipoResultadoSolicitudMapper;
+    CatalogoResoluciones catalogoResoluciones;
     CodigoResolucionValidator codigoResolucionValidator;
     @BeforeEach
     void setUpAll(){
-        tipoResultadoSolicitudMapper = Mockito.mock(TipoResultadoSolicitudMapper.class);
-        codigoResolucionValidator = new CodigoResolucionValidatorImpl(tipoResultadoSolicitudMapper);
+        catalogoResoluciones = Mockito.mock(CatalogoResoluciones.class);
+        codigoResolucionValidator = new CodigoResolucionValidatorImpl(catalogoResoluciones);
     }
 
     /*
@@ -29,14 +29,14 @@ class CodigoResolucionValidatorImplTest {
     class TestsvalidarCodResolucion{
         @Test
         void verEstadoSolicitud_shouldThrow_EstadoSolicitudInvalidException_when_codSolicitudNotValid(){
-            Mockito.when(tipoResultadoSolicitudMapper.codigoValido(anyString())).thenReturn(0);
+            Mockito.when(catalogoResoluciones.esValido(anyString())).thenReturn(false);
             Assertions.assertThrows(EstadoSolicitudInvalidException.class,() ->{
                 codigoResolucionValidator.validarCodResolucion(anyString());
             });
         } */
     @Test
     void verEstadoSolicitud_shouldThrow_EstadoSolicitudInvalidException_when_codSolicitudNotValid(){
-        Mockito.when(tipoResultadoSolicitudMapper.codigoValido(anyString())).thenReturn(0);
+        Mockito.when(catalogoResoluciones.esValido(anyString())).thenReturn(false);
         String codSolicitud = anyString();
         assertThrows(EstadoSolicitudInvalidException.class,
                 () -> codigoResolucionValidator.validarCodResolucion(codSolicitud),
@@ -44,7 +44,7 @@ class CodigoResolucionValidatorImplTest {
     }
         @Test
         void verEstadoSolicitud_shouldNotThrow_EstadoSolicitudInvalidException_when_codSolicitudNotValid(){
-            Mockito.when(tipoResultadoSolicitudMapper.codigoValido(anyString())).thenReturn(1);
+            Mockito.when(catalogoResoluciones.esValido(anyString())).thenReturn(true);
 
             Assertions.assertDoesNotThrow(()->{
                 codigoResolucionValidator.validarCodResolucion(anyString());
@@ -0,0 +1,232 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import com.babel.vehiclerentingapproval.exceptions.EmailNotSentException;
+import com.babel.vehiclerentingapproval.models.CorreoElectronico;
+import com.babel.vehiclerentingapproval.models.EstadisticasEnvioCorreo;
+import com.babel.vehiclerentingapproval.models.ResultadoEnvioCorreo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+class EmailServiceImplTest {
+    private ServidorSmtpFalso servidor;
+    private EmailServiceImpl emailService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        this.servidor = new ServidorSmtpFalso();
+        this.emailService = new EmailServiceImpl(crearMailSender(this.servidor.getPuerto()), 2, 5000, 30000, 0, 100, 0, 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        this.emailService.close();
+        this.servidor.close();
+    }
+
+    @Test
+    void sendMail_shouldReuseConnection_acrossMessages() {
+        for (var i = 0; i < 10; i++) {
+            Assertions.assertTrue(this.emailService.sendMail("Mensaje " + i, "destino@example.com", "Asunto"));
+        }
+
+        Assertions.assertEquals(10, this.servidor.getMensajes());
+        Assertions.assertEquals(1, this.servidor.getConexiones());
+    }
+
+    @Test
+    void sendMail_shouldNotOpenMoreConnectionsThanPoolSize() throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Boolean>> envios = new ArrayList<>();
+            for (var i = 0; i < 40; i++) {
+                envios.add(CompletableFuture.supplyAsync(() -> this.emailService.sendMail("Mensaje", "destino@example.com", "Asunto"), hilos));
+            }
+            envios.forEach(CompletableFuture::join);
+        } finally {
+            hilos.shutdown();
+        }
+
+        Assertions.assertEquals(40, this.servidor.getMensajes());
+        Assertions.assertTrue(this.servidor.getConexiones() <= 2, "conexiones: " + this.servidor.getConexiones());
+    }
+
+    @Test
+    void sendMail_shouldReconnect_whenServerDroppedIdleConnection() throws Exception {
+        this.emailService.sendMail("Mensaje", "destino@example.com", "Asunto");
+        this.servidor.cortarConexiones();
+
+        Assertions.assertTrue(this.emailService.sendMail("Mensaje", "destino@example.com", "Asunto"));
+
+        Assertions.assertEquals(2, this.servidor.getMensajes());
+        Assertions.assertEquals(2, this.servidor.getConexiones());
+    }
+
+    @Test
+    void sendMail_shouldRetryOnNewConnection_whenReusedConnectionFailsWithEof() throws Exception {
+        this.emailService.close();
+        this.emailService = new EmailServiceImpl(crearMailSender(this.servidor.getPuerto()), 2, 5000, 30000, 60000, 100, 0, 2, 100);
+        this.emailService.sendMail("Mensaje", "destino@example.com", "Asunto");
+        this.servidor.cortarConexiones();
+
+        Assertions.assertTrue(this.emailService.sendMail("Mensaje", "destino@example.com", "Asunto"));
+
+        Assertions.assertEquals(2, this.servidor.getMensajes());
+        Assertions.assertEquals(2, this.servidor.getConexiones());
+        Assertions.assertEquals(1, this.emailService.getEstadisticas().getConexionesAbiertas());
+    }
+
+    @Test
+    void sendMails_shouldSendBatchOverOneConnection_andReportEachMessage() {
+        List<CorreoElectronico> correos = new ArrayList<>();
+        for (var i = 0; i < 10; i++) {
+            correos.add(new CorreoElectronico((i == 3 ? "rechazado" : "destino" + i) + "@example.com", "Asunto", "Mensaje " + i));
+        }
+
+        List<ResultadoEnvioCorreo> resultados = this.emailService.sendMails(correos);
+
+        Assertions.assertEquals(10, resultados.size());
+        for (var i = 0; i < 10; i++) {
+            Assertions.assertEquals(correos.get(i).getDestino(), resultados.get(i).getDestino());
+            Assertions.assertEquals(i != 3, resultados.get(i).isEnviado());
+        }
+        Assertions.assertNotNull(resultados.get(3).getError());
+        Assertions.assertEquals(9, this.servidor.getMensajes());
+        Assertions.assertEquals(1, this.servidor.getConexiones());
+    }
+
+    @Test
+    void sendMails_shouldReuseConnection_acrossBlocks() throws Exception {
+        this.emailService.close();
+        this.emailService = new EmailServiceImpl(crearMailSender(this.servidor.getPuerto()), 2, 5000, 30000, 0, 4, 0, 2, 100);
+        List<CorreoElectronico> correos = new ArrayList<>();
+        for (var i = 0; i < 10; i++) {
+            correos.add(new CorreoElectronico("destino" + i + "@example.com", "Asunto", "Mensaje"));
+        }
+
+        Assertions.assertTrue(this.emailService.sendMails(correos).stream().allMatch(ResultadoEnvioCorreo::isEnviado));
+
+        Assertions.assertEquals(10, this.servidor.getMensajes());
+        Assertions.assertEquals(1, this.servidor.getConexiones());
+    }
+
+    @Test
+    void sendMails_shouldLimitMessagesPerSecond_perDomain() throws Exception {
+        this.emailService.close();
+        this.emailService = new EmailServiceImpl(crearMailSender(this.servidor.getPuerto()), 2, 5000, 30000, 0, 100, 10, 2, 100);
+        List<CorreoElectronico> correos = new ArrayList<>();
+        for (var i = 0; i < 4; i++) {
+            correos.add(new CorreoElectronico("destino" + i + "@lento.com", "Asunto", "Mensaje"));
+            correos.add(new CorreoElectronico("destino@rapido" + i + ".com", "Asunto", "Mensaje"));
+        }
+
+        long inicio = System.nanoTime();
+        List<ResultadoEnvioCorreo> resultados = this.emailService.sendMails(correos);
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+
+        Assertions.assertTrue(resultados.stream().allMatch(ResultadoEnvioCorreo::isEnviado));
+        Assertions.assertTrue(millis >= 290, "4 mensajes a un dominio a 10/s no pueden tardar menos de 300 ms: " + millis);
+    }
+
+    @Test
+    void sendMails_shouldReleaseConnection_whileWaitingForDomainTurn() throws Exception {
+        this.emailService.close();
+        this.emailService = new EmailServiceImpl(crearMailSender(this.servidor.getPuerto()), 1, 5000, 30000, 0, 100, 2, 2, 100);
+        CompletableFuture<List<ResultadoEnvioCorreo>> masivo = this.emailService.sendMailsAsync(List.of(
+                new CorreoElectronico("uno@lento.com", "Asunto", "Mensaje"),
+                new CorreoElectronico("dos@lento.com", "Asunto", "Mensaje"),
+                new CorreoElectronico("tres@lento.com", "Asunto", "Mensaje")));
+        Thread.sleep(200);
+
+        long inicio = System.nanoTime();
+        Assertions.assertTrue(this.emailService.sendMail("Mensaje", "destino@example.com", "Asunto"));
+        long millis = (System.nanoTime() - inicio) / 1_000_000;
+
+        Assertions.assertTrue(millis < 250, "El envio masivo no debe retener la unica conexion mientras espera su turno: " + millis);
+        Assertions.assertTrue(masivo.join().stream().allMatch(ResultadoEnvioCorreo::isEnviado));
+        Assertions.assertEquals(4, this.servidor.getMensajes());
+    }
+
+    @Test
+    void sendMails_shouldReportFailure_whenAddressIsInvalid() {
+        List<ResultadoEnvioCorreo> resultados = this.emailService.sendMails(List.of(
+                new CorreoElectronico("no es un correo@@", "Asunto", "Mensaje"),
+                new CorreoElectronico("destino@example.com", "Asunto", "Mensaje")));
+
+        Assertions.assertFalse(resultados.get(0).isEnviado());
+        Assertions.assertTrue(resultados.get(1).isEnviado());
+        Assertions.assertEquals(1, this.servidor.getMensajes());
+    }
+
+    @Test
+    void sendMailAsync_shouldSendInDedicatedThreads() {
+        CompletableFuture<Boolean> envio = this.emailService.sendMailAsync("Mensaje", "destino@example.com", "Asunto");
+
+        Assertions.assertTrue(envio.join());
+        EstadisticasEnvioCorreo estadisticas = this.emailService.getEstadisticas();
+        Assertions.assertEquals(1, estadisticas.getEnviados());
+        Assertions.assertEquals(0, estadisticas.getEnCurso());
+        Assertions.assertEquals(1, this.servidor.getMensajes());
+    }
+
+    @Test
+    void sendMailAsync_shouldReject_whenQueueIsFull() throws Exception {
+        this.emailService.close();
+        this.emailService = new EmailServiceImpl(crearMailSender(this.servidor.getPuerto()), 2, 5000, 30000, 0, 100, 0, 1, 1);
+        this.servidor.setRetardoMs(300);
+
+        CompletableFuture<Boolean> primero = this.emailService.sendMailAsync("Mensaje", "destino@example.com", "Asunto");
+        CompletableFuture<Boolean> segundo = this.emailService.sendMailAsync("Mensaje", "destino@example.com", "Asunto");
+        CompletableFuture<Boolean> tercero = this.emailService.sendMailAsync("Mensaje", "destino@example.com", "Asunto");
+
+        CompletionException e = Assertions.assertThrows(CompletionException.class, tercero::join);
+        Assertions.assertInstanceOf(EmailNotSentException.class, e.getCause());
+        Assertions.assertEquals(1, this.emailService.getEstadisticas().getRechazados());
+        Assertions.assertTrue(primero.join());
+        Assertions.assertTrue(segundo.join());
+        Assertions.assertEquals(2, this.emailService.getEstadisticas().getEnviados());
+    }
+
+    @Test
+    void sendMailsAsync_shouldSendInDedicatedThreads_andCountEachMessage() {
+        CompletableFuture<List<ResultadoEnvioCorreo>> envio = this.emailService.sendMailsAsync(List.of(
+                new CorreoElectronico("uno@example.com", "Asunto", "Mensaje"),
+                new CorreoElectronico("no es un correo@@", "Asunto", "Mensaje"),
+                new CorreoElectronico("dos@example.com", "Asunto", "Mensaje")));
+
+        List<ResultadoEnvioCorreo> resultados = envio.join();
+        Assertions.assertEquals(2, resultados.stream().filter(ResultadoEnvioCorreo::isEnviado).count());
+        EstadisticasEnvioCorreo estadisticas = this.emailService.getEstadisticas();
+        Assertions.assertEquals(2, estadisticas.getEnviados());
+        Assertions.assertEquals(1, estadisticas.getFallidos());
+        Assertions.assertEquals(0, estadisticas.getEnCurso());
+    }
+
+    @Test
+    void constructor_shouldReject_mailSenderWithoutConfiguration() {
+        JavaMailSender mailSender = Mockito.mock(JavaMailSender.class);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new EmailServiceImpl(mailSender, 2, 5000, 30000, 0, 100, 0, 2, 100));
+    }
+
+    static JavaMailSenderImpl crearMailSender(int puerto) {
+        var mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(puerto);
+        mailSender.setUsername("solicitudrenting@example.com");
+        mailSender.getJavaMailProperties().put("mail.smtp.auth", "false");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "5000");
+        return mailSender;
+    }
+}
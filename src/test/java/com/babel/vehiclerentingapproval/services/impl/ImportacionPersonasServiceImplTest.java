@@ -0,0 +1,138 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import com.babel.vehiclerentingapproval.exceptions.DniFoundException;
+import com.babel.vehiclerentingapproval.models.FormatoImportacion;
+import com.babel.vehiclerentingapproval.models.Persona;
+import com.babel.vehiclerentingapproval.models.ResultadoAltaPersona;
+import com.babel.vehiclerentingapproval.models.ResumenImportacionPersonas;
+import com.babel.vehiclerentingapproval.services.PersonaService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+
+class ImportacionPersonasServiceImplTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PersonaService personaService;
+    private List<List<Persona>> lotes;
+
+    @BeforeEach
+    void setUp() {
+        this.personaService = Mockito.mock(PersonaService.class);
+        this.lotes = new ArrayList<>();
+        Mockito.when(personaService.addPersonas(anyList())).thenAnswer(invocation -> {
+            List<Persona> personas = new ArrayList<>(invocation.getArgument(0));
+            lotes.add(personas);
+            List<ResultadoAltaPersona> resultados = new ArrayList<>();
+            for (Persona persona : personas) {
+                resultados.add("Repetido".equals(persona.getNombre())
+                        ? ResultadoAltaPersona.fallida("DniFoundException: " + new DniFoundException(HttpStatus.NOT_FOUND).getExternalMessage())
+                        : ResultadoAltaPersona.creada(persona.getNif().hashCode()));
+            }
+            return resultados;
+        });
+    }
+
+    @Test
+    void importar_shouldWriteOneResultPerLine_inBatchesOfConfiguredSize() throws IOException {
+        var servicio = new ImportacionPersonasServiceImpl(personaService, objectMapper, 2, 1000);
+        String fichero = "{\"nombre\":\"Ana\",\"nif\":\"1\",\"direccionDomicilio\":{\"tipoViaId\":{\"tipoViaId\":1},\"provincia\":{\"codProvincia\":\"SVQ\"}},\"nacionalidad\":{\"isoAlfa2\":\"ES\"}}\n"
+                + "\n"
+                + "{\"nombre\":\"Repetido\",\"nif\":\"2\"}\r\n"
+                + "{no es json\n"
+                + "{\"nombre\":\"Eva\",\"nif\":\"3\"}";
+
+        List<JsonNode> salida = new ArrayList<>();
+        ResumenImportacionPersonas resumen = importar(servicio, fichero, FormatoImportacion.NDJSON, salida);
+
+        Assertions.assertEquals(List.of(2, 1), List.of(lotes.get(0).size(), lotes.get(1).size()));
+        Assertions.assertEquals("SVQ", lotes.get(0).get(0).getDireccionDomicilio().getProvincia().getCodProvincia());
+        Assertions.assertEquals(5, salida.size());
+        Assertions.assertEquals(1, salida.get(0).get("linea").asInt());
+        Assertions.assertEquals("1".hashCode(), salida.get(0).get("personaId").asInt());
+        Assertions.assertEquals(3, salida.get(1).get("linea").asInt());
+        Assertions.assertTrue(salida.get(1).get("error").asText().startsWith("DniFoundException"));
+        Assertions.assertEquals(4, salida.get(2).get("linea").asInt());
+        Assertions.assertTrue(salida.get(2).get("error").asText().startsWith("JsonParseException"));
+        Assertions.assertEquals(5, salida.get(3).get("linea").asInt());
+        Assertions.assertTrue(salida.get(3).get("creada").asBoolean());
+        Assertions.assertEquals(4, salida.get(4).get("lineas").asInt());
+        Assertions.assertEquals(2, resumen.getCreadas());
+        Assertions.assertEquals(2, resumen.getFallidas());
+        Assertions.assertEquals(2, resumen.getLotes());
+    }
+
+    @Test
+    void importar_shouldReadCsvWithHeaderAndQuotedFields() throws IOException {
+        var servicio = new ImportacionPersonasServiceImpl(personaService, objectMapper, 500, 1000);
+        String fichero = "NIF,nombre,apellido1,fechaNacimiento,nacionalidad,tipoViaId,nombreCalle,codProvincia,telefonos,desconocida\n"
+                + "1111112F,Juan,\"Francés, \"\"el viejo\"\"\",1980-12-29,ES,1,Gran via,SVQ,600000001|600000002,x\n";
+
+        List<JsonNode> salida = new ArrayList<>();
+        importar(servicio, fichero, FormatoImportacion.CSV, salida);
+
+        Persona persona = lotes.get(0).get(0);
+        Assertions.assertEquals("1111112F", persona.getNif());
+        Assertions.assertEquals("Francés, \"el viejo\"", persona.getApellido1());
+        Assertions.assertEquals("ES", persona.getNacionalidad().getIsoAlfa2());
+        Assertions.assertEquals(1, persona.getDireccionDomicilio().getTipoViaId().getTipoViaId());
+        Assertions.assertSame(persona.getDireccionDomicilio(), persona.getDireccionNotificacion());
+        Assertions.assertEquals(2, persona.getTelefonos().size());
+        Assertions.assertNotNull(persona.getFechaNacimiento());
+        Assertions.assertEquals(2, salida.get(0).get("linea").asInt());
+        Assertions.assertEquals(2, salida.size());
+    }
+
+    @Test
+    void importar_shouldFailWholeBatch_whenAltaFails_andContinueWithNextBatch() throws IOException {
+        Mockito.when(personaService.addPersonas(anyList()))
+                .thenThrow(new IllegalStateException("sin conexion"))
+                .thenAnswer(invocation -> List.of(ResultadoAltaPersona.creada(9)));
+        var servicio = new ImportacionPersonasServiceImpl(personaService, objectMapper, 2, 1000);
+        String fichero = "{\"nombre\":\"A\"}\n{\"nombre\":\"B\"}\n{\"nombre\":\"C\"}\n";
+
+        List<JsonNode> salida = new ArrayList<>();
+        ResumenImportacionPersonas resumen = importar(servicio, fichero, FormatoImportacion.NDJSON, salida);
+
+        Assertions.assertEquals("IllegalStateException: sin conexion", salida.get(0).get("error").asText());
+        Assertions.assertEquals("IllegalStateException: sin conexion", salida.get(1).get("error").asText());
+        Assertions.assertEquals(9, salida.get(2).get("personaId").asInt());
+        Assertions.assertEquals(1, resumen.getCreadas());
+        Assertions.assertEquals(2, resumen.getFallidas());
+    }
+
+    @Test
+    void importar_shouldRejectTooLongLines_withoutKeepingThem() throws IOException {
+        var servicio = new ImportacionPersonasServiceImpl(personaService, objectMapper, 500, 20);
+        String fichero = "{\"nombre\":\"" + "x".repeat(1000) + "\"}\n{\"nif\":\"1\"}\n";
+
+        List<JsonNode> salida = new ArrayList<>();
+        importar(servicio, fichero, FormatoImportacion.NDJSON, salida);
+
+        Assertions.assertTrue(salida.get(0).get("error").asText().contains("20 caracteres"));
+        Assertions.assertEquals(2, salida.get(1).get("linea").asInt());
+        Assertions.assertEquals(1, lotes.get(0).size());
+    }
+
+    private ResumenImportacionPersonas importar(ImportacionPersonasServiceImpl servicio, String fichero, FormatoImportacion formato,
+                                                List<JsonNode> salida) throws IOException {
+        var out = new ByteArrayOutputStream();
+        ResumenImportacionPersonas resumen = servicio.importar(new ByteArrayInputStream(fichero.getBytes(StandardCharsets.UTF_8)), formato, out);
+        for (String linea : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            salida.add(objectMapper.readTree(linea));
+        }
+        return resumen;
+    }
+}
@@ -0,0 +1,103 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import com.babel.vehiclerentingapproval.models.FormatoImportacion;
+import com.babel.vehiclerentingapproval.models.Renta;
+import com.babel.vehiclerentingapproval.models.ResultadoAltaRenta;
+import com.babel.vehiclerentingapproval.models.ResumenImportacionRentas;
+import com.babel.vehiclerentingapproval.services.ProfesionService;
+import com.babel.vehiclerentingapproval.services.RentaService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
+
+class ImportacionRentasServiceImplTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RentaService rentaService;
+    private ProfesionService profesionService;
+    private List<List<Renta>> lotes;
+
+    @BeforeEach
+    void setUp() {
+        this.rentaService = Mockito.mock(RentaService.class);
+        this.profesionService = Mockito.mock(ProfesionService.class);
+        Mockito.when(profesionService.getProfesionIds()).thenReturn(Set.of(1, 2));
+        this.lotes = new ArrayList<>();
+        Mockito.when(rentaService.addRentas(anyList(), anySet())).thenAnswer(invocation -> {
+            List<Renta> rentas = new ArrayList<>(invocation.getArgument(0));
+            lotes.add(rentas);
+            List<ResultadoAltaRenta> resultados = new ArrayList<>();
+            for (Renta renta : rentas) {
+                resultados.add(ResultadoAltaRenta.creada(renta.getPersona().getPersonaId() * 10));
+            }
+            return resultados;
+        });
+    }
+
+    @Test
+    void importar_shouldLoadProfesionesOnce_andWriteOneResultPerLine() throws IOException {
+        var servicio = new ImportacionRentasServiceImpl(rentaService, profesionService, objectMapper, 2, 1000);
+        String fichero = "{\"persona\":{\"personaId\":1},\"profesion\":{\"profesionId\":1},\"anio\":2023,\"fechaInicioEmpleo\":\"2020-01-15\"}\n"
+                + "{\"persona\":{\"personaId\":2},\"profesion\":{\"profesionId\":2},\"anio\":2023}\n"
+                + "{\"anio\":\"no es un numero\"}\n"
+                + "{\"persona\":{\"personaId\":3},\"profesion\":{\"profesionId\":1},\"anio\":2023}\n";
+
+        List<JsonNode> salida = new ArrayList<>();
+        ResumenImportacionRentas resumen = importar(servicio, fichero, FormatoImportacion.NDJSON, salida);
+
+        Mockito.verify(profesionService, Mockito.times(1)).getProfesionIds();
+        Mockito.verify(rentaService, Mockito.times(2)).addRentas(anyList(), Mockito.eq(Set.of(1, 2)));
+        Assertions.assertNotNull(lotes.get(0).get(0).getFechaInicioEmpleo());
+        Assertions.assertEquals(10, salida.get(0).get("rentaId").asInt());
+        Assertions.assertEquals(3, salida.get(2).get("linea").asInt());
+        Assertions.assertTrue(salida.get(2).get("error").asText().startsWith("InvalidFormatException"));
+        Assertions.assertEquals(30, salida.get(3).get("rentaId").asInt());
+        Assertions.assertEquals(4, salida.get(4).get("lineas").asInt());
+        Assertions.assertTrue(salida.get(4).has("filasPorSegundo"));
+        Assertions.assertEquals(3, resumen.getCreadas());
+        Assertions.assertEquals(1, resumen.getFallidas());
+    }
+
+    @Test
+    void importar_shouldReadCsvWithHeader() throws IOException {
+        var servicio = new ImportacionRentasServiceImpl(rentaService, profesionService, objectMapper, 500, 1000);
+        String fichero = "personaId,profesionId,anio,importeNeto,importeBruto,isCuentaPropia,iae,cifEmpleador,fechaInicioEmpleo\r\n"
+                + "7,2,2022,25000.5,32000,0,12,B12345678,2019-03-01\r\n"
+                + "x,2,2022,,,,,,\r\n";
+
+        List<JsonNode> salida = new ArrayList<>();
+        importar(servicio, fichero, FormatoImportacion.CSV, salida);
+
+        Renta renta = lotes.get(0).get(0);
+        Assertions.assertEquals(7, renta.getPersona().getPersonaId());
+        Assertions.assertEquals(2, renta.getProfesion().getProfesionId());
+        Assertions.assertEquals(2022, renta.getAnio());
+        Assertions.assertEquals(25000.5f, renta.getImporteNeto());
+        Assertions.assertEquals("B12345678", renta.getCifEmpleador());
+        Assertions.assertEquals(70, salida.get(0).get("rentaId").asInt());
+        Assertions.assertTrue(salida.get(1).get("error").asText().startsWith("NumberFormatException"));
+    }
+
+    private ResumenImportacionRentas importar(ImportacionRentasServiceImpl servicio, String fichero, FormatoImportacion formato,
+                                              List<JsonNode> salida) throws IOException {
+        var out = new ByteArrayOutputStream();
+        ResumenImportacionRentas resumen = servicio.importar(new ByteArrayInputStream(fichero.getBytes(StandardCharsets.UTF_8)), formato, out);
+        for (String linea : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            salida.add(objectMapper.readTree(linea));
+        }
+        return resumen;
+    }
+}
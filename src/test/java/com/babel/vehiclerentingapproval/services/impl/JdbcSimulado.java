@@ -0,0 +1,333 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import org.apache.ibatis.logging.nologging.NoLoggingImpl;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.apache.ibatis.type.JdbcType;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Base de datos JDBC simulada en memoria para los tests y benchmarks de los accesos con MyBatis: no guarda nada, cuenta
+ * las idas y vueltas al servidor (cada execute, executeQuery y executeBatch) y espera en cada una la latencia de red
+ * indicada.
+ * <p>
+ * Las inserciones devuelven una fila afectada y una clave generada; las consultas devuelven tantas filas como indique
+ * el "CONNECT BY LEVEL <= n" del SQL (o una), con una columna entera por cada alias "AS" de la select.
+ */
+public class JdbcSimulado implements DataSource {
+    private static final Pattern NIVELES = Pattern.compile("LEVEL\\s*<=\\s*\\?");
+    private static final Pattern ALIAS = Pattern.compile("\\bAS\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private final long latenciaNanos;
+    private final AtomicInteger viajes = new AtomicInteger();
+    private final AtomicInteger filas = new AtomicInteger();
+    private final AtomicLong secuencia = new AtomicLong();
+    private final List<String> sentencias = new ArrayList<>();
+
+    public JdbcSimulado(long latenciaMicros) {
+        this.latenciaNanos = TimeUnit.MICROSECONDS.toNanos(latenciaMicros);
+    }
+
+    /**
+     * @return idas y vueltas al servidor desde la creacion o el ultimo reiniciar
+     */
+    public int getViajes() {
+        return viajes.get();
+    }
+
+    /**
+     * @return filas insertadas o actualizadas desde la creacion o el ultimo reiniciar
+     */
+    public int getFilas() {
+        return filas.get();
+    }
+
+    /**
+     * @return el SQL de cada ida y vuelta al servidor, en orden
+     */
+    public synchronized List<String> getSentencias() {
+        return new ArrayList<>(sentencias);
+    }
+
+    public synchronized void reiniciar() {
+        viajes.set(0);
+        filas.set(0);
+        sentencias.clear();
+    }
+
+    private synchronized void viaje(String sql) {
+        viajes.incrementAndGet();
+        sentencias.add(sql);
+        if (latenciaNanos > 0) {
+            LockSupport.parkNanos(latenciaNanos);
+        }
+    }
+
+    /**
+     * Crea una factoria de sesiones de MyBatis sobre esta base de datos, con las transacciones JDBC de MyBatis, la
+     * misma configuracion de nulos que la aplicacion y sin log de las sentencias
+     *
+     * @param mappers mappers a registrar
+     */
+    public SqlSessionFactory crearSqlSessionFactory(Class<?>... mappers) {
+        var configuracion = new Configuration(new Environment("simulado", new JdbcTransactionFactory(), this));
+        configuracion.setJdbcTypeForNull(JdbcType.NULL);
+        configuracion.setLogImpl(NoLoggingImpl.class);
+        for (Class<?> mapper : mappers) {
+            configuracion.addMapper(mapper);
+        }
+        return new SqlSessionFactoryBuilder().build(configuracion);
+    }
+
+    @Override
+    public Connection getConnection() {
+        var autoCommit = new boolean[]{true};
+        DatabaseMetaData metaData = proxy(DatabaseMetaData.class, (p, metodo, args) -> valorPorDefecto(metodo.getReturnType()));
+        return proxy(Connection.class, (p, metodo, args) -> {
+            switch (metodo.getName()) {
+                case "prepareStatement":
+                    return this.sentencia((String) args[0]);
+                case "getAutoCommit":
+                    return autoCommit[0];
+                case "setAutoCommit":
+                    autoCommit[0] = (boolean) args[0];
+                    return null;
+                case "getMetaData":
+                    return metaData;
+                case "isClosed":
+                    return false;
+                default:
+                    return valorPorDefecto(metodo.getReturnType());
+            }
+        });
+    }
+
+    @Override
+    public Connection getConnection(String usuario, String password) {
+        return this.getConnection();
+    }
+
+    private PreparedStatement sentencia(String sql) {
+        var parametros = new Object[16];
+        var lote = new int[1];
+        var resultado = new ResultSet[1];
+        var esConsulta = sql.trim().toUpperCase().startsWith("SELECT");
+        return proxy(PreparedStatement.class, (p, metodo, args) -> {
+            String nombre = metodo.getName();
+            if (nombre.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                int indice = (Integer) args[0];
+                if (indice < parametros.length) {
+                    parametros[indice] = args[1];
+                }
+                return null;
+            }
+            switch (nombre) {
+                case "execute":
+                    this.viaje(sql);
+                    if (esConsulta) {
+                        resultado[0] = this.resultado(sql, parametros);
+                        return true;
+                    }
+                    filas.incrementAndGet();
+                    return false;
+                case "getResultSet":
+                    ResultSet rs = resultado[0];
+                    resultado[0] = null;
+                    return rs;
+                case "getUpdateCount":
+                    return esConsulta ? -1 : 1;
+                case "getGeneratedKeys":
+                    return this.resultado(new String[]{"ID"}, 1);
+                case "addBatch":
+                    lote[0]++;
+                    return null;
+                case "executeBatch":
+                    this.viaje(sql);
+                    filas.addAndGet(lote[0]);
+                    int[] actualizadas = new int[lote[0]];
+                    Arrays.fill(actualizadas, 1);
+                    lote[0] = 0;
+                    return actualizadas;
+                case "getConnection":
+                    return null;
+                default:
+                    return valorPorDefecto(metodo.getReturnType());
+            }
+        });
+    }
+
+    private ResultSet resultado(String sql, Object[] parametros) {
+        var niveles = 1;
+        Matcher matcher = NIVELES.matcher(sql);
+        if (matcher.find()) {
+            var posicion = 1;
+            for (var i = 0; i < matcher.start(); i++) {
+                if (sql.charAt(i) == '?') {
+                    posicion++;
+                }
+            }
+            niveles = ((Number) parametros[posicion]).intValue();
+        }
+        List<String> columnas = new ArrayList<>();
+        Matcher alias = ALIAS.matcher(sql);
+        while (alias.find()) {
+            columnas.add(alias.group(1).toUpperCase());
+        }
+        if (columnas.isEmpty()) {
+            columnas.add("VALOR");
+        }
+        return this.resultado(columnas.toArray(new String[0]), niveles);
+    }
+
+    private ResultSet resultado(String[] columnas, int numeroFilas) {
+        var fila = new int[]{0};
+        var valores = new long[columnas.length];
+        ResultSetMetaData metaData = proxy(ResultSetMetaData.class, (p, metodo, args) -> {
+            switch (metodo.getName()) {
+                case "getColumnCount":
+                    return columnas.length;
+                case "getColumnLabel":
+                case "getColumnName":
+                    return columnas[(Integer) args[0] - 1];
+                case "getColumnType":
+                    return Types.NUMERIC;
+                case "getColumnClassName":
+                    return Long.class.getName();
+                default:
+                    return valorPorDefecto(metodo.getReturnType());
+            }
+        });
+        return proxy(ResultSet.class, (p, metodo, args) -> {
+            switch (metodo.getName()) {
+                case "next":
+                    if (fila[0] >= numeroFilas) {
+                        return false;
+                    }
+                    fila[0]++;
+                    for (var i = 0; i < valores.length; i++) {
+                        valores[i] = secuencia.incrementAndGet();
+                    }
+                    return true;
+                case "getMetaData":
+                    return metaData;
+                case "getInt":
+                case "getLong":
+                case "getObject":
+                case "getBigDecimal":
+                    int columna = args[0] instanceof Integer ? (Integer) args[0] - 1 : Arrays.asList(columnas).indexOf(((String) args[0]).toUpperCase());
+                    long valor = valores[columna];
+                    if ("getInt".equals(metodo.getName())) {
+                        return (int) valor;
+                    }
+                    if ("getBigDecimal".equals(metodo.getName())) {
+                        return java.math.BigDecimal.valueOf(valor);
+                    }
+                    return valor;
+                case "getType":
+                    return ResultSet.TYPE_FORWARD_ONLY;
+                default:
+                    return valorPorDefecto(metodo.getReturnType());
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(JdbcSimulado.class.getClassLoader(), new Class<?>[]{tipo}, (p, metodo, args) -> {
+            if (metodo.getDeclaringClass() == Object.class) {
+                switch (metodo.getName()) {
+                    case "hashCode":
+                        return System.identityHashCode(p);
+                    case "equals":
+                        return p == args[0];
+                    default:
+                        return tipo.getSimpleName() + "Simulado";
+                }
+            }
+            return handler.invoke(p, metodo, args);
+        });
+    }
+
+    private static Object valorPorDefecto(Class<?> tipo) {
+        if (tipo == boolean.class) {
+            return false;
+        }
+        if (tipo == int.class) {
+            return 0;
+        }
+        if (tipo == long.class) {
+            return 0L;
+        }
+        if (tipo == short.class) {
+            return (short) 0;
+        }
+        if (tipo == byte.class) {
+            return (byte) 0;
+        }
+        if (tipo == double.class) {
+            return 0d;
+        }
+        if (tipo == float.class) {
+            return 0f;
+        }
+        return null;
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        // sin log
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        // sin timeout
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return Logger.getGlobal();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) {
+        return null;
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return false;
+    }
+}
@@ -0,0 +1,54 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+class LimitadorPorDominioTest {
+    private final AtomicLong reloj = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void reservar_shouldSpaceMessages_toSameDomain() {
+        var limitador = new LimitadorPorDominio(10, reloj::get);
+
+        Assertions.assertEquals(1_000_000_000L, limitador.reservar("a.com"));
+        Assertions.assertEquals(1_100_000_000L, limitador.reservar("a.com"));
+        Assertions.assertEquals(1_200_000_000L, limitador.reservar("a.com"));
+        Assertions.assertEquals(1_000_000_000L, limitador.reservar("b.com"));
+    }
+
+    @Test
+    void reservar_shouldNotAccumulateTurns_whileDomainIsIdle() {
+        var limitador = new LimitadorPorDominio(10, reloj::get);
+        limitador.reservar("a.com");
+
+        reloj.addAndGet(5_000_000_000L);
+
+        Assertions.assertEquals(6_000_000_000L, limitador.reservar("a.com"));
+        Assertions.assertEquals(6_100_000_000L, limitador.reservar("a.com"));
+    }
+
+    @Test
+    void reservar_shouldNotWait_withoutLimit() {
+        var limitador = new LimitadorPorDominio(0, reloj::get);
+
+        Assertions.assertEquals(1_000_000_000L, limitador.reservar("a.com"));
+        Assertions.assertEquals(1_000_000_000L, limitador.reservar("a.com"));
+        Assertions.assertEquals(0, limitador.getDominios());
+    }
+
+    @Test
+    void purgar_shouldForgetDomains_withoutPendingTurns() {
+        var limitador = new LimitadorPorDominio(10, reloj::get);
+        limitador.reservar("a.com");
+        limitador.reservar("b.com");
+        limitador.reservar("b.com");
+        limitador.reservar("b.com");
+
+        reloj.addAndGet(150_000_000L);
+        limitador.purgar();
+
+        Assertions.assertEquals(1, limitador.getDominios());
+    }
+}
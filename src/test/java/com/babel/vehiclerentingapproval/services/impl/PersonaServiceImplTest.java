@@ -1,20 +1,22 @@
 package com.babel.vehiclerentingapproval.services.impl;
 
+import com.babel.vehiclerentingapproval.Security.Service.CacheUsuarios;
 import com.babel.vehiclerentingapproval.exceptions.*;
 import com.babel.vehiclerentingapproval.models.*;
 import com.babel.vehiclerentingapproval.persistance.database.mappers.*;
 import com.babel.vehiclerentingapproval.services.PersonaService;
+import com.babel.vehiclerentingapproval.services.referencia.impl.DatosReferenciaImpl;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import org.springframework.boot.test.context.SpringBootTest;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
@@ -23,39 +25,45 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 
-@SpringBootTest
 class PersonaServiceImplTest {
     PersonaMapper personaMapper;
 
     DireccionMapper direccionMapper;
     PersonaService personaService;
     PaisMapper paisMapper;
+    TipoViaMapper tipoViaMapper;
+    ProvinciaMapper provinciaMapper;
     TelefonoMapper telefonoMapper;
+    CacheUsuarios cacheUsuarios;
+    AltaPersonasLote altaPersonasLote;
 
     @BeforeEach
     void setupAll() {
         personaMapper = Mockito.mock(PersonaMapper.class);
         when(personaMapper.existePersona(100)).thenReturn(0); //No existe la persona
         when(personaMapper.existePersona(1)).thenReturn(1); //Existe la persona
+        when(personaMapper.getPersonaGuardada(1)).thenReturn(new PersonaGuardada()); //Existe la persona
 
         direccionMapper = Mockito.mock(DireccionMapper.class);
         when(direccionMapper.existeDireccion(1)).thenReturn(0);
         when(direccionMapper.existeDireccion(100)).thenReturn(1);
 
         telefonoMapper = Mockito.mock(TelefonoMapper.class);
-        TipoViaMapper tipoViaMapper = Mockito.mock(TipoViaMapper.class);
-        ProvinciaMapper provinciaMapper = Mockito.mock(ProvinciaMapper.class);
+        tipoViaMapper = Mockito.mock(TipoViaMapper.class);
+        provinciaMapper = Mockito.mock(ProvinciaMapper.class);
         paisMapper = Mockito.mock(PaisMapper.class);
+        cacheUsuarios = Mockito.mock(CacheUsuarios.class);
+        altaPersonasLote = Mockito.mock(AltaPersonasLote.class);
 
-
-        personaService = new PersonaServiceImpl(direccionMapper, personaMapper, telefonoMapper, tipoViaMapper, provinciaMapper, paisMapper);
+        personaService = new PersonaServiceImpl(direccionMapper, personaMapper, telefonoMapper,
+                new DatosReferenciaImpl(paisMapper, provinciaMapper, tipoViaMapper, 60000, 100), cacheUsuarios, altaPersonasLote);
 
     }
 
     @Test
     void addPersona_should_throwRequiredMissingFieldException_when_nombreIsNull() {
         assertThrows(Exception.class, () -> {
-            Persona persona = new Persona(persona.getPersonaId(), persona.getNombre(), persona.getEmail(), persona.getPassword());
+            Persona persona = createPersona();
 
             persona.setNombre(null);
             this.personaService.addPersona(persona);
@@ -63,8 +71,8 @@ class PersonaServiceImplTest {
     }
 
     @Test
-    void addPersona_should_throwWrongLenghtFieldException_when_nombreIsBiggerThan50() {
-        Persona persona = new Persona(persona.getPersonaId(), persona.getNombre(), persona.getEmail(), persona.getPassword());
+    void addPersona_should_throwWrongLenghtFieldException_when_nombreIsBiggerThan50() throws ParseException {
+        Persona persona = createPersona();
         persona.setNombre("nombre de persona muy largo de mas de cincuenta caracteres");
         assertThrows(WrongLenghtFieldException.class, () -> {
             this.personaService.addPersona(persona);
@@ -75,7 +83,7 @@ class PersonaServiceImplTest {
     @Test
     void addPersona_should_throwRequiredMissingFieldException_when_apellido1Null() {
         assertThrows(Exception.class, () -> {
-            Persona persona = new Persona(persona.getPersonaId(), persona.getNombre(), persona.getEmail(), persona.getPassword());
+            Persona persona = new Persona();
 
             persona.setApellido1(null);
             this.personaService.addPersona(persona);
@@ -85,7 +93,7 @@ class PersonaServiceImplTest {
     @Test
     void addPersona_should_throwRequiredMissingFieldException_when_nifNull() {
         assertThrows(Exception.class, () -> {
-            Persona persona = new Persona(persona.getPersonaId(), persona.getNombre(), persona.getEmail(), persona.getPassword());
+            Persona persona = new Persona();
 
             persona.setNif(null);
             this.personaService.addPersona(persona);
@@ -105,8 +113,62 @@ class PersonaServiceImplTest {
     }
 
     @Test
-    void modificarPersona_should_throwPersonaNotFoundException_when_personaNoExisteEnBaseDeDatos() {
-        Persona persona = new Persona(persona.getPersonaId(), persona.getNombre(), persona.getEmail(), persona.getPassword());
+    void addPersona_should_insertarEnLote_conReferenciasResueltas() throws ParseException {
+        when(paisMapper.getPais("ES")).thenReturn(new Pais("ES", 1, "ESP", "ESPAÑA", 1));
+        Persona persona = createPersona();
+
+        this.personaService.addPersona(persona);
+
+        Mockito.verify(altaPersonasLote).insertar(List.of(persona));
+        Assertions.assertSame(persona.getDireccionDomicilio(), persona.getDireccionNotificacion());
+        Assertions.assertEquals("ESP", persona.getNacionalidad().getIsoAlfa3());
+        Mockito.verifyNoInteractions(telefonoMapper);
+        Mockito.verify(direccionMapper, Mockito.never()).insertDireccion(any());
+    }
+
+    @Test
+    void addPersonas_should_insertarSoloLasValidas_yDevolverElMotivoDeLasDemas() throws ParseException {
+        when(paisMapper.getPais("ES")).thenReturn(new Pais("ES", 1, "ESP", "ESPAÑA", 1));
+        when(tipoViaMapper.getTipoVia(1)).thenReturn(new TipoVia(1, "Calle"));
+        when(provinciaMapper.getProvincia("SVQ")).thenReturn(new Provincia("SVQ", "Sevilla"));
+        when(personaMapper.getNifsExistentes(any())).thenReturn(List.of("2222222B"));
+        Persona valida = createPersona();
+        Persona sinNombre = createPersona();
+        sinNombre.setNif("3333333C");
+        sinNombre.setNombre(null);
+        Persona nifExistente = createPersona();
+        nifExistente.setNif("2222222B");
+        Persona nifRepetido = createPersona();
+        Persona sinProvincia = createPersona();
+        sinProvincia.setNif("4444444D");
+        sinProvincia.getDireccionDomicilio().setProvincia(null);
+        Persona provinciaDesconocida = createPersona();
+        provinciaDesconocida.setNif("5555555E");
+        provinciaDesconocida.getDireccionDomicilio().setProvincia(new Provincia("XXX", null));
+        Mockito.doAnswer(invocation -> {
+            List<Persona> personas = invocation.getArgument(0);
+            personas.forEach(persona -> persona.setPersonaId(7));
+            return null;
+        }).when(altaPersonasLote).insertar(any());
+
+        List<ResultadoAltaPersona> resultados = this.personaService.addPersonas(List.of(valida, sinNombre, nifExistente, nifRepetido, sinProvincia, provinciaDesconocida));
+
+        Mockito.verify(altaPersonasLote).insertar(List.of(valida));
+        Mockito.verify(personaMapper, Mockito.never()).existeNif(anyString());
+        Assertions.assertEquals(6, resultados.size());
+        Assertions.assertEquals(7, resultados.get(0).getPersonaId());
+        Assertions.assertTrue(resultados.get(1).getError().startsWith("RequiredMissingFieldException"));
+        Assertions.assertTrue(resultados.get(2).getError().startsWith("DniFoundException"));
+        Assertions.assertTrue(resultados.get(3).getError().startsWith("DniFoundException"));
+        Assertions.assertTrue(resultados.get(4).getError().startsWith("InputIsNullOrIsEmpty"));
+        Assertions.assertTrue(resultados.get(4).getError().contains("provincia"));
+        Assertions.assertTrue(resultados.get(5).getError().startsWith("DatoReferenciaNotFoundException"));
+        Assertions.assertTrue(resultados.get(5).getError().contains("XXX"));
+    }
+
+    @Test
+    void modificarPersona_should_throwPersonaNotFoundException_when_personaNoExisteEnBaseDeDatos() throws ParseException {
+        Persona persona = createPersona();
         persona.setPersonaId(100); //Persona no existente
         assertThrows(PersonaNotFoundException.class, () -> {
             personaService.modificarPersona(persona);
@@ -114,8 +176,8 @@ class PersonaServiceImplTest {
     }
 
     @Test
-    void modificarPersona_should_throwDireccionNotFoundException_when_direccionNoExisteEnBaseDeDatos() {
-        Persona persona = new Persona(persona.getPersonaId(), persona.getNombre(), persona.getEmail(), persona.getPassword());
+    void modificarPersona_should_throwDireccionNotFoundException_when_direccionNoExisteEnBaseDeDatos() throws ParseException {
+        Persona persona = createPersona();
 
         Direccion direccion = new Direccion();
         direccion.setDireccionId(1); //Direccion no existente
@@ -129,9 +191,8 @@ class PersonaServiceImplTest {
 
     @Test
     void modificarPersona_should_not_throwAnyException_when_DatosSonCorrectos() {
-        when(direccionMapper.updateDireccion(any())).thenReturn(1);
-        when(direccionMapper.existeDireccion(anyInt())).thenReturn((1));
-        when(personaMapper.existePersona(anyInt())).thenReturn(1);
+        when(personaMapper.getPersonaGuardada(anyInt())).thenReturn(new PersonaGuardada());
+        when(direccionMapper.getDirecciones(any())).thenReturn(List.of(new Direccion()));
 
         assertDoesNotThrow(() -> {
             Persona persona = createPersona();
@@ -140,6 +201,54 @@ class PersonaServiceImplTest {
         });
 
     }
+    @Test
+    void modificarPersona_should_invalidarCacheUsuarios_conEmailAnteriorYNuevo() throws ParseException {
+        Persona persona = createPersona();
+        PersonaGuardada guardada = guardadaDe(persona);
+        guardada.setEmail("anterior@example.com");
+        when(personaMapper.getPersonaGuardada(persona.getPersonaId())).thenReturn(guardada);
+        when(direccionMapper.getDirecciones(any())).thenReturn(List.of(copiar(persona.getDireccionDomicilio())));
+
+        this.personaService.modificarPersona(persona);
+
+        Mockito.verify(cacheUsuarios).invalidar("anterior@example.com");
+        Mockito.verify(cacheUsuarios).invalidar(persona.getEmail());
+    }
+
+    @Test
+    void modificarPersona_should_notWrite_when_nadaCambia() throws ParseException {
+        Persona persona = createPersona();
+        when(personaMapper.getPersonaGuardada(persona.getPersonaId())).thenReturn(guardadaDe(persona));
+        when(direccionMapper.getDirecciones(any())).thenReturn(List.of(copiar(persona.getDireccionDomicilio())));
+        when(telefonoMapper.listarTelefonos(anyInt())).thenReturn(List.of(new TelefonoContacto(1, "677645552")));
+
+        this.personaService.modificarPersona(persona);
+
+        Mockito.verify(personaMapper, Mockito.never()).updatePersonaParcial(any(), any());
+        Mockito.verify(personaMapper, Mockito.never()).updatePersona(any());
+        Mockito.verify(direccionMapper, Mockito.never()).updateDireccionParcial(any(), any());
+        Mockito.verify(direccionMapper, Mockito.never()).updateDireccion(any());
+        Mockito.verify(telefonoMapper).listarTelefonos(anyInt());
+        Mockito.verifyNoMoreInteractions(telefonoMapper);
+        Mockito.verifyNoInteractions(cacheUsuarios);
+    }
+
+    @Test
+    void modificarPersona_should_updateOnlyChangedColumns() throws ParseException {
+        Persona persona = createPersona();
+        when(personaMapper.getPersonaGuardada(persona.getPersonaId())).thenReturn(guardadaDe(persona));
+        Direccion direccionGuardada = copiar(persona.getDireccionDomicilio());
+        direccionGuardada.setNumero("1");
+        when(direccionMapper.getDirecciones(any())).thenReturn(List.of(direccionGuardada));
+        persona.setApellido2("Nuevo");
+
+        this.personaService.modificarPersona(persona);
+
+        Mockito.verify(personaMapper).updatePersonaParcial(persona, Set.of("APELLIDO2"));
+        Mockito.verify(direccionMapper).updateDireccionParcial(persona.getDireccionDomicilio(), Set.of("NUM"));
+        Mockito.verifyNoInteractions(cacheUsuarios);
+    }
+
     @SneakyThrows
     @Test
     void modificarTelefono_should_throwPersonaNotFoundException_when_idPersonaNoExisteEnBaseDeDatos() {
@@ -167,6 +276,34 @@ class PersonaServiceImplTest {
     }
 
 
+    @Test
+    void modificarTelefono_should_notWrite_when_telefonosNoCambian() throws ParseException {
+        when(personaMapper.existePersona(anyInt())).thenReturn(1);
+        Persona persona = createPersona();
+        when(telefonoMapper.listarTelefonos(anyInt())).thenReturn(List.of(new TelefonoContacto(1, "677645552")));
+
+        personaService.modificarTelefono(persona);
+
+        Mockito.verify(telefonoMapper).listarTelefonos(anyInt());
+        Mockito.verifyNoMoreInteractions(telefonoMapper);
+    }
+
+    @Test
+    void modificarTelefono_should_writeOneStatementPerChangeType() throws ParseException {
+        when(personaMapper.existePersona(anyInt())).thenReturn(1);
+        Persona persona = createPersona();
+        persona.getTelefonos().add(new TelefonoContacto(0, "600000001"));
+        persona.getTelefonos().add(new TelefonoContacto(0, "600000002"));
+        when(telefonoMapper.listarTelefonos(anyInt())).thenReturn(List.of(new TelefonoContacto(1, "611111111")));
+
+        personaService.modificarTelefono(persona);
+
+        Mockito.verify(telefonoMapper).updateTelefonos(eq(persona.getPersonaId()), argThat(telefonos -> telefonos.size() == 1));
+        Mockito.verify(telefonoMapper).addTelefonos(eq(persona.getPersonaId()), argThat(telefonos -> telefonos.size() == 2));
+        Mockito.verify(telefonoMapper, Mockito.never()).deleteTelefonos(anyInt(), any());
+        Mockito.verify(telefonoMapper, Mockito.never()).addTelefono(any(), any());
+    }
+
     @Test
     void addPersonaDireccion_should_not_ThrowException_when_direccionDomicilioDistintaNotificacion() throws ParseException {
 
@@ -261,8 +398,37 @@ class PersonaServiceImplTest {
         return false;
     }
 
+    private static PersonaGuardada guardadaDe(Persona persona) {
+        PersonaGuardada guardada = new PersonaGuardada();
+        guardada.setPersonaId(persona.getPersonaId());
+        guardada.setNombre(persona.getNombre());
+        guardada.setApellido1(persona.getApellido1());
+        guardada.setApellido2(persona.getApellido2());
+        guardada.setDireccionDomicilioId(persona.getDireccionDomicilio().getDireccionId());
+        guardada.setDireccionNotificacionId(persona.getDireccionDomicilio().getDireccionId());
+        guardada.setNif(persona.getNif());
+        guardada.setFechaNacimiento(persona.getFechaNacimiento());
+        guardada.setNacionalidad(persona.getNacionalidad().getIsoAlfa2());
+        guardada.setScoring(persona.getScoring());
+        guardada.setFechaScoring(persona.getFechaScoring());
+        guardada.setEmail(persona.getEmail());
+        return guardada;
+    }
+
+    private static Direccion copiar(Direccion direccion) {
+        Direccion copia = new Direccion();
+        copia.setDireccionId(direccion.getDireccionId());
+        copia.setTipoViaId(new TipoVia(direccion.getTipoViaId().getTipoViaId(), null));
+        copia.setNombreCalle(direccion.getNombreCalle());
+        copia.setNumero(direccion.getNumero());
+        copia.setCodPostal(direccion.getCodPostal());
+        copia.setMunicipio(direccion.getMunicipio());
+        copia.setProvincia(new Provincia(direccion.getProvincia().getCodProvincia(), null));
+        return copia;
+    }
+
     private Persona createPersona() throws ParseException {
-        Persona persona = new Persona(persona.getPersonaId(), persona.getNombre(), persona.getEmail(), persona.getPassword());
+        Persona persona = new Persona();
         persona.setNombre("Juan");
         persona.setApellido1("Francés");
         persona.setApellido2("Atúñez");
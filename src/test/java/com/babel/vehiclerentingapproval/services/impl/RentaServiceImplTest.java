@@ -1,5 +1,6 @@
 package com.babel.vehiclerentingapproval.services.impl;
 
+import com.babel.vehiclerentingapproval.Security.Service.CacheUsuarios;
 import com.babel.vehiclerentingapproval.exceptions.PersonaNotFoundException;
 import com.babel.vehiclerentingapproval.exceptions.ProfesionNotFoundException;
 import com.babel.vehiclerentingapproval.exceptions.RentaFoundException;
@@ -7,10 +8,12 @@ import com.babel.vehiclerentingapproval.models.Direccion;
 import com.babel.vehiclerentingapproval.models.Persona;
 import com.babel.vehiclerentingapproval.models.Profesion;
 import com.babel.vehiclerentingapproval.models.Renta;
+import com.babel.vehiclerentingapproval.models.ResultadoAltaRenta;
 import com.babel.vehiclerentingapproval.persistance.database.mappers.*;
 import com.babel.vehiclerentingapproval.services.PersonaService;
 import com.babel.vehiclerentingapproval.services.ProfesionService;
 import com.babel.vehiclerentingapproval.services.RentaService;
+import com.babel.vehiclerentingapproval.services.referencia.impl.DatosReferenciaImpl;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +23,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.Set;
 
 import static org.mockito.Mockito.when;
 
@@ -29,6 +34,8 @@ class RentaServiceImplTest {
     RentaMapper rentaMapper;
     ProfesionService profesionService;
     PersonaService personaService;
+    PersonaMapper personaMapper;
+    AltaRentasLote altaRentasLote;
 
 
     @BeforeEach
@@ -43,7 +50,7 @@ class RentaServiceImplTest {
         when(rentaMapper.existeRenta(1)).thenReturn(1);
         when(rentaMapper.existeRenta(100)).thenReturn(0);
 
-        PersonaMapper personaMapper = Mockito.mock(PersonaMapper.class);
+        personaMapper = Mockito.mock(PersonaMapper.class);
         when(personaMapper.existePersona(100)).thenReturn(0);
         when(personaMapper.existePersona(1)).thenReturn(1);
 
@@ -54,11 +61,13 @@ class RentaServiceImplTest {
         PaisMapper paisMapper = Mockito.mock(PaisMapper.class);
 
 
-        personaService = new PersonaServiceImpl(direccionMapper, personaMapper, telefonoMapper, tipoViaMapper, provinciaMapper, paisMapper);
+        personaService = new PersonaServiceImpl(direccionMapper, personaMapper, telefonoMapper,
+                new DatosReferenciaImpl(paisMapper, provinciaMapper, tipoViaMapper, 60000, 100), Mockito.mock(CacheUsuarios.class), Mockito.mock(AltaPersonasLote.class));
         profesionService = new ProfesionServiceImpl(profesionMapper);
 
 
-        rentaService = new RentaServiceImpl(rentaMapper, personaService, profesionService);
+        altaRentasLote = Mockito.mock(AltaRentasLote.class);
+        rentaService = new RentaServiceImpl(rentaMapper, personaService, profesionService, personaMapper, altaRentasLote);
     }
 
     @SneakyThrows
@@ -129,6 +138,38 @@ class RentaServiceImplTest {
     }
 
 
+    @SneakyThrows
+    @Test
+    void addRentas_should_insertarSoloLasValidas_sinConsultasPorRenta ( ) {
+        when(personaMapper.getPersonasExistentes(Mockito.any())).thenReturn(List.of(1));
+        Mockito.doAnswer(invocation -> {
+            List<Renta> rentas = invocation.getArgument(0);
+            rentas.forEach(renta -> renta.setRentaId(50));
+            return null;
+        }).when(altaRentasLote).insertar(Mockito.any());
+        Renta valida = createRenta();
+        valida.getPersona().setPersonaId(1);
+        Renta sinProfesion = createRenta();
+        sinProfesion.getPersona().setPersonaId(1);
+        sinProfesion.getProfesion().setProfesionId(100);
+        Renta sinPersona = createRenta();
+        sinPersona.getPersona().setPersonaId(100);
+        Renta iaeLargo = createRenta();
+        iaeLargo.getPersona().setPersonaId(1);
+        iaeLargo.setIae("1234567");
+
+        List<ResultadoAltaRenta> resultados = this.rentaService.addRentas(List.of(valida, sinProfesion, sinPersona, iaeLargo), Set.of(1));
+
+        Mockito.verify(altaRentasLote).insertar(List.of(valida));
+        Mockito.verify(personaMapper).getPersonasExistentes(List.of(1, 100));
+        Mockito.verify(personaMapper, Mockito.never()).existePersona(Mockito.anyInt());
+        Mockito.verify(rentaMapper, Mockito.never()).existeRenta(Mockito.anyInt());
+        Assertions.assertEquals(50, resultados.get(0).getRentaId());
+        Assertions.assertTrue(resultados.get(1).getError().startsWith("ProfesionNotFoundException"));
+        Assertions.assertTrue(resultados.get(2).getError().startsWith("PersonaNotFoundException"));
+        Assertions.assertTrue(resultados.get(3).getError().startsWith("WrongLenghtFieldException"));
+    }
+
     private Renta createRenta ( ) throws ParseException {
         Renta renta = new Renta();
 
@@ -153,7 +194,7 @@ class RentaServiceImplTest {
     }
 
     private Persona createPersona ( ) throws ParseException {
-        Persona persona = new Persona(persona.getPersonaId(), persona.getNombre(), persona.getEmail(), persona.getPassword());
+        Persona persona = new Persona();
         persona.setNombre("Juan");
         persona.setApellido1("Francés");
         persona.setApellido2("Atúñez");
@@ -4,6 +4,7 @@ import com.babel.vehiclerentingapproval.exceptions.ResolucionSolicitudesNotFound
 import com.babel.vehiclerentingapproval.models.ResolucionSolicitud;
 import com.babel.vehiclerentingapproval.persistance.database.mappers.ResolucionSolicitudesMapper;
 import com.babel.vehiclerentingapproval.services.ResolucionSolicitudesService;
+import com.babel.vehiclerentingapproval.services.referencia.impl.CatalogoResolucionesImpl;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,7 +27,7 @@ class ResolucionSolicitudesServiceImplTest {
         solicitudesMapper = Mockito.mock(ResolucionSolicitudesMapper.class);
         when(solicitudesMapper.getTipoResolucionesSolicitudes()).thenReturn(crearListaVacia());
 
-        solicitudesService = new ResolucionSolicitudesServiceImpl(solicitudesMapper);
+        solicitudesService = new ResolucionSolicitudesServiceImpl(crearCatalogo(solicitudesMapper));
     }
 
     @Test
@@ -39,12 +40,31 @@ class ResolucionSolicitudesServiceImplTest {
     void listar_shouldNotThrow_ResolucionSolicitudesNotFoundException_when_hayDatos() {
         solicitudesMapper = Mockito.mock(ResolucionSolicitudesMapper.class);
         when(solicitudesMapper.getTipoResolucionesSolicitudes()).thenReturn(crearListaConElementos());
-        solicitudesService = new ResolucionSolicitudesServiceImpl(solicitudesMapper);
+        solicitudesService = new ResolucionSolicitudesServiceImpl(crearCatalogo(solicitudesMapper));
 
         Assertions.assertDoesNotThrow(() -> {
             solicitudesService.getTipoResolucionesSolicitudes();
         });
     }
+    @Test
+    void listar_shouldNotQueryDatabase_when_catalogoCargado() {
+        solicitudesMapper = Mockito.mock(ResolucionSolicitudesMapper.class);
+        when(solicitudesMapper.getTipoResolucionesSolicitudes()).thenReturn(crearListaConElementos());
+        solicitudesService = new ResolucionSolicitudesServiceImpl(crearCatalogo(solicitudesMapper));
+
+        solicitudesService.getTipoResolucionesSolicitudes();
+        solicitudesService.getTipoResolucionesSolicitudes();
+
+        Mockito.verify(solicitudesMapper, Mockito.times(1)).getTipoResolucionesSolicitudes();
+        Assertions.assertEquals("AA", solicitudesService.getTipoResolucionesSolicitudes().get(0).getCodigoResultado());
+    }
+
+    private CatalogoResolucionesImpl crearCatalogo(ResolucionSolicitudesMapper mapper) {
+        var catalogo = new CatalogoResolucionesImpl(mapper);
+        catalogo.init();
+        return catalogo;
+    }
+
     private List<ResolucionSolicitud> crearListaConElementos ( ) {
         List<ResolucionSolicitud> lista = new ArrayList<>();
         lista.add(new ResolucionSolicitud("AA", "Aprobada"));
@@ -0,0 +1,136 @@
+package com.babel.vehiclerentingapproval.services.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor SMTP minimo en memoria para los tests y benchmarks del envio de correos: acepta cualquier remitente y
+ * destinatario salvo los que contienen "rechazado", sin TLS ni autenticacion, y cuenta las conexiones y los mensajes
+ * recibidos.
+ */
+public class ServidorSmtpFalso implements AutoCloseable {
+    private final ServerSocket servidor;
+    private final ExecutorService hilos = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "smtp-falso");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger conexiones = new AtomicInteger();
+    private final AtomicInteger mensajes = new AtomicInteger();
+    private final List<Socket> abiertas = new CopyOnWriteArrayList<>();
+    private volatile long retardoMs;
+
+    public ServidorSmtpFalso() throws IOException {
+        this.servidor = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        hilos.execute(this::aceptar);
+    }
+
+    public int getPuerto() {
+        return servidor.getLocalPort();
+    }
+
+    public int getConexiones() {
+        return conexiones.get();
+    }
+
+    public int getMensajes() {
+        return mensajes.get();
+    }
+
+    /**
+     * Retrasa la respuesta a cada mensaje recibido, como haria un servidor de correo lento
+     */
+    public void setRetardoMs(long retardoMs) {
+        this.retardoMs = retardoMs;
+    }
+
+    /**
+     * Corta todas las conexiones abiertas, como haria un servidor que cierra las conexiones inactivas
+     */
+    public void cortarConexiones() throws IOException {
+        for (Socket socket : abiertas) {
+            socket.close();
+        }
+    }
+
+    private void aceptar() {
+        while (!servidor.isClosed()) {
+            try {
+                Socket socket = servidor.accept();
+                conexiones.incrementAndGet();
+                abiertas.add(socket);
+                hilos.execute(() -> this.atender(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void atender(Socket socket) {
+        try (socket; var entrada = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))) {
+            OutputStream salida = socket.getOutputStream();
+            responder(salida, "220 localhost ESMTP falso");
+            String linea;
+            while ((linea = entrada.readLine()) != null) {
+                String comando = linea.length() < 4 ? linea.toUpperCase() : linea.substring(0, 4).toUpperCase();
+                switch (comando) {
+                    case "EHLO":
+                        responder(salida, "250-localhost\r\n250 8BITMIME");
+                        break;
+                    case "DATA":
+                        responder(salida, "354 fin con <CRLF>.<CRLF>");
+                        while ((linea = entrada.readLine()) != null && !".".equals(linea)) {
+                            // se descarta el cuerpo del mensaje
+                        }
+                        esperar();
+                        mensajes.incrementAndGet();
+                        responder(salida, "250 OK");
+                        break;
+                    case "RCPT":
+                        responder(salida, linea.contains("rechazado") ? "550 buzon inexistente" : "250 OK");
+                        break;
+                    case "QUIT":
+                        responder(salida, "221 adios");
+                        return;
+                    default:
+                        responder(salida, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // conexion cortada
+        } finally {
+            abiertas.remove(socket);
+        }
+    }
+
+    private void esperar() {
+        try {
+            Thread.sleep(retardoMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void responder(OutputStream salida, String respuesta) throws IOException {
+        salida.write((respuesta + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        salida.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        servidor.close();
+        this.cortarConexiones();
+        hilos.shutdownNow();
+    }
+}
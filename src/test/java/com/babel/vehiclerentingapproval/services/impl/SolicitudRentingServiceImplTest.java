@@ -6,9 +6,11 @@ import com.babel.vehiclerentingapproval.persistance.database.mappers.PersonaMapp
 import com.babel.vehiclerentingapproval.persistance.database.mappers.SolicitudRentingMapper;
 import com.babel.vehiclerentingapproval.persistance.database.mappers.TipoResultadoSolicitudMapper;
 import com.babel.vehiclerentingapproval.services.CodigoResolucionValidator;
-import com.babel.vehiclerentingapproval.services.EmailService;
 import com.babel.vehiclerentingapproval.services.PersonaService;
 import com.babel.vehiclerentingapproval.services.SolicitudRentingService;
+import com.babel.vehiclerentingapproval.services.journal.SolicitudJournal;
+import com.babel.vehiclerentingapproval.services.notificacion.NotificacionOutbox;
+import com.babel.vehiclerentingapproval.services.referencia.CatalogoResoluciones;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -35,7 +37,9 @@ public class SolicitudRentingServiceImplTest {
     PersonaService personaService;
     PersonaMapper personaMapper;
 
-    EmailService emailService;
+    NotificacionOutbox notificacionOutbox;
+    SolicitudJournal solicitudJournal;
+    CatalogoResoluciones catalogoResoluciones;
 
 
     @BeforeEach
@@ -44,11 +48,13 @@ public class SolicitudRentingServiceImplTest {
         solicitudRentingMapper = Mockito.mock(SolicitudRentingMapper.class);
         personaMapper = Mockito.mock(PersonaMapper.class);
         personaService = Mockito.mock(PersonaService.class);
-        codigoResolucionValidator = new CodigoResolucionValidatorImpl(tipoResultadoSolicitudMapper);
+        catalogoResoluciones = Mockito.mock(CatalogoResoluciones.class);
+        codigoResolucionValidator = new CodigoResolucionValidatorImpl(catalogoResoluciones);
 
-        emailService = Mockito.mock(EmailService.class);
+        notificacionOutbox = Mockito.mock(NotificacionOutbox.class);
+        solicitudJournal = Mockito.mock(SolicitudJournal.class);
 
-        solicitudService = new SolicitudRentingServiceImpl(solicitudRentingMapper, tipoResultadoSolicitudMapper, personaService, codigoResolucionValidator, personaMapper,emailService);
+        solicitudService = new SolicitudRentingServiceImpl(solicitudRentingMapper, tipoResultadoSolicitudMapper, personaService, codigoResolucionValidator, notificacionOutbox, solicitudJournal, catalogoResoluciones);
 
 
     }
@@ -60,9 +66,18 @@ public class SolicitudRentingServiceImplTest {
         return tipoResultadoSolicitud;
     }
 
+    private CambioEstadoSolicitud creaCambioEstado(String email) {
+        CambioEstadoSolicitud cambio = new CambioEstadoSolicitud();
+        cambio.setSolicitudId(1);
+        cambio.setPersonaId(1);
+        cambio.setCodResolucionActual("PA");
+        cambio.setEmail(email);
+        return cambio;
+    }
+
     private SolicitudRenting creaSolicitudFicticia() throws ParseException {
         SolicitudRenting solicitudFicticia = new SolicitudRenting();
-        Persona personaFicticia = new Persona(persona.getPersonaId(), persona.getNombre(), persona.getEmail(), persona.getPassword());
+        Persona personaFicticia = new Persona();
         Direccion direccionFicticia = new Direccion();
         direccionFicticia.setDireccionId(1);
         direccionFicticia.setTipoViaId(new TipoVia(1, "Alameda"));
@@ -104,7 +119,7 @@ public class SolicitudRentingServiceImplTest {
         @Test
         void verEstadoSolicitud_shouldNotThrow_EstadoSolicitudNotFoundException_when_codSolicitudNull_and_idNotExists() {
             Mockito.when(tipoResultadoSolicitudMapper.existeCodigoResolucion(anyInt())).thenReturn(1);
-            Mockito.when(tipoResultadoSolicitudMapper.codigoValido(anyString())).thenReturn(1);
+            Mockito.when(catalogoResoluciones.esValido(anyString())).thenReturn(true);
             Mockito.when(tipoResultadoSolicitudMapper.getResultadoSolicitud(anyInt())).thenReturn(creaTipoResultadoFicticia());
 
             Assertions.assertDoesNotThrow(() -> {
@@ -114,7 +129,7 @@ public class SolicitudRentingServiceImplTest {
 
         @Test
         void verEstadoSolicitud_shouldThrow_EstadoSolicitudInvalidException_when_codSolicitudNotValid() {
-            Mockito.when(tipoResultadoSolicitudMapper.codigoValido(anyString())).thenReturn(0);
+            Mockito.when(catalogoResoluciones.esValido(anyString())).thenReturn(false);
             var cadena = anyString();
             Assertions.assertThrows(EstadoSolicitudInvalidException.class, () -> {
                 codigoResolucionValidator.validarCodResolucion(cadena);
@@ -123,7 +138,7 @@ public class SolicitudRentingServiceImplTest {
 
         @Test
         void verEstadoSolicitud_shouldNotThrow_EstadoSolicitudInvalidException_when_codSolicitudNotValid() {
-            Mockito.when(tipoResultadoSolicitudMapper.codigoValido(anyString())).thenReturn(1);
+            Mockito.when(catalogoResoluciones.esValido(anyString())).thenReturn(true);
 
             Assertions.assertDoesNotThrow(() -> {
                 codigoResolucionValidator.validarCodResolucion(anyString());
@@ -166,8 +181,8 @@ public class SolicitudRentingServiceImplTest {
         @Test
         void modificaEstadoSolicitud_shouldThrow_EstadoSolicitudNotFoundException_when_codSolicitudNotExist() {
 
-            Mockito.when(tipoResultadoSolicitudMapper.getListaEstados()).thenReturn(creaListaMock());
-            when(solicitudRentingMapper.existeSolicitud(anyInt())).thenReturn(1);
+            Mockito.when(catalogoResoluciones.esValido(anyString())).thenAnswer(invocation -> creaListaMock().contains(invocation.getArgument(0)));
+            when(solicitudRentingMapper.getCambioEstado(anyInt())).thenReturn(creaCambioEstado("blabla@gmail.com"));
             int id = 1;
             TipoResultadoSolicitud tipoResultadoSolicitud = new TipoResultadoSolicitud();
             tipoResultadoSolicitud.setCodResultado("WW");
@@ -180,8 +195,8 @@ public class SolicitudRentingServiceImplTest {
 
         @Test
         void modificaEstadoSolicitud_shouldThrow_SolicitudRentingNotFoundException_when_solicitudIdNotExists() {
-            Mockito.when(tipoResultadoSolicitudMapper.getListaEstados()).thenReturn(creaListaMock());
-            when(solicitudRentingMapper.existeSolicitud(anyInt())).thenReturn(0);
+            Mockito.when(catalogoResoluciones.esValido(anyString())).thenAnswer(invocation -> creaListaMock().contains(invocation.getArgument(0)));
+            when(solicitudRentingMapper.getCambioEstado(anyInt())).thenReturn(null);
             int id = -1;
             TipoResultadoSolicitud tipoResultadoSolicitud = new TipoResultadoSolicitud();
             tipoResultadoSolicitud.setCodResultado("AA");
@@ -193,12 +208,9 @@ public class SolicitudRentingServiceImplTest {
 
         @Test
         void modificaEstadoSolicitud_shouldThrow_SolicitudFailedSendingEmail_when_emailIsNull() throws ParseException {
-            Mockito.when(tipoResultadoSolicitudMapper.getListaEstados()).thenReturn(creaListaMock());
-            when(solicitudRentingMapper.existeSolicitud(anyInt())).thenReturn(1);
-            when(solicitudRentingMapper.getSolicitudByID(anyInt())).thenReturn(creaSolicitudFicticia());
-            Mockito.when(personaMapper.getEmail(anyInt())).thenReturn(null);
+            Mockito.when(catalogoResoluciones.esValido(anyString())).thenAnswer(invocation -> creaListaMock().contains(invocation.getArgument(0)));
+            when(solicitudRentingMapper.getCambioEstado(anyInt())).thenReturn(creaCambioEstado(null));
 
-            when(tipoResultadoSolicitudMapper.getEstadoSolicitud(anyInt())).thenReturn("");
             int id = 1;
             TipoResultadoSolicitud tipoResultadoSolicitud = new TipoResultadoSolicitud();
             tipoResultadoSolicitud.setCodResultado("AA");
@@ -211,15 +223,12 @@ public class SolicitudRentingServiceImplTest {
 
         @Test
         void modificaEstadoSolicitud_shouldThrow_SolicitudFailedSendingEmail_when_emailHasNotArroba() throws ParseException {
-            Mockito.when(tipoResultadoSolicitudMapper.getListaEstados()).thenReturn(creaListaMock());
-            when(solicitudRentingMapper.existeSolicitud(anyInt())).thenReturn(1);
-            when(solicitudRentingMapper.getSolicitudByID(anyInt())).thenReturn(creaSolicitudFicticia());
-            Mockito.when(personaMapper.getEmail(anyInt())).thenReturn("blabla");
+            Mockito.when(catalogoResoluciones.esValido(anyString())).thenAnswer(invocation -> creaListaMock().contains(invocation.getArgument(0)));
+            when(solicitudRentingMapper.getCambioEstado(anyInt())).thenReturn(creaCambioEstado("blabla"));
 
             String dest = "blablagmail.com";
             String message = "Buenas";
             String asunto = "Importante";
-            when(tipoResultadoSolicitudMapper.getEstadoSolicitud(anyInt())).thenReturn("");
             int id = 1;
             TipoResultadoSolicitud tipoResultadoSolicitud = new TipoResultadoSolicitud();
             tipoResultadoSolicitud.setCodResultado("AA");
@@ -233,17 +242,14 @@ public class SolicitudRentingServiceImplTest {
 
         @Test
         void modificaEstadoSolicitud_shouldNotThrow_SolicitudRentingNotFoundException_when_emailExists() throws ParseException, MessagingException {
-            Mockito.when(tipoResultadoSolicitudMapper.getListaEstados()).thenReturn(creaListaMock());
-            when(solicitudRentingMapper.existeSolicitud(anyInt())).thenReturn(1);
-            when(solicitudRentingMapper.getSolicitudByID(anyInt())).thenReturn(creaSolicitudFicticia());
-            Mockito.when(personaMapper.getEmail(anyInt())).thenReturn("blabla@gmail.com");
+            Mockito.when(catalogoResoluciones.esValido(anyString())).thenAnswer(invocation -> creaListaMock().contains(invocation.getArgument(0)));
+            when(solicitudRentingMapper.getCambioEstado(anyInt())).thenReturn(creaCambioEstado("blabla@gmail.com"));
 
 
             String dest = "blabla@gmail.com";
             String message = "Buenas";
             String asunto = "Importante";
-            when(tipoResultadoSolicitudMapper.getEstadoSolicitud(anyInt())).thenReturn("");
-            Mockito.when(emailService.sendMail(message, dest, asunto)).thenReturn(true);
+            when(solicitudRentingMapper.modificaEstadoSolicitud(anyInt(), Mockito.any(TipoResultadoSolicitud.class))).thenReturn(1);
             Assertions.assertDoesNotThrow(() -> {
                 int id = 1;
                 TipoResultadoSolicitud tipoResultadoSolicitud = new TipoResultadoSolicitud();
@@ -252,6 +258,35 @@ public class SolicitudRentingServiceImplTest {
                 solicitudService.modificaEstadoSolicitud(id, tipoResultadoSolicitud);
             });
         }
+
+        @Test
+        void modificaEstadoSolicitud_shouldUpdateAndEnqueueNotification_withNewStateDescription() throws MessagingException {
+            Mockito.when(catalogoResoluciones.esValido("AA")).thenReturn(true);
+            Mockito.when(catalogoResoluciones.getDescripcion("AA")).thenReturn("Aprobada");
+            when(solicitudRentingMapper.getCambioEstado(1)).thenReturn(creaCambioEstado("blabla@gmail.com"));
+            TipoResultadoSolicitud tipoResultadoSolicitud = new TipoResultadoSolicitud();
+            tipoResultadoSolicitud.setCodResultado("AA");
+            when(solicitudRentingMapper.modificaEstadoSolicitud(1, tipoResultadoSolicitud)).thenReturn(1);
+
+            solicitudService.modificaEstadoSolicitud(1, tipoResultadoSolicitud);
+
+            var orden = Mockito.inOrder(solicitudRentingMapper, notificacionOutbox);
+            orden.verify(solicitudRentingMapper).getCambioEstado(1);
+            orden.verify(solicitudRentingMapper).modificaEstadoSolicitud(1, tipoResultadoSolicitud);
+            orden.verify(notificacionOutbox).encolar("blabla@gmail.com", "Cambios en tu solicitud", "Su solicitud se encuentra: Aprobada");
+            Mockito.verifyNoInteractions(personaMapper, tipoResultadoSolicitudMapper);
+        }
+
+        @Test
+        void modificaEstadoSolicitud_shouldThrow_SolicitudRentingNotFoundException_when_updateFindsNoRow() {
+            Mockito.when(catalogoResoluciones.esValido(anyString())).thenReturn(true);
+            when(solicitudRentingMapper.getCambioEstado(anyInt())).thenReturn(creaCambioEstado("blabla@gmail.com"));
+            TipoResultadoSolicitud tipoResultadoSolicitud = new TipoResultadoSolicitud();
+            tipoResultadoSolicitud.setCodResultado("AA");
+
+            Assertions.assertThrows(SolicitudRentingNotFoundException.class, () -> solicitudService.modificaEstadoSolicitud(1, tipoResultadoSolicitud));
+            Mockito.verifyNoInteractions(notificacionOutbox);
+        }
     }
 
     private List<String> creaListaMock() {
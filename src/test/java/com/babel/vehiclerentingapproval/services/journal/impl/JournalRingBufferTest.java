@@ -0,0 +1,66 @@
+package com.babel.vehiclerentingapproval.services.journal.impl;
+
+import com.babel.vehiclerentingapproval.models.JournalRecord;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+class JournalRingBufferTest {
+    @Test
+    void constructor_shouldRoundCapacityToPowerOfTwo() {
+        Assertions.assertEquals(8, new JournalRingBuffer(5, 0).getCapacity());
+        Assertions.assertEquals(8, new JournalRingBuffer(8, 0).getCapacity());
+    }
+
+    @Test
+    void drain_shouldStopAtFirstUnpublishedSequence() {
+        JournalRingBuffer ring = new JournalRingBuffer(8, 10);
+        ring.publish(11, 1L, 100, Long.MAX_VALUE);
+        ring.publish(13, 3L, 300, Long.MAX_VALUE);
+
+        List<Long> drained = new ArrayList<>();
+        Assertions.assertEquals(1, ring.drain(16, (sequence, epochNanos, solicitudId) -> drained.add(sequence)));
+        Assertions.assertFalse(ring.hasPublished());
+
+        ring.publish(12, 2L, 200, Long.MAX_VALUE);
+        Assertions.assertEquals(2, ring.drain(16, (sequence, epochNanos, solicitudId) -> drained.add(sequence)));
+        Assertions.assertEquals(List.of(11L, 12L, 13L), drained);
+        Assertions.assertEquals(13, ring.getConsumed());
+    }
+
+    @Test
+    void publish_shouldWaitWhileBufferIsFull() throws Exception {
+        JournalRingBuffer ring = new JournalRingBuffer(2, 0);
+        ring.publish(1, 1L, 1, Long.MAX_VALUE);
+        ring.publish(2, 2L, 2, Long.MAX_VALUE);
+
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> ring.publish(3, 3L, 3, Long.MAX_VALUE));
+        Thread.sleep(50);
+        Assertions.assertFalse(blocked.isDone());
+
+        ring.drain(1, (sequence, epochNanos, solicitudId) -> { });
+        blocked.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(2, ring.drain(16, (sequence, epochNanos, solicitudId) -> { }));
+    }
+
+    @Test
+    void publish_shouldAbandonSequence_whenBufferStaysFull() {
+        JournalRingBuffer ring = new JournalRingBuffer(2, 0);
+        ring.publish(1, 1L, 1, Long.MAX_VALUE);
+        ring.publish(2, 2L, 2, Long.MAX_VALUE);
+
+        Assertions.assertFalse(ring.publish(3, 3L, 3, TimeUnit.MILLISECONDS.toNanos(20)));
+
+        List<Integer> solicitudes = new ArrayList<>();
+        Assertions.assertEquals(3, ring.drain(16, (sequence, epochNanos, solicitudId) -> solicitudes.add(solicitudId)));
+        Assertions.assertFalse(ring.hasPublished());
+        Assertions.assertTrue(ring.publish(4, 4L, 4, Long.MAX_VALUE));
+        Assertions.assertEquals(1, ring.drain(16, (sequence, epochNanos, solicitudId) -> solicitudes.add(solicitudId)));
+        Assertions.assertEquals(List.of(1, 2, JournalRecord.SOLICITUD_ANULADA, 4), solicitudes);
+        Assertions.assertEquals(4, ring.getConsumed());
+    }
+}
@@ -0,0 +1,109 @@
+package com.babel.vehiclerentingapproval.services.journal.impl;
+
+import com.babel.vehiclerentingapproval.models.JournalRecord;
+import com.babel.vehiclerentingapproval.services.journal.JournalFlushPolicy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class JournalSequencerTest {
+    private static final int THREADS = 32;
+    private static final int PER_THREAD = 5_000;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Lanza THREADS hilos que arrancan a la vez y ejecutan PER_THREAD veces la accion, devolviendo todas las secuencias.
+     */
+    private List<long[]> runConcurrently(Callable<Long> action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                long[] sequences = new long[PER_THREAD];
+                start.await();
+                for (int i = 0; i < PER_THREAD; i++) {
+                    sequences[i] = action.call();
+                }
+                return sequences;
+            }));
+        }
+        start.countDown();
+        List<long[]> results = new ArrayList<>();
+        for (Future<long[]> future : futures) {
+            results.add(future.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        return results;
+    }
+
+    private void assertNoGapsNoDuplicates(List<long[]> results, long first, int total) {
+        BitSet seen = new BitSet(total);
+        for (long[] sequences : results) {
+            for (long sequence : sequences) {
+                int index = (int) (sequence - first);
+                Assertions.assertTrue(index >= 0 && index < total, "Secuencia fuera de rango: " + sequence);
+                Assertions.assertFalse(seen.get(index), "Secuencia duplicada: " + sequence);
+                seen.set(index);
+            }
+        }
+        Assertions.assertEquals(total, seen.cardinality());
+    }
+
+    @Test
+    void next_shouldNotProduceGapsOrDuplicatesUnderContention() throws Exception {
+        JournalSequencer sequencer = new JournalSequencer();
+        sequencer.restore(41);
+
+        List<long[]> results = runConcurrently(sequencer::next);
+
+        assertNoGapsNoDuplicates(results, 42, THREADS * PER_THREAD);
+        Assertions.assertEquals(41 + THREADS * PER_THREAD, sequencer.current());
+    }
+
+    @Test
+    void append_shouldWriteEverySequenceOnceUnderContention() throws Exception {
+        SolicitudJournalImpl journal = new SolicitudJournalImpl(directory.toString(), 1_000, 1_024, JournalFlushPolicy.INTERVAL, 256, 10, 5000, 5000);
+        journal.init();
+
+        List<long[]> results = runConcurrently(() -> journal.append(7));
+
+        int total = THREADS * PER_THREAD;
+        assertNoGapsNoDuplicates(results, 1, total);
+        journal.flush();
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(1, records::add);
+        Assertions.assertEquals(total, records.size());
+        for (int i = 0; i < total; i++) {
+            Assertions.assertEquals(i + 1, records.get(i).getSequence());
+        }
+        journal.close();
+    }
+
+    @Test
+    void init_shouldRestoreSequencerFromDurableTail() throws Exception {
+        SolicitudJournalImpl journal = new SolicitudJournalImpl(directory.toString(), 1_000, 1_024, JournalFlushPolicy.INTERVAL, 256, 10, 5000, 5000);
+        journal.init();
+        runConcurrently(() -> journal.append(9));
+        journal.close();
+
+        SolicitudJournalImpl reopened = new SolicitudJournalImpl(directory.toString(), 1_000, 1_024, JournalFlushPolicy.INTERVAL, 256, 10, 5000, 5000);
+        reopened.init();
+        Assertions.assertEquals(THREADS * PER_THREAD, reopened.getLastSequence());
+        Assertions.assertEquals(THREADS * PER_THREAD + 1, reopened.append(10));
+        reopened.close();
+    }
+}
@@ -0,0 +1,199 @@
+package com.babel.vehiclerentingapproval.services.journal.impl;
+
+import com.babel.vehiclerentingapproval.models.JournalRecord;
+import com.babel.vehiclerentingapproval.models.JournalStats;
+import com.babel.vehiclerentingapproval.services.journal.JournalFlushPolicy;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+class SolicitudJournalImplTest {
+    @TempDir
+    Path directory;
+
+    private SolicitudJournalImpl openJournal(int segmentRecords) {
+        return openJournal(segmentRecords, JournalFlushPolicy.INTERVAL);
+    }
+
+    private SolicitudJournalImpl openJournal(int segmentRecords, JournalFlushPolicy flushPolicy) {
+        SolicitudJournalImpl journal = new SolicitudJournalImpl(directory.toString(), segmentRecords, 8, flushPolicy, 4, 10, 5000, 5000);
+        journal.init();
+        return journal;
+    }
+
+    private List<JournalRecord> replay(SolicitudJournalImpl journal, long fromSequence) {
+        journal.flush();
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(fromSequence, records::add);
+        return records;
+    }
+
+    @Test
+    void append_shouldAssignConsecutiveSequences() {
+        SolicitudJournalImpl journal = openJournal(16);
+
+        Assertions.assertEquals(1, journal.append(100));
+        Assertions.assertEquals(2, journal.append(101));
+        Assertions.assertEquals(3, journal.append(102));
+        Assertions.assertEquals(3, journal.getLastSequence());
+        journal.close();
+    }
+
+    @Test
+    void init_shouldRecoverTailFromExistingSegment() {
+        SolicitudJournalImpl journal = openJournal(16);
+        for (int i = 0; i < 5; i++) {
+            journal.append(200 + i);
+        }
+        journal.close();
+
+        SolicitudJournalImpl reopened = openJournal(16);
+        Assertions.assertEquals(5, reopened.getLastSequence());
+        Assertions.assertEquals(6, reopened.append(205));
+        reopened.close();
+    }
+
+    @Test
+    void append_shouldRollOverToNewSegmentWhenFull() throws IOException {
+        SolicitudJournalImpl journal = openJournal(4);
+        for (int i = 0; i < 10; i++) {
+            journal.append(i);
+        }
+
+        List<JournalRecord> records = replay(journal, 1);
+        try (Stream<Path> files = Files.list(directory)) {
+            Assertions.assertEquals(3, files.count());
+        }
+        Assertions.assertEquals(10, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            Assertions.assertEquals(i + 1, records.get(i).getSequence());
+            Assertions.assertEquals(i, records.get(i).getSolicitudId());
+        }
+        journal.close();
+    }
+
+    @Test
+    void replay_shouldStartFromRequestedSequence() {
+        SolicitudJournalImpl journal = openJournal(4);
+        for (int i = 0; i < 10; i++) {
+            journal.append(300 + i);
+        }
+
+        List<JournalRecord> records = replay(journal, 7);
+        Assertions.assertEquals(4, records.size());
+        Assertions.assertEquals(7, records.get(0).getSequence());
+        Assertions.assertEquals(306, records.get(0).getSolicitudId());
+        Assertions.assertTrue(records.get(0).getEpochNanos() > 0);
+        journal.close();
+    }
+
+    @Test
+    void init_shouldRecoverTailWhenLastSegmentIsFull() {
+        SolicitudJournalImpl journal = openJournal(4);
+        for (int i = 0; i < 8; i++) {
+            journal.append(i);
+        }
+        journal.close();
+
+        SolicitudJournalImpl reopened = openJournal(4);
+        Assertions.assertEquals(8, reopened.getLastSequence());
+        Assertions.assertEquals(9, reopened.append(8));
+        Assertions.assertEquals(9, replay(reopened, 1).size());
+        reopened.close();
+    }
+
+    @Test
+    void append_shouldBeDurableBeforeReturningWithDurablePolicy() {
+        SolicitudJournalImpl journal = openJournal(16, JournalFlushPolicy.DURABLE);
+
+        long sequence = journal.append(400);
+
+        JournalStats stats = journal.getStats();
+        Assertions.assertEquals(sequence, stats.getDurableSequence());
+        Assertions.assertEquals(0, stats.getQueueDepth());
+        Assertions.assertTrue(stats.getFlushCount() >= 1);
+        journal.close();
+    }
+
+    @Test
+    void append_shouldNotReturn_whenInterruptedBeforeRecordIsDurable() {
+        SolicitudJournalImpl journal = openJournal(16, JournalFlushPolicy.DURABLE);
+        try {
+            UncheckedIOException e;
+            synchronized (journal.durableMonitor) {
+                Thread.currentThread().interrupt();
+                e = Assertions.assertThrows(UncheckedIOException.class, () -> journal.append(450));
+            }
+
+            Assertions.assertInstanceOf(InterruptedIOException.class, e.getCause());
+            Assertions.assertTrue(Thread.interrupted());
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    void flush_shouldMakeBufferedRecordsDurableWithRecordsPolicy() {
+        SolicitudJournalImpl journal = openJournal(16, JournalFlushPolicy.RECORDS);
+        for (int i = 0; i < 3; i++) {
+            journal.append(500 + i);
+        }
+
+        journal.flush();
+
+        JournalStats stats = journal.getStats();
+        Assertions.assertEquals(3, stats.getDurableSequence());
+        Assertions.assertEquals("RECORDS", stats.getFlushPolicy());
+        Assertions.assertEquals(3, replay(journal, 1).size());
+        journal.close();
+    }
+
+    @Test
+    void append_shouldFailFast_whileWriterCannotRoll_andRecoverAfterwards() throws Exception {
+        SolicitudJournalImpl journal = openJournal(4);
+        for (int i = 0; i < 4; i++) {
+            journal.append(600 + i);
+        }
+        journal.flush();
+        Path blocker = Files.createDirectory(directory.resolve(JournalSegment.fileName(5)));
+        journal.append(604);
+        Thread.sleep(300);
+
+        Assertions.assertThrows(UncheckedIOException.class, () -> journal.append(605));
+        Assertions.assertThrows(UncheckedIOException.class, journal::flush);
+        Assertions.assertEquals(5, journal.getLastSequence());
+
+        Files.delete(blocker);
+        Thread.sleep(300);
+
+        Assertions.assertEquals(6, journal.append(605));
+        List<JournalRecord> records = replay(journal, 1);
+        Assertions.assertEquals(6, records.size());
+        Assertions.assertEquals(605, records.get(5).getSolicitudId());
+        journal.close();
+    }
+
+    @Test
+    void close_shouldNotWaitForever_forReservedButUnpublishedSequence() {
+        SolicitudJournalImpl journal = new SolicitudJournalImpl(directory.toString(), 16, 8, JournalFlushPolicy.INTERVAL, 4, 10, 200, 5000);
+        journal.init();
+        journal.append(700);
+        journal.sequencer.next();
+
+        Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), journal::close);
+
+        SolicitudJournalImpl reopened = openJournal(16);
+        Assertions.assertEquals(1, reopened.getLastSequence());
+        reopened.close();
+    }
+}
@@ -0,0 +1,134 @@
+package com.babel.vehiclerentingapproval.services.notificacion.impl;
+
+import com.babel.vehiclerentingapproval.exceptions.EmailNotSentException;
+import com.babel.vehiclerentingapproval.models.CorreoElectronico;
+import com.babel.vehiclerentingapproval.models.NotificacionPendiente;
+import com.babel.vehiclerentingapproval.models.ResultadoEnvioCorreo;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.NotificacionOutboxMapper;
+import com.babel.vehiclerentingapproval.services.EmailService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+class NotificacionOutboxImplTest {
+    private NotificacionOutboxMapper notificacionOutboxMapper;
+    private EmailService emailService;
+    private NotificacionOutboxImpl outbox;
+
+    @BeforeEach
+    void setUp() {
+        this.notificacionOutboxMapper = Mockito.mock(NotificacionOutboxMapper.class);
+        this.emailService = Mockito.mock(EmailService.class);
+        this.outbox = new NotificacionOutboxImpl(this.notificacionOutboxMapper, this.emailService, 10, 2, 3, 1000, 8000, 60000, 30);
+    }
+
+    @Test
+    void encolar_shouldOnlyInsert_withoutSendingMail() {
+        this.outbox.encolar("a@b.com", "Asunto", "Mensaje");
+
+        Mockito.verify(this.notificacionOutboxMapper).insertarNotificacion(Mockito.argThat(n ->
+                "a@b.com".equals(n.getDestino()) && "Asunto".equals(n.getAsunto()) && "Mensaje".equals(n.getMensaje())));
+        Mockito.verifyNoInteractions(this.emailService);
+    }
+
+    @Test
+    void despachar_shouldSendAndMarkAsSent() {
+        reclamar(notificacion(1, 0), notificacion(2, 0));
+        responder(correo -> ResultadoEnvioCorreo.enviado(correo.getDestino()));
+
+        Assertions.assertEquals(2, this.outbox.despachar());
+
+        Mockito.verify(this.notificacionOutboxMapper).marcarEnviada(1);
+        Mockito.verify(this.notificacionOutboxMapper).marcarEnviada(2);
+        Mockito.verify(this.notificacionOutboxMapper, Mockito.never()).programarReintento(anyLong(), anyInt(), anyLong(), anyString());
+    }
+
+    @Test
+    void despachar_shouldScheduleRetry_whenSendFails() {
+        reclamar(notificacion(1, 0));
+        responder(correo -> ResultadoEnvioCorreo.fallido(correo.getDestino(), "MessagingException: timeout"));
+
+        Assertions.assertEquals(0, this.outbox.despachar());
+
+        Mockito.verify(this.notificacionOutboxMapper).programarReintento(eq(1L), eq(1), Mockito.longThat(espera -> espera >= 500 && espera <= 1000),
+                Mockito.contains("timeout"));
+        Mockito.verify(this.notificacionOutboxMapper, Mockito.never()).marcarEnviada(anyLong());
+    }
+
+    @Test
+    void despachar_shouldMarkAsFailed_whenAttemptsExhausted() {
+        reclamar(notificacion(1, 2));
+        responder(correo -> ResultadoEnvioCorreo.fallido(correo.getDestino(), null));
+
+        this.outbox.despachar();
+
+        Mockito.verify(this.notificacionOutboxMapper).marcarFallida(eq(1L), eq(3), anyString());
+    }
+
+    @Test
+    void despachar_shouldOnlyRetryFailedMessages_ofBulkSend() {
+        reclamar(notificacion(1, 0), notificacion(2, 0), notificacion(3, 0));
+        responder(correo -> correo.getDestino().startsWith("a2@")
+                ? ResultadoEnvioCorreo.fallido(correo.getDestino(), "SendFailedException: buzon inexistente")
+                : ResultadoEnvioCorreo.enviado(correo.getDestino()));
+
+        Assertions.assertEquals(2, this.outbox.despachar());
+
+        Mockito.verify(this.notificacionOutboxMapper).marcarEnviada(1);
+        Mockito.verify(this.notificacionOutboxMapper).marcarEnviada(3);
+        Mockito.verify(this.notificacionOutboxMapper).programarReintento(eq(2L), eq(1), anyLong(), Mockito.contains("buzon"));
+    }
+
+    @Test
+    void despachar_shouldRetryWholeBlock_whenMailQueueIsFull() {
+        reclamar(notificacion(1, 0), notificacion(2, 0));
+        Mockito.when(this.emailService.sendMailsAsync(any())).thenReturn(
+                CompletableFuture.failedFuture(new EmailNotSentException("La cola de envio de correos esta llena", HttpStatus.SERVICE_UNAVAILABLE)));
+
+        Assertions.assertEquals(0, this.outbox.despachar());
+
+        Mockito.verify(this.notificacionOutboxMapper).programarReintento(eq(1L), eq(1), anyLong(), Mockito.contains("llena"));
+        Mockito.verify(this.notificacionOutboxMapper).programarReintento(eq(2L), eq(1), anyLong(), Mockito.contains("llena"));
+        Mockito.verify(this.notificacionOutboxMapper, Mockito.never()).marcarEnviada(anyLong());
+    }
+
+    @Test
+    void calcularEspera_shouldGrowExponentially_upToMaximum() {
+        for (var intento = 1; intento <= 70; intento++) {
+            long esperada = Math.min(8000, 1000L << Math.min(intento - 1, 20));
+            long espera = this.outbox.calcularEspera(intento);
+            Assertions.assertTrue(espera >= esperada / 2 && espera <= esperada, "intento " + intento + ": " + espera);
+        }
+    }
+
+    private void reclamar(NotificacionPendiente... notificaciones) {
+        Mockito.when(this.notificacionOutboxMapper.reclamarPendientes(anyString(), eq(10), eq(60000L))).thenReturn(notificaciones.length, 0);
+        Mockito.when(this.notificacionOutboxMapper.listarReclamadas(anyString())).thenReturn(List.of(notificaciones));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void responder(Function<CorreoElectronico, ResultadoEnvioCorreo> resultado) {
+        Mockito.when(this.emailService.sendMailsAsync(any())).thenAnswer(invocation -> CompletableFuture.completedFuture(
+                ((List<CorreoElectronico>) invocation.getArgument(0)).stream().map(resultado).collect(Collectors.toList())));
+    }
+
+    private static NotificacionPendiente notificacion(long id, int intentos) {
+        var notificacion = new NotificacionPendiente("a" + id + "@b.com", "Asunto", "Mensaje");
+        notificacion.setNotificacionId(id);
+        notificacion.setIntentos(intentos);
+        return notificacion;
+    }
+}
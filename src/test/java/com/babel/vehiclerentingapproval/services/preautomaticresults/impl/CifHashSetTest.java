@@ -0,0 +1,83 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CifHashSetTest {
+    @Test
+    void contiene_shouldIgnoreCaseAndSeparators() {
+        CifHashSet cifs = new CifHashSet(4);
+        Assertions.assertTrue(cifs.anadir("B-12.345 678"));
+
+        Assertions.assertTrue(cifs.contiene("B12345678"));
+        Assertions.assertTrue(cifs.contiene("b12345678"));
+        Assertions.assertFalse(cifs.contiene("B12345679"));
+        Assertions.assertFalse(cifs.contiene(null));
+        Assertions.assertFalse(cifs.contiene(""));
+    }
+
+    @Test
+    void anadir_shouldNotCountDuplicates() {
+        CifHashSet cifs = new CifHashSet(4);
+        Assertions.assertTrue(cifs.anadir("45442L"));
+        Assertions.assertFalse(cifs.anadir("45442l"));
+        Assertions.assertFalse(cifs.anadir(null));
+
+        Assertions.assertEquals(1, cifs.getTamanio());
+    }
+
+    @Test
+    void anadir_shouldKeepNotEncodableCifsApart() {
+        CifHashSet cifs = new CifHashSet(4);
+        Assertions.assertEquals(-1L, CifHashSet.codificar("ESB123456789"));
+        cifs.anadir("ESB123456789");
+        cifs.anadir("Ñ1234");
+
+        Assertions.assertTrue(cifs.contiene("esb-123456789"));
+        Assertions.assertTrue(cifs.contiene("ñ1234"));
+        Assertions.assertEquals(2, cifs.getTamanio());
+    }
+
+    @Test
+    void codificar_shouldNotCollideWhenLeadingCharactersDiffer() {
+        Assertions.assertNotEquals(CifHashSet.codificar("0A"), CifHashSet.codificar("A"));
+        Assertions.assertNotEquals(CifHashSet.codificar("00"), CifHashSet.codificar("0"));
+    }
+
+    @Test
+    void anadir_shouldGrow_whenMoreCifsThanExpectedArrive() {
+        CifHashSet cifs = new CifHashSet(16);
+        cifs.anadir("ESB123456789");
+        for (var i = 0; i < 1000; i++) {
+            Assertions.assertTrue(cifs.anadir("A" + i));
+        }
+
+        Assertions.assertEquals(1001, cifs.getTamanio());
+        Assertions.assertFalse(cifs.anadir("a999"));
+        for (var i = 0; i < 1000; i++) {
+            Assertions.assertTrue(cifs.contiene("A" + i));
+        }
+        Assertions.assertTrue(cifs.contiene("ESB123456789"));
+        Assertions.assertFalse(cifs.contiene("B1"));
+    }
+
+    @Test
+    void copiar_shouldKeepCifsAndMakeRoomForMore() {
+        CifHashSet cifs = new CifHashSet(8);
+        for (var i = 0; i < 16; i++) {
+            cifs.anadir("A" + i);
+        }
+        cifs.anadir("ESB123456789");
+
+        CifHashSet copia = cifs.copiar(100);
+        for (var i = 0; i < 100; i++) {
+            copia.anadir("B" + i);
+        }
+
+        Assertions.assertEquals(117, copia.getTamanio());
+        Assertions.assertTrue(copia.contiene("A15"));
+        Assertions.assertTrue(copia.contiene("B99"));
+        Assertions.assertTrue(copia.contiene("ESB123456789"));
+        Assertions.assertFalse(cifs.contiene("B0"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+class FiltroBloomCifTest {
+    @Test
+    void constructor_shouldSizeFromExpectedCountAndFalsePositiveRate() {
+        FiltroBloomCif filtro = new FiltroBloomCif(1_000_000, 0.01);
+
+        Assertions.assertTrue(filtro.getNumeroBits() >= 9_585_059);
+        Assertions.assertEquals(7, filtro.getNumeroHashes());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new FiltroBloomCif(10, 0));
+    }
+
+    @Test
+    void quizaContiene_shouldNeverGiveFalseNegatives() {
+        FiltroBloomCif filtro = new FiltroBloomCif(10_000, 0.01);
+        for (var i = 0; i < 10_000; i++) {
+            filtro.anadir("B" + i);
+        }
+
+        for (var i = 0; i < 10_000; i++) {
+            Assertions.assertTrue(filtro.quizaContiene("b-" + i));
+        }
+        Assertions.assertFalse(filtro.quizaContiene(null));
+        Assertions.assertFalse(filtro.quizaContiene(" "));
+    }
+
+    @Test
+    void quizaContiene_shouldKeepFalsePositiveRateNearConfigured() {
+        FiltroBloomCif filtro = new FiltroBloomCif(10_000, 0.01);
+        for (var i = 0; i < 10_000; i++) {
+            filtro.anadir("B" + i);
+        }
+
+        var falsosPositivos = 0;
+        for (var i = 0; i < 100_000; i++) {
+            if (filtro.quizaContiene("A" + i)) {
+                falsosPositivos++;
+            }
+        }
+        Assertions.assertTrue(falsosPositivos < 2_000, "falsos positivos: " + falsosPositivos);
+    }
+
+    @Test
+    void anadir_shouldHandleNotEncodableCifs() {
+        FiltroBloomCif filtro = new FiltroBloomCif(10, 0.01);
+        Assertions.assertTrue(filtro.anadir("ESB123456789"));
+
+        Assertions.assertTrue(filtro.quizaContiene("esb-123456789"));
+        Assertions.assertFalse(filtro.anadir("ESB123456789"));
+    }
+
+    @Test
+    void isSaturado_shouldBeTrue_whenMoreCifsThanExpected() {
+        FiltroBloomCif filtro = new FiltroBloomCif(2, 0.01);
+        filtro.anadir("A1");
+        filtro.anadir("A2");
+        Assertions.assertFalse(filtro.isSaturado());
+
+        filtro.anadir("A3");
+        Assertions.assertTrue(filtro.isSaturado());
+    }
+
+    @Test
+    void copiar_shouldNotShareBits() {
+        FiltroBloomCif filtro = new FiltroBloomCif(10, 0.01);
+        filtro.anadir("A1");
+
+        FiltroBloomCif copia = filtro.copiar();
+        copia.anadir("A2");
+
+        Assertions.assertTrue(copia.quizaContiene("A1"));
+        Assertions.assertTrue(copia.quizaContiene("A2"));
+        Assertions.assertFalse(filtro.quizaContiene("A2"));
+    }
+
+    @Test
+    void leer_shouldRestoreWrittenFilter() throws IOException {
+        FiltroBloomCif filtro = new FiltroBloomCif(100, 0.05);
+        filtro.anadir("45442L");
+        var bytes = new ByteArrayOutputStream();
+        filtro.escribir(new DataOutputStream(bytes));
+
+        FiltroBloomCif leido = FiltroBloomCif.leer(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        Assertions.assertTrue(leido.quizaContiene("45442L"));
+        Assertions.assertEquals(filtro.getNumeroBits(), leido.getNumeroBits());
+        Assertions.assertEquals(filtro.getNumeroHashes(), leido.getNumeroHashes());
+        Assertions.assertEquals(1, leido.getInsertados());
+        Assertions.assertEquals(0.05, leido.getProbabilidadFalsoPositivo());
+    }
+}
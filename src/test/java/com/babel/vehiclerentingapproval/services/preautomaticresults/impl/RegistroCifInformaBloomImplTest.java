@@ -0,0 +1,188 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults.impl;
+
+import com.babel.vehiclerentingapproval.models.CifInforma;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.InformaMapper;
+import com.babel.vehiclerentingapproval.services.impl.JdbcSimulado;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+class RegistroCifInformaBloomImplTest {
+    @TempDir
+    Path directorio;
+    private InformaMapper informaMapper;
+    private Path fichero;
+
+    @BeforeEach
+    void setUp() {
+        this.informaMapper = Mockito.mock(InformaMapper.class);
+        this.fichero = this.directorio.resolve("informa-cif.bloom");
+        this.tablaCompleta(List.of(this.fila("45442L", 10), this.fila("B12345678", 20)));
+        Mockito.when(this.informaMapper.existeCif("45442L")).thenReturn(true);
+        Mockito.when(this.informaMapper.existeCif("B12345678")).thenReturn(true);
+    }
+
+    @Test
+    void contiene_shouldNotQueryDatabase_whenFilterSaysNo() {
+        RegistroCifInformaBloomImpl registro = this.crearRegistro(0.01);
+        registro.init();
+
+        Assertions.assertFalse(registro.contiene("99999Z"));
+        Assertions.assertFalse(registro.contiene(null));
+        Mockito.verify(this.informaMapper, Mockito.never()).existeCif(anyString());
+    }
+
+    @Test
+    void contiene_shouldConfirmWithDatabase_whenFilterSaysMaybe() {
+        RegistroCifInformaBloomImpl registro = this.crearRegistro(0.01);
+        registro.init();
+
+        Assertions.assertTrue(registro.contiene("b-12345678"));
+        Mockito.verify(this.informaMapper).existeCif("B12345678");
+    }
+
+    @Test
+    void contiene_shouldFindPaddedCif_whenFilterSaysMaybe() {
+        List<String> guardados = List.of("  b-1234.5679 ");
+        this.tablaCompleta(List.of(this.fila(guardados.get(0).trim(), 30)));
+        Mockito.when(this.informaMapper.existeCif(anyString())).thenAnswer(invocation ->
+                guardados.stream().anyMatch(guardado -> normalizarComoOracle(guardado).equals(invocation.getArgument(0))));
+        RegistroCifInformaBloomImpl registro = this.crearRegistro(0.01);
+        registro.init();
+
+        Assertions.assertTrue(registro.contiene("B12345679"));
+        Assertions.assertTrue(registro.contiene(" b 1234 5679"));
+        Mockito.verify(this.informaMapper, Mockito.times(2)).existeCif("B12345679");
+    }
+
+    @Test
+    void existeCif_shouldCompareNormalizedColumn() {
+        var baseDatos = new JdbcSimulado(0);
+        try (SqlSession sesion = baseDatos.crearSqlSessionFactory(InformaMapper.class).openSession()) {
+            sesion.getMapper(InformaMapper.class).existeCif("B12345679");
+        }
+
+        String sql = baseDatos.getSentencias().get(0);
+        Assertions.assertTrue(sql.contains("WHERE UPPER(TRANSLATE(CIF, 'X .-', 'X')) = ?"), sql);
+    }
+
+    @Test
+    void contiene_shouldQueryDatabase_whenFilterNotLoaded() {
+        Mockito.when(this.informaMapper.contarCifs()).thenThrow(new RuntimeException("sin conexion"));
+        RegistroCifInformaBloomImpl registro = this.crearRegistro(0.01);
+
+        Assertions.assertDoesNotThrow(registro::init);
+        Assertions.assertTrue(registro.contiene("45442L"));
+        Assertions.assertFalse(registro.contiene("99999Z"));
+        Assertions.assertEquals(0, registro.getTamanio());
+    }
+
+    @Test
+    void init_shouldLoadFileAndAddLaterRows_insteadOfReadingWholeTable() {
+        this.crearRegistro(0.01).init();
+        Assertions.assertTrue(Files.exists(this.fichero));
+        Mockito.clearInvocations(this.informaMapper);
+        this.cambiosDesde(20, List.of(this.fila("A00000001", 30)));
+        Mockito.when(this.informaMapper.existeCif("A00000001")).thenReturn(true);
+
+        RegistroCifInformaBloomImpl registro = this.crearRegistro(0.01);
+        registro.init();
+
+        Mockito.verify(this.informaMapper, Mockito.never()).recorrerCifs(any());
+        Assertions.assertTrue(registro.contiene("45442L"));
+        Assertions.assertTrue(registro.contiene("A00000001"));
+        Assertions.assertEquals(3, registro.getTamanio());
+    }
+
+    @Test
+    void init_shouldRebuild_whenFileHasOtherFalsePositiveRate() {
+        this.crearRegistro(0.01).init();
+        Mockito.clearInvocations(this.informaMapper);
+
+        this.crearRegistro(0.001).init();
+
+        Mockito.verify(this.informaMapper).recorrerCifs(any());
+    }
+
+    @Test
+    void init_shouldRebuild_whenFileIsCorrupt() throws Exception {
+        Files.write(this.fichero, new byte[]{1, 2, 3});
+
+        RegistroCifInformaBloomImpl registro = this.crearRegistro(0.01);
+        registro.init();
+
+        Mockito.verify(this.informaMapper).recorrerCifs(any());
+        Assertions.assertEquals(2, registro.getTamanio());
+    }
+
+    @Test
+    void refrescar_shouldRebuildFromScratch_everyConfiguredRefreshes() {
+        RegistroCifInformaBloomImpl registro = this.crearRegistro(0.01);
+        registro.init();
+        this.cambiosDesde(20, List.of());
+        this.tablaCompleta(List.of(this.fila("B12345678", 20)));
+
+        registro.refrescar();
+        Assertions.assertEquals(2, registro.getTamanio());
+        registro.refrescar();
+
+        Assertions.assertEquals(1, registro.getTamanio());
+    }
+
+    /**
+     * Lo que hace InformaMapper.CIF_NORMALIZADO con el valor de la columna
+     */
+    private static String normalizarComoOracle(String columna) {
+        return columna.replace(" ", "").replace(".", "").replace("-", "").toUpperCase(Locale.ROOT);
+    }
+
+    private RegistroCifInformaBloomImpl crearRegistro(double probabilidadFalsoPositivo) {
+        return new RegistroCifInformaBloomImpl(this.informaMapper, probabilidadFalsoPositivo, this.fichero.toString(), 2);
+    }
+
+    private CifInforma fila(String cif, long scn) {
+        CifInforma fila = new CifInforma();
+        fila.setCif(cif);
+        fila.setScn(scn);
+        return fila;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void tablaCompleta(List<CifInforma> filas) {
+        Mockito.when(this.informaMapper.contarCifs()).thenReturn(filas.size());
+        Mockito.doAnswer(invocation -> {
+            this.entregar(filas, invocation.getArgument(0));
+            return null;
+        }).when(this.informaMapper).recorrerCifs(any(ResultHandler.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void cambiosDesde(long scn, List<CifInforma> filas) {
+        Mockito.doAnswer(invocation -> {
+            this.entregar(filas, invocation.getArgument(1));
+            return null;
+        }).when(this.informaMapper).recorrerCifsDesde(eq(scn), any(ResultHandler.class));
+    }
+
+    private void entregar(List<CifInforma> filas, ResultHandler<CifInforma> handler) {
+        DefaultResultContext<CifInforma> contexto = new DefaultResultContext<>();
+        for (CifInforma fila : filas) {
+            contexto.nextResultObject(fila);
+            handler.handleResult(contexto);
+        }
+    }
+}
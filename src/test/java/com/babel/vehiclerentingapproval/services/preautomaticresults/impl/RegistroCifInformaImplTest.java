@@ -0,0 +1,120 @@
+package com.babel.vehiclerentingapproval.services.preautomaticresults.impl;
+
+import com.babel.vehiclerentingapproval.models.CifInforma;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.InformaMapper;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+class RegistroCifInformaImplTest {
+    private InformaMapper informaMapper;
+    private RegistroCifInformaImpl registro;
+
+    @BeforeEach
+    void setUp() {
+        this.informaMapper = Mockito.mock(InformaMapper.class);
+        this.registro = new RegistroCifInformaImpl(this.informaMapper, 3);
+    }
+
+    @Test
+    void init_shouldLoadWholeTable() {
+        this.tablaCompleta(List.of(this.fila("45442L", 10), this.fila("B12345678", 20)));
+
+        this.registro.init();
+
+        Assertions.assertEquals(2, this.registro.getTamanio());
+        Assertions.assertTrue(this.registro.contiene("45442L"));
+        Assertions.assertTrue(this.registro.contiene("b-12345678"));
+        Assertions.assertFalse(this.registro.contiene("99999Z"));
+    }
+
+    @Test
+    void init_shouldNotFail_whenDatabaseIsDown() {
+        Mockito.when(this.informaMapper.contarCifs()).thenThrow(new RuntimeException("sin conexion"));
+
+        Assertions.assertDoesNotThrow(() -> this.registro.init());
+        Assertions.assertEquals(0, this.registro.getTamanio());
+        Assertions.assertFalse(this.registro.contiene("45442L"));
+    }
+
+    @Test
+    void refrescar_shouldAddRowsChangedAfterLastScn() {
+        this.tablaCompleta(List.of(this.fila("45442L", 10), this.fila("B12345678", 20)));
+        this.registro.init();
+        this.cambiosDesde(20, List.of(this.fila("A00000001", 25)));
+        this.cambiosDesde(25, List.of());
+
+        this.registro.refrescar();
+        this.registro.refrescar();
+
+        Assertions.assertTrue(this.registro.contiene("A00000001"));
+        Assertions.assertEquals(3, this.registro.getTamanio());
+        Mockito.verify(this.informaMapper, Mockito.times(1)).recorrerCifs(any());
+    }
+
+    @Test
+    void refrescar_shouldReloadWholeTable_everyConfiguredRefreshes() {
+        this.tablaCompleta(List.of(this.fila("45442L", 10), this.fila("B12345678", 20)));
+        this.registro.init();
+        this.cambiosDesde(20, List.of());
+        this.tablaCompleta(List.of(this.fila("B12345678", 20)));
+
+        this.registro.refrescar();
+        this.registro.refrescar();
+        Assertions.assertTrue(this.registro.contiene("45442L"));
+        this.registro.refrescar();
+
+        Assertions.assertFalse(this.registro.contiene("45442L"));
+        Assertions.assertEquals(1, this.registro.getTamanio());
+    }
+
+    @Test
+    void refrescar_shouldLoadWholeTable_whenNotLoadedYet() {
+        this.tablaCompleta(List.of(this.fila("45442L", 10)));
+
+        this.registro.refrescar();
+
+        Assertions.assertTrue(this.registro.contiene("45442L"));
+        Mockito.verify(this.informaMapper, Mockito.never()).recorrerCifsDesde(Mockito.anyLong(), any());
+    }
+
+    private CifInforma fila(String cif, long scn) {
+        CifInforma fila = new CifInforma();
+        fila.setCif(cif);
+        fila.setScn(scn);
+        return fila;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void tablaCompleta(List<CifInforma> filas) {
+        Mockito.when(this.informaMapper.contarCifs()).thenReturn(filas.size());
+        Mockito.doAnswer(invocation -> {
+            this.entregar(filas, invocation.getArgument(0));
+            return null;
+        }).when(this.informaMapper).recorrerCifs(any(ResultHandler.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void cambiosDesde(long scn, List<CifInforma> filas) {
+        Mockito.doAnswer(invocation -> {
+            this.entregar(filas, invocation.getArgument(1));
+            return null;
+        }).when(this.informaMapper).recorrerCifsDesde(eq(scn), any(ResultHandler.class));
+    }
+
+    private void entregar(List<CifInforma> filas, ResultHandler<CifInforma> handler) {
+        DefaultResultContext<CifInforma> contexto = new DefaultResultContext<>();
+        for (CifInforma fila : filas) {
+            contexto.nextResultObject(fila);
+            handler.handleResult(contexto);
+        }
+    }
+}
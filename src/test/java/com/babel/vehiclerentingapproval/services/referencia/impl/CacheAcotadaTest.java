@@ -0,0 +1,76 @@
+package com.babel.vehiclerentingapproval.services.referencia.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class CacheAcotadaTest {
+    private final AtomicLong reloj = new AtomicLong();
+    private final AtomicInteger cargas = new AtomicInteger();
+
+    @Test
+    void obtener_shouldLoadOnlyOnce_whileEntryIsFresh() {
+        CacheAcotada<String, String> cache = new CacheAcotada<>("PAIS", 1000, 10, reloj::get);
+
+        Assertions.assertEquals("ES!", cache.obtener("ES", this::cargar));
+        Assertions.assertEquals("ES!", cache.obtener("ES", this::cargar));
+
+        Assertions.assertEquals(1, cargas.get());
+        Assertions.assertEquals(1, cache.estadisticas().getAciertos());
+        Assertions.assertEquals(1, cache.estadisticas().getFallos());
+    }
+
+    @Test
+    void obtener_shouldReload_whenEntryExpired() {
+        CacheAcotada<String, String> cache = new CacheAcotada<>("PAIS", 1000, 10, reloj::get);
+        cache.obtener("ES", this::cargar);
+
+        reloj.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        cache.obtener("ES", this::cargar);
+
+        Assertions.assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void obtener_shouldNotCacheNulls() {
+        CacheAcotada<String, String> cache = new CacheAcotada<>("PAIS", 1000, 10, reloj::get);
+
+        Assertions.assertNull(cache.obtener("XX", clave -> null));
+        Assertions.assertEquals("XX!", cache.obtener("XX", this::cargar));
+        Assertions.assertEquals(1, cache.getTamanio());
+    }
+
+    @Test
+    void poner_shouldEvictLeastRecentlyUsed_whenFull() {
+        CacheAcotada<String, String> cache = new CacheAcotada<>("PAIS", 1000, 2, reloj::get);
+        cache.poner("ES", "ES!");
+        cache.poner("FR", "FR!");
+        cache.obtener("ES", this::cargar);
+
+        cache.poner("PT", "PT!");
+
+        Assertions.assertEquals(2, cache.getTamanio());
+        cache.obtener("ES", this::cargar);
+        cache.obtener("FR", this::cargar);
+        Assertions.assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void vaciar_shouldForceReload() {
+        CacheAcotada<String, String> cache = new CacheAcotada<>("PAIS", 1000, 10, reloj::get);
+        cache.obtener("ES", this::cargar);
+
+        cache.vaciar();
+        cache.obtener("ES", this::cargar);
+
+        Assertions.assertEquals(2, cargas.get());
+    }
+
+    private String cargar(String clave) {
+        cargas.incrementAndGet();
+        return clave + "!";
+    }
+}
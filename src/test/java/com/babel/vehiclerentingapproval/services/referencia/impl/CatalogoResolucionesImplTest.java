@@ -0,0 +1,77 @@
+package com.babel.vehiclerentingapproval.services.referencia.impl;
+
+import com.babel.vehiclerentingapproval.models.ResolucionSolicitud;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.ResolucionSolicitudesMapper;
+import com.babel.vehiclerentingapproval.services.referencia.VersionCatalogoResoluciones;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+class CatalogoResolucionesImplTest {
+    private ResolucionSolicitudesMapper resolucionSolicitudesMapper;
+    private CatalogoResolucionesImpl catalogo;
+
+    @BeforeEach
+    void setUp() {
+        this.resolucionSolicitudesMapper = Mockito.mock(ResolucionSolicitudesMapper.class);
+        Mockito.when(this.resolucionSolicitudesMapper.getTipoResolucionesSolicitudes()).thenReturn(List.of(
+                new ResolucionSolicitud("AA", "Aprobada"), new ResolucionSolicitud("DA", "Denegada"),
+                new ResolucionSolicitud("PEND", "Pendiente")));
+        this.catalogo = new CatalogoResolucionesImpl(this.resolucionSolicitudesMapper);
+        this.catalogo.init();
+    }
+
+    @Test
+    void esValido_shouldResolveInMemory() {
+        Assertions.assertTrue(this.catalogo.esValido("AA"));
+        Assertions.assertTrue(this.catalogo.esValido("PEND"));
+        Assertions.assertFalse(this.catalogo.esValido("ZZ"));
+        Assertions.assertFalse(this.catalogo.esValido("aa"));
+        Assertions.assertFalse(this.catalogo.esValido(null));
+        Assertions.assertEquals("Denegada", this.catalogo.getDescripcion("DA"));
+        Mockito.verify(this.resolucionSolicitudesMapper, Mockito.times(1)).getTipoResolucionesSolicitudes();
+    }
+
+    @Test
+    void recargar_shouldKeepVersion_whenNothingChanged() {
+        VersionCatalogoResoluciones anterior = this.catalogo.getActual();
+
+        Assertions.assertFalse(this.catalogo.recargar());
+
+        Assertions.assertSame(anterior, this.catalogo.getActual());
+    }
+
+    @Test
+    void recargar_shouldPublishNewVersion_whenTableChanged() {
+        VersionCatalogoResoluciones anterior = this.catalogo.getActual();
+        Mockito.when(this.resolucionSolicitudesMapper.getTipoResolucionesSolicitudes()).thenReturn(List.of(
+                new ResolucionSolicitud("AA", "Aprobada"), new ResolucionSolicitud("AG", "Aprobada con garantias")));
+
+        Assertions.assertTrue(this.catalogo.recargar());
+
+        Assertions.assertEquals(anterior.getVersion() + 1, this.catalogo.getActual().getVersion());
+        Assertions.assertNotEquals(anterior.getEtag(), this.catalogo.getActual().getEtag());
+        Assertions.assertTrue(this.catalogo.esValido("AG"));
+        Assertions.assertFalse(this.catalogo.esValido("DA"));
+        Assertions.assertTrue(anterior.contiene("DA"));
+    }
+
+    @Test
+    void etag_shouldDependOnlyOnContent() {
+        var otraInstancia = new VersionCatalogoResoluciones(7, this.catalogo.getActual().getResoluciones());
+
+        Assertions.assertEquals(this.catalogo.getActual().getEtag(), otraInstancia.getEtag());
+    }
+
+    @Test
+    void init_shouldNotFail_whenDatabaseIsDown() {
+        Mockito.when(this.resolucionSolicitudesMapper.getTipoResolucionesSolicitudes()).thenThrow(new RuntimeException("sin conexion"));
+        var vacio = new CatalogoResolucionesImpl(this.resolucionSolicitudesMapper);
+
+        Assertions.assertDoesNotThrow(vacio::init);
+        Assertions.assertFalse(vacio.esValido("AA"));
+    }
+}
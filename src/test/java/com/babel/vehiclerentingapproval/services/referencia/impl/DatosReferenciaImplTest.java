@@ -0,0 +1,85 @@
+package com.babel.vehiclerentingapproval.services.referencia.impl;
+
+import com.babel.vehiclerentingapproval.models.Pais;
+import com.babel.vehiclerentingapproval.models.Provincia;
+import com.babel.vehiclerentingapproval.models.TipoVia;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.PaisMapper;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.ProvinciaMapper;
+import com.babel.vehiclerentingapproval.persistance.database.mappers.TipoViaMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+
+class DatosReferenciaImplTest {
+    private PaisMapper paisMapper;
+    private ProvinciaMapper provinciaMapper;
+    private TipoViaMapper tipoViaMapper;
+    private DatosReferenciaImpl datosReferencia;
+
+    @BeforeEach
+    void setUp() {
+        this.paisMapper = Mockito.mock(PaisMapper.class);
+        this.provinciaMapper = Mockito.mock(ProvinciaMapper.class);
+        this.tipoViaMapper = Mockito.mock(TipoViaMapper.class);
+        Mockito.when(this.paisMapper.listarPaises()).thenReturn(List.of(new Pais("ES", 724, "ESP", "ESPAÑA", 1)));
+        Mockito.when(this.provinciaMapper.listarProvincias()).thenReturn(List.of(new Provincia("28", "MADRID")));
+        Mockito.when(this.tipoViaMapper.listarTiposVia()).thenReturn(List.of(new TipoVia(1, "CALLE")));
+        this.datosReferencia = new DatosReferenciaImpl(this.paisMapper, this.provinciaMapper, this.tipoViaMapper, 60000, 100);
+    }
+
+    @Test
+    void init_shouldWarmCaches_soLookupsDoNotQueryDatabase() {
+        this.datosReferencia.init();
+
+        Assertions.assertEquals("ESPAÑA", this.datosReferencia.getPais("ES").getNombre());
+        Assertions.assertEquals("MADRID", this.datosReferencia.getProvincia("28").getNombre());
+        Assertions.assertEquals("CALLE", this.datosReferencia.getTipoVia(1).getDescripcion());
+        Mockito.verify(this.paisMapper, Mockito.never()).getPais(anyString());
+        Mockito.verify(this.provinciaMapper, Mockito.never()).getProvincia(anyString());
+        Mockito.verify(this.tipoViaMapper, Mockito.never()).getTipoVia(anyInt());
+    }
+
+    @Test
+    void getPais_shouldReadThrough_whenNotCached() {
+        Mockito.when(this.paisMapper.getPais("FR")).thenReturn(new Pais("FR", 250, "FRA", "FRANCIA", 2));
+
+        this.datosReferencia.getPais("FR");
+        Pais pais = this.datosReferencia.getPais("FR");
+
+        Assertions.assertEquals("FRANCIA", pais.getNombre());
+        Mockito.verify(this.paisMapper, Mockito.times(1)).getPais("FR");
+    }
+
+    @Test
+    void getPais_shouldReturnCopies() {
+        this.datosReferencia.init();
+
+        this.datosReferencia.getPais("ES").setNombre("OTRO");
+
+        Assertions.assertEquals("ESPAÑA", this.datosReferencia.getPais("ES").getNombre());
+    }
+
+    @Test
+    void init_shouldNotFail_whenDatabaseIsDown() {
+        Mockito.when(this.paisMapper.listarPaises()).thenThrow(new RuntimeException("sin conexion"));
+
+        Assertions.assertDoesNotThrow(() -> this.datosReferencia.init());
+    }
+
+    @Test
+    void invalidar_shouldReloadChangedRows() {
+        this.datosReferencia.init();
+        Mockito.when(this.provinciaMapper.listarProvincias()).thenReturn(List.of(new Provincia("28", "COMUNIDAD DE MADRID")));
+
+        this.datosReferencia.invalidar();
+
+        Assertions.assertEquals("COMUNIDAD DE MADRID", this.datosReferencia.getProvincia("28").getNombre());
+        Assertions.assertEquals(1, this.datosReferencia.getEstadisticas().get(1).getTamanio());
+    }
+}